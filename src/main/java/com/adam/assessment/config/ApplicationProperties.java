@@ -1,6 +1,8 @@
 package com.adam.assessment.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Notes App.
@@ -13,12 +15,102 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Search search = new Search();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Summary summary = new Summary();
+
+    private final ContentCompression contentCompression = new ContentCompression();
+
+    private final Changes changes = new Changes();
+
+    private final Stream stream = new Stream();
+
+    private final TagIndex tagIndex = new TagIndex();
+
+    private final TagSuggest tagSuggest = new TagSuggest();
+
+    private final NoteImport noteImport = new NoteImport();
+
+    private final Attachments attachments = new Attachments();
+
+    private final Rendering rendering = new Rendering();
+
+    private final Similarity similarity = new Similarity();
+
+    private final VectorIndex vectorIndex = new VectorIndex();
+
+    private final Revisions revisions = new Revisions();
+
+    private final Autosave autosave = new Autosave();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Search getSearch() {
+        return search;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Summary getSummary() {
+        return summary;
+    }
+
+    public ContentCompression getContentCompression() {
+        return contentCompression;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public TagIndex getTagIndex() {
+        return tagIndex;
+    }
+
+    public TagSuggest getTagSuggest() {
+        return tagSuggest;
+    }
+
+    public NoteImport getNoteImport() {
+        return noteImport;
+    }
+
+    public Attachments getAttachments() {
+        return attachments;
+    }
+
+    public Rendering getRendering() {
+        return rendering;
+    }
+
+    public Similarity getSimilarity() {
+        return similarity;
+    }
+
+    public VectorIndex getVectorIndex() {
+        return vectorIndex;
+    }
+
+    public Revisions getRevisions() {
+        return revisions;
+    }
+
+    public Autosave getAutosave() {
+        return autosave;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +125,564 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Search {
+
+        private boolean rebuildOnStartup = true;
+
+        private int titleBoost = 2;
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+
+        public int getTitleBoost() {
+            return titleBoost;
+        }
+
+        public void setTitleBoost(int titleBoost) {
+            this.titleBoost = titleBoost;
+        }
+    }
+
+    public static class Bulk {
+
+        private int maxOperations = 10000;
+
+        private int chunkSize = 500;
+
+        public int getMaxOperations() {
+            return maxOperations;
+        }
+
+        public void setMaxOperations(int maxOperations) {
+            this.maxOperations = maxOperations;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Summary {
+
+        private int snippetLength = 200;
+
+        public int getSnippetLength() {
+            return snippetLength;
+        }
+
+        public void setSnippetLength(int snippetLength) {
+            this.snippetLength = snippetLength;
+        }
+    }
+
+    public static class ContentCompression {
+
+        private boolean enabled = true;
+
+        private int minLength = 2048;
+
+        private int level = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinLength() {
+            return minLength;
+        }
+
+        public void setMinLength(int minLength) {
+            this.minLength = minLength;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public void setLevel(int level) {
+            this.level = level;
+        }
+    }
+
+    public static class Changes {
+
+        private int defaultLimit = 100;
+
+        private int maxLimit = 1000;
+
+        private Duration tombstoneRetention = Duration.ofDays(30);
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getTombstoneRetention() {
+            return tombstoneRetention;
+        }
+
+        public void setTombstoneRetention(Duration tombstoneRetention) {
+            this.tombstoneRetention = tombstoneRetention;
+        }
+    }
+
+    public static class Stream {
+
+        private int bufferSize = 256;
+
+        private int maxSubscribers = 10000;
+
+        private int dispatchThreads = 4;
+
+        private Duration timeout = Duration.ofMinutes(30);
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+
+        public void setMaxSubscribers(int maxSubscribers) {
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public int getDispatchThreads() {
+            return dispatchThreads;
+        }
+
+        public void setDispatchThreads(int dispatchThreads) {
+            this.dispatchThreads = dispatchThreads;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class TagIndex {
+
+        private boolean rebuildOnStartup = true;
+
+        private int defaultFacetLimit = 100;
+
+        private int maxFacetLimit = 1000;
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+
+        public int getDefaultFacetLimit() {
+            return defaultFacetLimit;
+        }
+
+        public void setDefaultFacetLimit(int defaultFacetLimit) {
+            this.defaultFacetLimit = defaultFacetLimit;
+        }
+
+        public int getMaxFacetLimit() {
+            return maxFacetLimit;
+        }
+
+        public void setMaxFacetLimit(int maxFacetLimit) {
+            this.maxFacetLimit = maxFacetLimit;
+        }
+    }
+
+    public static class TagSuggest {
+
+        private int defaultLimit = 10;
+
+        private int maxLimit = 50;
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    public static class NoteImport {
+
+        private int threads = 1;
+
+        private int maxJobs = 4;
+
+        private int retainedJobs = 20;
+
+        private int batchSize = 500;
+
+        private int maxNoteLength = 1_000_000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getMaxJobs() {
+            return maxJobs;
+        }
+
+        public void setMaxJobs(int maxJobs) {
+            this.maxJobs = maxJobs;
+        }
+
+        public int getRetainedJobs() {
+            return retainedJobs;
+        }
+
+        public void setRetainedJobs(int retainedJobs) {
+            this.retainedJobs = retainedJobs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxNoteLength() {
+            return maxNoteLength;
+        }
+
+        public void setMaxNoteLength(int maxNoteLength) {
+            this.maxNoteLength = maxNoteLength;
+        }
+    }
+
+    public static class Attachments {
+
+        private String directory = "data/attachments";
+
+        private Duration orphanRetention = Duration.ofHours(1);
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getOrphanRetention() {
+            return orphanRetention;
+        }
+
+        public void setOrphanRetention(Duration orphanRetention) {
+            this.orphanRetention = orphanRetention;
+        }
+    }
+
+    public static class Rendering {
+
+        private DataSize cacheSize = DataSize.ofMegabytes(32);
+
+        private int maxCachedLength = 64 * 1024;
+
+        public DataSize getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(DataSize cacheSize) {
+            // the smallest off-heap tier Ehcache accepts
+            if (cacheSize.toMegabytes() < 1) {
+                throw new IllegalArgumentException("The rendered content cache size must be at least 1MB, was " + cacheSize);
+            }
+            this.cacheSize = cacheSize;
+        }
+
+        public int getMaxCachedLength() {
+            return maxCachedLength;
+        }
+
+        public void setMaxCachedLength(int maxCachedLength) {
+            this.maxCachedLength = maxCachedLength;
+        }
+    }
+
+    public static class Similarity {
+
+        private boolean rebuildOnStartup = true;
+
+        private int rebuildThreads = 0;
+
+        private int bands = 16;
+
+        private int rows = 4;
+
+        private int shingleSize = 3;
+
+        private double defaultThreshold = 0.8;
+
+        private int defaultLimit = 10;
+
+        private int maxLimit = 100;
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+
+        public int getRebuildThreads() {
+            return rebuildThreads;
+        }
+
+        public void setRebuildThreads(int rebuildThreads) {
+            this.rebuildThreads = rebuildThreads;
+        }
+
+        public int getBands() {
+            return bands;
+        }
+
+        public void setBands(int bands) {
+            this.bands = bands;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public void setRows(int rows) {
+            this.rows = rows;
+        }
+
+        public int getShingleSize() {
+            return shingleSize;
+        }
+
+        public void setShingleSize(int shingleSize) {
+            this.shingleSize = shingleSize;
+        }
+
+        public double getDefaultThreshold() {
+            return defaultThreshold;
+        }
+
+        public void setDefaultThreshold(double defaultThreshold) {
+            this.defaultThreshold = defaultThreshold;
+        }
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    public static class VectorIndex {
+
+        private boolean rebuildOnStartup = true;
+
+        private int rebuildThreads = 0;
+
+        private String directory;
+
+        private int dimensions = 256;
+
+        private int links = 16;
+
+        private int efConstruction = 100;
+
+        private int efSearch = 64;
+
+        private int defaultLimit = 10;
+
+        private int maxLimit = 100;
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+
+        public int getRebuildThreads() {
+            return rebuildThreads;
+        }
+
+        public void setRebuildThreads(int rebuildThreads) {
+            this.rebuildThreads = rebuildThreads;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getDimensions() {
+            return dimensions;
+        }
+
+        public void setDimensions(int dimensions) {
+            this.dimensions = dimensions;
+        }
+
+        public int getLinks() {
+            return links;
+        }
+
+        public void setLinks(int links) {
+            this.links = links;
+        }
+
+        public int getEfConstruction() {
+            return efConstruction;
+        }
+
+        public void setEfConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    public static class Revisions {
+
+        private int snapshotInterval = 20;
+
+        public int getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(int snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+    }
+
+    public static class Autosave {
+
+        private Duration idleDelay = Duration.ofSeconds(2);
+
+        private Duration maxDelay = Duration.ofSeconds(10);
+
+        private int maxPending = 10000;
+
+        private int flushThreads = 2;
+
+        public Duration getIdleDelay() {
+            return idleDelay;
+        }
+
+        public void setIdleDelay(Duration idleDelay) {
+            this.idleDelay = idleDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+
+        public int getFlushThreads() {
+            return flushThreads;
+        }
+
+        public void setFlushThreads(int flushThreads) {
+            this.flushThreads = flushThreads;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
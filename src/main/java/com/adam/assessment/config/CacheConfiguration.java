@@ -2,6 +2,7 @@ package com.adam.assessment.config;
 
 import java.time.Duration;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,8 +23,9 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> renderedContentConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
         jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
@@ -35,6 +37,17 @@ public class CacheConfiguration {
                 .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
                 .build()
         );
+
+        // renders are keyed by the digest of the content they were made from, so they never expire; they are held off-heap,
+        // where the cache is bounded by their size in bytes rather than by their number
+        renderedContentConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                Object.class,
+                Object.class,
+                ResourcePoolsBuilder.newResourcePoolsBuilder()
+                    .offheap(applicationProperties.getRendering().getCacheSize().toKilobytes(), MemoryUnit.KB)
+            ).build()
+        );
     }
 
     @Bean
@@ -53,17 +66,25 @@ public class CacheConfiguration {
             createCache(cm, com.adam.assessment.domain.Note.class.getName());
             createCache(cm, com.adam.assessment.domain.Note.class.getName() + ".tags");
             createCache(cm, com.adam.assessment.domain.Tag.class.getName());
-            createCache(cm, com.adam.assessment.domain.Tag.class.getName() + ".notes");
+            createCache(cm, com.adam.assessment.service.NoteRenderService.RENDERED_CONTENT_CACHE, renderedContentConfiguration);
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
         }
     }
 
@@ -0,0 +1,95 @@
+package com.adam.assessment.config;
+
+import com.adam.assessment.domain.NoteContentCodec;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Liquibase change moving the existing long note contents to the {@code deflated_content} column.
+ * <p>
+ * Notes are read by ascending id in batches, so the change never holds more than one batch of contents in memory.
+ */
+public class NoteContentDeflateChange implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private int minLength = 2048;
+
+    private int level = 1;
+
+    private int deflatedCount;
+
+    public void setMinLength(String minLength) {
+        this.minLength = Integer.parseInt(minLength);
+    }
+
+    public void setLevel(String level) {
+        this.level = Integer.parseInt(level);
+    }
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (
+            PreparedStatement select = connection.prepareStatement(
+                "select id, content from note where id > ? and deflated_content is null and length(content) >= ? order by id fetch first " +
+                BATCH_SIZE +
+                " rows only"
+            );
+            PreparedStatement update = connection.prepareStatement("update note set content = null, deflated_content = ? where id = ?")
+        ) {
+            long lastId = Long.MIN_VALUE;
+            int selected;
+            do {
+                select.setLong(1, lastId);
+                select.setInt(2, minLength);
+                selected = 0;
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        selected++;
+                        lastId = rows.getLong(1);
+                        String content = rows.getString(2);
+                        byte[] deflated = NoteContentCodec.deflate(content, level);
+                        if (deflated.length < content.length()) {
+                            update.setBytes(1, deflated);
+                            update.setLong(2, lastId);
+                            update.addBatch();
+                            deflatedCount++;
+                        }
+                    }
+                }
+                update.executeBatch();
+            } while (selected == BATCH_SIZE);
+        } catch (SQLException | DatabaseException e) {
+            throw new CustomChangeException(e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Deflated the content of " + deflatedCount + " notes";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resource needed
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
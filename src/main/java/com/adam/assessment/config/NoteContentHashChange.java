@@ -0,0 +1,81 @@
+package com.adam.assessment.config;
+
+import com.adam.assessment.domain.NoteContentCodec;
+import com.adam.assessment.domain.NoteContentHash;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Liquibase change filling the {@code content_hash} column of the existing notes.
+ * <p>
+ * Notes are read by ascending id in batches, so the change never holds more than one batch of contents in memory.
+ */
+public class NoteContentHashChange implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private int hashedCount;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (
+            PreparedStatement select = connection.prepareStatement(
+                "select id, content, deflated_content from note where id > ? order by id fetch first " + BATCH_SIZE + " rows only"
+            );
+            PreparedStatement update = connection.prepareStatement("update note set content_hash = ? where id = ?")
+        ) {
+            long lastId = Long.MIN_VALUE;
+            int selected;
+            do {
+                select.setLong(1, lastId);
+                selected = 0;
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        selected++;
+                        lastId = rows.getLong(1);
+                        byte[] deflated = rows.getBytes(3);
+                        String hash = NoteContentHash.of(deflated != null ? NoteContentCodec.inflate(deflated) : rows.getString(2));
+                        if (hash != null) {
+                            update.setString(1, hash);
+                            update.setLong(2, lastId);
+                            update.addBatch();
+                            hashedCount++;
+                        }
+                    }
+                }
+                update.executeBatch();
+            } while (selected == BATCH_SIZE);
+        } catch (SQLException | DatabaseException e) {
+            throw new CustomChangeException(e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Hashed the content of " + hashedCount + " notes";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resource needed
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
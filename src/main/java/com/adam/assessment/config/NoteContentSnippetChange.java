@@ -0,0 +1,90 @@
+package com.adam.assessment.config;
+
+import com.adam.assessment.domain.NoteContentCodec;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Liquibase change filling the {@code content_snippet} column of the existing notes.
+ * <p>
+ * Notes are read by ascending id in batches, so the change never holds more than one batch of contents in memory; plain
+ * contents are cut by the database, and compressed ones are only inflated up to the length of the snippet.
+ */
+public class NoteContentSnippetChange implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private int length = 200;
+
+    private int snippedCount;
+
+    public void setLength(String length) {
+        this.length = Integer.parseInt(length);
+    }
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (
+            PreparedStatement select = connection.prepareStatement(
+                "select id, substring(content, 1, ?), deflated_content from note where id > ? order by id fetch first " +
+                BATCH_SIZE +
+                " rows only"
+            );
+            PreparedStatement update = connection.prepareStatement("update note set content_snippet = ? where id = ?")
+        ) {
+            long lastId = Long.MIN_VALUE;
+            int selected;
+            do {
+                select.setInt(1, length);
+                select.setLong(2, lastId);
+                selected = 0;
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        selected++;
+                        lastId = rows.getLong(1);
+                        byte[] deflated = rows.getBytes(3);
+                        String snippet = deflated != null ? NoteContentCodec.inflate(deflated, length) : rows.getString(2);
+                        if (snippet != null) {
+                            update.setString(1, snippet);
+                            update.setLong(2, lastId);
+                            update.addBatch();
+                            snippedCount++;
+                        }
+                    }
+                }
+                update.executeBatch();
+            } while (selected == BATCH_SIZE);
+        } catch (SQLException | DatabaseException e) {
+            throw new CustomChangeException(e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Cut the snippet of the content of " + snippedCount + " notes";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resource needed
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
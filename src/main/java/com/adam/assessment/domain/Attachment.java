@@ -0,0 +1,180 @@
+package com.adam.assessment.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * An Attachment.
+ * A file attached to a note. Its content is kept out of the database, in the attachment store, under its SHA-256
+ * digest, so that identical files are stored once.
+ */
+@Entity
+@Table(name = "attachment")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class Attachment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "file_name", length = 255, nullable = false)
+    private String fileName;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "content_type", length = 255, nullable = false)
+    private String contentType;
+
+    @Column(name = "jhi_size", nullable = false)
+    private long size;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Column(name = "sha_256", length = 64, nullable = false)
+    private String sha256;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // deleted with the note by the database, the notes do not map their attachments
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "note_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Note note;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Attachment id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    public Attachment fileName(String fileName) {
+        this.setFileName(fileName);
+        return this;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public Attachment contentType(String contentType) {
+        this.setContentType(contentType);
+        return this;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    public Attachment size(long size) {
+        this.setSize(size);
+        return this;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return this.sha256;
+    }
+
+    public Attachment sha256(String sha256) {
+        this.setSha256(sha256);
+        return this;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public Attachment createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Note getNote() {
+        return this.note;
+    }
+
+    public Attachment note(Note note) {
+        this.setNote(note);
+        return this;
+    }
+
+    public void setNote(Note note) {
+        this.note = note;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Attachment)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((Attachment) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Attachment{" +
+            "id=" + getId() +
+            ", fileName='" + getFileName() + "'" +
+            ", contentType='" + getContentType() + "'" +
+            ", size=" + getSize() +
+            ", sha256='" + getSha256() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
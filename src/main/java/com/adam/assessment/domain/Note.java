@@ -1,6 +1,5 @@
 package com.adam.assessment.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
@@ -17,11 +16,17 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "note")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(NoteContentListener.class)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Note implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The length of the {@code content_snippet} column.
+     */
+    public static final int MAX_SNIPPET_LENGTH = 1000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
     @SequenceGenerator(name = "sequenceGenerator")
@@ -33,20 +38,54 @@ public class Note implements Serializable {
     @Column(name = "title", length = 255, nullable = false)
     private String title;
 
+    /**
+     * The content, unless it is stored compressed in {@link #deflatedContent}.
+     */
     @Lob
     @Column(name = "content")
     private String content;
 
+    /**
+     * The content compressed by {@link NoteContentCodec}, only inflated when it is read.
+     */
+    @Column(name = "deflated_content")
+    private byte[] deflatedContent;
+
+    @Transient
+    private String inflatedContent;
+
+    /**
+     * The leading characters of the content, cut by {@link NoteContentListener} when the content is saved, so that summaries
+     * are listed without reading the content.
+     */
+    @Column(name = "content_snippet", length = MAX_SNIPPET_LENGTH)
+    private String contentSnippet;
+
+    /**
+     * The {@link NoteContentHash} of the content, kept up to date whenever the content is set.
+     */
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+
     @Column(name = "created_at")
     private Instant createdAt;
 
     @Column(name = "last_modified_at")
     private Instant lastModifiedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Position of the last change of the note in the change feed, taken from the {@code note_change_seq} sequence.
+     */
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "rel_note__tag", joinColumns = @JoinColumn(name = "note_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
-    @JsonIgnoreProperties(value = { "notes" }, allowSetters = true)
     private Set<Tag> tags = new HashSet<>();
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -78,7 +117,13 @@ public class Note implements Serializable {
     }
 
     public String getContent() {
-        return this.content;
+        if (this.deflatedContent == null) {
+            return this.content;
+        }
+        if (this.inflatedContent == null) {
+            this.inflatedContent = NoteContentCodec.inflate(this.deflatedContent);
+        }
+        return this.inflatedContent;
     }
 
     public Note content(String content) {
@@ -88,6 +133,50 @@ public class Note implements Serializable {
 
     public void setContent(String content) {
         this.content = content;
+        this.deflatedContent = null;
+        this.inflatedContent = null;
+        this.contentSnippet = null;
+        this.contentHash = NoteContentHash.of(content);
+    }
+
+    public String getContentSnippet() {
+        return this.contentSnippet;
+    }
+
+    /**
+     * Cut the snippet of a content just set, before it is compressed, so that a note saved with its content unchanged is
+     * never inflated for it.
+     *
+     * @param length the number of leading characters of the snippet, at most {@link #MAX_SNIPPET_LENGTH}.
+     */
+    void snipContent(int length) {
+        if (this.contentSnippet != null || this.content == null) {
+            return;
+        }
+        int end = Math.min(length, MAX_SNIPPET_LENGTH);
+        this.contentSnippet = this.content.length() <= end ? this.content : this.content.substring(0, end);
+    }
+
+    public String getContentHash() {
+        return this.contentHash;
+    }
+
+    /**
+     * Move the content to its compressed column if it is long enough and compresses well.
+     *
+     * @param minLength the minimum number of characters of a content to compress.
+     * @param level the deflate compression level.
+     */
+    void deflateContent(int minLength, int level) {
+        if (this.content == null || this.content.length() < minLength) {
+            return;
+        }
+        byte[] deflated = NoteContentCodec.deflate(this.content, level);
+        if (deflated.length < this.content.length()) {
+            this.inflatedContent = this.content;
+            this.deflatedContent = deflated;
+            this.content = null;
+        }
     }
 
     public Instant getCreatedAt() {
@@ -139,6 +228,32 @@ public class Note implements Serializable {
         return this;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public Note version(long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getChangeSeq() {
+        return this.changeSeq;
+    }
+
+    public Note changeSeq(long changeSeq) {
+        this.setChangeSeq(changeSeq);
+        return this;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -165,8 +280,11 @@ public class Note implements Serializable {
             "id=" + getId() +
             ", title='" + getTitle() + "'" +
             ", content='" + getContent() + "'" +
+            ", contentHash='" + getContentHash() + "'" +
             ", createdAt='" + getCreatedAt() + "'" +
             ", lastModifiedAt='" + getLastModifiedAt() + "'" +
+            ", version=" + getVersion() +
+            ", changeSeq=" + getChangeSeq() +
             "}";
     }
 }
@@ -0,0 +1,90 @@
+package com.adam.assessment.domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Deflate codec for the content of {@link Note}s stored compressed.
+ */
+public final class NoteContentCodec {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private NoteContentCodec() {}
+
+    /**
+     * Compress a content.
+     *
+     * @param content the content to compress.
+     * @param level the deflate compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+     * @return the UTF-8 bytes of the content, deflated in the zlib format.
+     */
+    public static byte[] deflate(String content, int level) {
+        byte[] input = content.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 64);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress a content.
+     *
+     * @param deflated the content compressed by {@link #deflate(String, int)}.
+     * @return the content.
+     */
+    public static String inflate(byte[] deflated) {
+        return inflate(deflated, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Decompress the beginning of a content, stopping as soon as enough characters have been decoded.
+     *
+     * @param deflated the content compressed by {@link #deflate(String, int)}.
+     * @param maxLength the maximum number of characters to return.
+     * @return the first {@code maxLength} characters of the content.
+     */
+    public static String inflate(byte[] deflated, int maxLength) {
+        StringBuilder content = new StringBuilder((int) Math.min(maxLength, Math.min(4L * deflated.length, Integer.MAX_VALUE - 8)));
+        char[] buffer = new char[BUFFER_SIZE];
+        try (Reader reader = new InputStreamReader(new InflaterInputStream(new ByteArrayInputStream(deflated)), StandardCharsets.UTF_8)) {
+            while (content.length() < maxLength) {
+                int read = reader.read(buffer, 0, Math.min(buffer.length, maxLength - content.length()));
+                if (read == -1) {
+                    break;
+                }
+                content.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return content.toString();
+    }
+
+    /**
+     * Get the content of a note from its two storage columns.
+     *
+     * @param content the content stored as is, if any.
+     * @param deflated the content stored compressed, if any.
+     * @return the content.
+     */
+    public static String decode(String content, byte[] deflated) {
+        return deflated == null ? content : inflate(deflated);
+    }
+}
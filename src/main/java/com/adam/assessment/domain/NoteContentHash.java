@@ -0,0 +1,94 @@
+package com.adam.assessment.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+/**
+ * Hash of the content of {@link Note}s, used to find notes with identical contents.
+ * <p>
+ * It is the 128-bit MurmurHash3 (x64 variant, seed 0) of the UTF-8 bytes of the content, written as 32 hexadecimal
+ * digits: fast enough to be computed on every write, and wide enough for accidental collisions to be negligible. It is
+ * not cryptographic, so notes are still compared content to content before a match is acted upon.
+ */
+public final class NoteContentHash {
+
+    private static final VarHandle LONG_LITTLE_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private NoteContentHash() {}
+
+    /**
+     * @param content a content.
+     * @return the hash of the content, or {@code null} if there is no content to compare.
+     */
+    public static String of(String content) {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        int length = data.length;
+        long h1 = 0;
+        long h2 = 0;
+
+        int blocks = length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = (long) LONG_LITTLE_ENDIAN.get(data, i * 16);
+            long k2 = (long) LONG_LITTLE_ENDIAN.get(data, i * 16 + 8);
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks * 16;
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = length - 1; i >= tail + 8; i--) {
+            k2 = (k2 << 8) | (data[i] & 0xff);
+        }
+        for (int i = Math.min(length, tail + 8) - 1; i >= tail; i--) {
+            k1 = (k1 << 8) | (data[i] & 0xff);
+        }
+        if (length - tail > 8) {
+            h2 ^= mixK2(k2);
+        }
+        if (length > tail) {
+            h1 ^= mixK1(k1);
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = finalMix(h1);
+        h2 = finalMix(h2);
+        h1 += h2;
+        h2 += h1;
+        return HexFormat.of().toHexDigits(h1) + HexFormat.of().toHexDigits(h2);
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long finalMix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
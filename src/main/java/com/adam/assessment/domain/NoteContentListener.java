@@ -0,0 +1,33 @@
+package com.adam.assessment.domain;
+
+import com.adam.assessment.config.ApplicationProperties;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Entity listener cutting the snippet of the content of {@link Note}s, then storing the content compressed when it is
+ * long enough.
+ * <p>
+ * Instantiated by Hibernate through the Spring bean container, so it can be configured by
+ * {@code application.summary} and {@code application.content-compression}.
+ */
+public class NoteContentListener {
+
+    private final ApplicationProperties.Summary summaryProperties;
+
+    private final ApplicationProperties.ContentCompression properties;
+
+    public NoteContentListener(ApplicationProperties applicationProperties) {
+        this.summaryProperties = applicationProperties.getSummary();
+        this.properties = applicationProperties.getContentCompression();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void storeContent(Note note) {
+        note.snipContent(summaryProperties.getSnippetLength());
+        if (properties.isEnabled()) {
+            note.deflateContent(properties.getMinLength(), properties.getLevel());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.adam.assessment.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Binary delta codec, encoding a content as the changes from a previous version of it.
+ * <p>
+ * A delta holds the length of the content, then instructions each copying a range of the previous version or inserting
+ * literal bytes. The common prefix and suffix of both versions are copied whole, and the bytes changed in between are
+ * matched against blocks of the previous version, found by a rolling hash, so that moved passages are copied too.
+ * Copies are located relative to the end of the previous copy, so that the instructions of a small edit take a few
+ * bytes.
+ */
+public final class NoteDelta {
+
+    private static final int BLOCK_SIZE = 16;
+
+    private static final int HASH_MULTIPLIER = 0x01000193;
+
+    private static final int INSERT = 0;
+
+    private static final int COPY = 1;
+
+    private NoteDelta() {}
+
+    /**
+     * Compute the delta between two versions of a content.
+     *
+     * @param base the previous version.
+     * @param target the new version.
+     * @return the delta, which {@link #apply(byte[], byte[])} turns back into {@code target} given {@code base}.
+     */
+    public static byte[] diff(byte[] base, byte[] target) {
+        Encoder encoder = new Encoder(target);
+        int prefix = Arrays.mismatch(base, target);
+        if (prefix == -1) {
+            encoder.copy(0, target.length);
+            return encoder.toByteArray();
+        }
+        int maxSuffix = Math.min(base.length, target.length) - prefix;
+        int suffix = 0;
+        while (suffix < maxSuffix && base[base.length - 1 - suffix] == target[target.length - 1 - suffix]) {
+            suffix++;
+        }
+        encoder.copy(0, prefix);
+        int end = target.length - suffix;
+        if (end - prefix >= BLOCK_SIZE && base.length >= BLOCK_SIZE) {
+            matchBlocks(base, target, prefix, end, encoder);
+        } else {
+            encoder.literal(prefix, end);
+        }
+        encoder.copy(base.length - suffix, suffix);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Apply a delta to the previous version of a content.
+     *
+     * @param base the previous version.
+     * @param delta the delta computed by {@link #diff(byte[], byte[])} from {@code base}.
+     * @return the new version.
+     * @throws IllegalArgumentException if the delta is corrupt, or was not computed from {@code base}.
+     */
+    public static byte[] apply(byte[] base, byte[] delta) {
+        Decoder decoder = new Decoder(delta);
+        byte[] target = new byte[decoder.readLength()];
+        int position = 0;
+        int copyEnd = 0;
+        while (decoder.hasMore()) {
+            long instruction = decoder.readVarLong();
+            int length = checkedLength(instruction >>> 1, target.length - position);
+            if ((instruction & 1) == COPY) {
+                long offset = copyEnd + unzigzag(decoder.readVarLong());
+                if (offset < 0 || offset + length > base.length) {
+                    throw new IllegalArgumentException("Delta copies outside of its base");
+                }
+                System.arraycopy(base, (int) offset, target, position, length);
+                copyEnd = (int) offset + length;
+            } else {
+                decoder.read(target, position, length);
+            }
+            position += length;
+        }
+        if (position != target.length) {
+            throw new IllegalArgumentException("Delta is truncated");
+        }
+        return target;
+    }
+
+    /**
+     * Encode {@code target[from, to)} as copies of the blocks of {@code base} it contains, extended as far as the bytes
+     * match, and literals in between.
+     */
+    private static void matchBlocks(byte[] base, byte[] target, int from, int to, Encoder encoder) {
+        int blocks = base.length / BLOCK_SIZE;
+        int[] table = new int[Integer.highestOneBit(blocks * 2 - 1) << 1];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        // later blocks overwrite earlier ones, favoring copies near the end of the previous version
+        for (int block = 0; block < blocks; block++) {
+            table[hash(base, block * BLOCK_SIZE) & mask] = block * BLOCK_SIZE;
+        }
+        int power = 1;
+        for (int i = 1; i < BLOCK_SIZE; i++) {
+            power *= HASH_MULTIPLIER;
+        }
+
+        int literalStart = from;
+        int position = from;
+        int hash = hash(target, position);
+        while (position + BLOCK_SIZE <= to) {
+            int candidate = table[hash & mask];
+            if (candidate >= 0 && Arrays.equals(base, candidate, candidate + BLOCK_SIZE, target, position, position + BLOCK_SIZE)) {
+                int start = candidate;
+                int targetStart = position;
+                // extend the match backwards over the pending literal, and forwards as far as the bytes match
+                while (start > 0 && targetStart > literalStart && base[start - 1] == target[targetStart - 1]) {
+                    start--;
+                    targetStart--;
+                }
+                int end = candidate + BLOCK_SIZE;
+                int targetEnd = position + BLOCK_SIZE;
+                while (end < base.length && targetEnd < to && base[end] == target[targetEnd]) {
+                    end++;
+                    targetEnd++;
+                }
+                encoder.literal(literalStart, targetStart);
+                encoder.copy(start, end - start);
+                literalStart = targetEnd;
+                position = targetEnd;
+                if (position + BLOCK_SIZE <= to) {
+                    hash = hash(target, position);
+                }
+            } else {
+                if (position + BLOCK_SIZE < to) {
+                    hash = (hash - target[position] * power) * HASH_MULTIPLIER + target[position + BLOCK_SIZE];
+                }
+                position++;
+            }
+        }
+        encoder.literal(literalStart, to);
+    }
+
+    private static int hash(byte[] bytes, int offset) {
+        int hash = 0;
+        for (int i = offset; i < offset + BLOCK_SIZE; i++) {
+            hash = hash * HASH_MULTIPLIER + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int checkedLength(long length, int remaining) {
+        if (length > remaining) {
+            throw new IllegalArgumentException("Delta overflows its content");
+        }
+        return (int) length;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Encoder {
+
+        private final byte[] target;
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        private int copyEnd;
+
+        Encoder(byte[] target) {
+            this.target = target;
+            writeVarLong(target.length);
+        }
+
+        void copy(int offset, int length) {
+            if (length > 0) {
+                writeVarLong(((long) length << 1) | COPY);
+                long relative = (long) offset - copyEnd;
+                writeVarLong((relative << 1) ^ (relative >> 63));
+                copyEnd = offset + length;
+            }
+        }
+
+        void literal(int from, int to) {
+            if (to > from) {
+                writeVarLong(((long) (to - from) << 1) | INSERT);
+                out.write(target, from, to - from);
+            }
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    private static final class Decoder {
+
+        private final byte[] delta;
+
+        private int position;
+
+        Decoder(byte[] delta) {
+            this.delta = delta;
+        }
+
+        boolean hasMore() {
+            return position < delta.length;
+        }
+
+        int readLength() {
+            long length = readVarLong();
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Delta is too long");
+            }
+            return (int) length;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position == delta.length) {
+                    throw new IllegalArgumentException("Delta is truncated");
+                }
+                byte b = delta[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Delta is corrupt");
+        }
+
+        void read(byte[] target, int offset, int length) {
+            if (length > delta.length - position) {
+                throw new IllegalArgumentException("Delta is truncated");
+            }
+            System.arraycopy(delta, position, target, offset, length);
+            position += length;
+        }
+    }
+}
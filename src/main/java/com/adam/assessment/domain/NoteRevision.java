@@ -0,0 +1,242 @@
+package com.adam.assessment.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * A NoteRevision.
+ * A version of the title and content of a note, recorded whenever they change. The content is stored either whole,
+ * as a snapshot compressed by {@link NoteContentCodec}, or as the {@link NoteDelta} from the previous revision.
+ */
+@Entity
+@Table(name = "note_revision")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NoteRevision implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The number of the revision among those of its note, from 1.
+     */
+    @Column(name = "revision", nullable = false)
+    private int revision;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "title", length = 255, nullable = false)
+    private String title;
+
+    /**
+     * The number of characters of the content.
+     */
+    @Column(name = "content_length", nullable = false)
+    private int contentLength;
+
+    /**
+     * The {@link NoteContentHash} of the content, checked once the content is rebuilt.
+     */
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+
+    @Column(name = "snapshot", nullable = false)
+    private boolean snapshot;
+
+    /**
+     * The number of deltas applied to the previous snapshot to get the content, 0 for a snapshot.
+     */
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    /**
+     * The deflated content of a snapshot, or the delta from the previous revision.
+     */
+    @NotNull
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // deleted with the note by the database, the notes do not map their revisions
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "note_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Note note;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public NoteRevision id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getRevision() {
+        return this.revision;
+    }
+
+    public NoteRevision revision(int revision) {
+        this.setRevision(revision);
+        return this;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public NoteRevision title(String title) {
+        this.setTitle(title);
+        return this;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public int getContentLength() {
+        return this.contentLength;
+    }
+
+    public NoteRevision contentLength(int contentLength) {
+        this.setContentLength(contentLength);
+        return this;
+    }
+
+    public void setContentLength(int contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public String getContentHash() {
+        return this.contentHash;
+    }
+
+    public NoteRevision contentHash(String contentHash) {
+        this.setContentHash(contentHash);
+        return this;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public boolean isSnapshot() {
+        return this.snapshot;
+    }
+
+    public NoteRevision snapshot(boolean snapshot) {
+        this.setSnapshot(snapshot);
+        return this;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public NoteRevision depth(int depth) {
+        this.setDepth(depth);
+        return this;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public byte[] getData() {
+        return this.data;
+    }
+
+    public NoteRevision data(byte[] data) {
+        this.setData(data);
+        return this;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public NoteRevision createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Note getNote() {
+        return this.note;
+    }
+
+    public NoteRevision note(Note note) {
+        this.setNote(note);
+        return this;
+    }
+
+    public void setNote(Note note) {
+        this.note = note;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoteRevision)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((NoteRevision) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteRevision{" +
+            "id=" + getId() +
+            ", revision=" + getRevision() +
+            ", title='" + getTitle() + "'" +
+            ", contentLength=" + getContentLength() +
+            ", contentHash='" + getContentHash() + "'" +
+            ", snapshot='" + isSnapshot() + "'" +
+            ", depth=" + getDepth() +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,125 @@
+package com.adam.assessment.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A NoteTombstone.
+ * Records the deletion of a note in the change feed, until it is purged after the retention period.
+ */
+@Entity
+@Table(name = "note_tombstone")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NoteTombstone implements Serializable, Persistable<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "note_id")
+    private Long noteId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    @org.springframework.data.annotation.Transient
+    @Transient
+    private boolean isPersisted;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getNoteId() {
+        return this.noteId;
+    }
+
+    public NoteTombstone noteId(Long noteId) {
+        this.setNoteId(noteId);
+        return this;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public long getChangeSeq() {
+        return this.changeSeq;
+    }
+
+    public NoteTombstone changeSeq(long changeSeq) {
+        this.setChangeSeq(changeSeq);
+        return this;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public Instant getDeletedAt() {
+        return this.deletedAt;
+    }
+
+    public NoteTombstone deletedAt(Instant deletedAt) {
+        this.setDeletedAt(deletedAt);
+        return this;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Override
+    public Long getId() {
+        return this.noteId;
+    }
+
+    @org.springframework.data.annotation.Transient
+    @Transient
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public NoteTombstone setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoteTombstone)) {
+            return false;
+        }
+        return getNoteId() != null && getNoteId().equals(((NoteTombstone) o).getNoteId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getNoteId());
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteTombstone{" +
+            "noteId=" + getNoteId() +
+            ", changeSeq=" + getChangeSeq() +
+            ", deletedAt='" + getDeletedAt() + "'" +
+            "}";
+    }
+}
@@ -1,11 +1,8 @@
 package com.adam.assessment.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Set;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 
@@ -32,10 +29,12 @@ public class Tag implements Serializable {
     @Column(name = "name", length = 50, nullable = false, unique = true)
     private String name;
 
-    @ManyToMany(fetch = FetchType.LAZY, mappedBy = "tags")
-    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
-    @JsonIgnoreProperties(value = { "tags" }, allowSetters = true)
-    private Set<Note> notes = new HashSet<>();
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // the notes of a tag are not mapped on this side: a popular tag would load, hash and cache all of its notes, when
+    // they are owned by Note.tags and read a page at a time from the join table instead
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
@@ -65,35 +64,17 @@ public class Tag implements Serializable {
         this.name = name;
     }
 
-    public Set<Note> getNotes() {
-        return this.notes;
-    }
-
-    public void setNotes(Set<Note> notes) {
-        if (this.notes != null) {
-            this.notes.forEach(i -> i.removeTag(this));
-        }
-        if (notes != null) {
-            notes.forEach(i -> i.addTag(this));
-        }
-        this.notes = notes;
+    public long getVersion() {
+        return this.version;
     }
 
-    public Tag notes(Set<Note> notes) {
-        this.setNotes(notes);
+    public Tag version(long version) {
+        this.setVersion(version);
         return this;
     }
 
-    public Tag addNote(Note note) {
-        this.notes.add(note);
-        note.getTags().add(this);
-        return this;
-    }
-
-    public Tag removeNote(Note note) {
-        this.notes.remove(note);
-        note.getTags().remove(this);
-        return this;
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
@@ -121,6 +102,7 @@ public class Tag implements Serializable {
         return "Tag{" +
             "id=" + getId() +
             ", name='" + getName() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
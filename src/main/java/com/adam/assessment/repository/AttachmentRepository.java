@@ -0,0 +1,19 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.Attachment;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the Attachment entity.
+ */
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+    List<Attachment> findAllByNoteIdOrderById(Long noteId);
+
+    @Query("select distinct attachment.sha256 from Attachment attachment where attachment.sha256 in :digests")
+    List<String> findReferencedDigests(@Param("digests") Collection<String> digests);
+}
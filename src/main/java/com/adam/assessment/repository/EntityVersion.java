@@ -0,0 +1,10 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of the id and optimistic locking version of an entity.
+ */
+public interface EntityVersion {
+    Long getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,10 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of the id of a {@link com.adam.assessment.domain.Note} with the hash of its content.
+ */
+public interface NoteContentHashId {
+    String getContentHash();
+
+    Long getNoteId();
+}
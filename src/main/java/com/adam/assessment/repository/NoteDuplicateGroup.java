@@ -0,0 +1,10 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of a content hash shared by several {@link com.adam.assessment.domain.Note}s, with the number of them.
+ */
+public interface NoteDuplicateGroup {
+    String getContentHash();
+
+    Long getNoteCount();
+}
@@ -0,0 +1,16 @@
+package com.adam.assessment.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection of the {@link com.adam.assessment.domain.Note} columns that can be read without loading its {@code content}.
+ */
+public interface NoteHeader {
+    Long getId();
+
+    String getTitle();
+
+    Instant getCreatedAt();
+
+    Instant getLastModifiedAt();
+}
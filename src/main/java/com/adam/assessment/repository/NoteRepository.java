@@ -1,11 +1,20 @@
 package com.adam.assessment.repository;
 
 import com.adam.assessment.domain.Note;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,7 +24,13 @@ import org.springframework.stereotype.Repository;
  * For more information refer to https://github.com/jhipster/generator-jhipster/issues/17990.
  */
 @Repository
-public interface NoteRepository extends NoteRepositoryWithBagRelationships, JpaRepository<Note, Long> {
+public interface NoteRepository
+    extends
+        NoteRepositoryWithBagRelationships,
+        NoteRepositoryWithStreaming,
+        NoteRepositoryWithChangeSequence,
+        NoteRepositoryWithTagging,
+        JpaRepository<Note, Long> {
     default Optional<Note> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
     }
@@ -27,4 +42,90 @@ public interface NoteRepository extends NoteRepositoryWithBagRelationships, JpaR
     default Page<Note> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    default Window<Note> findAllWithEagerRelationships(ScrollPosition position, Sort sort, Limit limit) {
+        Window<Note> window = this.findAllBy(position, sort, limit);
+        // the fetched notes are the instances of the window, so their tags get initialized in place
+        this.fetchBagRelationships(window.getContent());
+        return window;
+    }
+
+    Window<Note> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("select note from Note note where note.changeSeq > :since and note.changeSeq < :until order by note.changeSeq")
+    List<Note> findChanges(@Param("since") long since, @Param("until") long until, Limit limit);
+
+    @Query("select coalesce(max(note.changeSeq), 0) from Note note")
+    long findMaxChangeSeq();
+
+    @Query(
+        "select note.id as id, note.title as title, note.createdAt as createdAt, note.lastModifiedAt as lastModifiedAt from Note note where note.id in :ids"
+    )
+    List<NoteHeader> findHeadersByIdIn(@Param("ids") Collection<Long> ids);
+
+    Page<NoteHeader> findHeadersBy(Pageable pageable);
+
+    Page<EntityVersion> findVersionsBy(Pageable pageable);
+
+    @Query("select note.version from Note note where note.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    Window<NoteHeader> findHeadersBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Read the headers of the notes carrying a tag, joining the join table on the owning side only, so that neither the
+     * tag nor its other notes are loaded.
+     */
+    Page<NoteHeader> findHeadersByTagsId(Long tagId, Pageable pageable);
+
+    Window<NoteHeader> findHeadersByTagsId(Long tagId, ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("select note.id as id, note.contentSnippet as snippet from Note note where note.id in :ids")
+    List<NoteSnippet> findSnippetsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Read the tag ids of notes straight from the join table, without touching the notes or the tags.
+     */
+    @Query(value = "select note_id as noteId, tag_id as tagId from rel_note__tag where note_id in :ids", nativeQuery = true)
+    List<NoteTagId> findTagIdsByNoteIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Read the content hashes shared by several notes, the most shared first, grouping on the index of the hashes.
+     */
+    @Query(
+        value = "select content_hash as contentHash, count(*) as noteCount from note where content_hash is not null " +
+        "group by content_hash having count(*) > 1 order by count(*) desc, content_hash",
+        countQuery = "select count(*) from (select content_hash from note where content_hash is not null " +
+        "group by content_hash having count(*) > 1) duplicate",
+        nativeQuery = true
+    )
+    Page<NoteDuplicateGroup> findDuplicateGroups(Pageable pageable);
+
+    /**
+     * Read the ids of the first notes having each of the given content hashes, at most {@code limit} per hash.
+     */
+    @Query(
+        value = "select contentHash, noteId from (select content_hash as contentHash, id as noteId, " +
+        "row_number() over (partition by content_hash order by id) as rn from note where content_hash in :hashes) ranked " +
+        "where rn <= :limit order by contentHash, noteId",
+        nativeQuery = true
+    )
+    List<NoteContentHashId> findIdsByContentHashIn(@Param("hashes") Collection<String> hashes, @Param("limit") int limit);
+
+    @Query("select note.id from Note note where note.contentHash = :contentHash order by note.id")
+    List<Long> findIdsByContentHash(@Param("contentHash") String contentHash, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select note.id from Note note")
+    Stream<Long> streamAllIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "select note_id as noteId, tag_id as tagId from rel_note__tag order by note_id", nativeQuery = true)
+    Stream<NoteTagId> streamAllTagIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(
+        "select note.id as id, note.title as title, note.content as plainContent, note.deflatedContent as deflatedContent from Note note"
+    )
+    Stream<NoteText> streamAllText();
 }
@@ -0,0 +1,22 @@
+package com.adam.assessment.repository;
+
+import java.util.List;
+
+public interface NoteRepositoryWithChangeSequence {
+    /**
+     * Take the next value of the {@code note_change_seq} sequence, which orders the changes of the notes.
+     * <p>
+     * Reading the sequence does not flush the persistence context, so it can be called between the writes of a batch.
+     *
+     * @return the next change sequence number.
+     */
+    long nextChangeSeq();
+
+    /**
+     * Take the next values of the {@code note_change_seq} sequence in a single round trip, for the writes of a batch.
+     *
+     * @param count the number of values to take.
+     * @return the change sequence numbers, in ascending order.
+     */
+    List<Long> nextChangeSeqs(int count);
+}
@@ -0,0 +1,86 @@
+package com.adam.assessment.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Utility repository to read the sequence ordering the changes of the notes, in the SQL dialect of the database.
+ */
+public class NoteRepositoryWithChangeSequenceImpl implements NoteRepositoryWithChangeSequence {
+
+    private static final String SEQUENCE_NAME = "note_change_seq";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String nextValueQuery;
+
+    private volatile String nextValuesQuery;
+
+    @Override
+    public long nextChangeSeq() {
+        return ((Number) entityManager.createNativeQuery(nextValueQuery()).setFlushMode(FlushModeType.COMMIT).getSingleResult()).longValue();
+    }
+
+    @Override
+    public List<Long> nextChangeSeqs(int count) {
+        List<Long> changeSeqs = new ArrayList<>(count);
+        if (count <= 0) {
+            return changeSeqs;
+        }
+        String query = nextValuesQuery();
+        if (query.isEmpty()) {
+            for (int i = 0; i < count; i++) {
+                changeSeqs.add(nextChangeSeq());
+            }
+            return changeSeqs;
+        }
+        List<?> values = entityManager
+            .createNativeQuery(query)
+            .setParameter("count", count)
+            .setFlushMode(FlushModeType.COMMIT)
+            .getResultList();
+        for (Object value : values) {
+            changeSeqs.add(((Number) value).longValue());
+        }
+        changeSeqs.sort(null);
+        return changeSeqs;
+    }
+
+    private String nextValueQuery() {
+        if (nextValueQuery == null) {
+            nextValueQuery = dialect().getSequenceSupport().getSequenceNextValString(SEQUENCE_NAME);
+        }
+        return nextValueQuery;
+    }
+
+    /**
+     * The query taking {@code :count} values of the sequence over a generated series of rows, or an empty string when the
+     * dialect has no such series and the values are taken one by one.
+     */
+    private String nextValuesQuery() {
+        if (nextValuesQuery == null) {
+            Dialect dialect = dialect();
+            String nextValue = dialect.getSequenceSupport().getSelectSequenceNextValString(SEQUENCE_NAME);
+            if (dialect instanceof PostgreSQLDialect) {
+                nextValuesQuery = "select " + nextValue + " from generate_series(1, :count)";
+            } else if (dialect instanceof H2Dialect) {
+                nextValuesQuery = "select " + nextValue + " from system_range(1, :count)";
+            } else {
+                nextValuesQuery = "";
+            }
+        }
+        return nextValuesQuery;
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+}
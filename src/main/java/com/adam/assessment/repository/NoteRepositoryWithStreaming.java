@@ -0,0 +1,18 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.Note;
+import java.util.function.Consumer;
+
+public interface NoteRepositoryWithStreaming {
+    /**
+     * Visit every note, ordered by id, with its tags loaded.
+     * <p>
+     * Notes are read through a forward-only cursor and handed out in batches; the persistence context is
+     * cleared after each batch, so the visited notes must not be retained nor modified by the consumer.
+     * Must be called within a transaction.
+     *
+     * @param batchSize the number of notes fetched per round trip and held in memory at once.
+     * @param consumer the consumer of each note.
+     */
+    void forEachWithEagerRelationships(int batchSize, Consumer<Note> consumer);
+}
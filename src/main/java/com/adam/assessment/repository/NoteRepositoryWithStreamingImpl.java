@@ -0,0 +1,60 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.Note;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+/**
+ * Utility repository to visit every note without holding the whole table in the persistence context.
+ */
+public class NoteRepositoryWithStreamingImpl implements NoteRepositoryWithStreaming {
+
+    private static final String NOTES_PARAMETER = "notes";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void forEachWithEagerRelationships(int batchSize, Consumer<Note> consumer) {
+        List<Note> batch = new ArrayList<>(batchSize);
+        try (
+            Stream<Note> notes = entityManager
+                .createQuery("select note from Note note order by note.id", Note.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, batchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+                .getResultStream()
+        ) {
+            notes.forEach(note -> {
+                batch.add(note);
+                if (batch.size() == batchSize) {
+                    visit(batch, consumer);
+                }
+            });
+        }
+        visit(batch, consumer);
+    }
+
+    private void visit(List<Note> batch, Consumer<Note> consumer) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // initializes the tags of the managed notes in place, one query per batch
+        entityManager
+            .createQuery("select note from Note note left join fetch note.tags where note in :notes", Note.class)
+            .setParameter(NOTES_PARAMETER, batch)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+            .getResultList();
+        batch.forEach(consumer);
+        batch.clear();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,71 @@
+package com.adam.assessment.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based statements on the tags of many notes at once, run on the join table without loading the notes.
+ * <p>
+ * The statements evict the cached notes and tag collections they affect, but do not touch the notes already loaded in
+ * the persistence context.
+ */
+public interface NoteRepositoryWithTagging {
+    /**
+     * Find the notes matching a filter on their tags that adding and removing tags would change.
+     *
+     * @param includedTagIds the ids of the tags the notes must carry, all of them or any of them.
+     * @param matchAll whether the notes must carry all the included tags rather than any of them.
+     * @param excludedTagIds the ids of the tags the notes must not carry.
+     * @param addedTagIds the ids of the tags to add, changing the notes missing any of them.
+     * @param removedTagIds the ids of the tags to remove, changing the notes carrying any of them.
+     * @return the ids of the notes, in ascending order.
+     */
+    List<Long> findIdsToRetag(
+        Collection<Long> includedTagIds,
+        boolean matchAll,
+        Collection<Long> excludedTagIds,
+        Collection<Long> addedTagIds,
+        Collection<Long> removedTagIds
+    );
+
+    /**
+     * @param tagId the id of the tag.
+     * @return the ids of the notes carrying the tag, in ascending order.
+     */
+    List<Long> findIdsByTag(long tagId);
+
+    /**
+     * Take a new change sequence number for each note and increment its version, as saving it would.
+     *
+     * @param noteIds the ids of the notes.
+     * @return the number of notes updated.
+     */
+    int touchAll(Collection<Long> noteIds);
+
+    /**
+     * Add a tag to the notes not carrying it yet.
+     *
+     * @param noteIds the ids of the notes.
+     * @param tagId the id of the tag.
+     * @return the number of notes tagged.
+     */
+    int addTag(Collection<Long> noteIds, long tagId);
+
+    /**
+     * Remove tags from notes.
+     *
+     * @param noteIds the ids of the notes.
+     * @param tagIds the ids of the tags.
+     * @return the number of tags removed.
+     */
+    int removeTags(Collection<Long> noteIds, Collection<Long> tagIds);
+
+    /**
+     * Move every note from a tag to another one, the notes carrying both keeping the other one only.
+     *
+     * @param sourceTagId the id of the tag left without notes.
+     * @param targetTagId the id of the tag gaining them.
+     * @return the number of notes that gained the target tag.
+     */
+    int mergeTag(long sourceTagId, long targetTagId);
+}
@@ -0,0 +1,156 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.Note;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Utility repository running set-based statements on the join table between notes and tags.
+ * <p>
+ * Every statement declares the tables it writes, so that Hibernate only evicts the cached notes and tag collections,
+ * instead of every region of the second-level cache as it does for native statements it knows nothing about.
+ */
+public class NoteRepositoryWithTaggingImpl implements NoteRepositoryWithTagging {
+
+    private static final String JOIN_TABLE = "rel_note__tag";
+
+    private static final String SEQUENCE_NAME = "note_change_seq";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String nextValueExpression;
+
+    @Override
+    public List<Long> findIdsToRetag(
+        Collection<Long> includedTagIds,
+        boolean matchAll,
+        Collection<Long> excludedTagIds,
+        Collection<Long> addedTagIds,
+        Collection<Long> removedTagIds
+    ) {
+        StringBuilder sql = new StringBuilder("select n.id from note n where 1 = 1");
+        if (!includedTagIds.isEmpty()) {
+            sql.append(
+                matchAll
+                    ? " and (select count(*) from rel_note__tag r where r.note_id = n.id and r.tag_id in (:included)) = :includedCount"
+                    : " and exists (select 1 from rel_note__tag r where r.note_id = n.id and r.tag_id in (:included))"
+            );
+        }
+        if (!excludedTagIds.isEmpty()) {
+            sql.append(" and not exists (select 1 from rel_note__tag r where r.note_id = n.id and r.tag_id in (:excluded))");
+        }
+        // only the notes the retag changes, so that the others keep their version and stay out of the change feed
+        sql.append(" and (1 = 0");
+        if (!addedTagIds.isEmpty()) {
+            sql.append(" or (select count(*) from rel_note__tag r where r.note_id = n.id and r.tag_id in (:added)) < :addedCount");
+        }
+        if (!removedTagIds.isEmpty()) {
+            sql.append(" or exists (select 1 from rel_note__tag r where r.note_id = n.id and r.tag_id in (:removed))");
+        }
+        sql.append(") order by n.id");
+
+        NativeQuery<?> query = nativeQuery(sql.toString());
+        if (!includedTagIds.isEmpty()) {
+            query.setParameterList("included", includedTagIds);
+            if (matchAll) {
+                query.setParameter("includedCount", includedTagIds.size());
+            }
+        }
+        if (!excludedTagIds.isEmpty()) {
+            query.setParameterList("excluded", excludedTagIds);
+        }
+        if (!addedTagIds.isEmpty()) {
+            query.setParameterList("added", addedTagIds).setParameter("addedCount", addedTagIds.size());
+        }
+        if (!removedTagIds.isEmpty()) {
+            query.setParameterList("removed", removedTagIds);
+        }
+        return toIds(query.getResultList());
+    }
+
+    @Override
+    public List<Long> findIdsByTag(long tagId) {
+        return toIds(nativeQuery("select note_id from rel_note__tag where tag_id = :tagId order by note_id").setParameter("tagId", tagId).getResultList());
+    }
+
+    @Override
+    public int touchAll(Collection<Long> noteIds) {
+        if (noteIds.isEmpty()) {
+            return 0;
+        }
+        return nativeQuery("update note set change_seq = " + nextValueExpression() + ", version = version + 1 where id in (:ids)")
+            .addSynchronizedEntityClass(Note.class)
+            .setParameterList("ids", noteIds)
+            .executeUpdate();
+    }
+
+    @Override
+    public int addTag(Collection<Long> noteIds, long tagId) {
+        if (noteIds.isEmpty()) {
+            return 0;
+        }
+        return nativeQuery(
+            "insert into rel_note__tag (note_id, tag_id) select n.id, :tagId from note n where n.id in (:ids) and not exists " +
+            "(select 1 from rel_note__tag r where r.note_id = n.id and r.tag_id = :tagId)"
+        )
+            .addSynchronizedQuerySpace(JOIN_TABLE)
+            .setParameter("tagId", tagId)
+            .setParameterList("ids", noteIds)
+            .executeUpdate();
+    }
+
+    @Override
+    public int removeTags(Collection<Long> noteIds, Collection<Long> tagIds) {
+        if (noteIds.isEmpty() || tagIds.isEmpty()) {
+            return 0;
+        }
+        return nativeQuery("delete from rel_note__tag where note_id in (:ids) and tag_id in (:tagIds)")
+            .addSynchronizedQuerySpace(JOIN_TABLE)
+            .setParameterList("ids", noteIds)
+            .setParameterList("tagIds", tagIds)
+            .executeUpdate();
+    }
+
+    @Override
+    public int mergeTag(long sourceTagId, long targetTagId) {
+        int merged = nativeQuery(
+            "insert into rel_note__tag (note_id, tag_id) select r.note_id, :targetId from rel_note__tag r where r.tag_id = :sourceId " +
+            "and not exists (select 1 from rel_note__tag t where t.note_id = r.note_id and t.tag_id = :targetId)"
+        )
+            .addSynchronizedQuerySpace(JOIN_TABLE)
+            .setParameter("sourceId", sourceTagId)
+            .setParameter("targetId", targetTagId)
+            .executeUpdate();
+        nativeQuery("delete from rel_note__tag where tag_id = :sourceId")
+            .addSynchronizedQuerySpace(JOIN_TABLE)
+            .setParameter("sourceId", sourceTagId)
+            .executeUpdate();
+        return merged;
+    }
+
+    private NativeQuery<?> nativeQuery(String sql) {
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+    }
+
+    private static List<Long> toIds(List<?> rows) {
+        return rows.stream().map(row -> ((Number) row).longValue()).toList();
+    }
+
+    private String nextValueExpression() {
+        if (nextValueExpression == null) {
+            nextValueExpression = entityManager
+                .getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSelectSequenceNextValString(SEQUENCE_NAME);
+        }
+        return nextValueExpression;
+    }
+}
@@ -0,0 +1,20 @@
+package com.adam.assessment.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection of the {@link com.adam.assessment.domain.NoteRevision} columns that can be read without loading its {@code data}.
+ */
+public interface NoteRevisionHeader {
+    int getRevision();
+
+    String getTitle();
+
+    int getContentLength();
+
+    String getContentHash();
+
+    int getDepth();
+
+    Instant getCreatedAt();
+}
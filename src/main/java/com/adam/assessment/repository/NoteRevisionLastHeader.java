@@ -0,0 +1,8 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of the header of the last {@link com.adam.assessment.domain.NoteRevision} of a note, with the id of the note.
+ */
+public interface NoteRevisionLastHeader extends NoteRevisionHeader {
+    Long getNoteId();
+}
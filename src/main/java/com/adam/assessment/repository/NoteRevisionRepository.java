@@ -0,0 +1,36 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.NoteRevision;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the NoteRevision entity.
+ */
+@Repository
+public interface NoteRevisionRepository extends JpaRepository<NoteRevision, Long> {
+    Page<NoteRevisionHeader> findHeadersByNoteId(Long noteId, Pageable pageable);
+
+    Optional<NoteRevisionHeader> findFirstHeaderByNoteIdOrderByRevisionDesc(Long noteId);
+
+    @Query(
+        "select noteRevision.note.id as noteId, noteRevision.revision as revision, noteRevision.title as title, " +
+        "noteRevision.contentLength as contentLength, noteRevision.contentHash as contentHash, noteRevision.depth as depth, " +
+        "noteRevision.createdAt as createdAt from NoteRevision noteRevision where noteRevision.note.id in :noteIds and " +
+        "noteRevision.revision = (select max(last.revision) from NoteRevision last where last.note.id = noteRevision.note.id)"
+    )
+    List<NoteRevisionLastHeader> findLastHeadersByNoteIdIn(@Param("noteIds") Collection<Long> noteIds);
+
+    Optional<NoteRevisionHeader> findHeaderByNoteIdAndRevision(Long noteId, int revision);
+
+    Optional<NoteRevisionHeader> findFirstHeaderByNoteIdAndCreatedAtLessThanEqualOrderByRevisionDesc(Long noteId, Instant time);
+
+    List<NoteRevision> findAllByNoteIdAndRevisionBetweenOrderByRevision(Long noteId, int from, int to);
+}
@@ -0,0 +1,10 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of the snippet of a {@link com.adam.assessment.domain.Note}, stored apart from its content, plain or compressed.
+ */
+public interface NoteSnippet {
+    Long getId();
+
+    String getSnippet();
+}
@@ -0,0 +1,10 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of one row of the join table between {@link com.adam.assessment.domain.Note} and {@link com.adam.assessment.domain.Tag}.
+ */
+public interface NoteTagId {
+    Long getNoteId();
+
+    Long getTagId();
+}
@@ -0,0 +1,20 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.NoteContentCodec;
+
+/**
+ * Projection of the searchable text of a {@link com.adam.assessment.domain.Note}.
+ */
+public interface NoteText {
+    Long getId();
+
+    String getTitle();
+
+    String getPlainContent();
+
+    byte[] getDeflatedContent();
+
+    default String getContent() {
+        return NoteContentCodec.decode(getPlainContent(), getDeflatedContent());
+    }
+}
@@ -0,0 +1,27 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.NoteTombstone;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the NoteTombstone entity.
+ */
+@Repository
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+    @Query(
+        "select tombstone from NoteTombstone tombstone where tombstone.changeSeq > :since and tombstone.changeSeq < :until order by tombstone.changeSeq"
+    )
+    List<NoteTombstone> findChanges(@Param("since") long since, @Param("until") long until, Limit limit);
+
+    @Query("select coalesce(max(tombstone.changeSeq), 0) from NoteTombstone tombstone")
+    long findMaxChangeSeq();
+
+    @Modifying
+    @Query("delete from NoteTombstone tombstone where tombstone.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") Instant cutoff);
+}
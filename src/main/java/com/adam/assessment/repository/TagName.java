@@ -0,0 +1,10 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of the id and name of a {@link com.adam.assessment.domain.Tag}.
+ */
+public interface TagName {
+    Long getId();
+
+    String getName();
+}
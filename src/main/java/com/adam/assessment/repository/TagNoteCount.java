@@ -0,0 +1,10 @@
+package com.adam.assessment.repository;
+
+/**
+ * Projection of the number of {@link com.adam.assessment.domain.Note}s carrying a {@link com.adam.assessment.domain.Tag}.
+ */
+public interface TagNoteCount {
+    Long getTagId();
+
+    Long getNoteCount();
+}
@@ -1,7 +1,17 @@
 package com.adam.assessment.repository;
 
 import com.adam.assessment.domain.Tag;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +19,19 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {}
+public interface TagRepository extends TagRepositoryWithInsert, JpaRepository<Tag, Long> {
+    Window<Tag> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Page<EntityVersion> findVersionsBy(Pageable pageable);
+
+    @Query("select tag.id as id, tag.version as version from Tag tag where tag.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    List<Tag> findAllByNameIn(Collection<String> names);
+
+    @Query("select tag.id as id, tag.name as name from Tag tag")
+    List<TagName> findAllNames();
+
+    @Query(value = "select tag_id as tagId, count(*) as noteCount from rel_note__tag group by tag_id", nativeQuery = true)
+    List<TagNoteCount> countNotesByTag();
+}
@@ -0,0 +1,19 @@
+package com.adam.assessment.repository;
+
+import java.util.Collection;
+
+/**
+ * Set-based insertion of tags, run without loading the existing ones.
+ */
+public interface TagRepositoryWithInsert {
+    /**
+     * Insert the tags with the given names that do not exist yet, in one statement.
+     * <p>
+     * A name inserted concurrently by another transaction is skipped rather than failing on the unique constraint of
+     * {@code tag.name}.
+     *
+     * @param names the names of the tags.
+     * @return the number of tags inserted.
+     */
+    int insertMissing(Collection<String> names);
+}
@@ -0,0 +1,60 @@
+package com.adam.assessment.repository;
+
+import com.adam.assessment.domain.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Utility repository inserting tags with a native statement.
+ * <p>
+ * The ids are taken straight from the sequence, one value per tag: the pooled generator of the entities only hands out
+ * the ids below the values it took itself, so the two never collide.
+ */
+public class TagRepositoryWithInsertImpl implements TagRepositoryWithInsert {
+
+    private static final String SEQUENCE_NAME = "sequence_generator";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String insertSql;
+
+    @Override
+    public int insertMissing(Collection<String> names) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+        List<String> distinctNames = names.stream().distinct().toList();
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < distinctNames.size(); i++) {
+            values.append(i == 0 ? "(:name" : ", (:name").append(i).append(')');
+        }
+        NativeQuery<?> query = entityManager
+            .createNativeQuery(insertSql().formatted(values))
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(Tag.class);
+        for (int i = 0; i < distinctNames.size(); i++) {
+            query.setParameter("name" + i, distinctNames.get(i));
+        }
+        return query.executeUpdate();
+    }
+
+    private String insertSql() {
+        if (insertSql == null) {
+            Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+            String sql =
+                "insert into tag (id, name, version) select " +
+                dialect.getSequenceSupport().getSelectSequenceNextValString(SEQUENCE_NAME) +
+                ", v.name, 0 from (values %s) as v(name) where not exists (select 1 from tag t where t.name = v.name)";
+            // the check above only sees committed tags, a concurrent insert of the same name is left to the constraint
+            insertSql = dialect instanceof PostgreSQLDialect ? sql + " on conflict (name) do nothing" : sql;
+        }
+        return insertSql;
+    }
+}
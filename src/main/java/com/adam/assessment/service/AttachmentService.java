@@ -0,0 +1,143 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.domain.Attachment;
+import com.adam.assessment.repository.AttachmentRepository;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.service.dto.AttachmentDTO;
+import com.adam.assessment.service.mapper.AttachmentMapper;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service Implementation for managing {@link com.adam.assessment.domain.Attachment}.
+ * <p>
+ * The contents are kept by the {@link AttachmentStorageService}, once for all the attachments sharing them.
+ */
+@Service
+@Transactional
+public class AttachmentService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AttachmentService.class);
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final NoteRepository noteRepository;
+
+    private final AttachmentMapper attachmentMapper;
+
+    private final AttachmentStorageService attachmentStorageService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AttachmentService(
+        AttachmentRepository attachmentRepository,
+        NoteRepository noteRepository,
+        AttachmentMapper attachmentMapper,
+        AttachmentStorageService attachmentStorageService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.attachmentRepository = attachmentRepository;
+        this.noteRepository = noteRepository;
+        this.attachmentMapper = attachmentMapper;
+        this.attachmentStorageService = attachmentStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Attach a file to a note.
+     * <p>
+     * The content is stored before the transaction saving the attachment starts, so that no connection is held while
+     * it is written and digested.
+     *
+     * @param noteId the id of the note.
+     * @param fileName the name of the file.
+     * @param contentType the media type of the file.
+     * @param source the source of the content of the file.
+     * @return the attachment, or empty if the note does not exist.
+     * @throws IOException if the content could not be stored.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<AttachmentDTO> create(Long noteId, String fileName, String contentType, AttachmentStorageService.Source source)
+        throws IOException {
+        LOG.debug("Request to attach file {} to Note : {}", fileName, noteId);
+        if (!noteRepository.existsById(noteId)) {
+            return Optional.empty();
+        }
+        AttachmentStorageService.StoredContent content = attachmentStorageService.store(source);
+        return transactionTemplate.execute(status -> {
+            if (!noteRepository.existsById(noteId)) {
+                // the content is left to the cleanup, as another attachment may share it
+                return Optional.empty();
+            }
+            Attachment attachment = new Attachment()
+                .fileName(fileName)
+                .contentType(contentType)
+                .size(content.size())
+                .sha256(content.sha256())
+                .createdAt(Instant.now())
+                .note(noteRepository.getReferenceById(noteId));
+            return Optional.of(attachmentMapper.toDto(attachmentRepository.save(attachment)));
+        });
+    }
+
+    /**
+     * Get the attachments of a note.
+     *
+     * @param noteId the id of the note.
+     * @return the attachments, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<AttachmentDTO> findAllByNote(Long noteId) {
+        LOG.debug("Request to get the Attachments of Note : {}", noteId);
+        return attachmentRepository.findAllByNoteIdOrderById(noteId).stream().map(attachmentMapper::toDto).toList();
+    }
+
+    /**
+     * Get one attachment by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AttachmentDTO> findOne(Long id) {
+        LOG.debug("Request to get Attachment : {}", id);
+        return attachmentRepository.findById(id).map(attachmentMapper::toDto);
+    }
+
+    /**
+     * Open the content of an attachment for reading.
+     *
+     * @param attachmentDTO the attachment.
+     * @return the channel of the content, to be closed by the caller.
+     * @throws IOException if the content could not be opened.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileChannel openContent(AttachmentDTO attachmentDTO) throws IOException {
+        return attachmentStorageService.open(attachmentDTO.getSha256());
+    }
+
+    /**
+     * Delete an attachment. Its content is deleted by the cleanup of the store, once no attachment refers to it.
+     *
+     * @param id the id of the entity.
+     * @return whether the attachment existed.
+     */
+    public boolean delete(Long id) {
+        LOG.debug("Request to delete Attachment : {}", id);
+        if (!attachmentRepository.existsById(id)) {
+            return false;
+        }
+        attachmentRepository.deleteById(id);
+        return true;
+    }
+}
@@ -0,0 +1,212 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.AttachmentRepository;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service storing the content of attachments on disk, addressed by its SHA-256 digest.
+ * <p>
+ * A content is written to a temporary file of the store, then digested and moved to
+ * {@code <directory>/<2 first hex digits>/<2 next>/<digest>}, unless an identical content is already there, in which
+ * case it is kept once. Contents are never changed once stored, and are only deleted by the nightly cleanup once no
+ * attachment has referred to them for {@code application.attachments.orphan-retention}, so that an upload whose
+ * attachment is not committed yet never loses its content.
+ */
+@Service
+public class AttachmentStorageService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AttachmentStorageService.class);
+
+    private static final Pattern DIGEST = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int CLEANUP_BATCH_SIZE = 500;
+
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final ApplicationProperties.Attachments properties;
+
+    private final Path root;
+
+    public AttachmentStorageService(AttachmentRepository attachmentRepository, ApplicationProperties applicationProperties) {
+        this.attachmentRepository = attachmentRepository;
+        this.properties = applicationProperties.getAttachments();
+        this.root = Path.of(properties.getDirectory()).toAbsolutePath();
+    }
+
+    /**
+     * The source of a content, written straight to a file so that it is never held in memory.
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * @param file the file to write the content to.
+         * @throws IOException if the content could not be written.
+         */
+        void writeTo(Path file) throws IOException;
+    }
+
+    /**
+     * A stored content.
+     *
+     * @param sha256 the hexadecimal SHA-256 digest of the content.
+     * @param size the size of the content in bytes.
+     */
+    public record StoredContent(String sha256, long size) {}
+
+    /**
+     * Store a content.
+     *
+     * @param source the source of the content.
+     * @return the digest and size of the content.
+     * @throws IOException if the content could not be stored.
+     */
+    public StoredContent store(Source source) throws IOException {
+        Path temporaryDirectory = Files.createDirectories(root.resolve(TEMPORARY_DIRECTORY));
+        Path temporary = Files.createTempFile(temporaryDirectory, "upload-", ".tmp");
+        try {
+            source.writeTo(temporary);
+            StoredContent content = digest(temporary);
+            Path target = resolve(content.sha256());
+            if (Files.exists(target)) {
+                // refreshed so that the cleanup sees the content as referred to again
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return content;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Open a stored content for reading.
+     *
+     * @param sha256 the digest of the content.
+     * @return the channel of the content, to be closed by the caller.
+     * @throws IOException if the content could not be opened.
+     */
+    public FileChannel open(String sha256) throws IOException {
+        return FileChannel.open(resolve(sha256), StandardOpenOption.READ);
+    }
+
+    /**
+     * Delete the contents, and the temporary files of interrupted uploads, no attachment refers to and that are older
+     * than {@code application.attachments.orphan-retention}.
+     * <p>
+     * This is scheduled to run once a day, at 01:45 (am).
+     *
+     * @return the number of files deleted.
+     */
+    @Scheduled(cron = "0 45 1 * * ?")
+    public int deleteOrphans() {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(properties.getOrphanRetention());
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(root)) {
+            List<Path> candidates = new ArrayList<>(CLEANUP_BATCH_SIZE);
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (isOlderThan(file, cutoff)) {
+                    candidates.add(file);
+                }
+                if (candidates.size() == CLEANUP_BATCH_SIZE) {
+                    deleted += deleteUnreferenced(candidates);
+                    candidates.clear();
+                }
+            }
+            deleted += deleteUnreferenced(candidates);
+        } catch (IOException e) {
+            LOG.warn("Could not clean up the attachment store {}: {}", root, e.getMessage());
+        }
+        LOG.debug("Deleted {} orphan attachment files", deleted);
+        return deleted;
+    }
+
+    private int deleteUnreferenced(List<Path> files) throws IOException {
+        Set<String> digests = new HashSet<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (DIGEST.matcher(name).matches()) {
+                digests.add(name);
+            }
+        }
+        Set<String> referenced = digests.isEmpty() ? Set.of() : new HashSet<>(attachmentRepository.findReferencedDigests(digests));
+        int deleted = 0;
+        for (Path file : files) {
+            if (!referenced.contains(file.getFileName().toString()) && Files.deleteIfExists(file)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path resolve(String sha256) {
+        if (!DIGEST.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid SHA-256 digest: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static StoredContent digest(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+                size += read;
+            }
+        }
+        return new StoredContent(HexFormat.of().formatHex(digest.digest()), size);
+    }
+}
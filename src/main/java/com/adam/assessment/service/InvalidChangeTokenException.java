@@ -0,0 +1,20 @@
+package com.adam.assessment.service;
+
+public class InvalidChangeTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean expired;
+
+    public InvalidChangeTokenException(boolean expired) {
+        super(expired ? "Change token expired, the deletions since then are no longer retained" : "Invalid change token");
+        this.expired = expired;
+    }
+
+    /**
+     * @return whether the token was valid but is older than the retention of deleted notes.
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+}
@@ -0,0 +1,10 @@
+package com.adam.assessment.service;
+
+public class InvalidContentEditException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidContentEditException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,280 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.service.dto.NoteDTO;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service coalescing the autosaves of notes, which editors send every second or two while a note is open.
+ * <p>
+ * Only the latest title and content autosaved for each note are kept in memory, and written with
+ * {@link NoteService#partialUpdate(NoteDTO)} once the note has not been autosaved for
+ * {@code application.autosave.idle-delay}, or at the latest {@code application.autosave.max-delay} after its first
+ * unwritten autosave: a note edited for a minute is written a handful of times instead of once per autosave.
+ * <p>
+ * An accepted autosave is therefore only durable once written: it is lost if the node stops abruptly before, or if it
+ * still cannot be written after a few attempts. Pending autosaves are written when the application shuts down, and
+ * before any other read or write of the note through this node, so that a client reading the note back on the same
+ * node sees what it autosaved; other nodes see it once written. Autosaves are applied to the current version of the
+ * note, the last write winning.
+ */
+@Service
+public class NoteAutosaveService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteAutosaveService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final NoteService noteService;
+
+    private final NoteRepository noteRepository;
+
+    private final ApplicationProperties.Autosave properties;
+
+    private final ConcurrentHashMap<Long, PendingAutosave> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher;
+
+    public NoteAutosaveService(NoteService noteService, NoteRepository noteRepository, ApplicationProperties applicationProperties) {
+        this.noteService = noteService;
+        this.noteRepository = noteRepository;
+        this.properties = applicationProperties.getAutosave();
+        this.flusher = Executors.newScheduledThreadPool(properties.getFlushThreads(), new CustomizableThreadFactory("note-autosave-"));
+        // check often enough for a note to be written soon after its delay has elapsed
+        long tickMillis = Math.max(10, Math.min(properties.getIdleDelay().toMillis(), properties.getMaxDelay().toMillis()) / 4);
+        flusher.scheduleWithFixedDelay(this::flushDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Autosave the title and content of a note, to be written later.
+     * <p>
+     * When {@code application.autosave.max-pending} notes already have unwritten autosaves, the autosave is written
+     * immediately instead.
+     *
+     * @param id the id of the note.
+     * @param title the title, {@code null} to leave it unchanged.
+     * @param content the content, {@code null} to leave it unchanged.
+     * @return {@code false} if the note does not exist.
+     */
+    public boolean autosave(Long id, String title, String content) {
+        LOG.debug("Request to autosave Note : {}", id);
+        if (!pending.containsKey(id)) {
+            if (!noteRepository.existsById(id)) {
+                return false;
+            }
+            if (pending.size() >= properties.getMaxPending()) {
+                LOG.debug("Writing the autosave of Note : {} immediately, {} notes have unwritten autosaves", id, pending.size());
+                return noteService.partialUpdate(patch(id, title, content)).isPresent();
+            }
+        }
+        while (true) {
+            PendingAutosave autosave = pending.computeIfAbsent(id, key -> new PendingAutosave());
+            synchronized (autosave) {
+                // an autosave written and removed meanwhile cannot take more changes, they go to a new one
+                if (!autosave.removed) {
+                    autosave.merge(title, content, System.nanoTime());
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the unwritten autosave of a note, if any, before it is read or written otherwise.
+     *
+     * @param id the id of the note.
+     */
+    public void flush(Long id) {
+        PendingAutosave autosave = pending.get(id);
+        if (autosave != null) {
+            write(id, autosave);
+        }
+    }
+
+    /**
+     * Drop the unwritten autosave of a note, before it is deleted.
+     *
+     * @param id the id of the note.
+     */
+    public void discard(Long id) {
+        PendingAutosave autosave = pending.remove(id);
+        if (autosave != null) {
+            synchronized (autosave) {
+                autosave.removed = true;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            LOG.warn("Note autosaves still being written after {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+        }
+        pending.forEach(this::write);
+    }
+
+    private void flushDue() {
+        try {
+            long now = System.nanoTime();
+            pending.forEach((id, autosave) -> {
+                synchronized (autosave) {
+                    if (autosave.scheduled || !autosave.isDue(now, properties)) {
+                        return;
+                    }
+                    autosave.scheduled = true;
+                }
+                try {
+                    flusher.execute(() -> write(id, autosave));
+                } catch (RejectedExecutionException e) {
+                    synchronized (autosave) {
+                        autosave.scheduled = false;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // an exception would cancel the next runs
+            LOG.error("Failed to schedule the writing of Note autosaves", e);
+        }
+    }
+
+    /**
+     * Write the changes of an autosave, one write at a time per note so that an older state is never written last.
+     */
+    private void write(Long id, PendingAutosave autosave) {
+        synchronized (autosave.writeLock) {
+            NoteDTO patch;
+            synchronized (autosave) {
+                if (autosave.removed) {
+                    return;
+                }
+                patch = autosave.take(id);
+            }
+            boolean failed = false;
+            if (patch != null) {
+                try {
+                    if (noteService.partialUpdate(patch).isEmpty()) {
+                        LOG.debug("Dropping the autosave of deleted Note : {}", id);
+                    }
+                } catch (RuntimeException e) {
+                    LOG.warn("Failed to write the autosave of Note : {}: {}", id, e.getMessage());
+                    failed = true;
+                }
+            }
+            synchronized (autosave) {
+                if (!failed) {
+                    autosave.attempts = 0;
+                } else if (++autosave.attempts < MAX_ATTEMPTS) {
+                    autosave.putBack(patch);
+                } else {
+                    LOG.warn("Dropping the autosave of Note : {} after {} attempts", id, MAX_ATTEMPTS);
+                    autosave.attempts = 0;
+                }
+                if (!autosave.dirty) {
+                    autosave.removed = true;
+                    pending.remove(id, autosave);
+                }
+                autosave.scheduled = false;
+            }
+        }
+    }
+
+    private static NoteDTO patch(Long id, String title, String content) {
+        NoteDTO patch = new NoteDTO();
+        patch.setId(id);
+        patch.setTitle(title);
+        patch.setContent(content);
+        return patch;
+    }
+
+    /**
+     * The changes autosaved for a note and not yet written, guarded by itself.
+     */
+    private static final class PendingAutosave {
+
+        private final Object writeLock = new Object();
+
+        private String title;
+
+        private String content;
+
+        private boolean dirty;
+
+        private long firstChangeNanos;
+
+        private long lastChangeNanos;
+
+        private boolean scheduled;
+
+        private boolean removed;
+
+        private int attempts;
+
+        private void merge(String title, String content, long now) {
+            if (title == null && content == null) {
+                return;
+            }
+            if (title != null) {
+                this.title = title;
+            }
+            if (content != null) {
+                this.content = content;
+            }
+            if (!dirty) {
+                dirty = true;
+                firstChangeNanos = now;
+            }
+            lastChangeNanos = now;
+        }
+
+        /**
+         * An autosave without changes is due at once, to be removed.
+         */
+        private boolean isDue(long now, ApplicationProperties.Autosave properties) {
+            return (
+                !dirty ||
+                now - lastChangeNanos >= properties.getIdleDelay().toNanos() ||
+                now - firstChangeNanos >= properties.getMaxDelay().toNanos()
+            );
+        }
+
+        private NoteDTO take(Long id) {
+            if (!dirty) {
+                return null;
+            }
+            NoteDTO patch = patch(id, title, content);
+            title = null;
+            content = null;
+            dirty = false;
+            return patch;
+        }
+
+        /**
+         * Restore changes that failed to be written, under those autosaved since.
+         */
+        private void putBack(NoteDTO patch) {
+            if (title == null) {
+                title = patch.getTitle();
+            }
+            if (content == null) {
+                content = patch.getContent();
+            }
+            if (!dirty) {
+                dirty = true;
+                firstChangeNanos = lastChangeNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.domain.Note;
+import com.adam.assessment.domain.Tag;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteRevisionHeader;
+import com.adam.assessment.service.dto.NoteBulkOperationDTO;
+import com.adam.assessment.service.dto.NoteBulkResultDTO;
+import com.adam.assessment.service.dto.NoteDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.mapper.NoteMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service executing bulk create, update and delete operations on {@link Note}s.
+ * <p>
+ * Operations run in chunks of {@code application.bulk.chunk-size}, one transaction per chunk. The notes targeted by
+ * the updates and deletes of a chunk are loaded with their tags in a single query, so that merging and removing them
+ * needs no further select and the whole chunk is flushed as JDBC batches. The tags the notes of a chunk reference by
+ * name are resolved together, with one query and one insert of the missing ones. When a chunk fails to flush or commit, its
+ * operations are retried one transaction each so that every operation still gets its own result.
+ */
+@Service
+public class NoteBulkService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteBulkService.class);
+
+    private final NoteRepository noteRepository;
+
+    private final NoteMapper noteMapper;
+
+    private final NoteChangeService noteChangeService;
+
+    private final TagService tagService;
+
+    private final NoteRevisionService noteRevisionService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ApplicationProperties.Bulk properties;
+
+    public NoteBulkService(
+        NoteRepository noteRepository,
+        NoteMapper noteMapper,
+        NoteChangeService noteChangeService,
+        TagService tagService,
+        NoteRevisionService noteRevisionService,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager,
+        Validator validator,
+        ApplicationProperties applicationProperties
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteMapper = noteMapper;
+        this.noteChangeService = noteChangeService;
+        this.tagService = tagService;
+        this.noteRevisionService = noteRevisionService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.properties = applicationProperties.getBulk();
+    }
+
+    /**
+     * @return the maximum number of operations accepted by {@link #execute(List)}.
+     */
+    public int getMaxOperations() {
+        return properties.getMaxOperations();
+    }
+
+    /**
+     * Execute bulk operations.
+     *
+     * @param operations the operations to execute.
+     * @return the result of each operation, in the order of the operations.
+     */
+    public List<NoteBulkResultDTO> execute(List<NoteBulkOperationDTO> operations) {
+        LOG.debug("Request to execute {} bulk operations on Notes", operations.size());
+        NoteBulkResultDTO[] results = new NoteBulkResultDTO[operations.size()];
+        List<Integer> chunk = new ArrayList<>(properties.getChunkSize());
+        for (int index = 0; index < operations.size(); index++) {
+            String error = validate(operations.get(index));
+            if (error != null) {
+                results[index] = NoteBulkResultDTO.failure(index, HttpStatus.BAD_REQUEST.value(), targetId(operations.get(index)), error);
+                continue;
+            }
+            chunk.add(index);
+            if (chunk.size() == properties.getChunkSize()) {
+                executeChunk(operations, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            executeChunk(operations, chunk, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void executeChunk(List<NoteBulkOperationDTO> operations, List<Integer> chunk, NoteBulkResultDTO[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(operations, chunk, results));
+        } catch (RuntimeException e) {
+            LOG.warn("Bulk chunk of {} Note operations failed, retrying them one by one: {}", chunk.size(), e.getMessage());
+            for (Integer index : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(operations, List.of(index), results));
+                } catch (RuntimeException itemException) {
+                    results[index] = NoteBulkResultDTO.failure(
+                        index,
+                        HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                        targetId(operations.get(index)),
+                        itemException.getMessage()
+                    );
+                }
+            }
+        }
+    }
+
+    private void apply(List<NoteBulkOperationDTO> operations, List<Integer> chunk, NoteBulkResultDTO[] results) {
+        List<Long> targetIds = chunk
+            .stream()
+            .map(operations::get)
+            .filter(operation -> operation.getAction() != NoteBulkOperationDTO.Action.CREATE)
+            .map(NoteBulkService::targetId)
+            .distinct()
+            .toList();
+        Map<Long, Note> existingNotes = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            noteRepository
+                .fetchBagRelationships(noteRepository.findAllById(targetIds))
+                .forEach(note -> existingNotes.put(note.getId(), note));
+        }
+        Map<String, Tag> namedTags = findOrCreateNamedTags(operations, chunk);
+        // read before the writes, as a query on the revisions between them would flush the batch
+        Map<Long, NoteRevisionHeader> lastRevisions = noteRevisionService.findLastRevisions(existingNotes.keySet());
+        Set<Long> revisedIds = new HashSet<>();
+        // one sequence round trip for the chunk; the numbers of failed items are left unused
+        Iterator<Long> changeSeqs = noteChangeService.nextChangeSeqs(chunk.size()).iterator();
+
+        for (Integer index : chunk) {
+            NoteBulkOperationDTO operation = operations.get(index);
+            Long id = targetId(operation);
+            switch (operation.getAction()) {
+                case CREATE -> {
+                    Note note = noteMapper.toEntity(operation.getNote());
+                    addNamedTags(note, operation.getNote(), namedTags);
+                    note.setChangeSeq(changeSeqs.next());
+                    note = noteRepository.save(note);
+                    noteRevisionService.recordCreated(note);
+                    eventPublisher.publishEvent(NoteChangedEvent.saved(note));
+                    results[index] = NoteBulkResultDTO.success(index, HttpStatus.CREATED.value(), note.getId());
+                }
+                case UPDATE -> {
+                    Note existingNote = existingNotes.get(id);
+                    Long version = operation.getNote().getVersion();
+                    if (existingNote == null) {
+                        results[index] = NoteBulkResultDTO.failure(index, HttpStatus.NOT_FOUND.value(), id, "Entity not found");
+                    } else if (version != null && version != existingNote.getVersion()) {
+                        results[index] = NoteBulkResultDTO.failure(index, HttpStatus.CONFLICT.value(), id, "The note has been modified");
+                    } else {
+                        Note note = noteMapper.toEntity(operation.getNote());
+                        addNamedTags(note, operation.getNote(), namedTags);
+                        note.setVersion(existingNote.getVersion());
+                        note.setChangeSeq(changeSeqs.next());
+                        String previousContent = existingNote.getContent();
+                        // the existing note is managed, so the merge copies onto it without selecting it again
+                        note = noteRepository.save(note);
+                        if (revisedIds.add(id)) {
+                            noteRevisionService.record(note, previousContent, lastRevisions.get(id));
+                        } else {
+                            // updated again in the chunk, after the revision just recorded
+                            noteRevisionService.record(note, previousContent);
+                        }
+                        existingNotes.put(id, note);
+                        eventPublisher.publishEvent(NoteChangedEvent.saved(note));
+                        results[index] = NoteBulkResultDTO.success(index, HttpStatus.OK.value(), id);
+                    }
+                }
+                case DELETE -> {
+                    Note note = existingNotes.remove(id);
+                    if (note == null) {
+                        results[index] = NoteBulkResultDTO.failure(index, HttpStatus.NOT_FOUND.value(), id, "Entity not found");
+                    } else {
+                        noteRepository.delete(note);
+                        noteChangeService.recordDeletion(id, changeSeqs.next());
+                        eventPublisher.publishEvent(NoteChangedEvent.deleted(id));
+                        results[index] = NoteBulkResultDTO.success(index, HttpStatus.NO_CONTENT.value(), id);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, Tag> findOrCreateNamedTags(List<NoteBulkOperationDTO> operations, List<Integer> chunk) {
+        Set<String> names = new HashSet<>();
+        for (Integer index : chunk) {
+            NoteDTO note = operations.get(index).getNote();
+            if (note != null && note.getTagNames() != null && operations.get(index).getAction() != NoteBulkOperationDTO.Action.DELETE) {
+                names.addAll(note.getTagNames());
+            }
+        }
+        return tagService.findOrCreateAllByName(names).stream().collect(Collectors.toMap(Tag::getName, Function.identity()));
+    }
+
+    private static void addNamedTags(Note note, NoteDTO noteDTO, Map<String, Tag> namedTags) {
+        if (noteDTO.getTagNames() != null) {
+            noteDTO.getTagNames().forEach(name -> note.addTag(namedTags.get(name)));
+        }
+    }
+
+    private String validate(NoteBulkOperationDTO operation) {
+        if (operation == null || operation.getAction() == null) {
+            return "Invalid action";
+        }
+        NoteDTO note = operation.getNote();
+        switch (operation.getAction()) {
+            case CREATE -> {
+                if (note == null) {
+                    return "Missing note";
+                }
+                if (note.getId() != null) {
+                    return "A new note cannot already have an ID";
+                }
+            }
+            case UPDATE -> {
+                if (note == null) {
+                    return "Missing note";
+                }
+                if (operation.getId() == null && note.getId() == null) {
+                    return "Invalid id";
+                }
+                if (operation.getId() == null) {
+                    operation.setId(note.getId());
+                } else if (note.getId() == null) {
+                    note.setId(operation.getId());
+                } else if (!Objects.equals(operation.getId(), note.getId())) {
+                    return "Invalid ID";
+                }
+            }
+            case DELETE -> {
+                return operation.getId() == null ? "Invalid id" : null;
+            }
+        }
+        Set<ConstraintViolation<NoteDTO>> violations = validator.validate(note);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<NoteDTO> violation = violations.iterator().next();
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+        return null;
+    }
+
+    private static Long targetId(NoteBulkOperationDTO operation) {
+        return operation == null ? null : operation.getId();
+    }
+}
@@ -0,0 +1,240 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.domain.NoteTombstone;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteTombstoneRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service maintaining the change sequence of the {@link com.adam.assessment.domain.Note}s, which orders their changes
+ * for the change feed, and the tombstones of the deleted notes.
+ * <p>
+ * Sequence numbers are taken when a note is written, not when its transaction commits, so a smaller number can become
+ * visible after a larger one. The numbers taken by transactions still running on this node are therefore tracked, and
+ * the feed only returns changes below the smallest of them; a client resuming from the last change it received can not
+ * skip one committed later. Writes made by other nodes are not tracked.
+ * <p>
+ * Writers take their numbers concurrently under the read side of a lock, between the sequence round trip and recording
+ * them as running; only the computation of the horizon takes the write side, so that it never misses a number already
+ * taken but not yet recorded. Batches take the numbers of all their writes in a single round trip.
+ */
+@Service
+@Transactional
+public class NoteChangeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteChangeService.class);
+
+    private final NoteRepository noteRepository;
+
+    private final NoteTombstoneRepository noteTombstoneRepository;
+
+    private final ApplicationProperties.Changes properties;
+
+    /**
+     * The sequence numbers taken by running transactions, with the time they were taken.
+     */
+    private final ConcurrentNavigableMap<Long, Instant> inFlight = new ConcurrentSkipListMap<>();
+
+    private final ReadWriteLock horizonLock = new ReentrantReadWriteLock();
+
+    public NoteChangeService(
+        NoteRepository noteRepository,
+        NoteTombstoneRepository noteTombstoneRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.properties = applicationProperties.getChanges();
+    }
+
+    /**
+     * Take the sequence number of a change, held back from the feed until the current transaction completes.
+     *
+     * @return the sequence number.
+     */
+    public long nextChangeSeq() {
+        return nextChangeSeqs(1).get(0);
+    }
+
+    /**
+     * Take the sequence numbers of the changes of a batch in a single round trip, held back from the feed until the
+     * current transaction completes. Numbers left unused leave gaps in the feed, which clients do not rely on.
+     *
+     * @param count the number of changes in the batch.
+     * @return the sequence numbers, in ascending order.
+     */
+    public List<Long> nextChangeSeqs(int count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return noteRepository.nextChangeSeqs(count);
+        }
+        List<Long> changeSeqs;
+        Lock lock = horizonLock.readLock();
+        lock.lock();
+        try {
+            changeSeqs = noteRepository.nextChangeSeqs(count);
+            Instant takenAt = Instant.now();
+            changeSeqs.forEach(changeSeq -> inFlight.put(changeSeq, takenAt));
+        } finally {
+            lock.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    changeSeqs.forEach(inFlight::remove);
+                }
+            }
+        );
+        return changeSeqs;
+    }
+
+    /**
+     * Record the deletion of a note in the feed.
+     *
+     * @param noteId the id of the deleted note.
+     */
+    public void recordDeletion(Long noteId) {
+        recordDeletion(noteId, nextChangeSeq());
+    }
+
+    /**
+     * Record the deletion of a note in the feed, under a sequence number already taken for its batch.
+     *
+     * @param noteId the id of the deleted note.
+     * @param changeSeq the sequence number taken by {@link #nextChangeSeqs}.
+     */
+    public void recordDeletion(Long noteId, long changeSeq) {
+        noteTombstoneRepository.save(new NoteTombstone().noteId(noteId).changeSeq(changeSeq).deletedAt(Instant.now()));
+    }
+
+    /**
+     * @return the point up to which the feed can currently be read.
+     */
+    public Horizon horizon() {
+        Lock lock = horizonLock.writeLock();
+        lock.lock();
+        try {
+            Map.Entry<Long, Instant> oldest = inFlight.firstEntry();
+            if (oldest != null) {
+                return new Horizon(oldest.getKey(), oldest.getValue());
+            }
+            // the numbers taken from now on are above the horizon, even if they commit before the feed is read
+            long lastCommitted = Math.max(noteRepository.findMaxChangeSeq(), noteTombstoneRepository.findMaxChangeSeq());
+            return new Horizon(lastCommitted + 1, Instant.now());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encode the position of a client in the feed.
+     *
+     * @param changeSeq the sequence number of the last change sent to the client.
+     * @param asOf the time before which every deletion after that change is still retained.
+     * @return the opaque token.
+     */
+    public String encodeToken(long changeSeq, Instant asOf) {
+        String token = changeSeq + "." + asOf.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode the position of a client in the feed.
+     *
+     * @param token the token returned by {@link #encodeToken}.
+     * @return the sequence number of the last change sent to the client, and the time to check the retention against.
+     * @throws InvalidChangeTokenException if the token is malformed, or too old for the deletions since to be retained.
+     */
+    public Position decodeToken(String token) {
+        long changeSeq;
+        Instant asOf;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split("\\.", -1);
+            if (parts.length != 2) {
+                throw new InvalidChangeTokenException(false);
+            }
+            changeSeq = Long.parseLong(parts[0]);
+            asOf = Instant.ofEpochMilli(Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidChangeTokenException(false);
+        }
+        if (asOf.isBefore(Instant.now().minus(properties.getTombstoneRetention()))) {
+            throw new InvalidChangeTokenException(true);
+        }
+        return new Position(changeSeq, asOf);
+    }
+
+    /**
+     * Tombstones older than the retention are purged.
+     * <p>
+     * This is scheduled to get fired every day, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void purgeTombstones() {
+        int purged = noteTombstoneRepository.deleteByDeletedAtBefore(Instant.now().minus(properties.getTombstoneRetention()));
+        LOG.debug("Purged {} Note tombstones", purged);
+    }
+
+    /**
+     * The sequence number below which every change has committed, and the time the oldest change still running was made.
+     */
+    public static final class Horizon {
+
+        private final long until;
+
+        private final Instant asOf;
+
+        Horizon(long until, Instant asOf) {
+            this.until = until;
+            this.asOf = asOf;
+        }
+
+        public long getUntil() {
+            return until;
+        }
+
+        public Instant getAsOf() {
+            return asOf;
+        }
+    }
+
+    /**
+     * The position of a client in the feed.
+     */
+    public static final class Position {
+
+        private final long changeSeq;
+
+        private final Instant asOf;
+
+        Position(long changeSeq, Instant asOf) {
+            this.changeSeq = changeSeq;
+            this.asOf = asOf;
+        }
+
+        public long getChangeSeq() {
+            return changeSeq;
+        }
+
+        public Instant getAsOf() {
+            return asOf;
+        }
+    }
+}
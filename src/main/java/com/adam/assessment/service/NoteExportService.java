@@ -0,0 +1,149 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.domain.Note;
+import com.adam.assessment.domain.Tag;
+import com.adam.assessment.repository.NoteRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting every {@link Note} with the names of its tags.
+ * <p>
+ * Notes are streamed from the database in batches of {@value #BATCH_SIZE} and written out as they are
+ * read, so the memory used by an export does not depend on the number of notes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class NoteExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteExportService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int MAX_SLUG_LENGTH = 50;
+
+    private final NoteRepository noteRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public NoteExportService(NoteRepository noteRepository, ObjectMapper objectMapper) {
+        this.noteRepository = noteRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every note as one JSON object per line.
+     *
+     * @param out the stream to write to, left open.
+     * @throws IOException if the notes could not be written.
+     */
+    public void exportNdjson(OutputStream out) throws IOException {
+        LOG.debug("Request to export Notes as NDJSON");
+        // no separator between root values, each object is followed by its own line feed instead
+        JsonFactory factory = objectMapper.getFactory().copy().setRootValueSeparator(null);
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            noteRepository.forEachWithEagerRelationships(BATCH_SIZE, note -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", note.getId());
+                    generator.writeStringField("title", note.getTitle());
+                    generator.writeStringField("content", note.getContent());
+                    writeInstantField(generator, "createdAt", note.getCreatedAt());
+                    writeInstantField(generator, "lastModifiedAt", note.getLastModifiedAt());
+                    generator.writeArrayFieldStart("tags");
+                    for (String tag : tagNames(note)) {
+                        generator.writeString(tag);
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Write every note as a Markdown file with a YAML front matter, in a ZIP archive.
+     *
+     * @param out the stream to write to, left open.
+     * @throws IOException if the notes could not be written.
+     */
+    public void exportMarkdownZip(OutputStream out) throws IOException {
+        LOG.debug("Request to export Notes as a ZIP of Markdown files");
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        try {
+            noteRepository.forEachWithEagerRelationships(BATCH_SIZE, note -> {
+                try {
+                    zip.putNextEntry(new ZipEntry(fileName(note)));
+                    zip.write(toMarkdown(note).getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        zip.finish();
+    }
+
+    private String toMarkdown(Note note) throws IOException {
+        // JSON strings and arrays are valid YAML flow scalars and sequences
+        StringBuilder markdown = new StringBuilder()
+            .append("---\n")
+            .append("id: ")
+            .append(note.getId())
+            .append('\n')
+            .append("title: ")
+            .append(objectMapper.writeValueAsString(note.getTitle()))
+            .append('\n');
+        if (note.getCreatedAt() != null) {
+            markdown.append("createdAt: ").append(note.getCreatedAt()).append('\n');
+        }
+        if (note.getLastModifiedAt() != null) {
+            markdown.append("lastModifiedAt: ").append(note.getLastModifiedAt()).append('\n');
+        }
+        markdown.append("tags: ").append(objectMapper.writeValueAsString(tagNames(note))).append('\n').append("---\n\n");
+        if (note.getContent() != null) {
+            markdown.append(note.getContent());
+        }
+        return markdown.toString();
+    }
+
+    private static String fileName(Note note) {
+        String slug = note.getTitle() == null ? "" : note.getTitle().toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", "-");
+        slug = slug.substring(0, Math.min(slug.length(), MAX_SLUG_LENGTH)).replaceAll("^-+|-+$", "");
+        return slug.isEmpty() ? note.getId() + ".md" : note.getId() + "-" + slug + ".md";
+    }
+
+    private static List<String> tagNames(Note note) {
+        return note.getTags().stream().map(Tag::getName).sorted().toList();
+    }
+
+    private static void writeInstantField(JsonGenerator generator, String name, Instant value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeStringField(name, value.toString());
+        }
+    }
+}
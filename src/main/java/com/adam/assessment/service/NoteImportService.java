@@ -0,0 +1,421 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.domain.Note;
+import com.adam.assessment.domain.Tag;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.service.dto.NoteImportJobDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.importer.CsvNoteReader;
+import com.adam.assessment.service.importer.EnexNoteReader;
+import com.adam.assessment.service.importer.ImportedNote;
+import com.adam.assessment.service.importer.InvalidNoteException;
+import com.adam.assessment.service.importer.MarkdownZipNoteReader;
+import com.adam.assessment.service.importer.NoteArchiveReader;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing archives of {@link Note}s as background jobs.
+ * <p>
+ * The uploaded archive is copied to a temporary file, then read by a {@link NoteArchiveReader} one note at a time on
+ * one of the {@code application.note-import.threads} threads, so that the memory used does not depend on its size.
+ * Notes are saved {@code application.note-import.batch-size} at a time, one transaction per batch, flushed as JDBC
+ * batches after the tags of the whole batch are resolved by name. When a batch fails, its notes are saved again one
+ * transaction each, like the chunks of {@link NoteBulkService}. The progress of the jobs is kept in memory.
+ */
+@Service
+public class NoteImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteImportService.class);
+
+    private static final int MAX_ERRORS = 20;
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private static final int MIN_TAG_NAME_LENGTH = 2;
+
+    private static final int MAX_TAG_NAME_LENGTH = 50;
+
+    public enum Format {
+        /**
+         * A ZIP archive of Markdown files.
+         */
+        ZIP,
+        /**
+         * An Evernote export.
+         */
+        ENEX,
+        CSV,
+    }
+
+    private final NoteRepository noteRepository;
+
+    private final NoteChangeService noteChangeService;
+
+    private final TagService tagService;
+
+    private final NoteRevisionService noteRevisionService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.NoteImport properties;
+
+    private final ExecutorService executor;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public NoteImportService(
+        NoteRepository noteRepository,
+        NoteChangeService noteChangeService,
+        TagService tagService,
+        NoteRevisionService noteRevisionService,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteChangeService = noteChangeService;
+        this.tagService = tagService;
+        this.noteRevisionService = noteRevisionService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getNoteImport();
+        this.executor = Executors.newFixedThreadPool(properties.getThreads(), new CustomizableThreadFactory("note-import-"));
+    }
+
+    /**
+     * Start importing an archive.
+     * <p>
+     * The archive is read from the stream before this method returns, the notes are imported afterwards.
+     *
+     * @param format the format of the archive.
+     * @param archive the stream of the archive, left open.
+     * @return the job importing the archive, or nothing if {@code application.note-import.max-jobs} jobs are already
+     * queued or running.
+     * @throws IOException if the archive could not be copied.
+     */
+    public Optional<NoteImportJobDTO> start(Format format, InputStream archive) throws IOException {
+        LOG.debug("Request to import Notes from a {} archive", format);
+        Job job = new Job(UUID.randomUUID().toString(), format);
+        synchronized (jobs) {
+            if (jobs.values().stream().filter(Job::isActive).count() >= properties.getMaxJobs()) {
+                return Optional.empty();
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            job.file = Files.createTempFile("note-import-", ".tmp");
+            job.totalBytes = Files.copy(archive, job.file, StandardCopyOption.REPLACE_EXISTING);
+            executor.execute(() -> run(job));
+        } catch (IOException | RuntimeException e) {
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            deleteFile(job);
+            throw e;
+        }
+        return Optional.of(job.toDto());
+    }
+
+    /**
+     * Get the progress of an import.
+     *
+     * @param id the id of the job.
+     * @return the job, unless it is unknown or finished longer ago than the {@code application.note-import.retained-jobs}
+     * last ones.
+     */
+    public Optional<NoteImportJobDTO> findJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id)).map(Job::toDto);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        synchronized (jobs) {
+            jobs.values().stream().filter(job -> job.status == NoteImportJobDTO.Status.QUEUED).forEach(NoteImportService::deleteFile);
+        }
+    }
+
+    private void run(Job job) {
+        job.status = NoteImportJobDTO.Status.RUNNING;
+        try (NoteArchiveReader reader = open(job)) {
+            List<ImportedNote> batch = new ArrayList<>(properties.getBatchSize());
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("The import was interrupted");
+                }
+                ImportedNote note;
+                try {
+                    note = reader.next();
+                } catch (InvalidNoteException e) {
+                    job.fail(e.getMessage());
+                    continue;
+                }
+                if (note == null) {
+                    break;
+                }
+                batch.add(note);
+                if (batch.size() == properties.getBatchSize()) {
+                    save(job, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                save(job, batch);
+            }
+            job.finish(NoteImportJobDTO.Status.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Import {} of a {} archive failed after {} notes: {}", job.id, job.format, job.imported, e.getMessage());
+            job.finish(NoteImportJobDTO.Status.FAILED, e.getMessage());
+        } finally {
+            deleteFile(job);
+            pruneJobs();
+        }
+        LOG.info("Import {} of a {} archive {}: {} notes imported, {} failed", job.id, job.format, job.status, job.imported, job.failed);
+    }
+
+    private NoteArchiveReader open(Job job) throws IOException {
+        InputStream in = new BufferedInputStream(new CountingInputStream(Files.newInputStream(job.file), job.readBytes));
+        return switch (job.format) {
+            case ZIP -> new MarkdownZipNoteReader(in, properties.getMaxNoteLength());
+            case ENEX -> new EnexNoteReader(in, properties.getMaxNoteLength());
+            case CSV -> new CsvNoteReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), properties.getMaxNoteLength());
+        };
+    }
+
+    private void save(Job job, List<ImportedNote> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            job.imported.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            LOG.warn("Import {} failed to save a batch of {} Notes, saving them one by one: {}", job.id, batch.size(), e.getMessage());
+            for (ImportedNote note : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(note)));
+                    job.imported.incrementAndGet();
+                } catch (RuntimeException noteException) {
+                    job.fail(note.getSource() + ": " + noteException.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<ImportedNote> batch) {
+        Set<String> tagNames = new HashSet<>();
+        batch.forEach(note -> tagNames.addAll(validTagNames(note)));
+        Map<String, Tag> tags = tagService
+            .findOrCreateAllByName(tagNames)
+            .stream()
+            .collect(Collectors.toMap(Tag::getName, Function.identity()));
+        Iterator<Long> changeSeqs = noteChangeService.nextChangeSeqs(batch.size()).iterator();
+        for (ImportedNote imported : batch) {
+            Note note = new Note()
+                .title(title(imported))
+                .content(imported.getContent())
+                .createdAt(imported.getCreatedAt())
+                .lastModifiedAt(imported.getLastModifiedAt());
+            validTagNames(imported).forEach(name -> note.addTag(tags.get(name)));
+            note.setChangeSeq(changeSeqs.next());
+            noteRepository.save(note);
+            noteRevisionService.recordCreated(note);
+            eventPublisher.publishEvent(NoteChangedEvent.saved(note));
+        }
+    }
+
+    /**
+     * The title of the note, else the first line of its content, cut to the length of a title.
+     */
+    private static String title(ImportedNote note) {
+        String title = note.getTitle();
+        if ((title == null || title.isBlank()) && note.getContent() != null) {
+            title = note.getContent().strip().lines().findFirst().orElse("").replaceFirst("^#+\\s*", "");
+        }
+        if (title == null || title.isBlank()) {
+            title = "Untitled";
+        }
+        title = title.strip();
+        return title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+    }
+
+    /**
+     * The names that fit a tag; the others are dropped rather than failing the note.
+     */
+    private static List<String> validTagNames(ImportedNote note) {
+        return note
+            .getTagNames()
+            .stream()
+            .filter(name -> name.length() >= MIN_TAG_NAME_LENGTH && name.length() <= MAX_TAG_NAME_LENGTH)
+            .toList();
+    }
+
+    private void pruneJobs() {
+        synchronized (jobs) {
+            long finished = jobs.values().stream().filter(job -> !job.isActive()).count();
+            Iterator<Job> iterator = jobs.values().iterator();
+            while (finished > properties.getRetainedJobs() && iterator.hasNext()) {
+                if (!iterator.next().isActive()) {
+                    iterator.remove();
+                    finished--;
+                }
+            }
+        }
+    }
+
+    private static void deleteFile(Job job) {
+        if (job.file != null) {
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException e) {
+                LOG.warn("Could not delete the archive {} of import {}: {}", job.file, job.id, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Job {
+
+        private final String id;
+
+        private final Format format;
+
+        private final Instant createdAt = Instant.now();
+
+        private final AtomicLong readBytes = new AtomicLong();
+
+        private final AtomicLong imported = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final List<String> errors = new ArrayList<>();
+
+        private volatile NoteImportJobDTO.Status status = NoteImportJobDTO.Status.QUEUED;
+
+        private volatile long totalBytes;
+
+        private volatile Instant finishedAt;
+
+        private Path file;
+
+        private Job(String id, Format format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        private boolean isActive() {
+            return status == NoteImportJobDTO.Status.QUEUED || status == NoteImportJobDTO.Status.RUNNING;
+        }
+
+        private void fail(String error) {
+            failed.incrementAndGet();
+            addError(error);
+        }
+
+        private void finish(NoteImportJobDTO.Status status, String error) {
+            if (error != null) {
+                addError(error);
+            }
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        private void addError(String error) {
+            synchronized (errors) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        private NoteImportJobDTO toDto() {
+            NoteImportJobDTO dto = new NoteImportJobDTO();
+            dto.setId(id);
+            dto.setFormat(format.name().toLowerCase(Locale.ROOT));
+            dto.setStatus(status);
+            dto.setTotalBytes(totalBytes);
+            dto.setReadBytes(readBytes.get());
+            dto.setImported(imported.get());
+            dto.setFailed(failed.get());
+            synchronized (errors) {
+                dto.setErrors(new ArrayList<>(errors));
+            }
+            dto.setCreatedAt(createdAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+
+    /**
+     * Stream counting the bytes read from the archive, to report the progress of its import.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        private CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count.addAndGet(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
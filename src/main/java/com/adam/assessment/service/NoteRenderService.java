@@ -0,0 +1,89 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.service.markdown.MarkdownRenderer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service rendering the Markdown content of {@link com.adam.assessment.domain.Note}s to HTML.
+ * <p>
+ * Renders are cached by the SHA-256 digest of the content they were made from, so a note viewed again, or another
+ * note with the same content, is rendered once; a changed content has another digest and never meets a stale render.
+ * The cache holds {@code application.rendering.cache-size} bytes of renders off-heap, of contents of at most
+ * {@code application.rendering.max-cached-length} characters, longer ones being rendered on every request.
+ */
+@Service
+@Transactional(readOnly = true)
+public class NoteRenderService {
+
+    public static final String RENDERED_CONTENT_CACHE = "renderedNoteContent";
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteRenderService.class);
+
+    private final NoteRepository noteRepository;
+
+    private final Cache cache;
+
+    private final ApplicationProperties.Rendering properties;
+
+    public NoteRenderService(NoteRepository noteRepository, CacheManager cacheManager, ApplicationProperties applicationProperties) {
+        this.noteRepository = noteRepository;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(RENDERED_CONTENT_CACHE));
+        this.properties = applicationProperties.getRendering();
+    }
+
+    /**
+     * A note rendered to HTML.
+     *
+     * @param version the version of the note the HTML was rendered from.
+     * @param html the HTML fragment.
+     */
+    public record RenderedNote(long version, String html) {}
+
+    /**
+     * Render the content of a note.
+     *
+     * @param id the id of the note.
+     * @return the rendered note, or empty if the note does not exist.
+     */
+    public Optional<RenderedNote> render(Long id) {
+        LOG.debug("Request to render Note : {}", id);
+        return noteRepository.findById(id).map(note -> new RenderedNote(note.getVersion(), render(note.getContent())));
+    }
+
+    /**
+     * Render a Markdown content, from the cache when it was already rendered.
+     *
+     * @param content the content.
+     * @return the HTML fragment.
+     */
+    public String render(String content) {
+        if (content == null || content.isEmpty()) {
+            return "";
+        }
+        if (content.length() > properties.getMaxCachedLength()) {
+            return MarkdownRenderer.render(content);
+        }
+        return cache.get(MarkdownRenderer.VERSION + ":" + digest(content), () -> MarkdownRenderer.render(content));
+    }
+
+    private static String digest(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.domain.Tag;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.TagRepository;
+import com.adam.assessment.service.dto.NoteRetagResultDTO;
+import com.adam.assessment.service.event.NotesRetaggedEvent;
+import com.adam.assessment.service.event.TagChangedEvent;
+import com.adam.assessment.service.search.TagFilter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service changing the tags of many {@link com.adam.assessment.domain.Note}s at once.
+ * <p>
+ * The notes are never loaded: the ones to change are selected by id, then tagged and untagged by set-based statements
+ * on the join table, {@code application.bulk.chunk-size} notes at a time. Each changed note still takes a new change
+ * sequence number and version, as saving it would, so that clients see it in the change feed and their copies are
+ * no longer current.
+ */
+@Service
+@Transactional
+public class NoteRetagService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteRetagService.class);
+
+    private final NoteRepository noteRepository;
+
+    private final TagRepository tagRepository;
+
+    private final NoteChangeService noteChangeService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApplicationProperties.Bulk properties;
+
+    public NoteRetagService(
+        NoteRepository noteRepository,
+        TagRepository tagRepository,
+        NoteChangeService noteChangeService,
+        ApplicationEventPublisher eventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.noteRepository = noteRepository;
+        this.tagRepository = tagRepository;
+        this.noteChangeService = noteChangeService;
+        this.eventPublisher = eventPublisher;
+        this.properties = applicationProperties.getBulk();
+    }
+
+    /**
+     * Add tags to, and remove tags from, the notes matching a filter on their tags.
+     *
+     * @param filter the filter on the tags of the notes.
+     * @param addedNames the names of the tags to add.
+     * @param removedNames the names of the tags to remove.
+     * @return the number of notes changed, and of tags added and removed.
+     * @throws UnknownTagException if a tag to add or remove does not exist.
+     */
+    public NoteRetagResultDTO retag(TagFilter filter, Collection<String> addedNames, Collection<String> removedNames) {
+        LOG.debug("Request to add Tags {} to and remove Tags {} from the Notes matching {}", addedNames, removedNames, filter);
+        List<Long> addedIds = findExistingTagIds(addedNames);
+        List<Long> removedIds = findExistingTagIds(removedNames);
+        NoteRetagResultDTO result = new NoteRetagResultDTO();
+
+        List<Long> includedIds = findTagIds(filter.getIncluded());
+        // a tag that does not exist is carried by no note
+        boolean unknownTags = filter.isMatchAll()
+            ? includedIds.size() < filter.getIncluded().size()
+            : !filter.getIncluded().isEmpty() && includedIds.isEmpty();
+        if (unknownTags) {
+            return result;
+        }
+        List<Long> noteIds = noteRepository.findIdsToRetag(
+            includedIds,
+            filter.isMatchAll(),
+            findTagIds(filter.getExcluded()),
+            addedIds,
+            removedIds
+        );
+        if (noteIds.isEmpty()) {
+            return result;
+        }
+
+        holdBackChangeFeed();
+        int added = 0;
+        int removed = 0;
+        for (List<Long> chunk : chunks(noteIds)) {
+            noteRepository.touchAll(chunk);
+            removed += noteRepository.removeTags(chunk, removedIds);
+            for (Long tagId : addedIds) {
+                added += noteRepository.addTag(chunk, tagId);
+            }
+        }
+        eventPublisher.publishEvent(new NotesRetaggedEvent(noteIds, addedIds, removedIds));
+        result.setNotes(noteIds.size());
+        result.setAdded(added);
+        result.setRemoved(removed);
+        return result;
+    }
+
+    /**
+     * Merge a tag into another one: the notes carrying the source tag carry the target tag instead, and the source tag
+     * is deleted.
+     *
+     * @param sourceId the id of the tag to merge, which must exist.
+     * @param targetId the id of the tag to merge it into, which must exist.
+     * @return the number of notes that were carrying the source tag.
+     */
+    public int merge(Long sourceId, Long targetId) {
+        LOG.debug("Request to merge Tag : {} into Tag : {}", sourceId, targetId);
+        List<Long> noteIds = noteRepository.findIdsByTag(sourceId);
+        if (!noteIds.isEmpty()) {
+            holdBackChangeFeed();
+            for (List<Long> chunk : chunks(noteIds)) {
+                noteRepository.touchAll(chunk);
+            }
+            noteRepository.mergeTag(sourceId, targetId);
+            eventPublisher.publishEvent(new NotesRetaggedEvent(noteIds, List.of(targetId), List.of(sourceId)));
+        }
+        tagRepository.deleteById(sourceId);
+        eventPublisher.publishEvent(TagChangedEvent.deleted(sourceId));
+        return noteIds.size();
+    }
+
+    /**
+     * The statements take their change sequence numbers straight from the database sequence, above the one taken here,
+     * so the feed is held below all of them until this transaction completes.
+     */
+    private void holdBackChangeFeed() {
+        noteChangeService.nextChangeSeq();
+    }
+
+    private List<Long> findExistingTagIds(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Long> idsByName = tagRepository.findAllByNameIn(names).stream().collect(Collectors.toMap(Tag::getName, Tag::getId));
+        List<String> unknown = names.stream().filter(name -> !idsByName.containsKey(name)).toList();
+        if (!unknown.isEmpty()) {
+            throw new UnknownTagException(unknown);
+        }
+        return names.stream().map(idsByName::get).distinct().toList();
+    }
+
+    private List<Long> findTagIds(Collection<String> names) {
+        return names.isEmpty() ? List.of() : tagRepository.findAllByNameIn(names).stream().map(Tag::getId).toList();
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+            chunks.add(ids.subList(from, Math.min(from + properties.getChunkSize(), ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,237 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.domain.Note;
+import com.adam.assessment.domain.NoteContentCodec;
+import com.adam.assessment.domain.NoteContentHash;
+import com.adam.assessment.domain.NoteDelta;
+import com.adam.assessment.domain.NoteRevision;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteRevisionHeader;
+import com.adam.assessment.repository.NoteRevisionLastHeader;
+import com.adam.assessment.repository.NoteRevisionRepository;
+import com.adam.assessment.service.dto.NoteRevisionDTO;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link com.adam.assessment.domain.NoteRevision}.
+ * <p>
+ * A revision is recorded in the transaction saving each change of the title or content of a note. Its content is the
+ * delta from the previous revision, so that the history of a long note edited a little at a time takes little more
+ * space than the note itself; every {@code application.revisions.snapshot-interval} revisions, or when the delta would
+ * not be much smaller, the content is stored whole instead, bounding the deltas applied to read any revision.
+ */
+@Service
+@Transactional
+public class NoteRevisionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteRevisionService.class);
+
+    private final NoteRevisionRepository noteRevisionRepository;
+
+    private final NoteRepository noteRepository;
+
+    private final ApplicationProperties.Revisions properties;
+
+    private final ApplicationProperties.ContentCompression compressionProperties;
+
+    public NoteRevisionService(
+        NoteRevisionRepository noteRevisionRepository,
+        NoteRepository noteRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.noteRevisionRepository = noteRevisionRepository;
+        this.noteRepository = noteRepository;
+        this.properties = applicationProperties.getRevisions();
+        this.compressionProperties = applicationProperties.getContentCompression();
+    }
+
+    /**
+     * Record the first revision of a note just created, without looking up its revisions.
+     *
+     * @param note the created note.
+     */
+    public void recordCreated(Note note) {
+        noteRevisionRepository.save(snapshot(newRevision(note, 1), Objects.requireNonNullElse(note.getContent(), "")));
+    }
+
+    /**
+     * Get the headers of the last revisions of notes, with one query.
+     *
+     * @param noteIds the ids of the notes.
+     * @return the header of the last revision of each note having one, by note id.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, NoteRevisionHeader> findLastRevisions(Collection<Long> noteIds) {
+        if (noteIds.isEmpty()) {
+            return Map.of();
+        }
+        return noteRevisionRepository
+            .findLastHeadersByNoteIdIn(noteIds)
+            .stream()
+            .collect(Collectors.toMap(NoteRevisionLastHeader::getNoteId, Function.identity()));
+    }
+
+    /**
+     * Record the revision of a note just saved, unless its title and content are those of its last revision.
+     *
+     * @param note the saved note.
+     * @param previousContent the content of the note before it was saved.
+     * @see #record(Note, String, NoteRevisionHeader)
+     */
+    public void record(Note note, String previousContent) {
+        record(note, previousContent, noteRevisionRepository.findFirstHeaderByNoteIdOrderByRevisionDesc(note.getId()).orElse(null));
+    }
+
+    /**
+     * Record the revision of a note just saved, unless its title and content are those of its last revision.
+     * <p>
+     * The delta is computed from the content the note had before, which is the content of its last revision unless the
+     * note was changed without recording one: a snapshot is then recorded instead. Taking the last revision from the
+     * caller runs no query, which would flush the writes pending in a batch.
+     *
+     * @param note the saved note.
+     * @param previousContent the content of the note before it was saved.
+     * @param last the header of the last revision of the note, {@code null} if it has none.
+     */
+    public void record(Note note, String previousContent, NoteRevisionHeader last) {
+        if (last != null && Objects.equals(last.getContentHash(), note.getContentHash()) && Objects.equals(last.getTitle(), note.getTitle())) {
+            return;
+        }
+        String content = Objects.requireNonNullElse(note.getContent(), "");
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        NoteRevision revision = newRevision(note, last == null ? 1 : last.getRevision() + 1);
+        byte[] delta = null;
+        if (
+            last != null &&
+            previousContent != null &&
+            last.getDepth() + 1 < properties.getSnapshotInterval() &&
+            Objects.equals(last.getContentHash(), NoteContentHash.of(previousContent))
+        ) {
+            delta = NoteDelta.diff(previousContent.getBytes(StandardCharsets.UTF_8), contentBytes);
+        }
+        if (delta != null && delta.length <= contentBytes.length / 2) {
+            revision.snapshot(false).depth(last.getDepth() + 1).data(delta);
+        } else {
+            snapshot(revision, content);
+        }
+        noteRevisionRepository.save(revision);
+    }
+
+    /**
+     * Get the revisions of a note, without their content.
+     *
+     * @param noteId the id of the note.
+     * @param pageable the pagination information, whose sort is ignored.
+     * @return the page of revisions, the latest first, or empty if the note does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Page<NoteRevisionDTO>> findAllByNote(Long noteId, Pageable pageable) {
+        LOG.debug("Request to get the Revisions of Note : {}", noteId);
+        if (!noteRepository.existsById(noteId)) {
+            return Optional.empty();
+        }
+        Pageable latestFirst = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "revision"));
+        return Optional.of(noteRevisionRepository.findHeadersByNoteId(noteId, latestFirst).map(header -> toDto(noteId, header)));
+    }
+
+    /**
+     * Get one revision of a note, with its content.
+     *
+     * @param noteId the id of the note.
+     * @param revision the number of the revision.
+     * @return the revision, or empty if the note has no such revision.
+     */
+    @Transactional(readOnly = true)
+    public Optional<NoteRevisionDTO> findOne(Long noteId, int revision) {
+        LOG.debug("Request to get Revision {} of Note : {}", revision, noteId);
+        return noteRevisionRepository.findHeaderByNoteIdAndRevision(noteId, revision).map(header -> toDtoWithContent(noteId, header));
+    }
+
+    /**
+     * Get the revision of a note that was the latest at some time, with its content.
+     *
+     * @param noteId the id of the note.
+     * @param time the time.
+     * @return the revision, or empty if the note had no revision yet at that time.
+     */
+    @Transactional(readOnly = true)
+    public Optional<NoteRevisionDTO> findAt(Long noteId, Instant time) {
+        LOG.debug("Request to get the Revision of Note : {} at {}", noteId, time);
+        return noteRevisionRepository
+            .findFirstHeaderByNoteIdAndCreatedAtLessThanEqualOrderByRevisionDesc(noteId, time)
+            .map(header -> toDtoWithContent(noteId, header));
+    }
+
+    private static NoteRevision newRevision(Note note, int revision) {
+        return new NoteRevision()
+            .revision(revision)
+            .title(note.getTitle())
+            .contentLength(note.getContent() == null ? 0 : note.getContent().length())
+            .contentHash(note.getContentHash())
+            .createdAt(Instant.now())
+            .note(note);
+    }
+
+    private NoteRevision snapshot(NoteRevision revision, String content) {
+        return revision.snapshot(true).depth(0).data(NoteContentCodec.deflate(content, compressionProperties.getLevel()));
+    }
+
+    private NoteRevisionDTO toDtoWithContent(Long noteId, NoteRevisionHeader header) {
+        NoteRevisionDTO dto = toDto(noteId, header);
+        dto.setContent(content(noteId, header));
+        return dto;
+    }
+
+    private static NoteRevisionDTO toDto(Long noteId, NoteRevisionHeader header) {
+        NoteRevisionDTO dto = new NoteRevisionDTO();
+        dto.setNoteId(noteId);
+        dto.setRevision(header.getRevision());
+        dto.setTitle(header.getTitle());
+        dto.setContentLength(header.getContentLength());
+        dto.setCreatedAt(header.getCreatedAt());
+        return dto;
+    }
+
+    /**
+     * Rebuild the content of a revision from the previous snapshot and the deltas recorded since, read with one query.
+     */
+    private String content(Long noteId, NoteRevisionHeader header) {
+        List<NoteRevision> chain = noteRevisionRepository.findAllByNoteIdAndRevisionBetweenOrderByRevision(
+            noteId,
+            header.getRevision() - header.getDepth(),
+            header.getRevision()
+        );
+        if (chain.size() != header.getDepth() + 1 || !chain.get(0).isSnapshot()) {
+            throw new IllegalStateException("The deltas of Revision " + header.getRevision() + " of Note " + noteId + " are incomplete");
+        }
+        String content = NoteContentCodec.inflate(chain.get(0).getData());
+        if (chain.size() > 1) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            for (NoteRevision delta : chain.subList(1, chain.size())) {
+                bytes = NoteDelta.apply(bytes, delta.getData());
+            }
+            content = new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (!Objects.equals(NoteContentHash.of(content), header.getContentHash())) {
+            throw new IllegalStateException("The content of Revision " + header.getRevision() + " of Note " + noteId + " is corrupt");
+        }
+        return content;
+    }
+}
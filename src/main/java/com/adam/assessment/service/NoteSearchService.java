@@ -0,0 +1,184 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.NoteHeader;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteText;
+import com.adam.assessment.service.dto.NoteSearchHitDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.event.NoteSearchIndexRebuiltEvent;
+import com.adam.assessment.service.search.NoteSearchIndex;
+import com.adam.assessment.service.search.RoaringBitmap;
+import com.adam.assessment.service.search.TermStatistics;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service for full-text search over {@link com.adam.assessment.domain.Note} titles and contents.
+ * <p>
+ * The index lives in memory on each node. It is rebuilt from the database when the application starts
+ * and then kept current from the {@link NoteChangedEvent}s published by {@link NoteService} once their
+ * transaction has committed. Queries never read the {@code content} column.
+ */
+@Service
+public class NoteSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteSearchService.class);
+
+    private final NoteRepository noteRepository;
+
+    private final ApplicationProperties.Search properties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile NoteSearchIndex index;
+
+    /**
+     * Changes committed while a rebuild is running, replayed on the rebuilt index before it is swapped in.
+     * Guarded by {@code this}.
+     */
+    private Map<Long, NoteChangedEvent> pendingChanges;
+
+    public NoteSearchService(
+        NoteRepository noteRepository,
+        ApplicationProperties applicationProperties,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.noteRepository = noteRepository;
+        this.properties = applicationProperties.getSearch();
+        this.eventPublisher = eventPublisher;
+        this.index = new NoteSearchIndex(properties.getTitleBoost());
+    }
+
+    /**
+     * Search the notes.
+     *
+     * @param query the free text query.
+     * @param pageable the pagination information.
+     * @return the page of matching notes, best matches first.
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteSearchHitDTO> search(String query, Pageable pageable) {
+        LOG.debug("Request to search Notes for query : {}", query);
+        NoteSearchIndex.Result result = index.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        if (result.getHits().isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, result.getTotalHits());
+        }
+
+        Map<Long, NoteHeader> headers = noteRepository
+            .findHeadersByIdIn(result.getHits().stream().map(NoteSearchIndex.Hit::getNoteId).toList())
+            .stream()
+            .collect(Collectors.toMap(NoteHeader::getId, Function.identity()));
+        List<NoteSearchHitDTO> hits = new ArrayList<>(result.getHits().size());
+        for (NoteSearchIndex.Hit hit : result.getHits()) {
+            NoteHeader header = headers.get(hit.getNoteId());
+            if (header != null) {
+                NoteSearchHitDTO dto = new NoteSearchHitDTO();
+                dto.setId(header.getId());
+                dto.setTitle(header.getTitle());
+                dto.setCreatedAt(header.getCreatedAt());
+                dto.setLastModifiedAt(header.getLastModifiedAt());
+                dto.setScore(hit.getScore());
+                hits.add(dto);
+            }
+        }
+        return new PageImpl<>(hits, pageable, result.getTotalHits());
+    }
+
+    /**
+     * Find every note matching the query, without ranking them.
+     *
+     * @param query the free text query.
+     * @return the ids of the matching notes.
+     */
+    public RoaringBitmap match(String query) {
+        return index.match(query);
+    }
+
+    /**
+     * @return the statistics of the terms of the notes currently indexed.
+     */
+    public TermStatistics termStatistics() {
+        return index;
+    }
+
+    /**
+     * Rebuild the index from the database once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        if (!properties.isRebuildOnStartup()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build the Note search index on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the index from the database, streaming the notes so they are never all held in memory.
+     * Searches keep being served by the previous index until the new one is complete.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LOG.debug("Request to rebuild the Note search index");
+        synchronized (this) {
+            pendingChanges = new LinkedHashMap<>();
+        }
+        NoteSearchIndex rebuilt = new NoteSearchIndex(properties.getTitleBoost());
+        try (Stream<NoteText> notes = noteRepository.streamAllText()) {
+            notes.forEach(note -> rebuilt.index(note.getId(), note.getTitle(), note.getContent()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendingChanges.values().forEach(event -> apply(rebuilt, event));
+            pendingChanges = null;
+            index = rebuilt;
+        }
+        LOG.info("Note search index rebuilt with {} notes", rebuilt.size());
+        eventPublisher.publishEvent(new NoteSearchIndexRebuiltEvent(rebuilt.size()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        synchronized (this) {
+            if (pendingChanges != null) {
+                pendingChanges.put(event.getNoteId(), event);
+            }
+        }
+        apply(index, event);
+    }
+
+    private static void apply(NoteSearchIndex target, NoteChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getNoteId());
+        } else {
+            target.index(event.getNoteId(), event.getTitle(), event.getContent());
+        }
+    }
+}
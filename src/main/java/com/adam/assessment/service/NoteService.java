@@ -1,14 +1,48 @@
 package com.adam.assessment.service;
 
+import com.adam.assessment.config.ApplicationProperties;
 import com.adam.assessment.domain.Note;
+import com.adam.assessment.domain.NoteContentHash;
+import com.adam.assessment.domain.NoteTombstone;
+import com.adam.assessment.repository.NoteContentHashId;
+import com.adam.assessment.repository.NoteDuplicateGroup;
+import com.adam.assessment.repository.NoteHeader;
 import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteSnippet;
+import com.adam.assessment.repository.NoteTagId;
+import com.adam.assessment.repository.NoteTombstoneRepository;
+import com.adam.assessment.repository.TagRepository;
+import com.adam.assessment.service.dto.NoteChangesDTO;
+import com.adam.assessment.service.dto.NoteContentEditDTO;
 import com.adam.assessment.service.dto.NoteDTO;
+import com.adam.assessment.service.dto.NoteDuplicateGroupDTO;
+import com.adam.assessment.service.dto.NoteSummaryDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
 import com.adam.assessment.service.mapper.NoteMapper;
+import com.adam.assessment.service.search.RoaringBitmap;
+import com.adam.assessment.service.search.TagFilter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,13 +55,59 @@ public class NoteService {
 
     private static final Logger LOG = LoggerFactory.getLogger(NoteService.class);
 
+    private static final int MAX_DUPLICATE_IDS = 100;
+
+    /**
+     * The number of notes with the hash of a content that are compared with it, more than enough unless the hash
+     * collides many times.
+     */
+    private static final int MAX_DUPLICATE_CANDIDATES = 8;
+
     private final NoteRepository noteRepository;
 
     private final NoteMapper noteMapper;
 
-    public NoteService(NoteRepository noteRepository, NoteMapper noteMapper) {
+    private final NoteChangeService noteChangeService;
+
+    private final NoteTombstoneRepository noteTombstoneRepository;
+
+    private final TagRepository tagRepository;
+
+    private final TagService tagService;
+
+    private final NoteTagIndexService noteTagIndexService;
+
+    private final NoteRevisionService noteRevisionService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApplicationProperties.Summary summaryProperties;
+
+    private final ApplicationProperties.Changes changesProperties;
+
+    public NoteService(
+        NoteRepository noteRepository,
+        NoteMapper noteMapper,
+        NoteChangeService noteChangeService,
+        NoteTombstoneRepository noteTombstoneRepository,
+        TagRepository tagRepository,
+        TagService tagService,
+        NoteTagIndexService noteTagIndexService,
+        NoteRevisionService noteRevisionService,
+        ApplicationEventPublisher eventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
         this.noteRepository = noteRepository;
         this.noteMapper = noteMapper;
+        this.noteChangeService = noteChangeService;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.tagRepository = tagRepository;
+        this.tagService = tagService;
+        this.noteTagIndexService = noteTagIndexService;
+        this.noteRevisionService = noteRevisionService;
+        this.eventPublisher = eventPublisher;
+        this.summaryProperties = applicationProperties.getSummary();
+        this.changesProperties = applicationProperties.getChanges();
     }
 
     /**
@@ -39,7 +119,11 @@ public class NoteService {
     public NoteDTO save(NoteDTO noteDTO) {
         LOG.debug("Request to save Note : {}", noteDTO);
         Note note = noteMapper.toEntity(noteDTO);
+        addNamedTags(note, noteDTO);
+        note.setChangeSeq(noteChangeService.nextChangeSeq());
         note = noteRepository.save(note);
+        noteRevisionService.recordCreated(note);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(note));
         return noteMapper.toDto(note);
     }
 
@@ -52,7 +136,19 @@ public class NoteService {
     public NoteDTO update(NoteDTO noteDTO) {
         LOG.debug("Request to update Note : {}", noteDTO);
         Note note = noteMapper.toEntity(noteDTO);
-        note = noteRepository.save(note);
+        addNamedTags(note, noteDTO);
+        // the merge would load the existing note anyway, its previous content is the base of the revision
+        Optional<Note> existingNote = noteRepository.findById(noteDTO.getId());
+        String previousContent = existingNote.map(Note::getContent).orElse(null);
+        if (noteDTO.getVersion() == null) {
+            // without the version the client read, the update applies to the current version
+            existingNote.map(Note::getVersion).ifPresent(note::setVersion);
+        }
+        note.setChangeSeq(noteChangeService.nextChangeSeq());
+        // flushed so that the returned version is the incremented one
+        note = noteRepository.saveAndFlush(note);
+        noteRevisionService.record(note, previousContent);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(note));
         return noteMapper.toDto(note);
     }
 
@@ -68,14 +164,156 @@ public class NoteService {
         return noteRepository
             .findById(noteDTO.getId())
             .map(existingNote -> {
+                checkVersion(existingNote, noteDTO.getVersion());
+                String previousContent = existingNote.getContent();
                 noteMapper.partialUpdate(existingNote, noteDTO);
+                addNamedTags(existingNote, noteDTO);
+                existingNote.setChangeSeq(noteChangeService.nextChangeSeq());
+
+                Note note = noteRepository.saveAndFlush(existingNote);
+                noteRevisionService.record(note, previousContent);
+                eventPublisher.publishEvent(NoteChangedEvent.saved(note));
+                return note;
+            })
+            .map(noteMapper::toDto);
+    }
+
+    /**
+     * Edit ranges of the content of a note, without the client sending the whole content.
+     * <p>
+     * The edits are applied in order, each to the content as changed by the previous ones. The note is not saved if its
+     * content is left unchanged.
+     *
+     * @param id the id of the note.
+     * @param expectedVersion the version of the note the edits are based on, {@code null} to edit the current version.
+     * @param edits the edits.
+     * @return the persisted entity, or empty if the note does not exist.
+     * @throws InvalidContentEditException if an edit is out of the content, or splits a character.
+     */
+    public Optional<NoteDTO> editContent(Long id, Long expectedVersion, List<NoteContentEditDTO> edits) {
+        LOG.debug("Request to edit the content of Note : {} with {} edits", id, edits.size());
+        return changeContent(id, expectedVersion, content -> applyEdits(content, edits));
+    }
+
+    /**
+     * Append text to the content of a note.
+     *
+     * @param id the id of the note.
+     * @param expectedVersion the version of the note the text is appended to, {@code null} to append to the current version.
+     * @param text the text to append.
+     * @return the persisted entity, or empty if the note does not exist.
+     */
+    public Optional<NoteDTO> appendContent(Long id, Long expectedVersion, String text) {
+        LOG.debug("Request to append {} characters to the content of Note : {}", text.length(), id);
+        return changeContent(id, expectedVersion, content -> content.concat(text));
+    }
 
-                return existingNote;
+    private Optional<NoteDTO> changeContent(Long id, Long expectedVersion, UnaryOperator<String> change) {
+        return noteRepository
+            .findById(id)
+            .map(existingNote -> {
+                checkVersion(existingNote, expectedVersion);
+                String previousContent = existingNote.getContent();
+                String content = change.apply(Objects.requireNonNullElse(previousContent, ""));
+                if (content.equals(Objects.requireNonNullElse(previousContent, ""))) {
+                    return existingNote;
+                }
+                existingNote.setContent(content);
+                existingNote.setChangeSeq(noteChangeService.nextChangeSeq());
+
+                Note note = noteRepository.saveAndFlush(existingNote);
+                noteRevisionService.record(note, previousContent);
+                eventPublisher.publishEvent(NoteChangedEvent.saved(note));
+                return note;
             })
-            .map(noteRepository::save)
             .map(noteMapper::toDto);
     }
 
+    /**
+     * Apply edits to a content, copying it once whatever the number of edits.
+     */
+    private static String applyEdits(String content, List<NoteContentEditDTO> edits) {
+        StringBuilder edited = new StringBuilder(content);
+        for (NoteContentEditDTO edit : edits) {
+            if (edit == null || edit.getOffset() == null || edit.getLength() == null) {
+                throw new InvalidContentEditException("An edit must have an offset and a length");
+            }
+            int offset = edit.getOffset();
+            int end = offset + edit.getLength();
+            if (offset < 0 || edit.getLength() < 0 || end > edited.length() || end < 0) {
+                throw new InvalidContentEditException("The edit of " + edit.getLength() + " characters at " + offset + " is out of the content");
+            }
+            if (splitsSurrogatePair(edited, offset) || splitsSurrogatePair(edited, end)) {
+                throw new InvalidContentEditException("The edit of " + edit.getLength() + " characters at " + offset + " splits a character");
+            }
+            edited.replace(offset, end, Objects.requireNonNullElse(edit.getReplacement(), ""));
+        }
+        return edited.toString();
+    }
+
+    private static boolean splitsSurrogatePair(CharSequence content, int index) {
+        return index > 0 && index < content.length() && Character.isSurrogatePair(content.charAt(index - 1), content.charAt(index));
+    }
+
+    /**
+     * Add the tags the note references by name, resolved with one query and the missing ones created with one statement.
+     */
+    private void addNamedTags(Note note, NoteDTO noteDTO) {
+        if (noteDTO.getTagNames() != null) {
+            tagService.findOrCreateAllByName(noteDTO.getTagNames()).forEach(note::addTag);
+        }
+    }
+
+    /**
+     * Tag a note.
+     * <p>
+     * Only the tags of the note are loaded, and the tag is attached by reference, so the other notes of the tag are
+     * never read. Tagging a note with a tag it already carries changes nothing.
+     *
+     * @param id the id of the note.
+     * @param tagId the id of the tag, which must exist.
+     * @return whether the note exists.
+     */
+    public boolean addTag(Long id, Long tagId) {
+        LOG.debug("Request to tag Note : {} with Tag : {}", id, tagId);
+        return noteRepository
+            .findById(id)
+            .map(note -> {
+                if (note.getTags().stream().noneMatch(tag -> tagId.equals(tag.getId()))) {
+                    note.addTag(tagRepository.getReferenceById(tagId));
+                    saveTags(note);
+                }
+                return true;
+            })
+            .orElse(false);
+    }
+
+    /**
+     * Untag a note, without reading the other notes of the tag.
+     *
+     * @param id the id of the note.
+     * @param tagId the id of the tag.
+     * @return whether the note exists.
+     */
+    public boolean removeTag(Long id, Long tagId) {
+        LOG.debug("Request to untag Note : {} from Tag : {}", id, tagId);
+        return noteRepository
+            .findById(id)
+            .map(note -> {
+                if (note.getTags().removeIf(tag -> tagId.equals(tag.getId()))) {
+                    saveTags(note);
+                }
+                return true;
+            })
+            .orElse(false);
+    }
+
+    private void saveTags(Note note) {
+        note.setChangeSeq(noteChangeService.nextChangeSeq());
+        noteRepository.saveAndFlush(note);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(note));
+    }
+
     /**
      * Get all the notes.
      *
@@ -85,16 +323,325 @@ public class NoteService {
     @Transactional(readOnly = true)
     public Page<NoteDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all Notes");
-        return noteRepository.findAll(pageable).map(noteMapper::toDto);
+        Page<Note> page = noteRepository.findAll(pageable);
+        return page.map(withTagIds(page.getContent()));
     }
 
     /**
      * Get all the notes with eager load of many-to-many relationships.
+     * <p>
+     * The DTOs only hold the ids of the tags, which are read from the join table like in {@link #findAll(Pageable)}
+     * rather than by fetching the tags.
      *
      * @return the list of entities.
      */
+    @Transactional(readOnly = true)
     public Page<NoteDTO> findAllWithEagerRelationships(Pageable pageable) {
-        return noteRepository.findAllWithEagerRelationships(pageable).map(noteMapper::toDto);
+        return findAll(pageable);
+    }
+
+    /**
+     * Get the window of notes following a keyset position.
+     *
+     * @param position the keyset position to continue from.
+     * @param sort the sort order, ending with the id.
+     * @param size the maximum number of notes to return.
+     * @return the window of entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<NoteDTO> findAll(KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get a window of Notes after {}", position);
+        Window<Note> window = noteRepository.findAllBy(position, sort, Limit.of(size));
+        return window.map(withTagIds(window.getContent()));
+    }
+
+    /**
+     * Get the window of notes following a keyset position with eager load of many-to-many relationships.
+     *
+     * @param position the keyset position to continue from.
+     * @param sort the sort order, ending with the id.
+     * @param size the maximum number of notes to return.
+     * @return the window of entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<NoteDTO> findAllWithEagerRelationships(KeysetScrollPosition position, Sort sort, int size) {
+        return findAll(position, sort, size);
+    }
+
+    /**
+     * Get the notes carrying all, or any, of the included tags and none of the excluded ones, ordered by id.
+     * <p>
+     * The matching ids are computed by the tag index, so only the notes of the requested page are read.
+     *
+     * @param filter the filter on the tags of the notes.
+     * @param pageable the pagination information, sorted by id if at all.
+     * @return the page of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteDTO> findAllByTags(TagFilter filter, Pageable pageable) {
+        LOG.debug("Request to get a page of Notes matching {}", filter);
+        RoaringBitmap matches = noteTagIndexService.match(filter);
+        Sort.Order idOrder = pageable.getSort().getOrderFor("id");
+        long[] ids = idOrder != null && idOrder.isDescending()
+            ? matches.toArrayDescending(pageable.getOffset(), pageable.getPageSize())
+            : matches.toArray(pageable.getOffset(), pageable.getPageSize());
+        List<Note> notes = new ArrayList<>(ids.length);
+        if (ids.length > 0) {
+            Map<Long, Note> notesById = noteRepository
+                .findAllById(Arrays.stream(ids).boxed().toList())
+                .stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+            for (long id : ids) {
+                Note note = notesById.get(id);
+                // a note deleted since the index was queried is left out of the page
+                if (note != null) {
+                    notes.add(note);
+                }
+            }
+        }
+        return new PageImpl<>(notes.stream().map(withTagIds(notes)).toList(), pageable, matches.cardinality());
+    }
+
+    /**
+     * Get the notes saved and deleted since a position in the change feed, in the order of their changes.
+     *
+     * @param since the token returned with the previous changes, or {@code null} or empty to get every note.
+     * @param limit the maximum number of changes to return, {@code null} for the default limit.
+     * @return the changes, with the token to continue from.
+     * @throws InvalidChangeTokenException if {@code since} is malformed or has expired.
+     */
+    @Transactional(readOnly = true)
+    public NoteChangesDTO findChanges(String since, Integer limit) {
+        LOG.debug("Request to get the changes of Notes since {}", since);
+        int size = limit == null ? changesProperties.getDefaultLimit() : Math.max(1, Math.min(limit, changesProperties.getMaxLimit()));
+        // the horizon is taken first, so that every change below it has committed before the queries run
+        NoteChangeService.Horizon horizon = noteChangeService.horizon();
+        NoteChangeService.Position position = since == null || since.isEmpty() ? null : noteChangeService.decodeToken(since);
+        long sinceSeq = position == null ? 0 : position.getChangeSeq();
+        List<Note> notes = noteRepository.findChanges(sinceSeq, horizon.getUntil(), Limit.of(size + 1));
+        List<NoteTombstone> tombstones = noteTombstoneRepository.findChanges(sinceSeq, horizon.getUntil(), Limit.of(size + 1));
+
+        // merge both lists, each ordered by change sequence, up to the limit
+        List<Note> changedNotes = new ArrayList<>();
+        NoteChangesDTO changes = new NoteChangesDTO();
+        long lastSeq = sinceSeq;
+        int noteIndex = 0;
+        int tombstoneIndex = 0;
+        while (noteIndex + tombstoneIndex < size && (noteIndex < notes.size() || tombstoneIndex < tombstones.size())) {
+            if (
+                tombstoneIndex == tombstones.size() ||
+                (noteIndex < notes.size() && notes.get(noteIndex).getChangeSeq() < tombstones.get(tombstoneIndex).getChangeSeq())
+            ) {
+                Note note = notes.get(noteIndex++);
+                changedNotes.add(note);
+                lastSeq = note.getChangeSeq();
+            } else {
+                NoteTombstone tombstone = tombstones.get(tombstoneIndex++);
+                changes.getDeletedIds().add(tombstone.getNoteId());
+                lastSeq = tombstone.getChangeSeq();
+            }
+        }
+        changes.setNotes(changedNotes.stream().map(withTagIds(changedNotes)).toList());
+        changes.setHasMore(noteIndex < notes.size() || tombstoneIndex < tombstones.size());
+        // a client stopping short of the horizon may still need deletions retained since its previous token
+        Instant asOf = horizon.getAsOf();
+        if (changes.isHasMore() && position != null && position.getAsOf().isBefore(asOf)) {
+            asOf = position.getAsOf();
+        }
+        changes.setNext(noteChangeService.encodeToken(lastSeq, asOf));
+        return changes;
+    }
+
+    /**
+     * Get the version of a note, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return noteRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the ids and versions of a page of notes, without loading them.
+     *
+     * @param pageable the pagination information.
+     * @return the page of notes holding only their id and version.
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteDTO> findAllVersions(Pageable pageable) {
+        return noteRepository
+            .findVersionsBy(pageable)
+            .map(entityVersion -> {
+                NoteDTO noteDTO = new NoteDTO();
+                noteDTO.setId(entityVersion.getId());
+                noteDTO.setVersion(entityVersion.getVersion());
+                return noteDTO;
+            });
+    }
+
+    /**
+     * Get the summaries of all the notes.
+     *
+     * @param pageable the pagination information.
+     * @return the page of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteSummaryDTO> findAllSummaries(Pageable pageable) {
+        LOG.debug("Request to get a page of Note summaries");
+        Page<NoteHeader> page = noteRepository.findHeadersBy(pageable);
+        return page.map(summarize(page.getContent()));
+    }
+
+    /**
+     * Get the summaries of the window of notes following a keyset position.
+     *
+     * @param position the keyset position to continue from.
+     * @param sort the sort order, ending with the id.
+     * @param size the maximum number of notes to return.
+     * @return the window of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Window<NoteSummaryDTO> findAllSummaries(KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get a window of Note summaries after {}", position);
+        Window<NoteHeader> window = noteRepository.findHeadersBy(position, sort, Limit.of(size));
+        return window.map(summarize(window.getContent()));
+    }
+
+    /**
+     * Get the summaries of the notes carrying a tag.
+     * <p>
+     * The notes are paged over the join table, so a tag carried by many notes costs no more than one page of them.
+     *
+     * @param tagId the id of the tag.
+     * @param pageable the pagination information.
+     * @return the page of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteSummaryDTO> findAllSummariesByTag(Long tagId, Pageable pageable) {
+        LOG.debug("Request to get a page of Note summaries of Tag : {}", tagId);
+        Page<NoteHeader> page = noteRepository.findHeadersByTagsId(tagId, pageable);
+        return page.map(summarize(page.getContent()));
+    }
+
+    /**
+     * Get the summaries of the window of notes carrying a tag following a keyset position.
+     *
+     * @param tagId the id of the tag.
+     * @param position the keyset position to continue from.
+     * @param sort the sort order, ending with the id.
+     * @param size the maximum number of notes to return.
+     * @return the window of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Window<NoteSummaryDTO> findAllSummariesByTag(Long tagId, KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get a window of Note summaries of Tag : {} after {}", tagId, position);
+        Window<NoteHeader> window = noteRepository.findHeadersByTagsId(tagId, position, sort, Limit.of(size));
+        return window.map(summarize(window.getContent()));
+    }
+
+    /**
+     * Get the groups of notes having the same content, the largest first.
+     * <p>
+     * Notes are grouped by the hash of their content, so the groups are found on its index without reading any content.
+     *
+     * @param pageable the pagination information.
+     * @return the page of groups.
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteDuplicateGroupDTO> findDuplicates(Pageable pageable) {
+        LOG.debug("Request to get a page of duplicate Notes");
+        Page<NoteDuplicateGroup> page = noteRepository.findDuplicateGroups(pageable);
+        Map<String, List<Long>> noteIds = new HashMap<>();
+        if (page.hasContent()) {
+            List<String> hashes = page.getContent().stream().map(NoteDuplicateGroup::getContentHash).toList();
+            for (NoteContentHashId noteId : noteRepository.findIdsByContentHashIn(hashes, MAX_DUPLICATE_IDS)) {
+                noteIds.computeIfAbsent(noteId.getContentHash(), hash -> new ArrayList<>()).add(noteId.getNoteId());
+            }
+        }
+        return page.map(group -> {
+            NoteDuplicateGroupDTO groupDTO = new NoteDuplicateGroupDTO();
+            groupDTO.setContentHash(group.getContentHash());
+            groupDTO.setCount(group.getNoteCount());
+            groupDTO.setNoteIds(noteIds.getOrDefault(group.getContentHash(), new ArrayList<>()));
+            return groupDTO;
+        });
+    }
+
+    /**
+     * Get the oldest note having a content.
+     * <p>
+     * The notes are looked up by the hash of the content, then their contents compared, so a collision of the hash
+     * never makes different contents duplicates.
+     *
+     * @param content the content.
+     * @return the note, or empty if no note has the content, or if it is empty.
+     */
+    @Transactional(readOnly = true)
+    public Optional<NoteDTO> findDuplicate(String content) {
+        String contentHash = NoteContentHash.of(content);
+        if (contentHash == null) {
+            return Optional.empty();
+        }
+        LOG.debug("Request to get a Note with content hash : {}", contentHash);
+        return noteRepository
+            .findIdsByContentHash(contentHash, Limit.of(MAX_DUPLICATE_CANDIDATES))
+            .stream()
+            .map(noteRepository::findOneWithEagerRelationships)
+            .flatMap(Optional::stream)
+            .filter(note -> content.equals(note.getContent()))
+            .findFirst()
+            .map(noteMapper::toDto);
+    }
+
+    /**
+     * Load the tag ids of the given notes with one query on the join table, instead of initializing their tags one note
+     * at a time.
+     */
+    private Function<Note, NoteDTO> withTagIds(List<Note> notes) {
+        Map<Long, List<Long>> tagIds = findTagIds(notes.stream().map(Note::getId).toList());
+        return note -> noteMapper.toDto(note, tagIds.getOrDefault(note.getId(), List.of()));
+    }
+
+    private Map<Long, List<Long>> findTagIds(List<Long> ids) {
+        Map<Long, List<Long>> tagIds = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (NoteTagId noteTagId : noteRepository.findTagIdsByNoteIdIn(ids)) {
+                tagIds.computeIfAbsent(noteTagId.getNoteId(), id -> new ArrayList<>()).add(noteTagId.getTagId());
+            }
+        }
+        return tagIds;
+    }
+
+    /**
+     * Load the snippets and tag ids of the given notes with one query each. The snippets are read from their own column,
+     * so neither the plain nor the compressed contents are read.
+     */
+    private Function<NoteHeader, NoteSummaryDTO> summarize(List<NoteHeader> headers) {
+        Map<Long, String> snippets = new HashMap<>();
+        List<Long> ids = headers.stream().map(NoteHeader::getId).toList();
+        Map<Long, List<Long>> tagIds = findTagIds(ids);
+        if (!ids.isEmpty()) {
+            int length = summaryProperties.getSnippetLength();
+            for (NoteSnippet snippet : noteRepository.findSnippetsByIdIn(ids)) {
+                // the snippets stored before the length was lowered are longer
+                String text = snippet.getSnippet();
+                snippets.put(snippet.getId(), text == null || text.length() <= length ? text : text.substring(0, length));
+            }
+        }
+        return header -> {
+            NoteSummaryDTO summary = new NoteSummaryDTO();
+            summary.setId(header.getId());
+            summary.setTitle(header.getTitle());
+            summary.setCreatedAt(header.getCreatedAt());
+            summary.setLastModifiedAt(header.getLastModifiedAt());
+            summary.setSnippet(snippets.get(header.getId()));
+            List<Long> noteTagIds = tagIds.getOrDefault(header.getId(), new ArrayList<>());
+            noteTagIds.sort(null);
+            summary.setTagIds(noteTagIds);
+            return summary;
+        };
     }
 
     /**
@@ -116,6 +663,18 @@ public class NoteService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Note : {}", id);
-        noteRepository.deleteById(id);
+        noteRepository
+            .findById(id)
+            .ifPresent(note -> {
+                noteRepository.delete(note);
+                noteChangeService.recordDeletion(id);
+                eventPublisher.publishEvent(NoteChangedEvent.deleted(id));
+            });
+    }
+
+    private static void checkVersion(Note existingNote, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != existingNote.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Note.class, existingNote.getId());
+        }
     }
 }
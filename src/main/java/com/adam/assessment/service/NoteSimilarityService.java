@@ -0,0 +1,214 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.NoteHeader;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteText;
+import com.adam.assessment.service.dto.NoteSearchHitDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.search.NoteSimilarityIndex;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service finding the {@link com.adam.assessment.domain.Note}s whose contents are nearly the same, such as edited copies
+ * or notes imported twice.
+ * <p>
+ * Like the search index, the {@link NoteSimilarityIndex} lives in memory on each node. It is rebuilt from the database
+ * when the application starts, the fingerprints of the notes being computed by several threads while they are read,
+ * and then kept current from the {@link NoteChangedEvent}s published once their transaction has committed.
+ */
+@Service
+public class NoteSimilarityService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteSimilarityService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 256;
+
+    private final NoteRepository noteRepository;
+
+    private final ApplicationProperties.Similarity properties;
+
+    private volatile NoteSimilarityIndex index;
+
+    /**
+     * Changes committed while a rebuild is running, replayed on the rebuilt index before it is swapped in.
+     * Guarded by {@code this}.
+     */
+    private Map<Long, NoteChangedEvent> pendingChanges;
+
+    public NoteSimilarityService(NoteRepository noteRepository, ApplicationProperties applicationProperties) {
+        this.noteRepository = noteRepository;
+        this.properties = applicationProperties.getSimilarity();
+        this.index = newIndex();
+    }
+
+    /**
+     * Find the notes whose content is nearly the same as the content of a note.
+     *
+     * @param id the id of the note.
+     * @param threshold the minimum similarity of the notes, between 0 and 1, {@code null} for the default threshold.
+     * @param limit the maximum number of notes, {@code null} for the default limit.
+     * @return the similar notes, the most similar first, with their estimated similarity as score, or empty if the note
+     * does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<NoteSearchHitDTO>> findSimilar(Long id, Double threshold, Integer limit) {
+        LOG.debug("Request to get the Notes similar to Note : {}", id);
+        if (!noteRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        int size = limit == null ? properties.getDefaultLimit() : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        List<NoteSimilarityIndex.Match> matches = index.similar(id, threshold == null ? properties.getDefaultThreshold() : threshold, size);
+        List<NoteSearchHitDTO> hits = new ArrayList<>(matches.size());
+        if (matches.isEmpty()) {
+            return Optional.of(hits);
+        }
+
+        Map<Long, NoteHeader> headers = noteRepository
+            .findHeadersByIdIn(matches.stream().map(NoteSimilarityIndex.Match::getNoteId).toList())
+            .stream()
+            .collect(Collectors.toMap(NoteHeader::getId, Function.identity()));
+        for (NoteSimilarityIndex.Match match : matches) {
+            NoteHeader header = headers.get(match.getNoteId());
+            if (header != null) {
+                NoteSearchHitDTO dto = new NoteSearchHitDTO();
+                dto.setId(header.getId());
+                dto.setTitle(header.getTitle());
+                dto.setCreatedAt(header.getCreatedAt());
+                dto.setLastModifiedAt(header.getLastModifiedAt());
+                dto.setScore(match.getSimilarity());
+                hits.add(dto);
+            }
+        }
+        return Optional.of(hits);
+    }
+
+    /**
+     * Rebuild the index from the database once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        if (!properties.isRebuildOnStartup()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build the Note similarity index on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the index from the database. The notes are streamed in batches, whose fingerprints are computed by
+     * {@code application.similarity.rebuild-threads} threads while the following batches are read; only a few batches
+     * are held in memory at once. Lookups keep being served by the previous index until the new one is complete.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LOG.debug("Request to rebuild the Note similarity index");
+        synchronized (this) {
+            pendingChanges = new LinkedHashMap<>();
+        }
+        NoteSimilarityIndex rebuilt = newIndex();
+        int threads = properties.getRebuildThreads() > 0 ? properties.getRebuildThreads() : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("note-similarity-"));
+        // bounds the batches read but not indexed yet
+        Semaphore pendingBatches = new Semaphore(threads * 2);
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        try (Stream<NoteText> notes = noteRepository.streamAllText()) {
+            List<NoteText> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            for (NoteText note : (Iterable<NoteText>) notes::iterator) {
+                batch.add(note);
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    batches.add(submit(rebuilt, batch, executor, pendingBatches));
+                    batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+                }
+            }
+            batches.add(submit(rebuilt, batch, executor, pendingBatches));
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+        synchronized (this) {
+            pendingChanges.values().forEach(event -> apply(rebuilt, event));
+            pendingChanges = null;
+            index = rebuilt;
+        }
+        LOG.info("Note similarity index rebuilt with {} notes", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        synchronized (this) {
+            if (pendingChanges != null) {
+                pendingChanges.put(event.getNoteId(), event);
+            }
+        }
+        apply(index, event);
+    }
+
+    private static CompletableFuture<Void> submit(
+        NoteSimilarityIndex target,
+        List<NoteText> batch,
+        ExecutorService executor,
+        Semaphore pendingBatches
+    ) {
+        pendingBatches.acquireUninterruptibly();
+        try {
+            return CompletableFuture.runAsync(
+                () -> {
+                    try {
+                        for (NoteText note : batch) {
+                            target.index(note.getId(), target.signature(note.getContent()));
+                        }
+                    } finally {
+                        pendingBatches.release();
+                    }
+                },
+                executor
+            );
+        } catch (RuntimeException e) {
+            pendingBatches.release();
+            throw e;
+        }
+    }
+
+    private NoteSimilarityIndex newIndex() {
+        return new NoteSimilarityIndex(properties.getBands(), properties.getRows(), properties.getShingleSize());
+    }
+
+    private static void apply(NoteSimilarityIndex target, NoteChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getNoteId());
+        } else {
+            target.index(event.getNoteId(), event.getContent());
+        }
+    }
+}
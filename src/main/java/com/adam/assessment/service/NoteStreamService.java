@@ -0,0 +1,231 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.service.dto.NoteStreamEventDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.event.NotesRetaggedEvent;
+import com.adam.assessment.service.event.TagChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service pushing the changes of notes and tags to subscribed clients, once their transaction has committed.
+ * <p>
+ * Each subscription buffers at most {@code application.stream.buffer-size} events, drained by a small pool of threads
+ * shared by all subscriptions, so committing transactions never wait on a client. When a client does not keep up and
+ * its buffer is full, its pending events are dropped and replaced by a single {@link NoteStreamEventDTO.Kind#RESYNC}
+ * event telling it to read what it missed from the change feed.
+ */
+@Service
+public class NoteStreamService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteStreamService.class);
+
+    private static final NoteStreamEventDTO RESYNC = new NoteStreamEventDTO(NoteStreamEventDTO.Kind.RESYNC, null, null);
+
+    private static final NoteStreamEventDTO HEARTBEAT = new NoteStreamEventDTO(NoteStreamEventDTO.Kind.HEARTBEAT, null, null);
+
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 15_000;
+
+    /**
+     * The receiving end of a subscription, called by one thread at a time.
+     */
+    public interface Sink {
+        void send(NoteStreamEventDTO event) throws IOException;
+
+        void close();
+    }
+
+    private final ApplicationProperties.Stream properties;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService dispatcher;
+
+    public NoteStreamService(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getStream();
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatchThreads(), new CustomizableThreadFactory("note-stream-"));
+    }
+
+    /**
+     * Subscribe to the changes of notes and tags.
+     *
+     * @param sink the receiving end of the subscription.
+     * @return the subscription, or empty if there are already {@code application.stream.max-subscribers} subscriptions.
+     */
+    public Optional<Subscription> subscribe(Sink sink) {
+        if (subscriptions.size() >= properties.getMaxSubscribers()) {
+            LOG.warn("Rejecting Note stream subscription, {} subscriptions are open", subscriptions.size());
+            return Optional.empty();
+        }
+        Subscription subscription = new Subscription(sink, properties.getBufferSize());
+        subscriptions.add(subscription);
+        LOG.debug("Note stream subscription opened, {} subscriptions are open", subscriptions.size());
+        return Optional.of(subscription);
+    }
+
+    /**
+     * @return the time after which subscriptions are closed, and clients are expected to subscribe again.
+     */
+    public long getTimeoutMillis() {
+        return properties.getTimeout().toMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        publish(
+            new NoteStreamEventDTO(
+                NoteStreamEventDTO.Kind.NOTE,
+                event.isDeleted() ? NoteStreamEventDTO.Type.DELETED : NoteStreamEventDTO.Type.SAVED,
+                event.getNoteId()
+            )
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotesRetagged(NotesRetaggedEvent event) {
+        if (event.getNoteIds().size() > properties.getBufferSize()) {
+            // more notes than any buffer holds: every client reads them from the change feed instead
+            for (Subscription subscription : subscriptions) {
+                overflow(subscription);
+            }
+            return;
+        }
+        for (Long noteId : event.getNoteIds()) {
+            publish(new NoteStreamEventDTO(NoteStreamEventDTO.Kind.NOTE, NoteStreamEventDTO.Type.SAVED, noteId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        publish(
+            new NoteStreamEventDTO(
+                NoteStreamEventDTO.Kind.TAG,
+                event.isDeleted() ? NoteStreamEventDTO.Type.DELETED : NoteStreamEventDTO.Type.SAVED,
+                event.getTagId()
+            )
+        );
+    }
+
+    /**
+     * Idle connections are closed by proxies and load balancers, so subscriptions with nothing pending get a heartbeat.
+     */
+    @Scheduled(fixedRate = HEARTBEAT_INTERVAL_MILLIS, initialDelay = HEARTBEAT_INTERVAL_MILLIS)
+    public void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.queue.isEmpty() && subscription.queue.offer(HEARTBEAT)) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscriptions.forEach(Subscription::cancel);
+    }
+
+    private void publish(NoteStreamEventDTO event) {
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.queue.offer(event)) {
+                // the client fell behind: what it missed is read from the change feed instead
+                overflow(subscription);
+            } else {
+                schedule(subscription);
+            }
+        }
+    }
+
+    private void overflow(Subscription subscription) {
+        subscription.overflowed = true;
+        subscription.queue.clear();
+        schedule(subscription);
+    }
+
+    private void schedule(Subscription subscription) {
+        if (subscription.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        do {
+            try {
+                while (!subscription.cancelled) {
+                    NoteStreamEventDTO event;
+                    if (subscription.overflowed) {
+                        subscription.overflowed = false;
+                        event = RESYNC;
+                    } else {
+                        event = subscription.queue.poll();
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    subscription.sink.send(event);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Note stream subscription failed: {}", e.getMessage());
+                subscription.cancel();
+            }
+            subscription.scheduled.set(false);
+            // events offered after the last poll but before the flag was cleared were not scheduled again
+        } while (
+            !subscription.cancelled &&
+            (subscription.overflowed || !subscription.queue.isEmpty()) &&
+            subscription.scheduled.compareAndSet(false, true)
+        );
+    }
+
+    /**
+     * A subscription to the changes of notes and tags.
+     */
+    public final class Subscription {
+
+        private final Sink sink;
+
+        private final BlockingQueue<NoteStreamEventDTO> queue;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean overflowed;
+
+        private volatile boolean cancelled;
+
+        private Subscription(Sink sink, int bufferSize) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Stop delivering events and close the sink. Idempotent.
+         */
+        public void cancel() {
+            if (subscriptions.remove(this)) {
+                cancelled = true;
+                queue.clear();
+                sink.close();
+                LOG.debug("Note stream subscription closed, {} subscriptions are open", subscriptions.size());
+            }
+        }
+    }
+}
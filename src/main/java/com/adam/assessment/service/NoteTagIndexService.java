@@ -0,0 +1,252 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.domain.Tag;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteTagId;
+import com.adam.assessment.repository.TagNoteCount;
+import com.adam.assessment.repository.TagRepository;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.event.NotesRetaggedEvent;
+import com.adam.assessment.service.event.TagChangedEvent;
+import com.adam.assessment.service.search.NoteTagIndex;
+import com.adam.assessment.service.search.RoaringBitmap;
+import com.adam.assessment.service.search.TagFilter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service maintaining the in-memory index of the notes carrying each {@link com.adam.assessment.domain.Tag}.
+ * <p>
+ * Like the search index, it is rebuilt from the join table when the application starts and then kept current from the
+ * {@link NoteChangedEvent}s, {@link NotesRetaggedEvent}s and {@link TagChangedEvent}s published once their transaction has
+ * committed.
+ */
+@Service
+public class NoteTagIndexService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteTagIndexService.class);
+
+    private final NoteRepository noteRepository;
+
+    private final TagRepository tagRepository;
+
+    private final ApplicationProperties.TagIndex properties;
+
+    private volatile NoteTagIndex index = new NoteTagIndex();
+
+    /**
+     * Changes committed while a rebuild is running, replayed on the rebuilt index before it is swapped in.
+     * Guarded by {@code this}.
+     */
+    private Map<Long, NoteChangedEvent> pendingChanges;
+
+    /**
+     * Retags committed while a rebuild is running, replayed after the changes of single notes. Guarded by {@code this}.
+     */
+    private List<NotesRetaggedEvent> pendingRetags;
+
+    /**
+     * Tags deleted while a rebuild is running. Guarded by {@code this}.
+     */
+    private Set<Long> pendingTagDeletions;
+
+    public NoteTagIndexService(NoteRepository noteRepository, TagRepository tagRepository, ApplicationProperties applicationProperties) {
+        this.noteRepository = noteRepository;
+        this.tagRepository = tagRepository;
+        this.properties = applicationProperties.getTagIndex();
+    }
+
+    /**
+     * Find the notes matching a filter on their tags.
+     *
+     * @param filter the filter on the names of the tags.
+     * @return the ids of the matching notes.
+     */
+    @Transactional(readOnly = true)
+    public RoaringBitmap match(TagFilter filter) {
+        List<Long> includedIds = findTagIdsByName(filter.getIncluded());
+        // a tag that does not exist is carried by no note
+        boolean unknownTags = filter.isMatchAll()
+            ? includedIds.size() < filter.getIncluded().size()
+            : !filter.getIncluded().isEmpty() && includedIds.isEmpty();
+        if (unknownTags) {
+            return new RoaringBitmap();
+        }
+        return index.match(includedIds, findTagIdsByName(filter.getExcluded()), filter.isMatchAll());
+    }
+
+    /**
+     * Count the notes carrying each tag, from the counters of the index rather than the join table.
+     *
+     * @param within the ids of the notes to count, or {@code null} to count every note.
+     * @param limit the maximum number of tags to return.
+     * @return the tags carried by at least one of the notes, most used first.
+     */
+    public List<NoteTagIndex.TagCount> count(RoaringBitmap within, int limit) {
+        return index.count(within, limit);
+    }
+
+    /**
+     * @return the number of notes carrying each tag, by tag id.
+     */
+    public Map<Long, Long> counts() {
+        return index.counts();
+    }
+
+    /**
+     * The index is checked against the join table, and rebuilt if it has drifted, for instance because notes were
+     * tagged by another node or straight in the database.
+     * <p>
+     * This is scheduled to get fired every hour, at 15 minutes past.
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Map<Long, Long> expected = new HashMap<>();
+        for (TagNoteCount count : tagRepository.countNotesByTag()) {
+            expected.put(count.getTagId(), count.getNoteCount());
+        }
+        Map<Long, Long> actual = index.counts();
+        if (!expected.equals(actual)) {
+            LOG.warn("Note tag index has drifted from the database on {} tags, rebuilding it", countDifferences(expected, actual));
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuild the index from the database once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        if (!properties.isRebuildOnStartup()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build the Note tag index on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the index from the database, streaming the note ids and the join table. Queries keep being served by the
+     * previous index until the new one is complete.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LOG.debug("Request to rebuild the Note tag index");
+        synchronized (this) {
+            pendingChanges = new LinkedHashMap<>();
+            pendingRetags = new ArrayList<>();
+            pendingTagDeletions = new LinkedHashSet<>();
+        }
+        NoteTagIndex rebuilt = new NoteTagIndex();
+        try {
+            try (Stream<Long> ids = noteRepository.streamAllIds()) {
+                ids.forEach(id -> rebuilt.index(id, List.of()));
+            }
+            // the rows come ordered by note, so the tags of each note are indexed at once
+            List<Long> tagIds = new ArrayList<>();
+            long[] noteId = { -1 };
+            try (Stream<NoteTagId> rows = noteRepository.streamAllTagIds()) {
+                rows.forEach(row -> {
+                    if (row.getNoteId() != noteId[0] && !tagIds.isEmpty()) {
+                        rebuilt.index(noteId[0], tagIds);
+                        tagIds.clear();
+                    }
+                    noteId[0] = row.getNoteId();
+                    tagIds.add(row.getTagId());
+                });
+            }
+            if (!tagIds.isEmpty()) {
+                rebuilt.index(noteId[0], tagIds);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+                pendingRetags = null;
+                pendingTagDeletions = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendingChanges.values().forEach(event -> apply(rebuilt, event));
+            pendingRetags.forEach(event -> rebuilt.retag(event.getNoteIds(), event.getAddedTagIds(), event.getRemovedTagIds()));
+            pendingTagDeletions.forEach(rebuilt::removeTag);
+            pendingChanges = null;
+            pendingRetags = null;
+            pendingTagDeletions = null;
+            index = rebuilt;
+        }
+        LOG.info("Note tag index rebuilt with {} notes", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        synchronized (this) {
+            if (pendingChanges != null) {
+                pendingChanges.put(event.getNoteId(), event);
+            }
+        }
+        apply(index, event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotesRetagged(NotesRetaggedEvent event) {
+        synchronized (this) {
+            if (pendingRetags != null) {
+                pendingRetags.add(event);
+            }
+        }
+        index.retag(event.getNoteIds(), event.getAddedTagIds(), event.getRemovedTagIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        if (!event.isDeleted()) {
+            return;
+        }
+        synchronized (this) {
+            if (pendingTagDeletions != null) {
+                pendingTagDeletions.add(event.getTagId());
+            }
+        }
+        index.removeTag(event.getTagId());
+    }
+
+    private static long countDifferences(Map<Long, Long> expected, Map<Long, Long> actual) {
+        long differences = expected.entrySet().stream().filter(entry -> !entry.getValue().equals(actual.get(entry.getKey()))).count();
+        return differences + actual.keySet().stream().filter(tagId -> !expected.containsKey(tagId)).count();
+    }
+
+    private List<Long> findTagIdsByName(Collection<String> names) {
+        return names.isEmpty() ? List.of() : tagRepository.findAllByNameIn(names).stream().map(Tag::getId).toList();
+    }
+
+    private static void apply(NoteTagIndex target, NoteChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getNoteId());
+        } else {
+            target.index(event.getNoteId(), event.getTagIds());
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.NoteHeader;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteText;
+import com.adam.assessment.service.dto.NoteSearchHitDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.event.NoteSearchIndexRebuiltEvent;
+import com.adam.assessment.service.search.HashingNoteEmbedder;
+import com.adam.assessment.service.search.NoteEmbedder;
+import com.adam.assessment.service.search.NoteSimilarityIndex;
+import com.adam.assessment.service.search.NoteVectorIndex;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service finding the {@link com.adam.assessment.domain.Note}s about the same things as a note or a query, from the
+ * vectors of their text.
+ * <p>
+ * The vectors are computed by the {@link NoteEmbedder} bean if there is one, otherwise by a {@link HashingNoteEmbedder}
+ * weighting terms with the statistics of the search index. The {@link NoteVectorIndex} lives in memory on each node,
+ * most of it off the heap. It is rebuilt from the database after the search index, and then kept current from the
+ * {@link NoteChangedEvent}s published once their transaction has committed.
+ */
+@Service
+public class NoteVectorService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteVectorService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 256;
+
+    private final NoteRepository noteRepository;
+
+    private final NoteEmbedder embedder;
+
+    private final ApplicationProperties.VectorIndex properties;
+
+    private volatile NoteVectorIndex index;
+
+    /**
+     * Held while the index is rebuilt, so that a rebuild and a compaction never run at once.
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Changes committed while a rebuild is running, replayed on the rebuilt index before it is swapped in.
+     * Guarded by {@code this}.
+     */
+    private Map<Long, NoteChangedEvent> pendingChanges;
+
+    public NoteVectorService(
+        NoteRepository noteRepository,
+        NoteSearchService noteSearchService,
+        ObjectProvider<NoteEmbedder> embedders,
+        ApplicationProperties applicationProperties
+    ) {
+        this.noteRepository = noteRepository;
+        this.properties = applicationProperties.getVectorIndex();
+        this.embedder = embedders.getIfAvailable(() ->
+            new HashingNoteEmbedder(
+                properties.getDimensions(),
+                applicationProperties.getSearch().getTitleBoost(),
+                noteSearchService::termStatistics
+            )
+        );
+        this.index = newIndex();
+    }
+
+    /**
+     * Find the notes closest to a note.
+     *
+     * @param id the id of the note.
+     * @param limit the maximum number of notes, {@code null} for the default limit.
+     * @return the closest notes, the closest first, with the cosine similarity of their vectors as score, or empty if
+     * the note does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<NoteSearchHitDTO>> findRelated(Long id, Integer limit) {
+        LOG.debug("Request to get the Notes related to Note : {}", id);
+        if (!noteRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        int size = limit == null ? properties.getDefaultLimit() : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        return Optional.of(toHits(related(index.related(id, size, properties.getEfSearch()))));
+    }
+
+    /**
+     * Search the notes closest to the meaning of a query, rather than those having its terms.
+     * <p>
+     * Only the {@code application.vector-index.max-limit} closest notes are paged through.
+     *
+     * @param query the free text query.
+     * @param pageable the pagination information.
+     * @return the page of closest notes, the closest first.
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteSearchHitDTO> search(String query, Pageable pageable) {
+        LOG.debug("Request to search Notes semantically for query : {}", query);
+        float[] vector = embedder.embed(null, query);
+        if (vector == null) {
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+        int maxResults = properties.getMaxLimit();
+        List<NoteSimilarityIndex.Match> matches = related(index.nearest(vector, maxResults, Math.max(properties.getEfSearch(), maxResults)));
+        long offset = pageable.getOffset();
+        if (offset >= matches.size()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, matches.size());
+        }
+        List<NoteSimilarityIndex.Match> page = matches.subList((int) offset, (int) Math.min(offset + pageable.getPageSize(), matches.size()));
+        return new PageImpl<>(toHits(page), pageable, matches.size());
+    }
+
+    /**
+     * Rebuild the index from the database once the search index has been rebuilt, so that the vectors are weighted by
+     * the statistics of every note.
+     *
+     * @param event the event of the rebuilt search index.
+     */
+    @Async
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onSearchIndexRebuilt(NoteSearchIndexRebuiltEvent event) {
+        if (!properties.isRebuildOnStartup()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build the Note vector index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the index from the database. The notes are streamed in batches, whose vectors are computed by
+     * {@code application.vector-index.rebuild-threads} threads while the following batches are read, then added to the
+     * graph one at a time. Lookups keep being served by the previous index until the new one is complete.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LOG.debug("Request to rebuild the Note vector index");
+        synchronized (rebuildLock) {
+            NoteVectorIndex rebuilt = newIndex();
+            startRebuild();
+            int threads = properties.getRebuildThreads() > 0 ? properties.getRebuildThreads() : Runtime.getRuntime().availableProcessors();
+            ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("note-vectors-"));
+            // bounds the batches read but not indexed yet
+            Semaphore pendingBatches = new Semaphore(threads * 2);
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            try (Stream<NoteText> notes = noteRepository.streamAllText()) {
+                List<NoteText> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+                for (NoteText note : (Iterable<NoteText>) notes::iterator) {
+                    batch.add(note);
+                    if (batch.size() == REBUILD_BATCH_SIZE) {
+                        batches.add(submit(rebuilt, batch, executor, pendingBatches));
+                        batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+                    }
+                }
+                batches.add(submit(rebuilt, batch, executor, pendingBatches));
+                CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+            } catch (RuntimeException e) {
+                abortRebuild(rebuilt);
+                throw e;
+            } finally {
+                executor.shutdownNow();
+            }
+            swap(rebuilt);
+            LOG.info("Note vector index rebuilt with {} notes", rebuilt.size());
+        }
+    }
+
+    /**
+     * Notes changed or deleted leave deleted nodes in the graph, which still slow lookups down. Once they make up more
+     * than a quarter of it, the graph is rebuilt from the vectors of the notes it holds, without reading the notes.
+     * <p>
+     * This is scheduled to get fired every hour, at 40 minutes past.
+     */
+    @Scheduled(cron = "0 40 * * * ?")
+    public void compact() {
+        if (!index.needsCompaction()) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            NoteVectorIndex compacted = newIndex();
+            startRebuild();
+            try {
+                index.forEach(compacted::add);
+            } catch (RuntimeException e) {
+                abortRebuild(compacted);
+                throw e;
+            }
+            swap(compacted);
+            LOG.info("Note vector index compacted to {} notes", compacted.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        // applied while holding the monitor, so that it is never applied to an index closed once swapped
+        synchronized (this) {
+            if (pendingChanges != null) {
+                pendingChanges.put(event.getNoteId(), event);
+            }
+            apply(index, event);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        index.close();
+    }
+
+    /**
+     * The graph always returns the closest nodes, even when they have no term in common: those are left out.
+     */
+    private static List<NoteSimilarityIndex.Match> related(List<NoteSimilarityIndex.Match> matches) {
+        return matches.stream().filter(match -> match.getSimilarity() > 0).toList();
+    }
+
+    private List<NoteSearchHitDTO> toHits(List<NoteSimilarityIndex.Match> matches) {
+        List<NoteSearchHitDTO> hits = new ArrayList<>(matches.size());
+        if (matches.isEmpty()) {
+            return hits;
+        }
+        Map<Long, NoteHeader> headers = noteRepository
+            .findHeadersByIdIn(matches.stream().map(NoteSimilarityIndex.Match::getNoteId).toList())
+            .stream()
+            .collect(Collectors.toMap(NoteHeader::getId, Function.identity()));
+        for (NoteSimilarityIndex.Match match : matches) {
+            NoteHeader header = headers.get(match.getNoteId());
+            if (header != null) {
+                NoteSearchHitDTO dto = new NoteSearchHitDTO();
+                dto.setId(header.getId());
+                dto.setTitle(header.getTitle());
+                dto.setCreatedAt(header.getCreatedAt());
+                dto.setLastModifiedAt(header.getLastModifiedAt());
+                dto.setScore(match.getSimilarity());
+                hits.add(dto);
+            }
+        }
+        return hits;
+    }
+
+    private synchronized void startRebuild() {
+        pendingChanges = new LinkedHashMap<>();
+    }
+
+    private void abortRebuild(NoteVectorIndex rebuilt) {
+        synchronized (this) {
+            pendingChanges = null;
+        }
+        rebuilt.close();
+    }
+
+    private void swap(NoteVectorIndex rebuilt) {
+        NoteVectorIndex previous;
+        synchronized (this) {
+            pendingChanges.values().forEach(event -> apply(rebuilt, event));
+            pendingChanges = null;
+            previous = index;
+            index = rebuilt;
+        }
+        previous.close();
+    }
+
+    private CompletableFuture<Void> submit(NoteVectorIndex target, List<NoteText> batch, ExecutorService executor, Semaphore pendingBatches) {
+        pendingBatches.acquireUninterruptibly();
+        try {
+            return CompletableFuture.runAsync(
+                () -> {
+                    try {
+                        for (NoteText note : batch) {
+                            target.add(note.getId(), embedder.embed(note.getTitle(), note.getContent()));
+                        }
+                    } finally {
+                        pendingBatches.release();
+                    }
+                },
+                executor
+            );
+        } catch (RuntimeException e) {
+            pendingBatches.release();
+            throw e;
+        }
+    }
+
+    private NoteVectorIndex newIndex() {
+        String directory = properties.getDirectory();
+        return new NoteVectorIndex(
+            embedder.dimensions(),
+            properties.getLinks(),
+            properties.getEfConstruction(),
+            directory == null || directory.isBlank() ? null : Path.of(directory)
+        );
+    }
+
+    private void apply(NoteVectorIndex target, NoteChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getNoteId());
+        } else {
+            target.add(event.getNoteId(), embedder.embed(event.getTitle(), event.getContent()));
+        }
+    }
+}
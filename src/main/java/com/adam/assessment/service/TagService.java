@@ -1,14 +1,33 @@
 package com.adam.assessment.service;
 
+import com.adam.assessment.config.ApplicationProperties;
 import com.adam.assessment.domain.Tag;
+import com.adam.assessment.repository.EntityVersion;
 import com.adam.assessment.repository.TagRepository;
 import com.adam.assessment.service.dto.TagDTO;
+import com.adam.assessment.service.dto.TagFacetDTO;
+import com.adam.assessment.service.event.TagChangedEvent;
 import com.adam.assessment.service.mapper.TagMapper;
+import com.adam.assessment.service.search.NoteTagIndex;
+import com.adam.assessment.service.search.RoaringBitmap;
+import com.adam.assessment.service.search.TagFilter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,9 +44,28 @@ public class TagService {
 
     private final TagMapper tagMapper;
 
-    public TagService(TagRepository tagRepository, TagMapper tagMapper) {
+    private final NoteTagIndexService noteTagIndexService;
+
+    private final NoteSearchService noteSearchService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApplicationProperties.TagIndex tagIndexProperties;
+
+    public TagService(
+        TagRepository tagRepository,
+        TagMapper tagMapper,
+        NoteTagIndexService noteTagIndexService,
+        NoteSearchService noteSearchService,
+        ApplicationEventPublisher eventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
         this.tagRepository = tagRepository;
         this.tagMapper = tagMapper;
+        this.noteTagIndexService = noteTagIndexService;
+        this.noteSearchService = noteSearchService;
+        this.eventPublisher = eventPublisher;
+        this.tagIndexProperties = applicationProperties.getTagIndex();
     }
 
     /**
@@ -40,6 +78,7 @@ public class TagService {
         LOG.debug("Request to save Tag : {}", tagDTO);
         Tag tag = tagMapper.toEntity(tagDTO);
         tag = tagRepository.save(tag);
+        eventPublisher.publishEvent(TagChangedEvent.saved(tag));
         return tagMapper.toDto(tag);
     }
 
@@ -52,7 +91,13 @@ public class TagService {
     public TagDTO update(TagDTO tagDTO) {
         LOG.debug("Request to update Tag : {}", tagDTO);
         Tag tag = tagMapper.toEntity(tagDTO);
-        tag = tagRepository.save(tag);
+        if (tagDTO.getVersion() == null) {
+            // without the version the client read, the update applies to the current version
+            tagRepository.findById(tagDTO.getId()).map(Tag::getVersion).ifPresent(tag::setVersion);
+        }
+        // flushed so that the returned version is the incremented one
+        tag = tagRepository.saveAndFlush(tag);
+        eventPublisher.publishEvent(TagChangedEvent.saved(tag));
         return tagMapper.toDto(tag);
     }
 
@@ -68,14 +113,49 @@ public class TagService {
         return tagRepository
             .findById(tagDTO.getId())
             .map(existingTag -> {
+                if (tagDTO.getVersion() != null && tagDTO.getVersion() != existingTag.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Tag.class, existingTag.getId());
+                }
                 tagMapper.partialUpdate(existingTag, tagDTO);
 
                 return existingTag;
             })
-            .map(tagRepository::save)
+            .map(tagRepository::saveAndFlush)
+            .map(tag -> {
+                eventPublisher.publishEvent(TagChangedEvent.saved(tag));
+                return tag;
+            })
             .map(tagMapper::toDto);
     }
 
+    /**
+     * Get the tags with the given names, creating the missing ones.
+     * <p>
+     * The existing tags are read with one query, and the missing ones inserted with one statement, so that resolving
+     * the tags of a note costs the same for one name as for many. A tag created concurrently by another transaction is
+     * read rather than inserted twice.
+     *
+     * @param names the names of the tags.
+     * @return the tags, one per distinct name.
+     */
+    public List<Tag> findOrCreateAllByName(Collection<String> names) {
+        LOG.debug("Request to get or create Tags : {}", names);
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        List<Tag> tags = new ArrayList<>(tagRepository.findAllByNameIn(names));
+        Set<String> existing = tags.stream().map(Tag::getName).collect(Collectors.toSet());
+        List<String> missing = names.stream().filter(name -> !existing.contains(name)).distinct().toList();
+        if (!missing.isEmpty()) {
+            tagRepository.insertMissing(missing);
+            for (Tag tag : tagRepository.findAllByNameIn(missing)) {
+                tags.add(tag);
+                eventPublisher.publishEvent(TagChangedEvent.saved(tag));
+            }
+        }
+        return tags;
+    }
+
     /**
      * Get all the tags.
      *
@@ -88,6 +168,95 @@ public class TagService {
         return tagRepository.findAll(pageable).map(tagMapper::toDto);
     }
 
+    /**
+     * Get the window of tags following a keyset position.
+     *
+     * @param position the keyset position to continue from.
+     * @param sort the sort order, ending with the id.
+     * @param size the maximum number of tags to return.
+     * @return the window of entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<TagDTO> findAll(KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get a window of Tags after {}", position);
+        return tagRepository.findAllBy(position, sort, Limit.of(size)).map(tagMapper::toDto);
+    }
+
+    /**
+     * Get the number of notes carrying each tag, most used tags first.
+     * <p>
+     * The counts are read from the tag index, which maintains them as notes are tagged and untagged, instead of being
+     * counted over the join table. When the notes are restricted, only the notes matching both the query and the filter
+     * are counted.
+     *
+     * @param query the full-text query the counted notes must match, if any.
+     * @param filter the filter on tags the counted notes must match, if any.
+     * @param limit the maximum number of tags to return, {@code null} for the default limit.
+     * @return the tags carried by at least one of the counted notes, with their number of notes.
+     */
+    @Transactional(readOnly = true)
+    public List<TagFacetDTO> findFacets(String query, TagFilter filter, Integer limit) {
+        LOG.debug("Request to get the Tag facets of the Notes matching {} and {}", query, filter);
+        int size = limit == null
+            ? tagIndexProperties.getDefaultFacetLimit()
+            : Math.max(1, Math.min(limit, tagIndexProperties.getMaxFacetLimit()));
+        RoaringBitmap within = filter == null ? null : noteTagIndexService.match(filter);
+        if (query != null && !query.isBlank()) {
+            RoaringBitmap matches = noteSearchService.match(query);
+            within = within == null ? matches : within.and(matches);
+        }
+        List<NoteTagIndex.TagCount> counts = noteTagIndexService.count(within, size);
+        if (counts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, String> names = tagRepository
+            .findAllById(counts.stream().map(NoteTagIndex.TagCount::getTagId).toList())
+            .stream()
+            .collect(Collectors.toMap(Tag::getId, Tag::getName));
+        List<TagFacetDTO> facets = new ArrayList<>(counts.size());
+        for (NoteTagIndex.TagCount count : counts) {
+            String name = names.get(count.getTagId());
+            // a tag deleted since the counts were read is left out
+            if (name != null) {
+                TagFacetDTO facet = new TagFacetDTO();
+                facet.setId(count.getTagId());
+                facet.setName(name);
+                facet.setCount(count.getCount());
+                facets.add(facet);
+            }
+        }
+        return facets;
+    }
+
+    /**
+     * Get the version of a tag, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return tagRepository.findVersionById(id).map(EntityVersion::getVersion);
+    }
+
+    /**
+     * Get the ids and versions of a page of tags, without loading them.
+     *
+     * @param pageable the pagination information.
+     * @return the page of tags holding only their id and version.
+     */
+    @Transactional(readOnly = true)
+    public Page<TagDTO> findAllVersions(Pageable pageable) {
+        return tagRepository
+            .findVersionsBy(pageable)
+            .map(entityVersion -> {
+                TagDTO tagDTO = new TagDTO();
+                tagDTO.setId(entityVersion.getId());
+                tagDTO.setVersion(entityVersion.getVersion());
+                return tagDTO;
+            });
+    }
+
     /**
      * Get one tag by id.
      *
@@ -108,5 +277,6 @@ public class TagService {
     public void delete(Long id) {
         LOG.debug("Request to delete Tag : {}", id);
         tagRepository.deleteById(id);
+        eventPublisher.publishEvent(TagChangedEvent.deleted(id));
     }
 }
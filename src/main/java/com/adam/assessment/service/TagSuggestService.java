@@ -0,0 +1,140 @@
+package com.adam.assessment.service;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.TagName;
+import com.adam.assessment.repository.TagRepository;
+import com.adam.assessment.service.dto.TagFacetDTO;
+import com.adam.assessment.service.event.TagChangedEvent;
+import com.adam.assessment.service.search.TagSuggestIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service suggesting {@link com.adam.assessment.domain.Tag}s by the prefix of their name, most used first.
+ * <p>
+ * Suggestions are served from an immutable {@link TagSuggestIndex} without touching the database. The index is rebuilt
+ * from the tag names and the usage counts of the tag index when the application starts and then every few minutes; the
+ * tags saved and deleted in between are patched in from the {@link TagChangedEvent}s once their transaction has committed.
+ */
+@Service
+public class TagSuggestService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TagSuggestService.class);
+
+    private static final long REBUILD_INTERVAL_MILLIS = 300_000;
+
+    private final TagRepository tagRepository;
+
+    private final NoteTagIndexService noteTagIndexService;
+
+    private final ApplicationProperties.TagSuggest properties;
+
+    private volatile TagSuggestIndex index;
+
+    /**
+     * Changes committed while a rebuild is running, replayed on the rebuilt index before it is swapped in.
+     * Guarded by {@code this}.
+     */
+    private List<TagChangedEvent> pendingChanges;
+
+    public TagSuggestService(
+        TagRepository tagRepository,
+        NoteTagIndexService noteTagIndexService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.tagRepository = tagRepository;
+        this.noteTagIndexService = noteTagIndexService;
+        this.properties = applicationProperties.getTagSuggest();
+        this.index = TagSuggestIndex.build(List.of(), properties.getMaxLimit());
+    }
+
+    /**
+     * Suggest the most used tags whose name, or one of its words, starts with a prefix.
+     *
+     * @param prefix the prefix, matched ignoring case.
+     * @param limit the maximum number of suggestions, {@code null} for the default limit.
+     * @return the suggested tags with their number of notes, as of the last rebuild.
+     */
+    public List<TagFacetDTO> suggest(String prefix, Integer limit) {
+        int size = limit == null ? properties.getDefaultLimit() : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        List<TagFacetDTO> suggestions = new ArrayList<>(size);
+        for (TagSuggestIndex.Suggestion suggestion : index.suggest(prefix, size)) {
+            TagFacetDTO tag = new TagFacetDTO();
+            tag.setId(suggestion.getTagId());
+            tag.setName(suggestion.getName());
+            tag.setCount(suggestion.getUsage());
+            suggestions.add(tag);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Build the index once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build the Tag suggest index on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the index, so that it catches up with the usage of the tags and sheds the patches made since the last build.
+     */
+    @Scheduled(fixedDelay = REBUILD_INTERVAL_MILLIS, initialDelay = REBUILD_INTERVAL_MILLIS)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LOG.debug("Request to rebuild the Tag suggest index");
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        TagSuggestIndex rebuilt;
+        try {
+            Map<Long, Long> usage = noteTagIndexService.counts();
+            List<TagSuggestIndex.Suggestion> tags = new ArrayList<>();
+            for (TagName tag : tagRepository.findAllNames()) {
+                tags.add(new TagSuggestIndex.Suggestion(tag.getId(), tag.getName(), usage.getOrDefault(tag.getId(), 0L)));
+            }
+            rebuilt = TagSuggestIndex.build(tags, properties.getMaxLimit());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (TagChangedEvent event : pendingChanges) {
+                rebuilt = apply(rebuilt, event);
+            }
+            pendingChanges = null;
+            index = rebuilt;
+        }
+        LOG.debug("Tag suggest index rebuilt with {} tags", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTagChanged(TagChangedEvent event) {
+        if (pendingChanges != null) {
+            pendingChanges.add(event);
+        }
+        index = apply(index, event);
+    }
+
+    private static TagSuggestIndex apply(TagSuggestIndex target, TagChangedEvent event) {
+        return event.isDeleted() ? target.withDeleted(event.getTagId()) : target.withSaved(event.getTagId(), event.getName());
+    }
+}
@@ -0,0 +1,23 @@
+package com.adam.assessment.service;
+
+import java.util.Collection;
+import java.util.List;
+
+public class UnknownTagException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> names;
+
+    public UnknownTagException(Collection<String> names) {
+        super("Unknown tags: " + String.join(", ", names));
+        this.names = List.copyOf(names);
+    }
+
+    /**
+     * @return the names of the tags that do not exist.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+}
@@ -0,0 +1,120 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.adam.assessment.domain.Attachment} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class AttachmentDTO implements Serializable {
+
+    private Long id;
+
+    private Long noteId;
+
+    private String fileName;
+
+    private String contentType;
+
+    private long size;
+
+    private String sha256;
+
+    private Instant createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * @return the hexadecimal SHA-256 digest of the content, also its entity tag.
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AttachmentDTO)) {
+            return false;
+        }
+
+        AttachmentDTO attachmentDTO = (AttachmentDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, attachmentDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AttachmentDTO{" +
+            "id=" + getId() +
+            ", noteId=" + getNoteId() +
+            ", fileName='" + getFileName() + "'" +
+            ", contentType='" + getContentType() + "'" +
+            ", size=" + getSize() +
+            ", sha256='" + getSha256() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,61 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for one create, update or delete of a {@link com.adam.assessment.domain.Note} within a bulk request.
+ */
+public class NoteBulkOperationDTO implements Serializable {
+
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE,
+    }
+
+    private Action action;
+
+    /**
+     * The id of the note to update or delete.
+     */
+    private Long id;
+
+    /**
+     * The note to create, or the new state of the note to update.
+     */
+    private NoteDTO note;
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public NoteDTO getNote() {
+        return note;
+    }
+
+    public void setNote(NoteDTO note) {
+        this.note = note;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteBulkOperationDTO{" +
+            "action=" + getAction() +
+            ", id=" + getId() +
+            ", note=" + getNote() +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the outcome of one operation of a bulk request on {@link com.adam.assessment.domain.Note}s.
+ */
+public class NoteBulkResultDTO implements Serializable {
+
+    private int index;
+
+    private int status;
+
+    private Long id;
+
+    private String error;
+
+    public static NoteBulkResultDTO success(int index, int status, Long id) {
+        NoteBulkResultDTO result = new NoteBulkResultDTO();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setId(id);
+        return result;
+    }
+
+    public static NoteBulkResultDTO failure(int index, int status, Long id, String error) {
+        NoteBulkResultDTO result = success(index, status, id);
+        result.setError(error);
+        return result;
+    }
+
+    /**
+     * @return the position of the operation in the request.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return the HTTP status the operation would have had as a single request.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteBulkResultDTO{" +
+            "index=" + getIndex() +
+            ", status=" + getStatus() +
+            ", id=" + getId() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
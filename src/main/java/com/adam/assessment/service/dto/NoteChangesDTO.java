@@ -0,0 +1,63 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the changes of the {@link com.adam.assessment.domain.Note}s since a sync token.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NoteChangesDTO implements Serializable {
+
+    private List<NoteDTO> notes = new ArrayList<>();
+
+    private List<Long> deletedIds = new ArrayList<>();
+
+    private String next;
+
+    private boolean hasMore;
+
+    public List<NoteDTO> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<NoteDTO> notes) {
+        this.notes = notes;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteChangesDTO{" +
+            "notes=" + getNotes().size() +
+            ", deletedIds=" + getDeletedIds() +
+            ", next='" + getNext() + "'" +
+            ", hasMore=" + isHasMore() +
+            "}";
+    }
+}
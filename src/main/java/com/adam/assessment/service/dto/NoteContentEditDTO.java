@@ -0,0 +1,62 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for replacing a range of the content of a {@link com.adam.assessment.domain.Note}.
+ * <p>
+ * Offsets and lengths count UTF-16 code units, as the indexes of JavaScript strings do.
+ */
+public class NoteContentEditDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The start of the range, in the content as changed by the previous edits of the same request.
+     */
+    private Integer offset;
+
+    /**
+     * The length of the range, 0 to insert.
+     */
+    private Integer length;
+
+    /**
+     * The text replacing the range, empty or {@code null} to delete it.
+     */
+    private String replacement;
+
+    public Integer getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Integer offset) {
+        this.offset = offset;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+
+    public String getReplacement() {
+        return replacement;
+    }
+
+    public void setReplacement(String replacement) {
+        this.replacement = replacement;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteContentEditDTO{" +
+            "offset=" + getOffset() +
+            ", length=" + getLength() +
+            ", replacement='" + getReplacement() + "'" +
+            "}";
+    }
+}
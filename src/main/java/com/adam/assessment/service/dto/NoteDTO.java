@@ -1,5 +1,6 @@
 package com.adam.assessment.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Lob;
 import jakarta.validation.constraints.*;
@@ -29,8 +30,23 @@ public class NoteDTO implements Serializable {
 
     private Instant lastModifiedAt;
 
+    private Long version;
+
+    /**
+     * The hash of the content, equal for notes with the same content. Only written to responses.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String contentHash;
+
     private Set<TagDTO> tags = new HashSet<>();
 
+    /**
+     * The names of further tags of the note, created if they do not exist yet, so that clients need not create them
+     * one at a time beforehand. Only read from requests: the tags of a note are returned by id.
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Set<@NotBlank @Size(min = 2, max = 50) String> tagNames;
+
     public Long getId() {
         return id;
     }
@@ -71,6 +87,22 @@ public class NoteDTO implements Serializable {
         this.lastModifiedAt = lastModifiedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public Set<TagDTO> getTags() {
         return tags;
     }
@@ -79,6 +111,14 @@ public class NoteDTO implements Serializable {
         this.tags = tags;
     }
 
+    public Set<String> getTagNames() {
+        return tagNames;
+    }
+
+    public void setTagNames(Set<String> tagNames) {
+        this.tagNames = tagNames;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -109,7 +149,10 @@ public class NoteDTO implements Serializable {
             ", content='" + getContent() + "'" +
             ", createdAt='" + getCreatedAt() + "'" +
             ", lastModifiedAt='" + getLastModifiedAt() + "'" +
+            ", version=" + getVersion() +
+            ", contentHash='" + getContentHash() + "'" +
             ", tags=" + getTags() +
+            ", tagNames=" + getTagNames() +
             "}";
     }
 }
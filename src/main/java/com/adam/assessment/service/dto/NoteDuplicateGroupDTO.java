@@ -0,0 +1,79 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for a group of {@link com.adam.assessment.domain.Note}s having the same content.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NoteDuplicateGroupDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String contentHash;
+
+    private Long count;
+
+    /**
+     * The ids of the notes of the group, the oldest first, up to a maximum when the group is large.
+     */
+    private List<Long> noteIds = new ArrayList<>();
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public List<Long> getNoteIds() {
+        return noteIds;
+    }
+
+    public void setNoteIds(List<Long> noteIds) {
+        this.noteIds = noteIds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoteDuplicateGroupDTO)) {
+            return false;
+        }
+
+        NoteDuplicateGroupDTO noteDuplicateGroupDTO = (NoteDuplicateGroupDTO) o;
+        if (this.contentHash == null) {
+            return false;
+        }
+        return Objects.equals(this.contentHash, noteDuplicateGroupDTO.contentHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.contentHash);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteDuplicateGroupDTO{" +
+            "contentHash='" + getContentHash() + "'" +
+            ", count=" + getCount() +
+            ", noteIds=" + getNoteIds() +
+            "}";
+    }
+}
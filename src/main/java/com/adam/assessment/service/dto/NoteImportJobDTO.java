@@ -0,0 +1,153 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the progress of a job importing an archive of {@link com.adam.assessment.domain.Note}s.
+ */
+public class NoteImportJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        /**
+         * The archive could not be read to its end; the notes imported until then are kept.
+         */
+        FAILED,
+    }
+
+    private String id;
+
+    private String format;
+
+    private Status status;
+
+    private long totalBytes;
+
+    private long readBytes;
+
+    private long imported;
+
+    private long failed;
+
+    private List<String> errors = new ArrayList<>();
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the size of the archive.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * @return the number of bytes of the archive read so far.
+     */
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    public void setReadBytes(long readBytes) {
+        this.readBytes = readBytes;
+    }
+
+    /**
+     * @return the number of notes imported so far.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * @return the number of notes that could not be imported so far.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * @return why the first notes that could not be imported failed, and why the archive could not be read to its end.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteImportJobDTO{" +
+            "id='" + getId() + "'" +
+            ", format='" + getFormat() + "'" +
+            ", status=" + getStatus() +
+            ", readBytes=" + getReadBytes() +
+            ", totalBytes=" + getTotalBytes() +
+            ", imported=" + getImported() +
+            ", failed=" + getFailed() +
+            "}";
+    }
+}
@@ -0,0 +1,76 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A DTO for adding tags to, and removing tags from, every {@link com.adam.assessment.domain.Note} matching a filter on
+ * its tags.
+ */
+public class NoteRetagDTO implements Serializable {
+
+    /**
+     * The comma-separated names of the tags the notes must carry, each prefixed with {@code -} if they must not carry it,
+     * as in {@code GET /api/notes?tags=}.
+     */
+    private String tags;
+
+    /**
+     * {@code all} or {@code any}, whether the notes must carry all the tags or any of them.
+     */
+    private String match;
+
+    /**
+     * The names of the tags to add.
+     */
+    private Set<String> add = new LinkedHashSet<>();
+
+    /**
+     * The names of the tags to remove.
+     */
+    private Set<String> remove = new LinkedHashSet<>();
+
+    public String getTags() {
+        return tags;
+    }
+
+    public void setTags(String tags) {
+        this.tags = tags;
+    }
+
+    public String getMatch() {
+        return match;
+    }
+
+    public void setMatch(String match) {
+        this.match = match;
+    }
+
+    public Set<String> getAdd() {
+        return add;
+    }
+
+    public void setAdd(Set<String> add) {
+        this.add = add;
+    }
+
+    public Set<String> getRemove() {
+        return remove;
+    }
+
+    public void setRemove(Set<String> remove) {
+        this.remove = remove;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteRetagDTO{" +
+            "tags='" + getTags() + "'" +
+            ", match='" + getMatch() + "'" +
+            ", add=" + getAdd() +
+            ", remove=" + getRemove() +
+            "}";
+    }
+}
@@ -0,0 +1,58 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the outcome of a retag of {@link com.adam.assessment.domain.Note}s.
+ */
+public class NoteRetagResultDTO implements Serializable {
+
+    private int notes;
+
+    private int added;
+
+    private int removed;
+
+    /**
+     * @return the number of notes that gained or lost a tag.
+     */
+    public int getNotes() {
+        return notes;
+    }
+
+    public void setNotes(int notes) {
+        this.notes = notes;
+    }
+
+    /**
+     * @return the number of tags added, over all notes.
+     */
+    public int getAdded() {
+        return added;
+    }
+
+    public void setAdded(int added) {
+        this.added = added;
+    }
+
+    /**
+     * @return the number of tags removed, over all notes.
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(int removed) {
+        this.removed = removed;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteRetagResultDTO{" +
+            "notes=" + getNotes() +
+            ", added=" + getAdded() +
+            ", removed=" + getRemoved() +
+            "}";
+    }
+}
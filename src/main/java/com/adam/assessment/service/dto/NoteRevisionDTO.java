@@ -0,0 +1,110 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.adam.assessment.domain.NoteRevision} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NoteRevisionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long noteId;
+
+    private Integer revision;
+
+    private String title;
+
+    /**
+     * The content of the revision, only set when one revision is read.
+     */
+    private String content;
+
+    private Integer contentLength;
+
+    private Instant createdAt;
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public Integer getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Integer revision) {
+        this.revision = revision;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Integer getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(Integer contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoteRevisionDTO)) {
+            return false;
+        }
+
+        NoteRevisionDTO noteRevisionDTO = (NoteRevisionDTO) o;
+        if (this.noteId == null || this.revision == null) {
+            return false;
+        }
+        return Objects.equals(this.noteId, noteRevisionDTO.noteId) && Objects.equals(this.revision, noteRevisionDTO.revision);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.noteId, this.revision);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteRevisionDTO{" +
+            "noteId=" + getNoteId() +
+            ", revision=" + getRevision() +
+            ", title='" + getTitle() + "'" +
+            ", contentLength=" + getContentLength() +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
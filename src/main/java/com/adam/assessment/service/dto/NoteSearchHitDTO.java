@@ -0,0 +1,95 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for a {@link com.adam.assessment.domain.Note} matching a full-text search, without its content.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NoteSearchHitDTO implements Serializable {
+
+    private Long id;
+
+    private String title;
+
+    private Instant createdAt;
+
+    private Instant lastModifiedAt;
+
+    private Float score;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(Instant lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    public Float getScore() {
+        return score;
+    }
+
+    public void setScore(Float score) {
+        this.score = score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoteSearchHitDTO)) {
+            return false;
+        }
+
+        NoteSearchHitDTO noteSearchHitDTO = (NoteSearchHitDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, noteSearchHitDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteSearchHitDTO{" +
+            "id=" + getId() +
+            ", title='" + getTitle() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", lastModifiedAt='" + getLastModifiedAt() + "'" +
+            ", score=" + getScore() +
+            "}";
+    }
+}
@@ -0,0 +1,65 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the change events pushed to the clients subscribed to the changes of notes and tags.
+ * <p>
+ * Events only identify what changed; clients read the changes themselves, from the change feed of the notes.
+ */
+public class NoteStreamEventDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Kind {
+        NOTE,
+        TAG,
+        /**
+         * Events were dropped because the client did not keep up, it has to read the changes it missed.
+         */
+        RESYNC,
+        /**
+         * Nothing changed, sent periodically to keep idle connections open.
+         */
+        HEARTBEAT,
+    }
+
+    public enum Type {
+        SAVED,
+        DELETED,
+    }
+
+    private final Kind kind;
+
+    private final Type type;
+
+    private final Long id;
+
+    public NoteStreamEventDTO(Kind kind, Type type, Long id) {
+        this.kind = kind;
+        this.type = type;
+        this.id = id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteStreamEventDTO{" +
+            "kind=" + getKind() +
+            ", type=" + getType() +
+            ", id=" + getId() +
+            "}";
+    }
+}
@@ -0,0 +1,108 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for listing {@link com.adam.assessment.domain.Note}s, with a snippet of the content instead of the content.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NoteSummaryDTO implements Serializable {
+
+    private Long id;
+
+    private String title;
+
+    private Instant createdAt;
+
+    private Instant lastModifiedAt;
+
+    private String snippet;
+
+    private List<Long> tagIds = new ArrayList<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(Instant lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    public List<Long> getTagIds() {
+        return tagIds;
+    }
+
+    public void setTagIds(List<Long> tagIds) {
+        this.tagIds = tagIds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoteSummaryDTO)) {
+            return false;
+        }
+
+        NoteSummaryDTO noteSummaryDTO = (NoteSummaryDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, noteSummaryDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteSummaryDTO{" +
+            "id=" + getId() +
+            ", title='" + getTitle() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", lastModifiedAt='" + getLastModifiedAt() + "'" +
+            ", snippet='" + getSnippet() + "'" +
+            ", tagIds=" + getTagIds() +
+            "}";
+    }
+}
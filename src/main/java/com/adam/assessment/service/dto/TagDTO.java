@@ -3,9 +3,7 @@ package com.adam.assessment.service.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * A DTO for the {@link com.adam.assessment.domain.Tag} entity.
@@ -20,7 +18,7 @@ public class TagDTO implements Serializable {
     @Size(min = 2, max = 50)
     private String name;
 
-    private Set<NoteDTO> notes = new HashSet<>();
+    private Long version;
 
     public Long getId() {
         return id;
@@ -38,12 +36,12 @@ public class TagDTO implements Serializable {
         this.name = name;
     }
 
-    public Set<NoteDTO> getNotes() {
-        return notes;
+    public Long getVersion() {
+        return version;
     }
 
-    public void setNotes(Set<NoteDTO> notes) {
-        this.notes = notes;
+    public void setVersion(Long version) {
+        this.version = version;
     }
 
     @Override
@@ -73,7 +71,7 @@ public class TagDTO implements Serializable {
         return "TagDTO{" +
             "id=" + getId() +
             ", name='" + getName() + "'" +
-            ", notes=" + getNotes() +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,73 @@
+package com.adam.assessment.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for a {@link com.adam.assessment.domain.Tag} with the number of {@link com.adam.assessment.domain.Note}s carrying it,
+ * returned by the tag facets and suggestions.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class TagFacetDTO implements Serializable {
+
+    private Long id;
+
+    private String name;
+
+    private Long count;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TagFacetDTO)) {
+            return false;
+        }
+
+        TagFacetDTO tagFacetDTO = (TagFacetDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, tagFacetDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TagFacetDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", count=" + getCount() +
+            "}";
+    }
+}
@@ -0,0 +1,87 @@
+package com.adam.assessment.service.event;
+
+import com.adam.assessment.domain.Note;
+import com.adam.assessment.domain.Tag;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Published by {@link com.adam.assessment.service.NoteService} whenever a note is saved or deleted.
+ * <p>
+ * The event carries a snapshot of the note taken when it was published, so listeners bound to
+ * the transaction commit never have to touch the (by then detached) entity.
+ */
+public class NoteChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        SAVED,
+        DELETED,
+    }
+
+    private final Type type;
+
+    private final Long noteId;
+
+    private final String title;
+
+    private final String content;
+
+    private final List<Long> tagIds;
+
+    private NoteChangedEvent(Type type, Long noteId, String title, String content, List<Long> tagIds) {
+        this.type = type;
+        this.noteId = noteId;
+        this.title = title;
+        this.content = content;
+        this.tagIds = tagIds;
+    }
+
+    public static NoteChangedEvent saved(Note note) {
+        return new NoteChangedEvent(
+            Type.SAVED,
+            note.getId(),
+            note.getTitle(),
+            note.getContent(),
+            note.getTags().stream().map(Tag::getId).toList()
+        );
+    }
+
+    public static NoteChangedEvent deleted(Long noteId) {
+        return new NoteChangedEvent(Type.DELETED, noteId, null, null, List.of());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public List<Long> getTagIds() {
+        return tagIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteChangedEvent{" +
+            "type=" + getType() +
+            ", noteId=" + getNoteId() +
+            "}";
+    }
+}
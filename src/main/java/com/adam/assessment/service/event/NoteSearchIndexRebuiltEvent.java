@@ -0,0 +1,30 @@
+package com.adam.assessment.service.event;
+
+import java.io.Serializable;
+
+/**
+ * Published by {@link com.adam.assessment.service.NoteSearchService} once its index has been rebuilt, so that the
+ * indexes weighting terms by the statistics of the search index can be rebuilt from them.
+ */
+public class NoteSearchIndexRebuiltEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int noteCount;
+
+    public NoteSearchIndexRebuiltEvent(int noteCount) {
+        this.noteCount = noteCount;
+    }
+
+    public int getNoteCount() {
+        return noteCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NoteSearchIndexRebuiltEvent{" +
+            "noteCount=" + getNoteCount() +
+            "}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.adam.assessment.service.event;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Published by {@link com.adam.assessment.service.NoteRetagService} when tags are added to, and removed from, many notes
+ * at once by set-based statements.
+ * <p>
+ * Unlike {@link NoteChangedEvent} it carries no snapshot of the notes, which were never loaded, only the tags that
+ * changed: the other tags of the notes, their title and their content are left as they were.
+ */
+public class NotesRetaggedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Long> noteIds;
+
+    private final List<Long> addedTagIds;
+
+    private final List<Long> removedTagIds;
+
+    public NotesRetaggedEvent(List<Long> noteIds, List<Long> addedTagIds, List<Long> removedTagIds) {
+        this.noteIds = noteIds;
+        this.addedTagIds = addedTagIds;
+        this.removedTagIds = removedTagIds;
+    }
+
+    public List<Long> getNoteIds() {
+        return noteIds;
+    }
+
+    public List<Long> getAddedTagIds() {
+        return addedTagIds;
+    }
+
+    public List<Long> getRemovedTagIds() {
+        return removedTagIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NotesRetaggedEvent{" +
+            "notes=" + getNoteIds().size() +
+            ", addedTagIds=" + getAddedTagIds() +
+            ", removedTagIds=" + getRemovedTagIds() +
+            "}";
+    }
+}
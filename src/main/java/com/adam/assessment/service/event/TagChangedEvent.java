@@ -0,0 +1,62 @@
+package com.adam.assessment.service.event;
+
+import com.adam.assessment.domain.Tag;
+import java.io.Serializable;
+
+/**
+ * Published by {@link com.adam.assessment.service.TagService} whenever a tag is saved or deleted.
+ */
+public class TagChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        SAVED,
+        DELETED,
+    }
+
+    private final Type type;
+
+    private final Long tagId;
+
+    private final String name;
+
+    private TagChangedEvent(Type type, Long tagId, String name) {
+        this.type = type;
+        this.tagId = tagId;
+        this.name = name;
+    }
+
+    public static TagChangedEvent saved(Tag tag) {
+        return new TagChangedEvent(Type.SAVED, tag.getId(), tag.getName());
+    }
+
+    public static TagChangedEvent deleted(Long tagId) {
+        return new TagChangedEvent(Type.DELETED, tagId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+
+    public Long getTagId() {
+        return tagId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TagChangedEvent{" +
+            "type=" + getType() +
+            ", tagId=" + getTagId() +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Application events published by the services once their changes are committed.
+ */
+package com.adam.assessment.service.event;
@@ -0,0 +1,212 @@
+package com.adam.assessment.service.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reader of the notes of a CSV file, one record at a time.
+ * <p>
+ * The first line names the columns: {@code title} is required, {@code content}, {@code created_at},
+ * {@code last_modified_at} and {@code tags} (comma-separated names) are optional and others are ignored, like the
+ * {@code id} of {@code config/liquibase/fake-data/note.csv}. The delimiter is the one of {@code ;}, {@code ,} and tab
+ * found most often in the header. Fields may be quoted with {@code "}, doubled inside them, and then span lines.
+ */
+public class CsvNoteReader implements NoteArchiveReader {
+
+    private static final int MAX_HEADER_LENGTH = 4096;
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.of(
+        "body",
+        "content",
+        "created",
+        "createdat",
+        "updated",
+        "lastmodifiedat",
+        "updatedat",
+        "lastmodifiedat",
+        "modified",
+        "lastmodifiedat",
+        "tag",
+        "tags"
+    );
+
+    private final Reader reader;
+
+    private final int maxNoteLength;
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private char delimiter;
+
+    private boolean headerRead;
+
+    private int line = 1;
+
+    private int peeked = -2;
+
+    private boolean recordTooLong;
+
+    /**
+     * @param reader the buffered reader of the CSV file.
+     * @param maxNoteLength the maximum number of characters of a record, longer ones being skipped.
+     */
+    public CsvNoteReader(Reader reader, int maxNoteLength) {
+        this.reader = reader;
+        this.maxNoteLength = maxNoteLength;
+    }
+
+    @Override
+    public ImportedNote next() throws InvalidNoteException, IOException {
+        if (!headerRead) {
+            readHeader();
+            headerRead = true;
+        }
+        List<String> fields;
+        int recordLine;
+        do {
+            recordLine = line;
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        String source = "line " + recordLine;
+        if (recordTooLong) {
+            throw new InvalidNoteException(source, "longer than " + maxNoteLength + " characters");
+        }
+        ImportedNote note = new ImportedNote(source);
+        note.setTitle(field(fields, "title"));
+        note.setContent(field(fields, "content"));
+        try {
+            note.setCreatedAt(ImportedNote.parseInstant(field(fields, "createdat")));
+            note.setLastModifiedAt(ImportedNote.parseInstant(field(fields, "lastmodifiedat")));
+        } catch (DateTimeParseException e) {
+            throw new InvalidNoteException(source, "invalid date " + e.getParsedString());
+        }
+        String tags = field(fields, "tags");
+        if (tags != null) {
+            for (String tag : tags.split(",")) {
+                note.addTagName(tag);
+            }
+        }
+        return note;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        StringBuilder header = new StringBuilder();
+        int c = read();
+        if (c == '\uFEFF') {
+            c = read();
+        }
+        while (c != -1 && c != '\n') {
+            if (header.length() == MAX_HEADER_LENGTH) {
+                throw new IOException("The CSV header is longer than " + MAX_HEADER_LENGTH + " characters");
+            }
+            header.append((char) c);
+            c = read();
+        }
+        line++;
+        delimiter = mostFrequent(header, ';', ',', '\t');
+        String[] names = header.toString().split(String.valueOf(delimiter), -1);
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].replace("\"", "").replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(COLUMN_ALIASES.getOrDefault(name, name), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IOException("The CSV header has no title column");
+        }
+    }
+
+    /**
+     * @return the fields of the next record, empty if it is too long to be kept, or {@code null} at the end of the file.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        peeked = next;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            // past the limit the record is still read to its end, but no longer kept
+            if (++length > maxNoteLength) {
+                field.setLength(0);
+                fields.clear();
+            }
+            c = read();
+        }
+        recordTooLong = length > maxNoteLength;
+        if (recordTooLong) {
+            return fields;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static char mostFrequent(CharSequence text, char... candidates) {
+        char best = candidates[0];
+        long bestCount = -1;
+        for (char candidate : candidates) {
+            long count = text.chars().filter(c -> c == candidate).count();
+            if (count > bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,181 @@
+package com.adam.assessment.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reader of the notes of an Evernote ENEX export, pulled one element at a time with StAX.
+ * <p>
+ * The title, content, dates and tags of each note are read; its resources, which hold the attachments encoded in
+ * base64, are skipped without being kept. The ENML content is turned into plain text, keeping its line breaks and
+ * lists. DTDs and external entities are not processed.
+ */
+public class EnexNoteReader implements NoteArchiveReader {
+
+    private static final DateTimeFormatter ENEX_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssX");
+
+    private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#(?:[xX]([0-9a-fA-F]{1,6})|([0-9]{1,7}));");
+
+    private final XMLStreamReader xml;
+
+    private final int maxNoteLength;
+
+    private int count;
+
+    /**
+     * @param in the stream of the export, closed with the reader.
+     * @param maxNoteLength the maximum number of characters of a note, longer ones being skipped.
+     * @throws IOException if the export cannot be parsed.
+     */
+    public EnexNoteReader(InputStream in, int maxNoteLength) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // text is reported as it is parsed rather than gathered, so that the resources are never held in memory
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        try {
+            this.xml = factory.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid ENEX export: " + e.getMessage(), e);
+        }
+        this.maxNoteLength = maxNoteLength;
+    }
+
+    @Override
+    public ImportedNote next() throws InvalidNoteException, IOException {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "note".equals(xml.getLocalName())) {
+                    return readNote(new ImportedNote("note " + ++count));
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid ENEX export: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private ImportedNote readNote(ImportedNote note) throws XMLStreamException, InvalidNoteException {
+        int length = 0;
+        String invalidDate = null;
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String element = xml.getLocalName();
+            switch (element) {
+                case "title", "content", "created", "updated", "tag" -> {
+                    String text = readText(maxNoteLength - length);
+                    length = text == null ? maxNoteLength + 1 : length + text.length();
+                    if (text == null) {
+                        break;
+                    }
+                    try {
+                        switch (element) {
+                            case "title" -> note.setTitle(text.trim());
+                            case "content" -> note.setContent(toText(text));
+                            case "created" -> note.setCreatedAt(parseDate(text));
+                            case "updated" -> note.setLastModifiedAt(parseDate(text));
+                            default -> note.addTagName(text);
+                        }
+                    } catch (DateTimeParseException e) {
+                        invalidDate = text;
+                    }
+                }
+                default -> skipElement();
+            }
+        }
+        if (length > maxNoteLength) {
+            throw new InvalidNoteException(note.getSource(), "longer than " + maxNoteLength + " characters");
+        }
+        if (invalidDate != null) {
+            throw new InvalidNoteException(note.getSource(), "invalid date " + invalidDate);
+        }
+        return note;
+    }
+
+    /**
+     * Read the text of the current element, up to its end.
+     *
+     * @return the text, or {@code null} if it is longer than the limit.
+     */
+    private String readText(int limit) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        boolean tooLong = false;
+        int event = xml.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                if (!tooLong && text.length() + xml.getTextLength() <= limit) {
+                    text.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+                } else {
+                    tooLong = true;
+                    text.setLength(0);
+                }
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                skipElement();
+            }
+            event = xml.next();
+        }
+        return tooLong ? null : text.toString();
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static Instant parseDate(String text) {
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : ZonedDateTime.parse(trimmed, ENEX_DATE).toInstant();
+    }
+
+    /**
+     * Turn ENML, the XHTML of Evernote notes, into plain text.
+     *
+     * @param enml the content of a note.
+     * @return the text, with a line per block and a dash before list items.
+     */
+    static String toText(String enml) {
+        String text = enml.replaceFirst("(?s)^.*?<en-note[^>]*>", "").replaceFirst("(?s)</en-note>.*$", "");
+        text = text
+            .replaceAll("(?i)<br\\s*/?>", "\n")
+            .replaceAll("(?i)<li[^>]*>", "- ")
+            .replaceAll("(?i)<en-todo[^>]*checked=\"true\"[^>]*>", "[x] ")
+            .replaceAll("(?i)<en-todo[^>]*>", "[ ] ")
+            .replaceAll("(?i)</(div|p|li|h[1-6]|tr|blockquote|pre)>", "\n")
+            .replaceAll("<[^>]*>", "");
+        text = text.replace("&nbsp;", " ").replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'");
+        Matcher entities = NUMERIC_ENTITY.matcher(text);
+        StringBuilder decoded = new StringBuilder();
+        while (entities.find()) {
+            int codePoint = entities.group(1) != null ? Integer.parseInt(entities.group(1), 16) : Integer.parseInt(entities.group(2));
+            String replacement = Character.isValidCodePoint(codePoint) ? Character.toString(codePoint) : entities.group();
+            entities.appendReplacement(decoded, Matcher.quoteReplacement(replacement));
+        }
+        entities.appendTail(decoded);
+        return decoded.toString().replace("&amp;", "&").replaceAll("\n{3,}", "\n\n").strip();
+    }
+}
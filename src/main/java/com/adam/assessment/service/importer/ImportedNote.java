@@ -0,0 +1,118 @@
+package com.adam.assessment.service.importer;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A note read from an archive, before it is saved.
+ */
+public class ImportedNote {
+
+    private final String source;
+
+    private String title;
+
+    private String content;
+
+    private Instant createdAt;
+
+    private Instant lastModifiedAt;
+
+    private final Set<String> tagNames = new LinkedHashSet<>();
+
+    public ImportedNote(String source) {
+        this.source = source;
+    }
+
+    /**
+     * @return where the note was read from in the archive, to report the notes that could not be imported.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(Instant lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    public Set<String> getTagNames() {
+        return tagNames;
+    }
+
+    /**
+     * Add a tag, ignoring blank names.
+     *
+     * @param name the name of the tag, trimmed.
+     */
+    public void addTagName(String name) {
+        String trimmed = name == null ? "" : name.trim();
+        if (!trimmed.isEmpty()) {
+            tagNames.add(trimmed);
+        }
+    }
+
+    /**
+     * Parse an instant written as an ISO-8601 instant, date-time or date, the latter two in UTC.
+     *
+     * @param value the text to parse.
+     * @return the instant, or {@code null} if the text is blank.
+     * @throws DateTimeParseException if the text is not a date.
+     */
+    public static Instant parseInstant(String value) {
+        String trimmed = value == null ? "" : value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        if (trimmed.length() == 10) {
+            return LocalDate.parse(trimmed).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        try {
+            return Instant.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(trimmed.replace(' ', 'T')).toInstant(ZoneOffset.UTC);
+        }
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ImportedNote{" +
+            "source='" + getSource() + "'" +
+            ", title='" + getTitle() + "'" +
+            ", tagNames=" + getTagNames() +
+            "}";
+    }
+}
@@ -0,0 +1,21 @@
+package com.adam.assessment.service.importer;
+
+/**
+ * Thrown by a {@link NoteArchiveReader} for a note it cannot read. The reader is left positioned after the note, so
+ * that the following ones can still be read.
+ */
+public class InvalidNoteException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String source;
+
+    public InvalidNoteException(String source, String message) {
+        super(source + ": " + message);
+        this.source = source;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,201 @@
+package com.adam.assessment.service.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reader of the notes of a ZIP archive of Markdown files, one entry at a time.
+ * <p>
+ * Each {@code .md} or {@code .markdown} file is a note. An optional YAML front matter gives its {@code title},
+ * {@code createdAt}, {@code lastModifiedAt} and {@code tags}, as written by the Markdown export, as a flow or block
+ * sequence, or as a comma-separated list. Without a title, the first heading of the file is used, then its name.
+ */
+public class MarkdownZipNoteReader implements NoteArchiveReader {
+
+    private static final String FRONT_MATTER_DELIMITER = "---";
+
+    private final ZipInputStream zip;
+
+    private final int maxNoteLength;
+
+    /**
+     * @param in the stream of the archive, closed with the reader.
+     * @param maxNoteLength the maximum number of characters of a note, longer ones being skipped.
+     */
+    public MarkdownZipNoteReader(InputStream in, int maxNoteLength) {
+        this.zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        this.maxNoteLength = maxNoteLength;
+    }
+
+    @Override
+    public ImportedNote next() throws InvalidNoteException, IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (isNote(entry)) {
+                ImportedNote note = new ImportedNote(entry.getName());
+                String markdown = readEntry();
+                if (markdown == null || markdown.length() > maxNoteLength) {
+                    throw new InvalidNoteException(note.getSource(), "longer than " + maxNoteLength + " characters");
+                }
+                parse(markdown, note);
+                return note;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+
+    private static boolean isNote(ZipEntry entry) {
+        String name = entry.getName();
+        String fileName = name.substring(name.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        return (
+            !entry.isDirectory() &&
+            !name.startsWith("__MACOSX/") &&
+            !fileName.startsWith(".") &&
+            (fileName.endsWith(".md") || fileName.endsWith(".markdown"))
+        );
+    }
+
+    /**
+     * @return the content of the current entry, or {@code null} if it is longer than a note can be, in which case the
+     * entry is skipped.
+     */
+    private String readEntry() throws IOException {
+        // a character takes up to 4 bytes in UTF-8
+        long maxBytes = 4L * maxNoteLength;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = zip.read(buffer)) != -1) {
+            if (bytes.size() + read > maxBytes) {
+                zip.closeEntry();
+                return null;
+            }
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void parse(String markdown, ImportedNote note) throws InvalidNoteException {
+        String text = markdown.startsWith("\uFEFF") ? markdown.substring(1) : markdown;
+        String[] lines = text.split("\r?\n", -1);
+        int bodyStart = 0;
+        if (lines.length > 1 && FRONT_MATTER_DELIMITER.equals(lines[0].strip())) {
+            int end = 1;
+            while (end < lines.length && !FRONT_MATTER_DELIMITER.equals(lines[end].strip())) {
+                end++;
+            }
+            if (end < lines.length) {
+                parseFrontMatter(lines, end, note);
+                bodyStart = end + 1;
+            }
+        }
+        StringBuilder body = new StringBuilder();
+        for (int i = bodyStart; i < lines.length; i++) {
+            if (body.isEmpty() && lines[i].isBlank()) {
+                continue;
+            }
+            body.append(lines[i]).append('\n');
+        }
+        note.setContent(body.toString().stripTrailing());
+
+        if (note.getTitle() == null || note.getTitle().isBlank()) {
+            note.setTitle(titleFromHeading(note.getContent(), note.getSource()));
+        }
+    }
+
+    private static void parseFrontMatter(String[] lines, int end, ImportedNote note) throws InvalidNoteException {
+        for (int i = 1; i < end; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon < 0 || Character.isWhitespace(lines[i].charAt(0))) {
+                continue;
+            }
+            String key = lines[i].substring(0, colon).strip().toLowerCase(Locale.ROOT);
+            String value = lines[i].substring(colon + 1).strip();
+            try {
+                switch (key) {
+                    case "title" -> note.setTitle(unquote(value));
+                    case "createdat", "created", "date" -> note.setCreatedAt(ImportedNote.parseInstant(unquote(value)));
+                    case "lastmodifiedat", "updated", "modified" -> note.setLastModifiedAt(ImportedNote.parseInstant(unquote(value)));
+                    case "tags" -> {
+                        if (value.isEmpty()) {
+                            // a block sequence, one "- name" line per tag
+                            while (i + 1 < end && lines[i + 1].stripLeading().startsWith("-")) {
+                                note.addTagName(unquote(lines[++i].stripLeading().substring(1).strip()));
+                            }
+                        } else {
+                            String names = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+                            for (String name : splitOutsideQuotes(names)) {
+                                note.addTagName(unquote(name.strip()));
+                            }
+                        }
+                    }
+                    default -> {
+                        // other keys are not note fields
+                    }
+                }
+            } catch (DateTimeParseException e) {
+                throw new InvalidNoteException(note.getSource(), "invalid date " + value);
+            }
+        }
+    }
+
+    private static String titleFromHeading(String content, String source) {
+        for (String line : content.split("\n")) {
+            if (line.startsWith("# ")) {
+                return line.substring(2).strip();
+            }
+        }
+        String fileName = source.substring(source.lastIndexOf('/') + 1);
+        return fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+
+    private static List<String> splitOutsideQuotes(String values) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        char quote = 0;
+        for (int i = 0; i < values.length(); i++) {
+            char c = values.charAt(i);
+            if (quote != 0) {
+                if (c == '\\' && quote == '"') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == ',') {
+                parts.add(values.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(values.substring(start));
+        return parts;
+    }
+
+    /**
+     * Remove the quotes around a YAML scalar, and the escapes of double-quoted ones, like the JSON strings written by the
+     * export.
+     */
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        if (value.length() >= 2 && value.startsWith("'") && value.endsWith("'")) {
+            return value.substring(1, value.length() - 1).replace("''", "'");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package com.adam.assessment.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reader of the notes of an archive, one at a time, so that the memory used does not depend on the size of the
+ * archive.
+ */
+public interface NoteArchiveReader extends Closeable {
+    /**
+     * Read the next note.
+     *
+     * @return the note, or {@code null} at the end of the archive.
+     * @throws InvalidNoteException if the next note cannot be read, the reader then moving on to the following one.
+     * @throws IOException if the archive cannot be read any further.
+     */
+    ImportedNote next() throws InvalidNoteException, IOException;
+}
@@ -0,0 +1,4 @@
+/**
+ * Streaming readers of the note archives accepted by the import.
+ */
+package com.adam.assessment.service.importer;
@@ -0,0 +1,14 @@
+package com.adam.assessment.service.mapper;
+
+import com.adam.assessment.domain.Attachment;
+import com.adam.assessment.service.dto.AttachmentDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link Attachment} and its DTO {@link AttachmentDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface AttachmentMapper {
+    @Mapping(target = "noteId", source = "note.id")
+    AttachmentDTO toDto(Attachment attachment);
+}
@@ -4,6 +4,7 @@ import com.adam.assessment.domain.Note;
 import com.adam.assessment.domain.Tag;
 import com.adam.assessment.service.dto.NoteDTO;
 import com.adam.assessment.service.dto.TagDTO;
+import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.mapstruct.*;
@@ -14,11 +15,34 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring")
 public interface NoteMapper extends EntityMapper<NoteDTO, Note> {
     @Mapping(target = "tags", source = "tags", qualifiedByName = "tagIdSet")
+    @Mapping(target = "tagNames", ignore = true)
     NoteDTO toDto(Note s);
 
+    @Named("withoutTags")
+    @Mapping(target = "tags", ignore = true)
+    @Mapping(target = "tagNames", ignore = true)
+    NoteDTO toDtoWithoutTags(Note s);
+
+    default NoteDTO toDto(Note s, Collection<Long> tagIds) {
+        NoteDTO noteDTO = toDtoWithoutTags(s);
+        for (Long tagId : tagIds) {
+            TagDTO tagDTO = new TagDTO();
+            tagDTO.setId(tagId);
+            noteDTO.getTags().add(tagDTO);
+        }
+        return noteDTO;
+    }
+
     @Mapping(target = "removeTag", ignore = true)
+    @Mapping(target = "changeSeq", ignore = true)
     Note toEntity(NoteDTO noteDTO);
 
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "removeTag", ignore = true)
+    @Mapping(target = "changeSeq", ignore = true)
+    void partialUpdate(@MappingTarget Note entity, NoteDTO dto);
+
     @Named("tagId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
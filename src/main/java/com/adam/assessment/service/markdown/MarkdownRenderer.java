@@ -0,0 +1,841 @@
+package com.adam.assessment.service.markdown;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders Markdown to HTML that is safe to insert into a page.
+ * <p>
+ * The common subset of CommonMark is covered: ATX and setext headings, paragraphs and hard line breaks, block quotes,
+ * bullet and ordered lists, fenced and indented code blocks, thematic breaks, emphasis, strong emphasis,
+ * strikethrough, code spans, inline links and images, autolinks and bare URLs. The output is sanitized by construction
+ * rather than filtered afterwards: raw HTML is escaped as text, and links and images only keep relative, {@code http}
+ * and {@code https} URLs, plus {@code mailto} for links.
+ * <p>
+ * Scans for closing delimiters are remembered or bounded, so that rendering stays close to linear in the length of
+ * the text whatever it holds.
+ */
+public final class MarkdownRenderer {
+
+    /**
+     * Changes whenever the output for the same text changes, so that renders cached by an older version are not served.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAX_DEPTH = 16;
+
+    private static final int MAX_LINK_LENGTH = 2048;
+
+    private static final int MAX_BRACKET_NESTING = 32;
+
+    private static final int MAX_LANGUAGE_LENGTH = 32;
+
+    private static final String LINK_REL = " rel=\"nofollow noopener noreferrer\"";
+
+    private static final Pattern ATX_HEADING = Pattern.compile(" {0,3}(#{1,6})(?: +(.*))?");
+
+    private static final Pattern ATX_CLOSING = Pattern.compile("(?:^| +)#+ *$");
+
+    private static final Pattern SETEXT_UNDERLINE = Pattern.compile(" {0,3}(=+|-+) *");
+
+    private static final Pattern FENCE = Pattern.compile("( {0,3})(`{3,}|~{3,})(.*)");
+
+    private static final Pattern BLOCKQUOTE = Pattern.compile(" {0,3}> ?(.*)");
+
+    private static final Pattern LIST_ITEM = Pattern.compile("( {0,3})([-+*]|\\d{1,9}[.)])(?= |$)( *)(.*)");
+
+    private static final Pattern ENTITY = Pattern.compile("&(?:#[0-9]{1,7}|#[xX][0-9a-fA-F]{1,6}|[A-Za-z][A-Za-z0-9]{1,31});");
+
+    private static final Pattern URI_AUTOLINK = Pattern.compile("[A-Za-z][A-Za-z0-9+.-]{1,31}:[^\\s<>]*");
+
+    private static final Pattern EMAIL_AUTOLINK = Pattern.compile("[A-Za-z0-9.!#$%&'*+/=?^_`{|}~-]+@[A-Za-z0-9](?:[A-Za-z0-9-]*[A-Za-z0-9])?(?:\\.[A-Za-z0-9-]+)+");
+
+    private MarkdownRenderer() {}
+
+    /**
+     * @param markdown the Markdown text.
+     * @return the HTML fragment.
+     */
+    public static String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        StringBuilder html = new StringBuilder(markdown.length() + markdown.length() / 4);
+        renderBlocks(lines(markdown), 0, false, html);
+        return html.toString();
+    }
+
+    private static void renderBlocks(List<String> lines, int depth, boolean tight, StringBuilder html) {
+        int i = 0;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            Matcher matcher;
+            if (isBlank(line)) {
+                i++;
+            } else if (indent(line) >= 4) {
+                i = renderIndentedCode(lines, i, html);
+            } else if ((matcher = FENCE.matcher(line)).matches() && isFenceOpening(matcher)) {
+                i = renderFencedCode(lines, i, matcher, html);
+            } else if ((matcher = ATX_HEADING.matcher(line)).matches()) {
+                String text = matcher.group(2) == null ? "" : ATX_CLOSING.matcher(matcher.group(2)).replaceFirst("").strip();
+                renderHeading(matcher.group(1).length(), text, depth, html);
+                i++;
+            } else if (isThematicBreak(line)) {
+                html.append("<hr />\n");
+                i++;
+            } else if (depth < MAX_DEPTH && BLOCKQUOTE.matcher(line).matches()) {
+                i = renderBlockquote(lines, i, depth, html);
+            } else if (depth < MAX_DEPTH && LIST_ITEM.matcher(line).matches()) {
+                i = renderList(lines, i, depth, html);
+            } else {
+                i = renderParagraph(lines, i, depth, tight, html);
+            }
+        }
+    }
+
+    private static boolean isThematicBreak(String line) {
+        int indent = indent(line);
+        if (indent > 3 || indent == line.length() || "*-_".indexOf(line.charAt(indent)) < 0) {
+            return false;
+        }
+        char c = line.charAt(indent);
+        int count = 0;
+        for (int i = indent; i < line.length(); i++) {
+            if (line.charAt(i) == c) {
+                count++;
+            } else if (line.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return count >= 3;
+    }
+
+    private static int renderIndentedCode(List<String> lines, int start, StringBuilder html) {
+        int last = start;
+        for (int i = start; i < lines.size() && (isBlank(lines.get(i)) || indent(lines.get(i)) >= 4); i++) {
+            if (!isBlank(lines.get(i))) {
+                last = i;
+            }
+        }
+        html.append("<pre><code>");
+        for (int i = start; i <= last; i++) {
+            escape(stripIndent(lines.get(i), 4), html);
+            html.append('\n');
+        }
+        html.append("</code></pre>\n");
+        return last + 1;
+    }
+
+    private static boolean isFenceOpening(Matcher fence) {
+        // the info string of a backtick fence cannot hold backticks, so that inline code spans are not taken for fences
+        return fence.group(2).charAt(0) != '`' || fence.group(3).indexOf('`') < 0;
+    }
+
+    private static int renderFencedCode(List<String> lines, int start, Matcher opening, StringBuilder html) {
+        int indent = opening.group(1).length();
+        String fence = opening.group(2);
+        String language = language(opening.group(3).strip());
+        html.append("<pre><code");
+        if (!language.isEmpty()) {
+            html.append(" class=\"language-").append(language).append('"');
+        }
+        html.append('>');
+        int i = start + 1;
+        while (i < lines.size()) {
+            String line = lines.get(i++);
+            if (isFenceClosing(line, fence)) {
+                break;
+            }
+            escape(stripIndent(line, indent), html);
+            html.append('\n');
+        }
+        html.append("</code></pre>\n");
+        return i;
+    }
+
+    private static boolean isFenceClosing(String line, String fence) {
+        int indent = indent(line);
+        if (indent > 3) {
+            return false;
+        }
+        String rest = line.strip();
+        if (rest.length() < fence.length()) {
+            return false;
+        }
+        for (int i = 0; i < rest.length(); i++) {
+            if (rest.charAt(i) != fence.charAt(0)) {
+                return false;
+            }
+        }
+        return indent + rest.length() == line.stripTrailing().length();
+    }
+
+    private static String language(String info) {
+        StringBuilder language = new StringBuilder();
+        for (int i = 0; i < info.length() && !Character.isWhitespace(info.charAt(i)) && language.length() < MAX_LANGUAGE_LENGTH; i++) {
+            char c = info.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "_+#.-".indexOf(c) >= 0) {
+                language.append(c);
+            }
+        }
+        return language.toString();
+    }
+
+    private static void renderHeading(int level, String text, int depth, StringBuilder html) {
+        html.append("<h").append(level).append('>');
+        renderInline(text, false, depth, html);
+        html.append("</h").append(level).append(">\n");
+    }
+
+    private static int renderBlockquote(List<String> lines, int start, int depth, StringBuilder html) {
+        List<String> quoted = new ArrayList<>();
+        int i = start;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            Matcher matcher = BLOCKQUOTE.matcher(line);
+            if (matcher.matches()) {
+                quoted.add(matcher.group(1));
+            } else if (!isBlank(line) && !isBlank(quoted.get(quoted.size() - 1)) && !startsBlock(line)) {
+                // lazy continuation of a quoted paragraph
+                quoted.add(line);
+            } else {
+                break;
+            }
+            i++;
+        }
+        html.append("<blockquote>\n");
+        renderBlocks(quoted, depth + 1, false, html);
+        html.append("</blockquote>\n");
+        return i;
+    }
+
+    private static int renderList(List<String> lines, int start, int depth, StringBuilder html) {
+        Matcher first = LIST_ITEM.matcher(lines.get(start));
+        first.matches();
+        String marker = first.group(2);
+        List<List<String>> items = new ArrayList<>();
+        List<String> item = null;
+        int contentIndent = 0;
+        boolean itemHasContent = false;
+        boolean blankSeen = false;
+        boolean loose = false;
+        int i = start;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            Matcher matcher = LIST_ITEM.matcher(line);
+            if (isBlank(line)) {
+                if (item != null) {
+                    item.add("");
+                }
+                blankSeen = true;
+            } else if (matcher.matches() && (item == null || indent(line) < contentIndent) && !isThematicBreak(line)) {
+                if (!isSameList(marker, matcher.group(2))) {
+                    break;
+                }
+                loose |= blankSeen;
+                item = new ArrayList<>();
+                items.add(item);
+                int markerEnd = matcher.group(1).length() + matcher.group(2).length();
+                int spaces = matcher.group(3).length();
+                String rest = matcher.group(4);
+                if (rest.isEmpty() || spaces > 4) {
+                    // the content starts one space after the marker, the other spaces indent a code block
+                    contentIndent = markerEnd + 1;
+                    rest = rest.isEmpty() ? rest : " ".repeat(spaces - 1) + rest;
+                } else {
+                    contentIndent = markerEnd + spaces;
+                }
+                if (!rest.isEmpty()) {
+                    item.add(rest);
+                }
+                itemHasContent = !rest.isEmpty();
+                blankSeen = false;
+            } else if (item != null && indent(line) >= contentIndent) {
+                loose |= blankSeen && itemHasContent;
+                item.add(line.substring(contentIndent));
+                itemHasContent = true;
+                blankSeen = false;
+            } else if (item != null && !blankSeen && !startsBlock(line)) {
+                // lazy continuation of the paragraph of the item
+                item.add(line.stripLeading());
+            } else {
+                break;
+            }
+            i++;
+        }
+
+        boolean ordered = Character.isDigit(marker.charAt(0));
+        if (ordered) {
+            int number = Integer.parseInt(marker.substring(0, marker.length() - 1));
+            html.append(number == 1 ? "<ol>\n" : "<ol start=\"" + number + "\">\n");
+        } else {
+            html.append("<ul>\n");
+        }
+        for (List<String> content : items) {
+            html.append(loose ? "<li>\n" : "<li>");
+            renderBlocks(content, depth + 1, !loose, html);
+            if (!loose && html.charAt(html.length() - 1) == '\n') {
+                html.setLength(html.length() - 1);
+            }
+            html.append("</li>\n");
+        }
+        html.append(ordered ? "</ol>\n" : "</ul>\n");
+        return i;
+    }
+
+    private static boolean isSameList(String marker, String other) {
+        boolean ordered = Character.isDigit(marker.charAt(0));
+        if (ordered != Character.isDigit(other.charAt(0))) {
+            return false;
+        }
+        return marker.charAt(marker.length() - 1) == other.charAt(other.length() - 1);
+    }
+
+    private static int renderParagraph(List<String> lines, int start, int depth, boolean tight, StringBuilder html) {
+        StringBuilder text = new StringBuilder();
+        int level = 0;
+        int i = start;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            if (isBlank(line)) {
+                break;
+            }
+            if (i > start) {
+                Matcher underline = SETEXT_UNDERLINE.matcher(line);
+                if (underline.matches()) {
+                    level = underline.group(1).charAt(0) == '=' ? 1 : 2;
+                    i++;
+                    break;
+                }
+                if (startsBlock(line)) {
+                    break;
+                }
+                text.append('\n');
+            }
+            text.append(line.stripLeading());
+            i++;
+        }
+        String content = text.toString().stripTrailing();
+        if (level > 0) {
+            renderHeading(level, content, depth, html);
+        } else if (tight) {
+            renderInline(content, false, depth, html);
+            html.append('\n');
+        } else {
+            html.append("<p>");
+            renderInline(content, false, depth, html);
+            html.append("</p>\n");
+        }
+        return i;
+    }
+
+    /**
+     * @return whether the line starts a block that interrupts a paragraph.
+     */
+    private static boolean startsBlock(String line) {
+        if (isBlank(line) || indent(line) >= 4) {
+            return false;
+        }
+        Matcher fence = FENCE.matcher(line);
+        if (
+            ATX_HEADING.matcher(line).matches() ||
+            isThematicBreak(line) ||
+            (fence.matches() && isFenceOpening(fence)) ||
+            BLOCKQUOTE.matcher(line).matches()
+        ) {
+            return true;
+        }
+        Matcher item = LIST_ITEM.matcher(line);
+        // only a non-empty bullet item, or ordered one starting at 1, interrupts a paragraph
+        return item.matches() && !item.group(4).isBlank() && (!Character.isDigit(item.group(2).charAt(0)) || (item.group(2).startsWith("1") && item.group(2).length() == 2));
+    }
+
+    private static void renderInline(String text, boolean inLink, int depth, StringBuilder html) {
+        new InlineRenderer(text, inLink, depth, html).render();
+    }
+
+    /**
+     * Renders the inline content of a block. Each construct returns the position after it once rendered, or
+     * {@code -1} if the text at the position is not that construct and is rendered as it is.
+     */
+    private static final class InlineRenderer {
+
+        private final String text;
+
+        private final int length;
+
+        private final boolean inLink;
+
+        private final int depth;
+
+        private final StringBuilder html;
+
+        // the delimiter runs known to have no closer in the rest of the text
+        private final Set<String> unclosed = new HashSet<>();
+
+        // the end of the last run of text that was not a bare URL, nor any part of it
+        private int notUrlBefore;
+
+        private InlineRenderer(String text, boolean inLink, int depth, StringBuilder html) {
+            this.text = text;
+            this.length = text.length();
+            this.inLink = inLink;
+            this.depth = depth;
+            this.html = html;
+        }
+
+        private void render() {
+            int i = 0;
+            while (i < length) {
+                char c = text.charAt(i);
+                int next = switch (c) {
+                    case '\\' -> escapeSequence(i);
+                    case '`' -> codeSpan(i);
+                    case '*', '_', '~' -> emphasis(i);
+                    case '!' -> i + 1 < length && text.charAt(i + 1) == '[' ? link(i + 1, true) : -1;
+                    case '[' -> inLink ? -1 : link(i, false);
+                    case '<' -> autolink(i);
+                    case '&' -> entity(i);
+                    case '\n' -> lineBreak(i);
+                    case 'h', 'H', 'w', 'W' -> bareUrl(i);
+                    default -> -1;
+                };
+                if (next < 0) {
+                    escape(c, html);
+                    i++;
+                } else {
+                    i = next;
+                }
+            }
+        }
+
+        private int escapeSequence(int i) {
+            if (i + 1 >= length) {
+                return -1;
+            }
+            char next = text.charAt(i + 1);
+            if (next == '\n') {
+                html.append("<br />\n");
+            } else if (isAsciiPunctuation(next)) {
+                escape(next, html);
+            } else {
+                return -1;
+            }
+            return i + 2;
+        }
+
+        private int codeSpan(int i) {
+            int run = runLength(i, '`');
+            int closing = unclosed.contains("`" + run) ? -1 : findBacktickRun(i + run, run);
+            if (closing < 0) {
+                unclosed.add("`" + run);
+                html.append(text, i, i + run);
+                return i + run;
+            }
+            String code = text.substring(i + run, closing).replace('\n', ' ');
+            if (code.length() > 1 && code.charAt(0) == ' ' && code.charAt(code.length() - 1) == ' ' && !code.isBlank()) {
+                code = code.substring(1, code.length() - 1);
+            }
+            html.append("<code>");
+            escape(code, html);
+            html.append("</code>");
+            return closing + run;
+        }
+
+        private int findBacktickRun(int from, int run) {
+            int i = from;
+            while (i < length) {
+                if (text.charAt(i) == '`') {
+                    int found = runLength(i, '`');
+                    if (found == run) {
+                        return i;
+                    }
+                    i += found;
+                } else {
+                    i++;
+                }
+            }
+            return -1;
+        }
+
+        private int emphasis(int i) {
+            char c = text.charAt(i);
+            int run = runLength(i, c);
+            boolean canOpen =
+                depth < MAX_DEPTH &&
+                (c != '~' || run == 2) &&
+                i + run < length &&
+                !Character.isWhitespace(text.charAt(i + run)) &&
+                (c != '_' || i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+            if (canOpen) {
+                for (int width = Math.min(run, 2); width >= 1 && (c != '~' || width == 2); width--) {
+                    String key = String.valueOf(c) + width;
+                    int closing = unclosed.contains(key) ? -1 : findCloser(c, width, i + run);
+                    if (closing < 0) {
+                        unclosed.add(key);
+                        continue;
+                    }
+                    String tag = c == '~' ? "del" : width == 2 ? "strong" : "em";
+                    html.append('<').append(tag).append('>');
+                    new InlineRenderer(text.substring(i + width, closing), inLink, depth + 1, html).render();
+                    html.append("</").append(tag).append('>');
+                    return closing + width;
+                }
+            }
+            for (int j = 0; j < run; j++) {
+                html.append(c);
+            }
+            return i + run;
+        }
+
+        /**
+         * @return the position of the closing delimiter, taken at the end of the first run that can close.
+         */
+        private int findCloser(char c, int width, int from) {
+            int i = from;
+            while (i < length) {
+                char current = text.charAt(i);
+                if (current == '\\') {
+                    i += 2;
+                } else if (current == c) {
+                    int run = runLength(i, c);
+                    int end = i + run;
+                    boolean canClose =
+                        run >= width &&
+                        (c != '~' || run == 2) &&
+                        !Character.isWhitespace(text.charAt(i - 1)) &&
+                        (c != '_' || end == length || !Character.isLetterOrDigit(text.charAt(end)));
+                    if (canClose) {
+                        return end - width;
+                    }
+                    i = end;
+                } else {
+                    i++;
+                }
+            }
+            return -1;
+        }
+
+        private int link(int open, boolean image) {
+            int limit = Math.min(length, open + MAX_LINK_LENGTH);
+            int close = -1;
+            int nesting = 0;
+            for (int i = open + 1; i < limit && close < 0; i++) {
+                char c = text.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    if (++nesting > MAX_BRACKET_NESTING) {
+                        return -1;
+                    }
+                } else if (c == ']') {
+                    if (nesting == 0) {
+                        close = i;
+                    }
+                    nesting--;
+                }
+            }
+            if (close < 0 || close + 1 >= length || text.charAt(close + 1) != '(') {
+                return -1;
+            }
+
+            int i = skipWhitespace(close + 2);
+            limit = Math.min(length, i + MAX_LINK_LENGTH);
+            int destinationStart;
+            int destinationEnd;
+            if (i < length && text.charAt(i) == '<') {
+                destinationStart = i + 1;
+                while (i < limit && text.charAt(i) != '>' && text.charAt(i) != '\n') {
+                    i++;
+                }
+                if (i >= limit || text.charAt(i) != '>') {
+                    return -1;
+                }
+                destinationEnd = i++;
+            } else {
+                destinationStart = i;
+                int parentheses = 0;
+                while (i < limit && !Character.isWhitespace(text.charAt(i))) {
+                    char c = text.charAt(i);
+                    if (c == '\\') {
+                        i++;
+                    } else if (c == '(') {
+                        parentheses++;
+                    } else if (c == ')') {
+                        if (parentheses == 0) {
+                            break;
+                        }
+                        parentheses--;
+                    }
+                    i++;
+                }
+                destinationEnd = Math.min(i, limit);
+            }
+
+            String title = null;
+            int afterDestination = i;
+            i = skipWhitespace(i);
+            if (i < length && i > afterDestination && (text.charAt(i) == '"' || text.charAt(i) == '\'' || text.charAt(i) == '(')) {
+                char closing = text.charAt(i) == '(' ? ')' : text.charAt(i);
+                int titleStart = ++i;
+                while (i < limit && text.charAt(i) != closing) {
+                    i += text.charAt(i) == '\\' ? 2 : 1;
+                }
+                if (i >= limit) {
+                    return -1;
+                }
+                title = unescape(text.substring(titleStart, i++));
+                i = skipWhitespace(i);
+            }
+            if (i >= length || text.charAt(i) != ')') {
+                return -1;
+            }
+
+            String destination = unescape(text.substring(destinationStart, destinationEnd));
+            String label = text.substring(open + 1, close);
+            if (image) {
+                if (isSafeUrl(destination, false)) {
+                    html.append("<img src=\"");
+                    escape(destination, html);
+                    html.append("\" alt=\"");
+                    escape(unescape(label), html);
+                    html.append('"');
+                    appendTitle(title);
+                    html.append(" />");
+                } else {
+                    escape(unescape(label), html);
+                }
+            } else if (isSafeUrl(destination, true)) {
+                html.append("<a href=\"");
+                escape(destination, html);
+                html.append('"');
+                appendTitle(title);
+                html.append(LINK_REL).append('>');
+                new InlineRenderer(label, true, depth + 1, html).render();
+                html.append("</a>");
+            } else {
+                new InlineRenderer(label, inLink, depth + 1, html).render();
+            }
+            return i + 1;
+        }
+
+        private void appendTitle(String title) {
+            if (title != null) {
+                html.append(" title=\"");
+                escape(title, html);
+                html.append('"');
+            }
+        }
+
+        private int autolink(int open) {
+            int limit = Math.min(length, open + MAX_LINK_LENGTH);
+            int close = open + 1;
+            while (close < limit && text.charAt(close) != '>' && text.charAt(close) != '<' && !Character.isWhitespace(text.charAt(close))) {
+                close++;
+            }
+            if (close >= limit || text.charAt(close) != '>') {
+                return -1;
+            }
+            String target = text.substring(open + 1, close);
+            String href;
+            if (URI_AUTOLINK.matcher(target).matches() && isSafeUrl(target, true)) {
+                href = target;
+            } else if (EMAIL_AUTOLINK.matcher(target).matches()) {
+                href = "mailto:" + target;
+            } else {
+                return -1;
+            }
+            appendLink(href, target);
+            return close + 1;
+        }
+
+        private int bareUrl(int start) {
+            if (
+                inLink ||
+                start < notUrlBefore ||
+                (start > 0 && !Character.isWhitespace(text.charAt(start - 1)) && "*_~(".indexOf(text.charAt(start - 1)) < 0)
+            ) {
+                return -1;
+            }
+            boolean web = text.regionMatches(true, start, "www.", 0, 4);
+            if (!web && !text.regionMatches(true, start, "http://", 0, 7) && !text.regionMatches(true, start, "https://", 0, 8)) {
+                return -1;
+            }
+            int limit = Math.min(length, start + MAX_LINK_LENGTH);
+            int end = start;
+            int parentheses = 0;
+            while (end < limit && !Character.isWhitespace(text.charAt(end)) && text.charAt(end) != '<') {
+                char c = text.charAt(end++);
+                parentheses += c == '(' ? 1 : c == ')' ? -1 : 0;
+            }
+            // trailing punctuation ends the sentence rather than the URL, as does a parenthesis opened before it
+            while (end > start) {
+                char c = text.charAt(end - 1);
+                if (c == ')' && parentheses < 0) {
+                    parentheses++;
+                } else if ("?!.,:;*_~'\"".indexOf(c) < 0) {
+                    break;
+                }
+                end--;
+            }
+            String url = text.substring(start, end);
+            if (url.indexOf('.') < 0 || url.endsWith("//")) {
+                // nor is any URL starting further in the same run
+                notUrlBefore = end;
+                return -1;
+            }
+            appendLink(web ? "http://" + url : url, url);
+            return end;
+        }
+
+        private void appendLink(String href, String label) {
+            html.append("<a href=\"");
+            escape(href, html);
+            html.append('"').append(LINK_REL).append('>');
+            escape(label, html);
+            html.append("</a>");
+        }
+
+        private int entity(int i) {
+            Matcher matcher = ENTITY.matcher(text).region(i, Math.min(length, i + 40));
+            if (!matcher.lookingAt()) {
+                return -1;
+            }
+            html.append(text, i, matcher.end());
+            return matcher.end();
+        }
+
+        private int lineBreak(int i) {
+            int spaces = 0;
+            while (spaces < i && text.charAt(i - spaces - 1) == ' ') {
+                spaces++;
+            }
+            html.setLength(html.length() - spaces);
+            html.append(spaces >= 2 ? "<br />\n" : "\n");
+            return i + 1;
+        }
+
+        private int skipWhitespace(int i) {
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int runLength(int i, char c) {
+            int end = i;
+            while (end < length && text.charAt(end) == c) {
+                end++;
+            }
+            return end - i;
+        }
+    }
+
+    /**
+     * @param url the URL of a link or image.
+     * @param link whether the URL is the one of a link, which may also send a mail.
+     * @return whether the URL is relative, or uses one of the allowed schemes.
+     */
+    private static boolean isSafeUrl(String url, boolean link) {
+        StringBuilder compact = new StringBuilder(url.length());
+        for (int i = 0; i < url.length(); i++) {
+            // browsers ignore control characters and whitespace in schemes
+            if (url.charAt(i) > ' ') {
+                compact.append(url.charAt(i));
+            }
+        }
+        String value = compact.toString().toLowerCase(Locale.ROOT);
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            return true;
+        }
+        for (int i = 0; i < colon; i++) {
+            if ("/?#".indexOf(value.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        String scheme = value.substring(0, colon);
+        return scheme.equals("http") || scheme.equals("https") || (link && scheme.equals("mailto"));
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder unescaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length() && isAsciiPunctuation(text.charAt(i + 1))) {
+                c = text.charAt(++i);
+            }
+            unescaped.append(c);
+        }
+        return unescaped.toString();
+    }
+
+    private static boolean isAsciiPunctuation(char c) {
+        return (c >= '!' && c <= '/') || (c >= ':' && c <= '@') || (c >= '[' && c <= '`') || (c >= '{' && c <= '~');
+    }
+
+    private static void escape(String text, StringBuilder html) {
+        for (int i = 0; i < text.length(); i++) {
+            escape(text.charAt(i), html);
+        }
+    }
+
+    private static void escape(char c, StringBuilder html) {
+        switch (c) {
+            case '&' -> html.append("&amp;");
+            case '<' -> html.append("&lt;");
+            case '>' -> html.append("&gt;");
+            case '"' -> html.append("&quot;");
+            case '\'' -> html.append("&#39;");
+            default -> html.append(c);
+        }
+    }
+
+    private static List<String> lines(String text) {
+        String[] split = text.split("\r\n|\r|\n", -1);
+        List<String> lines = new ArrayList<>(split.length);
+        for (String line : split) {
+            lines.add(line.indexOf('\t') < 0 ? line : expandTabs(line));
+        }
+        return lines;
+    }
+
+    private static String expandTabs(String line) {
+        StringBuilder expanded = new StringBuilder(line.length() + 8);
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                do {
+                    expanded.append(' ');
+                } while (expanded.length() % 4 != 0);
+            } else {
+                expanded.append(c);
+            }
+        }
+        return expanded.toString();
+    }
+
+    private static boolean isBlank(String line) {
+        return line.isBlank();
+    }
+
+    private static int indent(String line) {
+        int indent = 0;
+        while (indent < line.length() && line.charAt(indent) == ' ') {
+            indent++;
+        }
+        return indent;
+    }
+
+    private static String stripIndent(String line, int indent) {
+        return line.substring(Math.min(indent, indent(line)));
+    }
+}
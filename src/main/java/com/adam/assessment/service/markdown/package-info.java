@@ -0,0 +1,4 @@
+/**
+ * Rendering of note contents written in Markdown.
+ */
+package com.adam.assessment.service.markdown;
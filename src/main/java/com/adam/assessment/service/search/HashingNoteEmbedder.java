@@ -0,0 +1,91 @@
+package com.adam.assessment.service.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Embeds notes as TF-IDF vectors folded into a fixed number of dimensions by feature hashing.
+ * <p>
+ * Each term is hashed to a dimension and a sign, so that the terms sharing a dimension cancel out rather than add up,
+ * and weighted by the logarithm of its frequency in the note times its inverse document frequency among the indexed
+ * notes. Notes sharing rare terms get close vectors; notes only sharing common words do not.
+ * <p>
+ * This class is thread-safe.
+ */
+public class HashingNoteEmbedder implements NoteEmbedder {
+
+    private final int dimensions;
+
+    private final int titleBoost;
+
+    private final Supplier<TermStatistics> statistics;
+
+    /**
+     * @param dimensions the number of dimensions of the vectors.
+     * @param titleBoost the weight of a term of the title relative to one of the content.
+     * @param statistics the statistics of the terms of the indexed notes, read on every embedding.
+     */
+    public HashingNoteEmbedder(int dimensions, int titleBoost, Supplier<TermStatistics> statistics) {
+        this.dimensions = Math.max(1, dimensions);
+        this.titleBoost = Math.max(1, titleBoost);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String title, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        if (title != null) {
+            for (String token : NoteTokenizer.tokenize(title)) {
+                frequencies.merge(token, titleBoost, Integer::sum);
+            }
+        }
+        for (String token : NoteTokenizer.tokenize(content)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        if (frequencies.isEmpty()) {
+            return null;
+        }
+
+        TermStatistics termStatistics = statistics.get();
+        int documentCount = termStatistics.documentCount();
+        float[] vector = new float[dimensions];
+        frequencies.forEach((term, frequency) -> {
+            double idf = Math.log(1 + (documentCount + 1.0) / (termStatistics.documentFrequency(term) + 1.0));
+            int hash = mix(term.hashCode());
+            int dimension = Math.floorMod(hash, dimensions);
+            // the sign comes from the bits the dimension ignores
+            float sign = hash < 0 ? -1 : 1;
+            vector[dimension] += (float) (sign * (1 + Math.log(frequency)) * idf);
+        });
+
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    /**
+     * The finalizer of MurmurHash3, so that terms with close hash codes land in unrelated dimensions.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
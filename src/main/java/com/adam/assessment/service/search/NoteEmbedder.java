@@ -0,0 +1,23 @@
+package com.adam.assessment.service.search;
+
+/**
+ * Turns the text of a note into a vector, so that notes about the same things get close vectors.
+ * <p>
+ * The default embedder is a {@link HashingNoteEmbedder}, computed on the CPU without any external service. Declaring a
+ * bean implementing this interface replaces it, for instance to call an embedding model.
+ */
+public interface NoteEmbedder {
+    /**
+     * @return the number of dimensions of the vectors.
+     */
+    int dimensions();
+
+    /**
+     * Compute the vector of a note, or of a query when the title is {@code null}.
+     *
+     * @param title the title of the note.
+     * @param content the content of the note, or the text of the query.
+     * @return the vector, of unit length, or {@code null} if the text has nothing to embed.
+     */
+    float[] embed(String title, String content);
+}
@@ -0,0 +1,402 @@
+package com.adam.assessment.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over note titles and contents, scored with Okapi BM25.
+ * <p>
+ * Every indexed version of a note gets a new internal document number, so posting lists are
+ * append-only and stay sorted, which lets queries score document-at-a-time without a per-query
+ * accumulator. Re-indexing or removing a note only marks its previous document as deleted; the
+ * postings are compacted once deleted documents exceed a quarter of the index.
+ * <p>
+ * This class is thread-safe: queries run concurrently under a read lock, updates are serialized.
+ */
+public class NoteSearchIndex implements TermStatistics {
+
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int titleBoost;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Map<Long, Integer> docByNoteId = new HashMap<>();
+
+    private final BitSet deletedDocs = new BitSet();
+
+    private long[] noteIds = new long[INITIAL_CAPACITY];
+
+    private int[] docLengths = new int[INITIAL_CAPACITY];
+
+    private int maxDoc;
+
+    private int deletedCount;
+
+    private long totalLength;
+
+    public NoteSearchIndex(int titleBoost) {
+        this.titleBoost = Math.max(1, titleBoost);
+    }
+
+    /**
+     * Add a note to the index, replacing any previously indexed version.
+     *
+     * @param noteId the id of the note.
+     * @param title the title of the note.
+     * @param content the content of the note.
+     */
+    public void index(long noteId, String title, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : NoteTokenizer.tokenize(title)) {
+            frequencies.merge(token, titleBoost, Integer::sum);
+        }
+        for (String token : NoteTokenizer.tokenize(content)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            deleteDoc(noteId);
+            int doc = maxDoc++;
+            ensureCapacity(maxDoc);
+            noteIds[doc] = noteId;
+            docLengths[doc] = length;
+            totalLength += length;
+            docByNoteId.put(noteId, doc);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new PostingList()).add(doc, frequency));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a note from the index.
+     *
+     * @param noteId the id of the note.
+     */
+    public void remove(long noteId) {
+        lock.writeLock().lock();
+        try {
+            deleteDoc(noteId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every note from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docByNoteId.clear();
+            deletedDocs.clear();
+            noteIds = new long[INITIAL_CAPACITY];
+            docLengths = new int[INITIAL_CAPACITY];
+            maxDoc = 0;
+            deletedCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of notes currently in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByNoteId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int documentCount() {
+        return size();
+    }
+
+    @Override
+    public int documentFrequency(String term) {
+        lock.readLock().lock();
+        try {
+            PostingList list = postings.get(term);
+            // document frequency still counts deleted documents until the next compaction
+            return list == null ? 0 : Math.min(list.size, docByNoteId.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the notes matching any of the query terms, best matches first.
+     *
+     * @param query the free text query.
+     * @param offset the number of hits to skip.
+     * @param limit the maximum number of hits to return.
+     * @return the requested window of hits and the total number of matching notes.
+     */
+    public Result search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(NoteTokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new Result(Collections.emptyList(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = docByNoteId.size();
+            if (liveDocs == 0) {
+                return new Result(Collections.emptyList(), 0);
+            }
+            float averageLength = (float) totalLength / liveDocs;
+
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            List<Float> idfs = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    lists.add(list);
+                    // document frequency still counts deleted documents until the next compaction
+                    int docFrequency = Math.min(list.size, liveDocs);
+                    idfs.add((float) Math.log(1 + (liveDocs - docFrequency + 0.5) / (docFrequency + 0.5)));
+                }
+            }
+            if (lists.isEmpty()) {
+                return new Result(Collections.emptyList(), 0);
+            }
+
+            int window = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(window, 1024) + 1, Hit.WORST_FIRST);
+            int totalHits = 0;
+            int[] cursors = new int[lists.size()];
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int i = 0; i < lists.size(); i++) {
+                    if (cursors[i] < lists.get(i).size) {
+                        doc = Math.min(doc, lists.get(i).docs[cursors[i]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+                float score = 0;
+                float lengthNorm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                for (int i = 0; i < lists.size(); i++) {
+                    PostingList list = lists.get(i);
+                    if (cursors[i] < list.size && list.docs[cursors[i]] == doc) {
+                        int frequency = list.frequencies[cursors[i]++];
+                        score += idfs.get(i) * (frequency * (K1 + 1)) / (frequency + lengthNorm);
+                    }
+                }
+                if (deletedDocs.get(doc)) {
+                    continue;
+                }
+                totalHits++;
+                Hit hit = new Hit(noteIds[doc], score);
+                if (top.size() < window) {
+                    top.add(hit);
+                } else if (Hit.WORST_FIRST.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Hit.WORST_FIRST.reversed());
+            List<Hit> page = offset < hits.size() ? hits.subList(offset, hits.size()) : Collections.emptyList();
+            return new Result(new ArrayList<>(page), totalHits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find every note matching any of the query terms, without scoring them.
+     *
+     * @param query the free text query.
+     * @return the ids of the matching notes.
+     */
+    public RoaringBitmap match(String query) {
+        Set<String> terms = new LinkedHashSet<>(NoteTokenizer.tokenize(query));
+        RoaringBitmap matches = new RoaringBitmap();
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    for (int i = 0; i < list.size; i++) {
+                        int doc = list.docs[i];
+                        if (!deletedDocs.get(doc)) {
+                            matches.add(noteIds[doc]);
+                        }
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void deleteDoc(long noteId) {
+        Integer previous = docByNoteId.remove(noteId);
+        if (previous != null) {
+            deletedDocs.set(previous);
+            deletedCount++;
+            totalLength -= docLengths[previous];
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > noteIds.length) {
+            int newLength = Math.max(capacity, noteIds.length * 2);
+            noteIds = Arrays.copyOf(noteIds, newLength);
+            docLengths = Arrays.copyOf(docLengths, newLength);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < INITIAL_CAPACITY || deletedCount * 4 < maxDoc) {
+            return;
+        }
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (deletedDocs.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = next;
+                noteIds[next] = noteIds[doc];
+                docLengths[next] = docLengths[doc];
+                docByNoteId.put(noteIds[next], next);
+                next++;
+            }
+        }
+        Iterator<PostingList> iterator = postings.values().iterator();
+        while (iterator.hasNext()) {
+            PostingList list = iterator.next();
+            list.compact(remap);
+            if (list.size == 0) {
+                iterator.remove();
+            }
+        }
+        maxDoc = next;
+        deletedCount = 0;
+        deletedDocs.clear();
+    }
+
+    /**
+     * Document numbers and term frequencies of one term, sorted by document number.
+     */
+    private static final class PostingList {
+
+        private int[] docs = new int[4];
+
+        private int[] frequencies = new int[4];
+
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void compact(int[] remap) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[next] = doc;
+                    frequencies[next] = frequencies[i];
+                    next++;
+                }
+            }
+            size = next;
+            if (size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, Math.max(4, size));
+                frequencies = Arrays.copyOf(frequencies, Math.max(4, size));
+            }
+        }
+    }
+
+    /**
+     * A matching note and its relevance score.
+     */
+    public static final class Hit {
+
+        static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::getScore).thenComparing(
+            Hit::getNoteId,
+            Comparator.reverseOrder()
+        );
+
+        private final long noteId;
+
+        private final float score;
+
+        Hit(long noteId, float score) {
+            this.noteId = noteId;
+            this.score = score;
+        }
+
+        public long getNoteId() {
+            return noteId;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * A window of hits together with the total number of matching notes.
+     */
+    public static final class Result {
+
+        private final List<Hit> hits;
+
+        private final int totalHits;
+
+        Result(List<Hit> hits, int totalHits) {
+            this.hits = hits;
+            this.totalHits = totalHits;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+}
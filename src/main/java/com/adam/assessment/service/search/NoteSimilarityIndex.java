@@ -0,0 +1,290 @@
+package com.adam.assessment.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locality-sensitive index finding the notes whose contents are nearly the same.
+ * <p>
+ * The content of a note is split into shingles of consecutive terms, so that changes of case, punctuation or
+ * whitespace leave it unchanged, and summarized by a MinHash signature of {@code bands * rows} values: the share of
+ * values two signatures have in common estimates the Jaccard similarity of the shingles of the two contents. The
+ * signature is cut into bands, and each band hashed into a bucket: notes sharing a bucket in any band are the only
+ * candidates compared, so a lookup reads a few small buckets rather than every note. Two notes of similarity {@code s}
+ * share a bucket with probability {@code 1 - (1 - s^rows)^bands}, which is high above {@code (1 / bands)^(1 / rows)}.
+ * <p>
+ * This class is thread-safe: lookups run concurrently under a read lock, updates are serialized. Signatures are
+ * computed outside of the lock, so they can be computed by several threads at once.
+ */
+public class NoteSimilarityIndex {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int bands;
+
+    private final int rows;
+
+    private final int shingleSize;
+
+    /**
+     * The odd multipliers and the addends of the hash functions of the signature, one pair per value.
+     */
+    private final long[] multipliers;
+
+    private final long[] addends;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, int[]> signatures = new HashMap<>();
+
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    public NoteSimilarityIndex(int bands, int rows, int shingleSize) {
+        this.bands = Math.max(1, bands);
+        this.rows = Math.max(1, rows);
+        this.shingleSize = Math.max(1, shingleSize);
+        int length = this.bands * this.rows;
+        this.multipliers = new long[length];
+        this.addends = new long[length];
+        long state = 0;
+        for (int i = 0; i < length; i++) {
+            multipliers[i] = mix(state += GOLDEN_GAMMA) | 1;
+            addends[i] = mix(state += GOLDEN_GAMMA);
+        }
+    }
+
+    /**
+     * Compute the signature of a content, without changing the index.
+     *
+     * @param content the content of a note.
+     * @return the signature, or {@code null} if the content has no term.
+     */
+    public int[] signature(String content) {
+        List<String> tokens = NoteTokenizer.tokenize(content);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        long[] tokenHashes = new long[tokens.size()];
+        for (int i = 0; i < tokenHashes.length; i++) {
+            tokenHashes[i] = mix(tokens.get(i).hashCode());
+        }
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        // a content shorter than a shingle is one shingle of all its terms
+        int width = Math.min(shingleSize, tokenHashes.length);
+        for (int start = 0; start + width <= tokenHashes.length; start++) {
+            long shingle = 0;
+            for (int i = start; i < start + width; i++) {
+                shingle = mix(shingle * 31 + tokenHashes[i]);
+            }
+            for (int i = 0; i < signature.length; i++) {
+                int value = (int) ((shingle * multipliers[i] + addends[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Add a note to the index, replacing any previously indexed version.
+     *
+     * @param noteId the id of the note.
+     * @param content the content of the note.
+     */
+    public void index(long noteId, String content) {
+        index(noteId, signature(content));
+    }
+
+    /**
+     * Add a note to the index with its signature, replacing any previously indexed version.
+     *
+     * @param noteId the id of the note.
+     * @param signature the signature of its content, or {@code null} to only remove the note.
+     */
+    public void index(long noteId, int[] signature) {
+        lock.writeLock().lock();
+        try {
+            removeSignature(noteId);
+            if (signature != null) {
+                signatures.put(noteId, signature);
+                for (int band = 0; band < bands; band++) {
+                    buckets.computeIfAbsent(bucketKey(signature, band), key -> new Bucket()).add(noteId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a note from the index.
+     *
+     * @param noteId the id of the note.
+     */
+    public void remove(long noteId) {
+        lock.writeLock().lock();
+        try {
+            removeSignature(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the notes similar to an indexed note, the most similar first.
+     *
+     * @param noteId the id of the note.
+     * @param threshold the minimum estimated similarity, between 0 and 1.
+     * @param limit the maximum number of notes to return.
+     * @return the similar notes, not including the note itself, or none if the note is not indexed.
+     */
+    public List<Match> similar(long noteId, double threshold, int limit) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(noteId);
+            if (signature == null) {
+                return matches;
+            }
+            Set<Long> candidates = new HashSet<>();
+            candidates.add(noteId);
+            for (int band = 0; band < bands; band++) {
+                Bucket bucket = buckets.get(bucketKey(signature, band));
+                for (int i = 0; i < bucket.size; i++) {
+                    long candidate = bucket.noteIds[i];
+                    if (candidates.add(candidate)) {
+                        float similarity = similarity(signature, signatures.get(candidate));
+                        if (similarity >= threshold) {
+                            matches.add(new Match(candidate, similarity));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Match.MOST_SIMILAR_FIRST);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * @return the number of indexed notes.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeSignature(long noteId) {
+        int[] previous = signatures.remove(noteId);
+        if (previous == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = bucketKey(previous, band);
+            Bucket bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(noteId)) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private long bucketKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = key * 31 + signature[i];
+        }
+        return mix(key);
+    }
+
+    private static float similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (float) equal / a.length;
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreading every bit of the input over the output.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The ids of the notes hashed to one bucket, in no particular order.
+     */
+    private static final class Bucket {
+
+        private long[] noteIds = new long[1];
+
+        private int size;
+
+        void add(long noteId) {
+            if (size == noteIds.length) {
+                noteIds = Arrays.copyOf(noteIds, size * 2);
+            }
+            noteIds[size++] = noteId;
+        }
+
+        /**
+         * @return whether the bucket is empty once the note is removed.
+         */
+        boolean remove(long noteId) {
+            for (int i = 0; i < size; i++) {
+                if (noteIds[i] == noteId) {
+                    noteIds[i] = noteIds[--size];
+                    break;
+                }
+            }
+            return size == 0;
+        }
+    }
+
+    /**
+     * A note similar to the one looked up, with their similarity: the estimated Jaccard similarity of their contents
+     * for this index, the cosine similarity of their vectors for a {@link NoteVectorIndex}.
+     */
+    public static final class Match {
+
+        static final Comparator<Match> MOST_SIMILAR_FIRST = Comparator.comparingDouble(Match::getSimilarity)
+            .reversed()
+            .thenComparingLong(Match::getNoteId);
+
+        private final long noteId;
+
+        private final float similarity;
+
+        Match(long noteId, float similarity) {
+            this.noteId = noteId;
+            this.similarity = similarity;
+        }
+
+        public long getNoteId() {
+            return noteId;
+        }
+
+        public float getSimilarity() {
+            return similarity;
+        }
+    }
+}
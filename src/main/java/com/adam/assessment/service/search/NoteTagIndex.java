@@ -0,0 +1,278 @@
+package com.adam.assessment.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index from each tag to the ids of the notes carrying it, held as {@link RoaringBitmap}s, so that notes can be
+ * filtered on any combination of tags without joining the notes to their tags.
+ * <p>
+ * The tags of each note are kept alongside, so that re-indexing a note only touches the bitmaps of the tags it gained or
+ * lost. The bitmaps maintain their cardinality as they are updated, so they double as the note count of each tag.
+ * <p>
+ * This class is thread-safe: queries run concurrently under a read lock, updates are serialized.
+ */
+public class NoteTagIndex {
+
+    private static final long[] NO_TAGS = new long[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, RoaringBitmap> notesByTag = new HashMap<>();
+
+    private final Map<Long, long[]> tagsByNote = new HashMap<>();
+
+    private final RoaringBitmap allNotes = new RoaringBitmap();
+
+    /**
+     * Add a note to the index, replacing its previously indexed tags.
+     *
+     * @param noteId the id of the note.
+     * @param tagIds the ids of the tags of the note.
+     */
+    public void index(long noteId, Collection<Long> tagIds) {
+        long[] tags = tagIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        lock.writeLock().lock();
+        try {
+            long[] previous = tagsByNote.getOrDefault(noteId, NO_TAGS);
+            for (long tagId : previous) {
+                if (Arrays.binarySearch(tags, tagId) < 0) {
+                    removeFromTag(tagId, noteId);
+                }
+            }
+            for (long tagId : tags) {
+                if (Arrays.binarySearch(previous, tagId) < 0) {
+                    notesByTag.computeIfAbsent(tagId, id -> new RoaringBitmap()).add(noteId);
+                }
+            }
+            tagsByNote.put(noteId, tags);
+            allNotes.add(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add tags to, and remove tags from, indexed notes, keeping their other tags. Notes not in the index are left out.
+     *
+     * @param noteIds the ids of the notes.
+     * @param addedTagIds the ids of the tags the notes gained.
+     * @param removedTagIds the ids of the tags the notes lost.
+     */
+    public void retag(Collection<Long> noteIds, Collection<Long> addedTagIds, Collection<Long> removedTagIds) {
+        lock.writeLock().lock();
+        try {
+            for (long noteId : noteIds) {
+                long[] previous = tagsByNote.get(noteId);
+                if (previous != null) {
+                    Set<Long> tags = new HashSet<>();
+                    Arrays.stream(previous).forEach(tags::add);
+                    tags.removeAll(removedTagIds);
+                    tags.addAll(addedTagIds);
+                    index(noteId, tags);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a note from the index.
+     *
+     * @param noteId the id of the note.
+     */
+    public void remove(long noteId) {
+        lock.writeLock().lock();
+        try {
+            long[] previous = tagsByNote.remove(noteId);
+            if (previous != null) {
+                for (long tagId : previous) {
+                    removeFromTag(tagId, noteId);
+                }
+            }
+            allNotes.remove(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a tag from the index, and from every note carrying it.
+     *
+     * @param tagId the id of the tag.
+     */
+    public void removeTag(long tagId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap notes = notesByTag.remove(tagId);
+            if (notes == null) {
+                return;
+            }
+            for (long noteId : notes.toArray(0, Integer.MAX_VALUE)) {
+                long[] tags = tagsByNote.get(noteId);
+                if (tags != null) {
+                    tagsByNote.put(noteId, Arrays.stream(tags).filter(id -> id != tagId).toArray());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of notes currently in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tagsByNote.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the notes carrying all, or any, of the included tags and none of the excluded ones.
+     * <p>
+     * Intersections start from the rarest tag, so their cost is bounded by its number of notes.
+     *
+     * @param includedTagIds the ids of the tags the notes must carry, every note if empty.
+     * @param excludedTagIds the ids of the tags the notes must not carry.
+     * @param matchAll whether the notes must carry all the included tags rather than any of them.
+     * @return the ids of the matching notes, in a bitmap owned by the caller.
+     */
+    public RoaringBitmap match(Collection<Long> includedTagIds, Collection<Long> excludedTagIds, boolean matchAll) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result;
+            if (includedTagIds.isEmpty()) {
+                result = allNotes.copy();
+            } else {
+                List<RoaringBitmap> included = new ArrayList<>(includedTagIds.size());
+                for (Long tagId : includedTagIds) {
+                    RoaringBitmap notes = notesByTag.get(tagId);
+                    if (notes != null) {
+                        included.add(notes);
+                    } else if (matchAll) {
+                        return new RoaringBitmap();
+                    }
+                }
+                if (included.isEmpty()) {
+                    return new RoaringBitmap();
+                }
+                if (matchAll) {
+                    included.sort(Comparator.comparingLong(RoaringBitmap::cardinality));
+                    result = included.get(0).copy();
+                    for (int i = 1; i < included.size() && !result.isEmpty(); i++) {
+                        result = result.and(included.get(i));
+                    }
+                } else {
+                    result = new RoaringBitmap();
+                    for (RoaringBitmap notes : included) {
+                        result = result.or(notes);
+                    }
+                }
+            }
+            for (Long tagId : excludedTagIds) {
+                RoaringBitmap notes = notesByTag.get(tagId);
+                if (notes != null && !result.isEmpty()) {
+                    result = result.andNot(notes);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count the notes carrying each tag, among the given notes.
+     *
+     * @param within the ids of the notes to count, or {@code null} to count every note.
+     * @param limit the maximum number of tags to return.
+     * @return the tags carried by at least one of the notes, most used first, then by id.
+     */
+    public List<TagCount> count(RoaringBitmap within, int limit) {
+        lock.readLock().lock();
+        try {
+            PriorityQueue<TagCount> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, TagCount.LEAST_USED_FIRST);
+            notesByTag.forEach((tagId, notes) -> {
+                long count = within == null ? notes.cardinality() : notes.andCardinality(within);
+                if (count > 0) {
+                    top.add(new TagCount(tagId, count));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            });
+            List<TagCount> counts = new ArrayList<>(top);
+            counts.sort(TagCount.LEAST_USED_FIRST.reversed());
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of notes carrying each tag, by tag id.
+     */
+    public Map<Long, Long> counts() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> counts = new HashMap<>();
+            notesByTag.forEach((tagId, notes) -> counts.put(tagId, notes.cardinality()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFromTag(long tagId, long noteId) {
+        RoaringBitmap notes = notesByTag.get(tagId);
+        if (notes != null) {
+            notes.remove(noteId);
+            if (notes.isEmpty()) {
+                notesByTag.remove(tagId);
+            }
+        }
+    }
+
+    /**
+     * The number of notes carrying a tag.
+     */
+    public static final class TagCount {
+
+        static final Comparator<TagCount> LEAST_USED_FIRST = Comparator.comparingLong(TagCount::getCount).thenComparing(
+            TagCount::getTagId,
+            Comparator.reverseOrder()
+        );
+
+        private final long tagId;
+
+        private final long count;
+
+        TagCount(long tagId, long count) {
+            this.tagId = tagId;
+            this.count = count;
+        }
+
+        public long getTagId() {
+            return tagId;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.adam.assessment.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits note text into lower-cased terms made of letters and digits.
+ * <p>
+ * Runs longer than {@link #MAX_TOKEN_LENGTH} are dropped so that pasted blobs
+ * (base64, hashes, minified code) do not flood the term dictionary.
+ */
+public final class NoteTokenizer {
+
+    public static final int MIN_TOKEN_LENGTH = 2;
+
+    public static final int MAX_TOKEN_LENGTH = 40;
+
+    private NoteTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int tokenLength = i - start;
+                if (tokenLength >= MIN_TOKEN_LENGTH && tokenLength <= MAX_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,534 @@
+package com.adam.assessment.service.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Approximate nearest neighbor index over the vectors of notes, a Hierarchical Navigable Small World graph.
+ * <p>
+ * Every vector is a node of a graph linking it to its closest nodes, on level 0 and, for a few nodes, on sparser upper
+ * levels. A lookup walks greedily down the upper levels from the entry point, then explores the closest nodes of
+ * level 0, so it compares the query with a few hundred vectors whatever the number of notes. Vectors are of unit
+ * length, and their similarity is their dot product, the cosine of their angle.
+ * <p>
+ * The vectors and the level 0 links, which make up nearly all of the index, are kept off the heap in a memory-mapped
+ * temporary file, deleted when the index is closed, or as soon as it is opened where the system allows it; the heap
+ * only holds the ids of the notes and the few upper links.
+ * <p>
+ * Like in {@link NoteSearchIndex}, re-indexing or removing a note only marks its previous node as deleted: it still
+ * links the graph but is never returned, until the index is rebuilt from its live vectors.
+ * <p>
+ * This class is thread-safe: lookups run concurrently under a read lock, updates are serialized.
+ */
+public class NoteVectorIndex implements AutoCloseable {
+
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int dimensions;
+
+    private final int maxLinks;
+
+    private final int maxLevel0Links;
+
+    private final int efConstruction;
+
+    private final double levelMultiplier;
+
+    /**
+     * Bytes of a node in the file: its vector, then the number of its level 0 links and the links.
+     */
+    private final int nodeBytes;
+
+    private final int nodesPerSegment;
+
+    private final FileChannel channel;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private final Map<Long, Integer> nodeByNoteId = new HashMap<>();
+
+    private final BitSet deletedNodes = new BitSet();
+
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    private long[] noteIds = new long[INITIAL_CAPACITY];
+
+    /**
+     * The links of the nodes above level 0, {@code null} for the nodes only on level 0.
+     */
+    private int[][][] upperLinks = new int[INITIAL_CAPACITY][][];
+
+    private int nodeCount;
+
+    private int deletedCount;
+
+    private int entryPoint = -1;
+
+    private int topLevel = -1;
+
+    /**
+     * @param dimensions the number of dimensions of the vectors.
+     * @param links the number of links of a node above level 0, twice as many on level 0.
+     * @param efConstruction the number of closest nodes explored to link a new node.
+     * @param directory the directory of the temporary file, {@code null} for the default temporary directory.
+     */
+    public NoteVectorIndex(int dimensions, int links, int efConstruction, Path directory) {
+        this.dimensions = Math.max(1, dimensions);
+        this.maxLinks = Math.max(2, links);
+        this.maxLevel0Links = 2 * maxLinks;
+        this.efConstruction = Math.max(maxLinks, efConstruction);
+        this.levelMultiplier = 1 / Math.log(maxLinks);
+        this.nodeBytes = Float.BYTES * this.dimensions + Integer.BYTES * (1 + maxLevel0Links);
+        this.nodesPerSegment = Math.max(1, SEGMENT_BYTES / nodeBytes);
+        try {
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            Path file = directory == null ? Files.createTempFile("note-vectors-", ".bin") : Files.createTempFile(directory, "note-vectors-", ".bin");
+            this.channel = FileChannel.open(
+                file,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of dimensions of the vectors.
+     */
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Add a note to the index, replacing any previously indexed version.
+     *
+     * @param noteId the id of the note.
+     * @param vector the vector of the note, of unit length, or {@code null} to only remove the note.
+     */
+    public void add(long noteId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            deleteNode(noteId);
+            if (vector != null) {
+                insert(noteId, vector);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a note from the index.
+     *
+     * @param noteId the id of the note.
+     */
+    public void remove(long noteId) {
+        lock.writeLock().lock();
+        try {
+            deleteNode(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the notes closest to a vector, the closest first.
+     *
+     * @param vector the vector, of unit length.
+     * @param limit the maximum number of notes to return.
+     * @param ef the number of closest nodes explored, trading speed for recall, at least {@code limit}.
+     * @return the closest notes, with the cosine similarity of their vector.
+     */
+    public List<NoteSimilarityIndex.Match> nearest(float[] vector, int limit, int ef) {
+        lock.readLock().lock();
+        try {
+            return nearest(vector, limit, ef, -1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the notes closest to an indexed note, the closest first.
+     *
+     * @param noteId the id of the note.
+     * @param limit the maximum number of notes to return.
+     * @param ef the number of closest nodes explored, trading speed for recall, at least {@code limit}.
+     * @return the closest notes, not including the note itself, or none if the note is not indexed.
+     */
+    public List<NoteSimilarityIndex.Match> related(long noteId, int limit, int ef) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodeByNoteId.get(noteId);
+            return node == null ? new ArrayList<>() : nearest(vector(node), limit, ef, node);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Call an action with the id and the vector of every indexed note, to copy them to another index.
+     *
+     * @param action the action.
+     */
+    public void forEach(BiConsumer<Long, float[]> action) {
+        lock.readLock().lock();
+        try {
+            for (int node = 0; node < nodeCount; node++) {
+                if (!deletedNodes.get(node)) {
+                    action.accept(noteIds[node], vector(node));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of notes currently in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeByNoteId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether deleted nodes make up more than a quarter of the graph, which should then be rebuilt.
+     */
+    public boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            return deletedCount >= INITIAL_CAPACITY && deletedCount * 4 >= nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Delete the file of the index. The index must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<NoteSimilarityIndex.Match> nearest(float[] query, int limit, int ef, int excludedNode) {
+        List<NoteSimilarityIndex.Match> matches = new ArrayList<>();
+        if (entryPoint < 0 || limit <= 0) {
+            return matches;
+        }
+        Candidate entry = new Candidate(entryPoint, similarity(query, entryPoint));
+        for (int level = topLevel; level > 0; level--) {
+            entry = closest(query, entry, level);
+        }
+        List<Candidate> closest = searchLevel(query, List.of(entry), Math.max(ef, limit + 1), 0);
+        for (Candidate candidate : closest) {
+            if (candidate.node != excludedNode && !deletedNodes.get(candidate.node)) {
+                matches.add(new NoteSimilarityIndex.Match(noteIds[candidate.node], candidate.similarity));
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void insert(long noteId, float[] vector) {
+        int node = nodeCount++;
+        ensureCapacity(nodeCount);
+        MappedByteBuffer segment = segment(node);
+        int offset = offset(node);
+        for (int i = 0; i < dimensions; i++) {
+            segment.putFloat(offset + Float.BYTES * i, vector[i]);
+        }
+        segment.putInt(offset + Float.BYTES * dimensions, 0);
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        upperLinks[node] = level == 0 ? null : new int[level][0];
+        noteIds[node] = noteId;
+        nodeByNoteId.put(noteId, node);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return;
+        }
+
+        Candidate entry = new Candidate(entryPoint, similarity(vector, entryPoint));
+        for (int l = topLevel; l > level; l--) {
+            entry = closest(vector, entry, l);
+        }
+        List<Candidate> entries = List.of(entry);
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<Candidate> closest = searchLevel(vector, entries, efConstruction, l);
+            List<Candidate> selected = selectLinks(closest, maxLinks);
+            int[] links = new int[selected.size()];
+            for (int i = 0; i < links.length; i++) {
+                links[i] = selected.get(i).node;
+            }
+            setLinks(node, l, links);
+            for (Candidate neighbor : selected) {
+                link(neighbor.node, node, neighbor.similarity, l);
+            }
+            entries = closest;
+        }
+        if (level > topLevel) {
+            entryPoint = node;
+            topLevel = level;
+        }
+    }
+
+    /**
+     * Add a link from a node to a new node, pruning the links of the node if it has too many.
+     */
+    private void link(int node, int newNode, float similarity, int level) {
+        int[] links = links(node, level);
+        int max = level == 0 ? maxLevel0Links : maxLinks;
+        if (links.length < max) {
+            int[] extended = Arrays.copyOf(links, links.length + 1);
+            extended[links.length] = newNode;
+            setLinks(node, level, extended);
+            return;
+        }
+        float[] vector = vector(node);
+        List<Candidate> candidates = new ArrayList<>(links.length + 1);
+        candidates.add(new Candidate(newNode, similarity));
+        for (int link : links) {
+            candidates.add(new Candidate(link, similarity(vector, link)));
+        }
+        candidates.sort(Candidate.CLOSEST_FIRST);
+        List<Candidate> selected = selectLinks(candidates, max);
+        int[] pruned = new int[selected.size()];
+        for (int i = 0; i < pruned.length; i++) {
+            pruned[i] = selected.get(i).node;
+        }
+        setLinks(node, level, pruned);
+    }
+
+    /**
+     * Select the links of a node among candidates sorted closest first, skipping the candidates closer to an already
+     * selected one than to the node, so that the links point in different directions and keep the graph connected.
+     */
+    private List<Candidate> selectLinks(List<Candidate> candidates, int max) {
+        List<Candidate> selected = new ArrayList<>(max);
+        List<float[]> selectedVectors = new ArrayList<>(max);
+        for (Candidate candidate : candidates) {
+            float[] vector = vector(candidate.node);
+            boolean diverse = true;
+            for (float[] selectedVector : selectedVectors) {
+                if (dot(vector, selectedVector) > candidate.similarity) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+                selectedVectors.add(vector);
+                if (selected.size() == max) {
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Walk greedily to the node of a level closest to the query.
+     */
+    private Candidate closest(float[] query, Candidate entry, int level) {
+        Candidate current = entry;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int link : links(current.node, level)) {
+                float similarity = similarity(query, link);
+                if (similarity > current.similarity) {
+                    current = new Candidate(link, similarity);
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Explore the nodes of a level from entry points, keeping the {@code ef} closest to the query.
+     *
+     * @return the closest nodes found, closest first.
+     */
+    private List<Candidate> searchLevel(float[] query, List<Candidate> entries, int ef, int level) {
+        BitSet visited = new BitSet();
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(Candidate.CLOSEST_FIRST);
+        PriorityQueue<Candidate> found = new PriorityQueue<>(Candidate.CLOSEST_FIRST.reversed());
+        for (Candidate entry : entries) {
+            visited.set(entry.node);
+            toVisit.add(entry);
+            found.add(entry);
+        }
+        while (found.size() > ef) {
+            found.poll();
+        }
+        while (!toVisit.isEmpty()) {
+            Candidate current = toVisit.poll();
+            if (found.size() >= ef && current.similarity < found.peek().similarity) {
+                break;
+            }
+            for (int link : links(current.node, level)) {
+                if (!visited.get(link)) {
+                    visited.set(link);
+                    float similarity = similarity(query, link);
+                    if (found.size() < ef || similarity > found.peek().similarity) {
+                        Candidate candidate = new Candidate(link, similarity);
+                        toVisit.add(candidate);
+                        found.add(candidate);
+                        if (found.size() > ef) {
+                            found.poll();
+                        }
+                    }
+                }
+            }
+        }
+        List<Candidate> closest = new ArrayList<>(found);
+        closest.sort(Candidate.CLOSEST_FIRST);
+        return closest;
+    }
+
+    private int[] links(int node, int level) {
+        if (level > 0) {
+            return upperLinks[node][level - 1];
+        }
+        MappedByteBuffer segment = segment(node);
+        int offset = offset(node) + Float.BYTES * dimensions;
+        int[] links = new int[segment.getInt(offset)];
+        for (int i = 0; i < links.length; i++) {
+            links[i] = segment.getInt(offset + Integer.BYTES * (1 + i));
+        }
+        return links;
+    }
+
+    private void setLinks(int node, int level, int[] links) {
+        if (level > 0) {
+            upperLinks[node][level - 1] = links;
+            return;
+        }
+        MappedByteBuffer segment = segment(node);
+        int offset = offset(node) + Float.BYTES * dimensions;
+        segment.putInt(offset, links.length);
+        for (int i = 0; i < links.length; i++) {
+            segment.putInt(offset + Integer.BYTES * (1 + i), links[i]);
+        }
+    }
+
+    private float[] vector(int node) {
+        MappedByteBuffer segment = segment(node);
+        int offset = offset(node);
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = segment.getFloat(offset + Float.BYTES * i);
+        }
+        return vector;
+    }
+
+    private float similarity(float[] query, int node) {
+        MappedByteBuffer segment = segment(node);
+        int offset = offset(node);
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[i] * segment.getFloat(offset + Float.BYTES * i);
+        }
+        return sum;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private MappedByteBuffer segment(int node) {
+        return segments[node / nodesPerSegment];
+    }
+
+    private int offset(int node) {
+        return (node % nodesPerSegment) * nodeBytes;
+    }
+
+    private void deleteNode(long noteId) {
+        Integer previous = nodeByNoteId.remove(noteId);
+        if (previous != null) {
+            deletedNodes.set(previous);
+            deletedCount++;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > noteIds.length) {
+            int newLength = Math.max(capacity, noteIds.length * 2);
+            noteIds = Arrays.copyOf(noteIds, newLength);
+            upperLinks = Arrays.copyOf(upperLinks, newLength);
+        }
+        int segmentCount = (capacity + nodesPerSegment - 1) / nodesPerSegment;
+        if (segmentCount > segments.length) {
+            MappedByteBuffer[] extended = Arrays.copyOf(segments, segmentCount);
+            long segmentBytes = (long) nodesPerSegment * nodeBytes;
+            try {
+                for (int i = segments.length; i < segmentCount; i++) {
+                    extended[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * segmentBytes, segmentBytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments = extended;
+        }
+    }
+
+    private static final class Candidate {
+
+        static final Comparator<Candidate> CLOSEST_FIRST = (a, b) -> Float.compare(b.similarity, a.similarity);
+
+        private final int node;
+
+        private final float similarity;
+
+        Candidate(int node, float similarity) {
+            this.node = node;
+            this.similarity = similarity;
+        }
+    }
+}
@@ -0,0 +1,647 @@
+package com.adam.assessment.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative {@code long}s, laid out like a Roaring bitmap.
+ * <p>
+ * Values are partitioned by their high 48 bits into chunks of 65536, and the low 16 bits of each chunk are held in a
+ * container picked by its density: a sorted array of up to {@value #ARRAY_MAX_SIZE} values, or a bitmap of 8 KiB
+ * beyond that. Sparse chunks therefore cost two bytes per value and dense ones one bit, and intersections and unions
+ * run container by container, word by word for bitmaps.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class RoaringBitmap {
+
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    private long[] keys;
+
+    private Container[] containers;
+
+    private int size;
+
+    /**
+     * The number of values, maintained as containers are updated so that counting never walks the containers.
+     */
+    private long cardinality;
+
+    public RoaringBitmap() {
+        this(4);
+    }
+
+    private RoaringBitmap(int capacity) {
+        this.keys = new long[Math.max(capacity, 1)];
+        this.containers = new Container[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Create a bitmap holding the given values.
+     *
+     * @param values the values, in any order.
+     * @return the bitmap.
+     */
+    public static RoaringBitmap of(long... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value the value, not negative.
+     */
+    public void add(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        long key = value >>> 16;
+        char low = (char) value;
+        int index = indexOf(key);
+        if (index >= 0) {
+            int before = containers[index].cardinality();
+            containers[index] = containers[index].add(low);
+            cardinality += containers[index].cardinality() - before;
+        } else {
+            insert(-index - 1, key, new ArrayContainer().add(low));
+            cardinality++;
+        }
+    }
+
+    /**
+     * Remove a value.
+     *
+     * @param value the value.
+     */
+    public void remove(long value) {
+        if (value < 0) {
+            return;
+        }
+        int index = indexOf(value >>> 16);
+        if (index >= 0) {
+            int before = containers[index].cardinality();
+            Container container = containers[index].remove((char) value);
+            cardinality -= before - container.cardinality();
+            if (container.cardinality() == 0) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+                containers[--size] = null;
+            } else {
+                containers[index] = container;
+            }
+        }
+    }
+
+    public boolean contains(long value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = indexOf(value >>> 16);
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of values.
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return the number of values held by both bitmaps, without building their intersection.
+     */
+    public long andCardinality(RoaringBitmap other) {
+        long count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            int comparison = Long.compare(keys[i], other.keys[j]);
+            if (comparison < 0) {
+                i++;
+            } else if (comparison > 0) {
+                j++;
+            } else {
+                count += containers[i++].andCardinality(other.containers[j++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the values held by both bitmaps, in a new bitmap.
+     */
+    public RoaringBitmap and(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(Math.min(size, other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            int comparison = Long.compare(keys[i], other.keys[j]);
+            if (comparison < 0) {
+                i++;
+            } else if (comparison > 0) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i++].and(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the values held by either bitmap, in a new bitmap.
+     */
+    public RoaringBitmap or(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(size + other.size);
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            int comparison = i == size ? 1 : j == other.size ? -1 : Long.compare(keys[i], other.keys[j]);
+            if (comparison < 0) {
+                result.append(keys[i], containers[i++].copy());
+            } else if (comparison > 0) {
+                result.append(other.keys[j], other.containers[j++].copy());
+            } else {
+                result.append(keys[i], containers[i++].or(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the values held by this bitmap but not by the other, in a new bitmap.
+     */
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(size);
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.append(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy of this bitmap.
+     */
+    public RoaringBitmap copy() {
+        RoaringBitmap result = new RoaringBitmap(size);
+        for (int i = 0; i < size; i++) {
+            result.append(keys[i], containers[i].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Get a window of the values, in ascending order. Whole containers are skipped up to the offset.
+     *
+     * @param offset the number of values to skip.
+     * @param limit the maximum number of values to return.
+     * @return the values.
+     */
+    public long[] toArray(long offset, int limit) {
+        long[] values = new long[(int) Math.max(0, Math.min(limit, cardinality() - offset))];
+        int written = 0;
+        long skip = offset;
+        for (int i = 0; i < size && written < values.length; i++) {
+            int count = containers[i].cardinality();
+            if (skip >= count) {
+                skip -= count;
+            } else {
+                written += containers[i].copyTo(keys[i] << 16, (int) skip, values, written);
+                skip = 0;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Get a window of the values, in descending order.
+     *
+     * @param offset the number of values to skip from the largest one.
+     * @param limit the maximum number of values to return.
+     * @return the values.
+     */
+    public long[] toArrayDescending(long offset, int limit) {
+        long end = cardinality() - offset;
+        long start = Math.max(0, end - limit);
+        long[] values = toArray(start, (int) Math.max(0, end - start));
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        return values;
+    }
+
+    private int indexOf(long key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, long key, Container container) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void append(long key, Container container) {
+        if (container.cardinality() > 0) {
+            ensureCapacity(size + 1);
+            keys[size] = key;
+            containers[size] = container;
+            size++;
+            cardinality += container.cardinality();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newLength = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+    }
+
+    /**
+     * The low 16 bits of the values of one chunk. Updates return the container to use from then on, which is another one
+     * when the density calls for the other representation.
+     */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+
+        /**
+         * Write the values from the {@code skip}-th one on, as long as there is room in {@code out}.
+         *
+         * @return the number of values written.
+         */
+        abstract int copyTo(long high, int skip, long[] out, int position);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(Math.max(values.length * 2, 4), ARRAY_MAX_SIZE));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i++];
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_MAX_SIZE) {
+                return toBitmap().or(array);
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        int copyTo(long high, int skip, long[] out, int position) {
+            int count = Math.min(cardinality - skip, out.length - position);
+            for (int i = 0; i < count; i++) {
+                out[position + i] = high | values[skip + i];
+            }
+            return count;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.set(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long word = words[value >>> 6];
+            long bit = 1L << value;
+            if ((word & bit) != 0) {
+                words[value >>> 6] = word & ~bit;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX_SIZE ? toArrayContainer() : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer array) {
+                return array.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+            }
+            return fromWords(result);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer array) {
+                return array.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = new BitmapContainer(words.clone(), cardinality);
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    result.set(array.values[i]);
+                }
+                return result.cardinality <= ARRAY_MAX_SIZE ? result.toArrayContainer() : result;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= otherWords[i];
+                count += Long.bitCount(result.words[i]);
+            }
+            result.cardinality = count;
+            return result;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    result[array.values[i] >>> 6] &= ~(1L << array.values[i]);
+                }
+            } else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] &= ~otherWords[i];
+                }
+            }
+            return fromWords(result);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int copyTo(long high, int skip, long[] out, int position) {
+            int written = 0;
+            int remaining = skip;
+            for (int i = 0; i < BITMAP_WORDS && position + written < out.length; i++) {
+                long word = words[i];
+                int bits = Long.bitCount(word);
+                if (remaining >= bits) {
+                    remaining -= bits;
+                    continue;
+                }
+                while (word != 0 && position + written < out.length) {
+                    long lowest = word & -word;
+                    if (remaining > 0) {
+                        remaining--;
+                    } else {
+                        out[position + written++] = high | ((long) i << 6) | Long.numberOfTrailingZeros(lowest);
+                    }
+                    word ^= lowest;
+                }
+            }
+            return written;
+        }
+
+        void set(char value) {
+            long word = words[value >>> 6];
+            long bit = 1L << value;
+            if ((word & bit) == 0) {
+                words[value >>> 6] = word | bit;
+                cardinality++;
+            }
+        }
+
+        private static Container fromWords(long[] words) {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            BitmapContainer bitmap = new BitmapContainer(words, count);
+            return count <= ARRAY_MAX_SIZE ? bitmap.toArrayContainer() : bitmap;
+        }
+
+        private ArrayContainer toArrayContainer() {
+            char[] values = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
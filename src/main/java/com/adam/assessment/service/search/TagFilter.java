@@ -0,0 +1,67 @@
+package com.adam.assessment.service.search;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A filter of notes on the names of their tags: the notes must carry all, or any, of the included tags and none of the
+ * excluded ones.
+ */
+public final class TagFilter {
+
+    private final Set<String> included;
+
+    private final Set<String> excluded;
+
+    private final boolean matchAll;
+
+    public TagFilter(Set<String> included, Set<String> excluded, boolean matchAll) {
+        this.included = Collections.unmodifiableSet(new LinkedHashSet<>(included));
+        this.excluded = Collections.unmodifiableSet(new LinkedHashSet<>(excluded));
+        this.matchAll = matchAll;
+    }
+
+    /**
+     * Parse a comma-separated list of tag names, each prefixed with {@code -} if the notes must not carry it.
+     *
+     * @param tags the list of tag names.
+     * @param matchAll whether the notes must carry all the included tags rather than any of them.
+     * @return the filter.
+     */
+    public static TagFilter parse(String tags, boolean matchAll) {
+        Set<String> included = new LinkedHashSet<>();
+        Set<String> excluded = new LinkedHashSet<>();
+        for (String name : tags.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.startsWith("-") && trimmed.length() > 1) {
+                excluded.add(trimmed.substring(1));
+            } else if (!trimmed.isEmpty()) {
+                included.add(trimmed);
+            }
+        }
+        return new TagFilter(included, excluded, matchAll);
+    }
+
+    public Set<String> getIncluded() {
+        return included;
+    }
+
+    public Set<String> getExcluded() {
+        return excluded;
+    }
+
+    public boolean isMatchAll() {
+        return matchAll;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TagFilter{" +
+            "included=" + getIncluded() +
+            ", excluded=" + getExcluded() +
+            ", matchAll=" + isMatchAll() +
+            "}";
+    }
+}
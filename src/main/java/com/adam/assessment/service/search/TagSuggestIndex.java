@@ -0,0 +1,347 @@
+package com.adam.assessment.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable prefix index over tag names, suggesting the most used tags whose name, or one of its words, starts with a
+ * prefix.
+ * <p>
+ * Every word start of every name is a key, and the keys are sorted, so the keys starting with a prefix form a contiguous
+ * range found by binary search. Ranges of up to {@value #SCAN_THRESHOLD} keys are scanned; the prefixes of larger ranges
+ * are the upper nodes of the prefix trie and get their top suggestions computed when the index is built, so that no query
+ * scans more than that many keys.
+ * <p>
+ * Tags saved or deleted after the index was built are patched in a small overlay, copied on each change, until the next
+ * build. Instances are safe to share between threads.
+ */
+public final class TagSuggestIndex {
+
+    static final int SCAN_THRESHOLD = 256;
+
+    private static final Comparator<Suggestion> BEST_FIRST = Comparator.comparingLong(Suggestion::getUsage)
+        .reversed()
+        .thenComparing(Suggestion::getName)
+        .thenComparing(Suggestion::getTagId);
+
+    private final int maxSuggestions;
+
+    private final Suggestion[] tags;
+
+    private final Map<Long, Integer> tagIndexById;
+
+    private final String[] keys;
+
+    private final int[] keyTags;
+
+    private final Map<String, int[]> topByPrefix;
+
+    private final Map<Long, Suggestion> savedSinceBuild;
+
+    private final Set<Long> deletedSinceBuild;
+
+    private TagSuggestIndex(
+        int maxSuggestions,
+        Suggestion[] tags,
+        Map<Long, Integer> tagIndexById,
+        String[] keys,
+        int[] keyTags,
+        Map<String, int[]> topByPrefix,
+        Map<Long, Suggestion> savedSinceBuild,
+        Set<Long> deletedSinceBuild
+    ) {
+        this.maxSuggestions = maxSuggestions;
+        this.tags = tags;
+        this.tagIndexById = tagIndexById;
+        this.keys = keys;
+        this.keyTags = keyTags;
+        this.topByPrefix = topByPrefix;
+        this.savedSinceBuild = savedSinceBuild;
+        this.deletedSinceBuild = deletedSinceBuild;
+    }
+
+    /**
+     * Build the index.
+     *
+     * @param tags the tags, with the number of notes carrying them.
+     * @param maxSuggestions the maximum number of suggestions a query can ask for.
+     * @return the index.
+     */
+    public static TagSuggestIndex build(List<Suggestion> tags, int maxSuggestions) {
+        Suggestion[] sortedTags = tags.toArray(new Suggestion[0]);
+        // tags are numbered best first, so the smallest number wins when ranking
+        Arrays.sort(sortedTags, BEST_FIRST);
+        Map<Long, Integer> tagIndexById = new HashMap<>();
+        List<String> keyList = new ArrayList<>();
+        List<Integer> keyTagList = new ArrayList<>();
+        for (int i = 0; i < sortedTags.length; i++) {
+            tagIndexById.put(sortedTags[i].getTagId(), i);
+            for (String key : keys(sortedTags[i].getName())) {
+                keyList.add(key);
+                keyTagList.add(i);
+            }
+        }
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keyList::get));
+        String[] keys = new String[order.length];
+        int[] keyTags = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            keyTags[i] = keyTagList.get(order[i]);
+        }
+
+        Map<String, int[]> topByPrefix = new HashMap<>();
+        collectTops(keys, keyTags, 0, keys.length, 0, Math.max(1, maxSuggestions), topByPrefix);
+        return new TagSuggestIndex(
+            Math.max(1, maxSuggestions),
+            sortedTags,
+            tagIndexById,
+            keys,
+            keyTags,
+            topByPrefix,
+            Map.of(),
+            Set.of()
+        );
+    }
+
+    /**
+     * @return a copy of this index in which the tag has the given name, keeping the usage it had when the index was built.
+     */
+    public TagSuggestIndex withSaved(long tagId, String name) {
+        Integer index = tagIndexById.get(tagId);
+        long usage = index == null ? 0 : tags[index].getUsage();
+        Map<Long, Suggestion> saved = new LinkedHashMap<>(savedSinceBuild);
+        saved.put(tagId, new Suggestion(tagId, name, usage));
+        Set<Long> deleted = new HashSet<>(deletedSinceBuild);
+        deleted.remove(tagId);
+        return patched(saved, deleted);
+    }
+
+    /**
+     * @return a copy of this index without the tag.
+     */
+    public TagSuggestIndex withDeleted(long tagId) {
+        Map<Long, Suggestion> saved = new LinkedHashMap<>(savedSinceBuild);
+        saved.remove(tagId);
+        Set<Long> deleted = new HashSet<>(deletedSinceBuild);
+        deleted.add(tagId);
+        return patched(saved, deleted);
+    }
+
+    /**
+     * @return the number of tags in the index.
+     */
+    public int size() {
+        return tags.length;
+    }
+
+    /**
+     * Suggest the most used tags whose name, or one of its words, starts with a prefix.
+     *
+     * @param prefix the prefix, matched ignoring case.
+     * @param limit the maximum number of suggestions, at most the maximum the index was built for.
+     * @return the suggestions, most used first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        int size = Math.min(limit, maxSuggestions);
+        if (size <= 0) {
+            return Collections.emptyList();
+        }
+        String normalized = normalize(prefix);
+        int from = lowerBound(normalized);
+        int to = upperBound(normalized, from);
+
+        List<Suggestion> suggestions = new ArrayList<>(size);
+        int[] top = to - from > SCAN_THRESHOLD ? topByPrefix.get(normalized) : null;
+        if (top != null) {
+            for (int tag : top) {
+                if (isCurrent(tags[tag])) {
+                    suggestions.add(tags[tag]);
+                }
+            }
+        }
+        if (top == null || (suggestions.size() < size && top.length == maxSuggestions)) {
+            // short range, or a precomputed top depleted by the overlay
+            suggestions.clear();
+            for (int tag : scan(from, to, size + deletedSinceBuild.size() + savedSinceBuild.size())) {
+                if (isCurrent(tags[tag])) {
+                    suggestions.add(tags[tag]);
+                }
+            }
+        }
+        for (Suggestion saved : savedSinceBuild.values()) {
+            if (matches(saved.getName(), normalized)) {
+                suggestions.add(saved);
+            }
+        }
+        suggestions.sort(BEST_FIRST);
+        return suggestions.size() > size ? new ArrayList<>(suggestions.subList(0, size)) : suggestions;
+    }
+
+    private TagSuggestIndex patched(Map<Long, Suggestion> saved, Set<Long> deleted) {
+        return new TagSuggestIndex(
+            maxSuggestions,
+            tags,
+            tagIndexById,
+            keys,
+            keyTags,
+            topByPrefix,
+            Collections.unmodifiableMap(saved),
+            Collections.unmodifiableSet(deleted)
+        );
+    }
+
+    private boolean isCurrent(Suggestion tag) {
+        return !deletedSinceBuild.contains(tag.getTagId()) && !savedSinceBuild.containsKey(tag.getTagId());
+    }
+
+    /**
+     * @return the best distinct tags of the keys in the range, by their number.
+     */
+    private int[] scan(int from, int to, int limit) {
+        return top(keyTags, from, to, limit);
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Walk the implicit trie of the sorted keys, and record the top tags of every prefix with more keys than are scanned.
+     */
+    private static void collectTops(
+        String[] keys,
+        int[] keyTags,
+        int from,
+        int to,
+        int depth,
+        int maxSuggestions,
+        Map<String, int[]> topByPrefix
+    ) {
+        if (to - from <= SCAN_THRESHOLD) {
+            return;
+        }
+        topByPrefix.put(keys[from].substring(0, depth), top(keyTags, from, to, maxSuggestions));
+        int start = from;
+        // keys as long as the prefix sort first and belong to no child
+        while (start < to && keys[start].length() == depth) {
+            start++;
+        }
+        while (start < to) {
+            char c = keys[start].charAt(depth);
+            int end = start + 1;
+            while (end < to && keys[end].charAt(depth) == c) {
+                end++;
+            }
+            collectTops(keys, keyTags, start, end, depth + 1, maxSuggestions, topByPrefix);
+            start = end;
+        }
+    }
+
+    private static int[] top(int[] keyTags, int from, int to, int limit) {
+        // a smaller number is a better tag, so the worst of the kept ones is the largest
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, Comparator.reverseOrder());
+        Set<Integer> kept = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            int tag = keyTags[i];
+            if (kept.contains(tag)) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(tag);
+                kept.add(tag);
+            } else if (tag < best.peek()) {
+                kept.remove(best.poll());
+                best.add(tag);
+                kept.add(tag);
+            }
+        }
+        return best.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static List<String> keys(String name) {
+        String normalized = normalize(name);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || (!Character.isLetterOrDigit(normalized.charAt(i - 1)) && Character.isLetterOrDigit(normalized.charAt(i)))) {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static boolean matches(String name, String prefix) {
+        return keys(name).stream().anyMatch(key -> key.startsWith(prefix));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A suggested tag and the number of notes carrying it.
+     */
+    public static final class Suggestion {
+
+        private final long tagId;
+
+        private final String name;
+
+        private final long usage;
+
+        public Suggestion(long tagId, String name, long usage) {
+            this.tagId = tagId;
+            this.name = name;
+            this.usage = usage;
+        }
+
+        public long getTagId() {
+            return tagId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getUsage() {
+            return usage;
+        }
+    }
+}
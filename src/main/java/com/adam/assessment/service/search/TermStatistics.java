@@ -0,0 +1,17 @@
+package com.adam.assessment.service.search;
+
+/**
+ * Statistics of the terms of the indexed notes, weighting the terms of a text by how rare they are.
+ */
+public interface TermStatistics {
+    /**
+     * @return the number of indexed notes.
+     */
+    int documentCount();
+
+    /**
+     * @param term a term, as returned by {@link NoteTokenizer}.
+     * @return the number of indexed notes having the term, at most {@link #documentCount()}.
+     */
+    int documentFrequency(String term);
+}
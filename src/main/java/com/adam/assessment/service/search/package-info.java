@@ -0,0 +1,4 @@
+/**
+ * In-process indexes backing note search.
+ */
+package com.adam.assessment.service.search;
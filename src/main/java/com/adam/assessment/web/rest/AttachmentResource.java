@@ -0,0 +1,235 @@
+package com.adam.assessment.web.rest;
+
+import com.adam.assessment.service.AttachmentService;
+import com.adam.assessment.service.dto.AttachmentDTO;
+import com.adam.assessment.web.rest.errors.BadRequestAlertException;
+import com.adam.assessment.web.util.EntityTagUtil;
+import com.adam.assessment.web.util.FileTransferUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller for managing {@link com.adam.assessment.domain.Attachment}.
+ */
+@RestController
+@RequestMapping("/api")
+public class AttachmentResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AttachmentResource.class);
+
+    private static final String ENTITY_NAME = "attachment";
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * The media types shown inline: others are downloaded, so that a stored page or script never runs in the origin of
+     * the application.
+     */
+    private static final Set<String> INLINE_CONTENT_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    // the content of an attachment never changes
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final AttachmentService attachmentService;
+
+    public AttachmentResource(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    /**
+     * {@code POST  /notes/:noteId/attachments} : Attach a file to a note.
+     * <p>
+     * The file is read from a {@code multipart/form-data} part named {@code file}, spooled to disk by the container.
+     *
+     * @param noteId the id of the note.
+     * @param file the file.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new attachment,
+     * or with status {@code 400 (Bad Request)} if the file is empty,
+     * or with status {@code 404 (Not Found)} if the note does not exist.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     * @throws IOException if the file could not be stored.
+     */
+    @PostMapping(value = "/notes/{noteId}/attachments", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AttachmentDTO> createAttachment(@PathVariable("noteId") Long noteId, @RequestParam("file") MultipartFile file)
+        throws URISyntaxException, IOException {
+        LOG.debug("REST request to attach file {} to Note : {}", file.getOriginalFilename(), noteId);
+        if (file.isEmpty()) {
+            throw new BadRequestAlertException("An attachment cannot be empty", ENTITY_NAME, "fileempty");
+        }
+        AttachmentDTO attachmentDTO = attachmentService
+            .create(noteId, fileName(file), contentType(file), file::transferTo)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return ResponseEntity.created(new URI("/api/attachments/" + attachmentDTO.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, attachmentDTO.getId().toString()))
+            .body(attachmentDTO);
+    }
+
+    /**
+     * {@code GET  /notes/:noteId/attachments} : get the attachments of a note.
+     *
+     * @param noteId the id of the note.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of attachments in body.
+     */
+    @GetMapping("/notes/{noteId}/attachments")
+    public List<AttachmentDTO> getNoteAttachments(@PathVariable("noteId") Long noteId) {
+        LOG.debug("REST request to get the Attachments of Note : {}", noteId);
+        return attachmentService.findAllByNote(noteId);
+    }
+
+    /**
+     * {@code GET  /attachments/:id} : get the "id" attachment.
+     *
+     * @param id the id of the attachment to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachment, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/attachments/{id}")
+    public ResponseEntity<AttachmentDTO> getAttachment(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get Attachment : {}", id);
+        return ResponseEntity.ok(attachmentService.findOne(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * {@code GET  /attachments/:id/content} : download the content of the "id" attachment.
+     * <p>
+     * The content is tagged with its SHA-256 digest. A single byte range may be requested with {@code Range}, and is
+     * only honored by {@code If-Range} while the tag still matches; several ranges are answered with the whole content.
+     *
+     * @param id the id of the attachment.
+     * @param request the request.
+     * @param response the response.
+     * @throws IOException if the content could not be read or written.
+     */
+    @GetMapping("/attachments/{id}/content")
+    public void getAttachmentContent(@PathVariable("id") Long id, HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        LOG.debug("REST request to download the content of Attachment : {}", id);
+        AttachmentDTO attachmentDTO = attachmentService.findOne(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        String tag = "\"" + attachmentDTO.getSha256() + "\"";
+        long size = attachmentDTO.getSize();
+
+        response.setHeader(HttpHeaders.ETAG, tag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && EntityTagUtil.matches(ifNoneMatch, tag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long position = 0;
+        long count = size;
+        HttpRange range = requestedRange(request, tag);
+        if (range != null) {
+            try {
+                position = range.getRangeStart(size);
+                count = range.getRangeEnd(size) - position + 1;
+            } catch (IllegalArgumentException e) {
+                count = 0;
+            }
+            if (position >= size || count <= 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + position + "-" + (position + count - 1) + "/" + size);
+        }
+
+        response.setContentType(attachmentDTO.getContentType());
+        response.setContentLengthLong(count);
+        ContentDisposition.Builder disposition = INLINE_CONTENT_TYPES.contains(attachmentDTO.getContentType())
+            ? ContentDisposition.inline()
+            : ContentDisposition.attachment();
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            disposition.filename(attachmentDTO.getFileName(), StandardCharsets.UTF_8).build().toString()
+        );
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        try (FileChannel content = attachmentService.openContent(attachmentDTO)) {
+            FileTransferUtil.transfer(content, position, count, response);
+        }
+    }
+
+    /**
+     * {@code DELETE  /attachments/:id} : delete the "id" attachment.
+     *
+     * @param id the id of the attachment to delete.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/attachments/{id}")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable("id") Long id) {
+        LOG.debug("REST request to delete Attachment : {}", id);
+        if (!attachmentService.delete(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.noContent()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    /**
+     * @return the single range requested, or {@code null} for the whole content: when no or several ranges are
+     * requested, when the {@code Range} header is malformed, or when {@code If-Range} does not match the content.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String tag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(tag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String fileName(MultipartFile file) {
+        String name = StringUtils.getFilename(StringUtils.replace(file.getOriginalFilename(), "\\", "/"));
+        if (!StringUtils.hasText(name)) {
+            return "attachment";
+        }
+        return name.length() > MAX_NAME_LENGTH ? name.substring(name.length() - MAX_NAME_LENGTH) : name;
+    }
+
+    private static String contentType(MultipartFile file) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(file.getContentType());
+            String value = mediaType.toString();
+            return value.length() > MAX_NAME_LENGTH ? MediaType.APPLICATION_OCTET_STREAM_VALUE : value;
+        } catch (RuntimeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+}
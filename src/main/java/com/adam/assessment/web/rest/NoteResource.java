@@ -1,28 +1,74 @@
 package com.adam.assessment.web.rest;
 
 import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.service.InvalidChangeTokenException;
+import com.adam.assessment.service.InvalidContentEditException;
+import com.adam.assessment.service.NoteAutosaveService;
+import com.adam.assessment.service.NoteBulkService;
+import com.adam.assessment.service.NoteExportService;
+import com.adam.assessment.service.NoteImportService;
+import com.adam.assessment.service.NoteRenderService;
+import com.adam.assessment.service.NoteRetagService;
+import com.adam.assessment.service.NoteSearchService;
 import com.adam.assessment.service.NoteService;
+import com.adam.assessment.service.NoteSimilarityService;
+import com.adam.assessment.service.NoteStreamService;
+import com.adam.assessment.service.NoteVectorService;
+import com.adam.assessment.service.UnknownTagException;
+import com.adam.assessment.service.dto.NoteBulkOperationDTO;
+import com.adam.assessment.service.dto.NoteBulkResultDTO;
+import com.adam.assessment.service.dto.NoteChangesDTO;
+import com.adam.assessment.service.dto.NoteContentEditDTO;
 import com.adam.assessment.service.dto.NoteDTO;
+import com.adam.assessment.service.dto.NoteDuplicateGroupDTO;
+import com.adam.assessment.service.dto.NoteImportJobDTO;
+import com.adam.assessment.service.dto.NoteRetagDTO;
+import com.adam.assessment.service.dto.NoteRetagResultDTO;
+import com.adam.assessment.service.dto.NoteSearchHitDTO;
+import com.adam.assessment.service.dto.NoteStreamEventDTO;
+import com.adam.assessment.service.dto.NoteSummaryDTO;
+import com.adam.assessment.service.markdown.MarkdownRenderer;
+import com.adam.assessment.service.search.TagFilter;
 import com.adam.assessment.web.rest.errors.BadRequestAlertException;
+import com.adam.assessment.web.rest.errors.ConflictAlertException;
+import com.adam.assessment.web.rest.errors.GoneAlertException;
+import com.adam.assessment.web.rest.errors.PreconditionFailedAlertException;
+import com.adam.assessment.web.util.EntityTagUtil;
+import com.adam.assessment.web.util.KeysetPaginationUtil;
+import com.adam.assessment.web.util.TagFilterUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.adam.assessment.domain.Note}.
@@ -35,6 +81,13 @@ public class NoteResource {
 
     private static final String ENTITY_NAME = "note";
 
+    /**
+     * The media type of a JSON array of edits of ranges of the content.
+     */
+    public static final String TEXT_PATCH_JSON_VALUE = "application/vnd.notes.text-patch+json";
+
+    private static final Map<String, Class<?>> KEYSET_PROPERTIES = Map.of("id", Long.class, "title", String.class);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,27 +95,101 @@ public class NoteResource {
 
     private final NoteRepository noteRepository;
 
-    public NoteResource(NoteService noteService, NoteRepository noteRepository) {
+    private final NoteSearchService noteSearchService;
+
+    private final NoteExportService noteExportService;
+
+    private final NoteBulkService noteBulkService;
+
+    private final NoteStreamService noteStreamService;
+
+    private final NoteRetagService noteRetagService;
+
+    private final NoteImportService noteImportService;
+
+    private final NoteRenderService noteRenderService;
+
+    private final NoteSimilarityService noteSimilarityService;
+
+    private final NoteVectorService noteVectorService;
+
+    private final NoteAutosaveService noteAutosaveService;
+
+    public NoteResource(
+        NoteService noteService,
+        NoteRepository noteRepository,
+        NoteSearchService noteSearchService,
+        NoteExportService noteExportService,
+        NoteBulkService noteBulkService,
+        NoteStreamService noteStreamService,
+        NoteRetagService noteRetagService,
+        NoteImportService noteImportService,
+        NoteRenderService noteRenderService,
+        NoteSimilarityService noteSimilarityService,
+        NoteVectorService noteVectorService,
+        NoteAutosaveService noteAutosaveService
+    ) {
         this.noteService = noteService;
         this.noteRepository = noteRepository;
+        this.noteSearchService = noteSearchService;
+        this.noteExportService = noteExportService;
+        this.noteBulkService = noteBulkService;
+        this.noteStreamService = noteStreamService;
+        this.noteRetagService = noteRetagService;
+        this.noteImportService = noteImportService;
+        this.noteRenderService = noteRenderService;
+        this.noteSimilarityService = noteSimilarityService;
+        this.noteVectorService = noteVectorService;
+        this.noteAutosaveService = noteAutosaveService;
     }
 
     /**
      * {@code POST  /notes} : Create a new note.
+     * <p>
+     * Unless {@code onDuplicate} is {@code allow}, a note is not created when another note already has its content:
+     * the request is either rejected, or answered with the existing note, so that a client retrying a creation or
+     * importing the same notes twice does not duplicate them.
      *
+     * @param onDuplicate {@code allow} to create the note anyway, {@code reject} to reject it, or {@code link} to return
+     * the existing note instead.
      * @param noteDTO the noteDTO to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new noteDTO, or with status {@code 400 (Bad Request)} if the note has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new noteDTO,
+     * or with status {@code 200 (OK)} and with body the existing noteDTO if it has the same content and {@code onDuplicate} is {@code link},
+     * or with status {@code 400 (Bad Request)} if the note has already an ID or {@code onDuplicate} is not supported,
+     * or with status {@code 409 (Conflict)} if a note has the same content and {@code onDuplicate} is {@code reject}.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
-    public ResponseEntity<NoteDTO> createNote(@Valid @RequestBody NoteDTO noteDTO) throws URISyntaxException {
+    public ResponseEntity<NoteDTO> createNote(
+        @RequestParam(name = "onDuplicate", required = false, defaultValue = "allow") String onDuplicate,
+        @Valid @RequestBody NoteDTO noteDTO
+    ) throws URISyntaxException {
         LOG.debug("REST request to save Note : {}", noteDTO);
         if (noteDTO.getId() != null) {
             throw new BadRequestAlertException("A new note cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        switch (onDuplicate) {
+            case "allow" -> {}
+            case "reject" -> noteService
+                .findDuplicate(noteDTO.getContent())
+                .ifPresent(duplicate -> {
+                    throw new ConflictAlertException("A note has the same content", ENTITY_NAME, "duplicatecontent");
+                });
+            case "link" -> {
+                Optional<NoteDTO> duplicate = noteService.findDuplicate(noteDTO.getContent());
+                if (duplicate.isPresent()) {
+                    return ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_LOCATION, "/api/notes/" + duplicate.get().getId())
+                        .eTag(EntityTagUtil.versionTag(duplicate.get().getVersion()))
+                        .body(duplicate.get());
+                }
+            }
+            default -> throw new BadRequestAlertException("Unsupported duplicate handling", ENTITY_NAME, "onduplicateinvalid");
+        }
         noteDTO = noteService.save(noteDTO);
         return ResponseEntity.created(new URI("/api/notes/" + noteDTO.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, noteDTO.getId().toString()))
+            .eTag(EntityTagUtil.versionTag(noteDTO.getVersion()))
             .body(noteDTO);
     }
 
@@ -70,15 +197,18 @@ public class NoteResource {
      * {@code PUT  /notes/:id} : Updates an existing note.
      *
      * @param id the id of the noteDTO to save.
+     * @param ifMatch the entity tag of the version of the note the update is based on, if any.
      * @param noteDTO the noteDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated noteDTO,
      * or with status {@code 400 (Bad Request)} if the noteDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the note has changed since the version in {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the noteDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<NoteDTO> updateNote(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody NoteDTO noteDTO
     ) throws URISyntaxException {
         LOG.debug("REST request to update Note : {}, {}", id, noteDTO);
@@ -92,10 +222,13 @@ public class NoteResource {
         if (!noteRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        noteAutosaveService.flush(id);
+        checkIfMatch(id, ifMatch, noteDTO);
 
         noteDTO = noteService.update(noteDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, noteDTO.getId().toString()))
+            .eTag(EntityTagUtil.versionTag(noteDTO.getVersion()))
             .body(noteDTO);
     }
 
@@ -103,16 +236,19 @@ public class NoteResource {
      * {@code PATCH  /notes/:id} : Partial updates given fields of an existing note, field will ignore if it is null
      *
      * @param id the id of the noteDTO to save.
+     * @param ifMatch the entity tag of the version of the note the update is based on, if any.
      * @param noteDTO the noteDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated noteDTO,
      * or with status {@code 400 (Bad Request)} if the noteDTO is not valid,
      * or with status {@code 404 (Not Found)} if the noteDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the note has changed since the version in {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the noteDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<NoteDTO> partialUpdateNote(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody NoteDTO noteDTO
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Note partially : {}, {}", id, noteDTO);
@@ -126,28 +262,157 @@ public class NoteResource {
         if (!noteRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        noteAutosaveService.flush(id);
+        checkIfMatch(id, ifMatch, noteDTO);
 
         Optional<NoteDTO> result = noteService.partialUpdate(noteDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, noteDTO.getId().toString())
-        );
+        return result
+            .map(updated ->
+                ResponseEntity.ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, noteDTO.getId().toString()))
+                    .eTag(EntityTagUtil.versionTag(updated.getVersion()))
+                    .body(updated)
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code PATCH  /notes/:id} : Edit ranges of the content of an existing note, sent as a JSON array of
+     * {@code {"offset", "length", "replacement"}} edits with the {@code application/vnd.notes.text-patch+json} media type.
+     * <p>
+     * The edits are applied in order, each to the content as changed by the previous ones, with offsets and lengths in
+     * UTF-16 code units. Neither the request nor the response carries the whole content: the new version of the note
+     * is only returned as the entity tag.
+     *
+     * @param id the id of the note.
+     * @param ifMatch the entity tag of the version of the note the edits are based on, if any.
+     * @param edits the edits.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)},
+     * or with status {@code 400 (Bad Request)} if an edit is out of the content or splits a character,
+     * or with status {@code 404 (Not Found)} if the note is not found,
+     * or with status {@code 412 (Precondition Failed)} if the note has changed since the version in {@code If-Match}.
+     */
+    @PatchMapping(value = "/{id}", consumes = TEXT_PATCH_JSON_VALUE)
+    public ResponseEntity<Void> editNoteContent(
+        @PathVariable("id") final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @NotNull @RequestBody List<NoteContentEditDTO> edits
+    ) {
+        LOG.debug("REST request to edit the content of Note : {}, {}", id, edits);
+        noteAutosaveService.flush(id);
+        Long expectedVersion = matchedVersion(id, ifMatch);
+        try {
+            return contentChanged(noteService.editContent(id, expectedVersion, edits));
+        } catch (InvalidContentEditException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "editinvalid");
+        }
+    }
+
+    /**
+     * {@code POST  /notes/:id/_append} : Append the {@code text/plain} body to the content of an existing note.
+     *
+     * @param id the id of the note.
+     * @param ifMatch the entity tag of the version of the note the text is appended to, if any.
+     * @param text the text to append.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)} and the entity tag of the new version,
+     * or with status {@code 404 (Not Found)} if the note is not found,
+     * or with status {@code 412 (Precondition Failed)} if the note has changed since the version in {@code If-Match}.
+     */
+    @PostMapping(value = "/{id}/_append", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<Void> appendNoteContent(
+        @PathVariable("id") final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody(required = false) String text
+    ) {
+        LOG.debug("REST request to append {} characters to the content of Note : {}", text == null ? 0 : text.length(), id);
+        noteAutosaveService.flush(id);
+        return contentChanged(noteService.appendContent(id, matchedVersion(id, ifMatch), Objects.requireNonNullElse(text, "")));
+    }
+
+    /**
+     * {@code PATCH  /notes/:id/_autosave} : Autosave the title and content of an existing note, fields being ignored if null.
+     * <p>
+     * Autosaves are coalesced: only the latest one is written, shortly after the client stops autosaving the note. Until
+     * then the autosave is held in the memory of this node, and lost if it stops abruptly; reading the note from this
+     * node writes it first. Autosaves apply to the current version of the note, whichever it is.
+     *
+     * @param id the id of the note.
+     * @param noteDTO the title and content to autosave.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)},
+     * or with status {@code 400 (Bad Request)} if the title is too long,
+     * or with status {@code 404 (Not Found)} if the note is not found.
+     */
+    @PatchMapping(value = "/{id}/_autosave", consumes = { "application/json", "application/merge-patch+json" })
+    public ResponseEntity<Void> autosaveNote(@PathVariable("id") final Long id, @NotNull @RequestBody NoteDTO noteDTO) {
+        LOG.debug("REST request to autosave Note : {}", id);
+        if (noteDTO.getTitle() != null && noteDTO.getTitle().length() > 255) {
+            throw new BadRequestAlertException("Title too long", ENTITY_NAME, "titleinvalid");
+        }
+        if (!noteAutosaveService.autosave(id, noteDTO.getTitle(), noteDTO.getContent())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    private ResponseEntity<Void> contentChanged(Optional<NoteDTO> result) {
+        return result
+            .map(updated ->
+                ResponseEntity.noContent()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, updated.getId().toString()))
+                    .eTag(EntityTagUtil.versionTag(updated.getVersion()))
+                    .<Void>build()
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
      * {@code GET  /notes} : get all the notes.
+     * <p>
+     * When the {@code after} parameter is present (empty for the first page) the notes are paginated by keyset
+     * instead of by offset: the response carries a {@code Link} header with {@code rel="next"} whose URL holds the
+     * cursor of the following page, and no total count. Only {@code id} and {@code title} can be sorted on in that mode.
+     *
+     * <p>
+     * When the {@code tags} parameter is present the notes are filtered on their tags: a comma-separated list of tag
+     * names, each prefixed with {@code -} if the notes must not carry it, the others being carried by all of the notes
+     * or by any of them depending on {@code match}. Filtered notes are paginated by offset and sorted by id only.
      *
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of notes in body.
+     * @param after the cursor returned with the previous page, to paginate by keyset.
+     * @param tags the names of the tags to filter on, if any.
+     * @param match {@code all} or {@code any}, whether the notes must carry all the tags or any of them.
+     * @param ifNoneMatch the entity tag of the page held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of notes in body,
+     * or with status {@code 304 (Not Modified)} if the page held by the client is current,
+     * or with status {@code 400 (Bad Request)} if the tag filter is combined with keyset pagination or another sort than by id.
      */
     @GetMapping("")
     public ResponseEntity<List<NoteDTO>> getAllNotes(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String after,
+        @RequestParam(name = TagFilterUtil.TAGS_PARAMETER, required = false) String tags,
+        @RequestParam(name = TagFilterUtil.MATCH_PARAMETER, required = false, defaultValue = TagFilterUtil.DEFAULT_MATCH) String match,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+        if (tags != null) {
+            if (after != null) {
+                throw new BadRequestAlertException("Notes filtered on tags cannot be paginated by keyset", ENTITY_NAME, "tagkeysetunsupported");
+            }
+            return getAllNotesByTags(pageable, tags, match);
+        }
+        if (after != null) {
+            return getAllNotesAfter(pageable, eagerload, after);
+        }
         LOG.debug("REST request to get a page of Notes");
+        if (ifNoneMatch != null) {
+            String currentTag = pageTag(noteService.findAllVersions(pageable));
+            if (EntityTagUtil.matches(ifNoneMatch, currentTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag).build();
+            }
+        }
         Page<NoteDTO> page;
         if (eagerload) {
             page = noteService.findAllWithEagerRelationships(pageable);
@@ -155,20 +420,418 @@ public class NoteResource {
             page = noteService.findAll(pageable);
         }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(pageTag(page));
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private ResponseEntity<List<NoteDTO>> getAllNotesAfter(Pageable pageable, boolean eagerload, String after) {
+        LOG.debug("REST request to get a window of Notes after {}", after);
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_PROPERTIES, ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, sort, KEYSET_PROPERTIES, ENTITY_NAME);
+        Window<NoteDTO> window;
+        if (eagerload) {
+            window = noteService.findAllWithEagerRelationships(position, sort, pageable.getPageSize());
+        } else {
+            window = noteService.findAll(position, sort, pageable.getPageSize());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
+    private ResponseEntity<List<NoteDTO>> getAllNotesByTags(Pageable pageable, String tags, String match) {
+        LOG.debug("REST request to get a page of Notes tagged with {} of {}", match, tags);
+        TagFilter filter = TagFilterUtil.parse(tags, match, ENTITY_NAME);
+        for (Sort.Order order : pageable.getSort()) {
+            if (!"id".equals(order.getProperty())) {
+                throw new BadRequestAlertException("Notes filtered on tags can only be sorted by id", ENTITY_NAME, "tagsortinvalid");
+            }
+        }
+        Page<NoteDTO> page = noteService.findAllByTags(filter, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(pageTag(page));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /notes?view=summary} : get the summaries of all the notes.
+     * <p>
+     * Summaries hold a snippet of the content and the ids of the tags instead of the content and the tags, so listing
+     * them never reads the content of the notes. Pagination by offset and by keyset work as for {@link #getAllNotes}.
+     *
+     * @param pageable the pagination information.
+     * @param after the cursor returned with the previous page, to paginate by keyset.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of note summaries in body.
+     */
+    @GetMapping(value = "", params = "view=summary")
+    public ResponseEntity<List<NoteSummaryDTO>> getAllNoteSummaries(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String after
+    ) {
+        HttpHeaders headers;
+        List<NoteSummaryDTO> summaries;
+        if (after != null) {
+            LOG.debug("REST request to get a window of Note summaries after {}", after);
+            Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_PROPERTIES, ENTITY_NAME);
+            KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, sort, KEYSET_PROPERTIES, ENTITY_NAME);
+            Window<NoteSummaryDTO> window = noteService.findAllSummaries(position, sort, pageable.getPageSize());
+            headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+            summaries = window.getContent();
+        } else {
+            LOG.debug("REST request to get a page of Note summaries");
+            Page<NoteSummaryDTO> page = noteService.findAllSummaries(pageable);
+            headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            summaries = page.getContent();
+        }
+        return ResponseEntity.ok().headers(headers).body(summaries);
+    }
+
+    /**
+     * {@code GET  /notes/_search?q=:query} : search the notes by title and content.
+     * <p>
+     * A semantic search returns the notes closest to the query as a whole, even without any of its terms, rather than
+     * the notes having its terms; only the {@code application.vector-index.max-limit} closest notes are paged through.
+     *
+     * @param query the free text query.
+     * @param semantic whether to search the notes closest to the query rather than the notes having its terms.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching notes in body, best matches first.
+     */
+    @GetMapping("/_search")
+    public ResponseEntity<List<NoteSearchHitDTO>> searchNotes(
+        @RequestParam("q") String query,
+        @RequestParam(name = "semantic", required = false, defaultValue = "false") boolean semantic,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search for a page of Notes for query {}", query);
+        Page<NoteSearchHitDTO> page = semantic ? noteVectorService.search(query, pageable) : noteSearchService.search(query, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /notes/_duplicates} : get the groups of notes having the same content, the largest first.
+     *
+     * @param pageable the pagination information, whose sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the groups of duplicate notes in body.
+     */
+    @GetMapping("/_duplicates")
+    public ResponseEntity<List<NoteDuplicateGroupDTO>> getDuplicateNotes(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to get a page of duplicate Notes");
+        Page<NoteDuplicateGroupDTO> page = noteService.findDuplicates(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /notes/_changes} : get the notes saved and deleted since the previous sync, in the order of their changes.
+     * <p>
+     * Without {@code since}, every note is returned. Each response holds the token to pass as {@code since} to get the
+     * following changes, so a client can keep its copy of the notes current without downloading them all again.
+     *
+     * @param since the {@code next} token of the previous response, if any.
+     * @param limit the maximum number of changes to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the changes in body,
+     * or with status {@code 400 (Bad Request)} if the token is invalid,
+     * or with status {@code 410 (Gone)} if the token is older than the retention of deleted notes, in which case every note must be downloaded again.
+     */
+    @GetMapping("/_changes")
+    public ResponseEntity<NoteChangesDTO> getNoteChanges(
+        @RequestParam(name = "since", required = false) String since,
+        @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        LOG.debug("REST request to get the changes of Notes since {}", since);
+        try {
+            return ResponseEntity.ok(noteService.findChanges(since, limit));
+        } catch (InvalidChangeTokenException e) {
+            if (e.isExpired()) {
+                throw new GoneAlertException(e.getMessage(), ENTITY_NAME, "changetokenexpired");
+            }
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "changetokeninvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /notes/_stream} : subscribe to the changes of notes and tags, as server-sent events.
+     * <p>
+     * {@code note} and {@code tag} events carry the type of the change and the id of the entity once it is committed, to
+     * be read from {@code GET /notes/_changes}. A {@code resync} event means events were dropped because the client did
+     * not keep up, and the changes it missed must be read from the change feed.
+     *
+     * @return the stream of events, or status {@code 503 (Service Unavailable)} if too many clients are subscribed.
+     */
+    @GetMapping(value = "/_stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        LOG.debug("REST request to stream the changes of Notes and Tags");
+        SseEmitter emitter = new SseEmitter(noteStreamService.getTimeoutMillis());
+        NoteStreamService.Subscription subscription = noteStreamService
+            .subscribe(
+                new NoteStreamService.Sink() {
+                    @Override
+                    public void send(NoteStreamEventDTO event) throws IOException {
+                        if (event.getKind() == NoteStreamEventDTO.Kind.HEARTBEAT) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            emitter.send(
+                                SseEmitter.event().name(event.getKind().name().toLowerCase(Locale.ROOT)).data(event, MediaType.APPLICATION_JSON)
+                            );
+                        }
+                    }
+
+                    @Override
+                    public void close() {
+                        emitter.complete();
+                    }
+                }
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many subscriptions"));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * {@code GET  /notes/_export} : export all the notes with the names of their tags.
+     * <p>
+     * The export is streamed while the notes are read from the database, so it can be used to back up any number of notes.
+     *
+     * @param format {@code ndjson} for one JSON note per line, or {@code zip} for a ZIP archive of Markdown files.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the exported notes in body,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/_export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+        @RequestParam(name = "format", required = false, defaultValue = "ndjson") String format
+    ) {
+        LOG.debug("REST request to export Notes as {}", format);
+        StreamingResponseBody body;
+        MediaType mediaType;
+        String fileName;
+        switch (format) {
+            case "ndjson" -> {
+                body = noteExportService::exportNdjson;
+                mediaType = MediaType.APPLICATION_NDJSON;
+                fileName = "notes.ndjson";
+            }
+            case "zip" -> {
+                body = noteExportService::exportMarkdownZip;
+                mediaType = MediaType.parseMediaType("application/zip");
+                fileName = "notes.zip";
+            }
+            default -> throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "exportformatinvalid");
+        }
+        return ResponseEntity.ok()
+            .contentType(mediaType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+            .body(body);
+    }
+
+    /**
+     * {@code POST  /notes/_import} : import an archive of notes in the background.
+     * <p>
+     * The archive is the request body, read as it is uploaded, so archives of any size can be imported. The notes are
+     * created, and their tags resolved by name, after the response is sent: the progress of the import is read from the
+     * {@code Location} of the response.
+     *
+     * @param format {@code zip} for a ZIP archive of Markdown files, {@code enex} for an Evernote export, or {@code csv}
+     * for a CSV file with a header naming its columns.
+     * @param archive the archive.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the import in body,
+     * or with status {@code 400 (Bad Request)} if the format is not supported,
+     * or with status {@code 503 (Service Unavailable)} if too many imports are queued or running.
+     * @throws IOException if the archive could not be uploaded.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/_import")
+    public ResponseEntity<NoteImportJobDTO> importNotes(@RequestParam(name = "format") String format, InputStream archive)
+        throws IOException, URISyntaxException {
+        LOG.debug("REST request to import Notes from a {} archive", format);
+        NoteImportService.Format importFormat;
+        try {
+            importFormat = NoteImportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unsupported import format", ENTITY_NAME, "importformatinvalid");
+        }
+        NoteImportJobDTO job = noteImportService
+            .start(importFormat, archive)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports"));
+        return ResponseEntity.accepted().location(new URI("/api/notes/_import/" + job.getId())).body(job);
+    }
+
+    /**
+     * {@code GET  /notes/_import/:id} : get the progress of an import.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the import in body,
+     * or with status {@code 404 (Not Found)} if the import is unknown or finished long ago.
+     */
+    @GetMapping("/_import/{id}")
+    public ResponseEntity<NoteImportJobDTO> getImport(@PathVariable("id") String id) {
+        LOG.debug("REST request to get the progress of import : {}", id);
+        return ResponseEntity.ok(noteImportService.findJob(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * {@code POST  /notes/_bulk} : create, update and delete notes in one request.
+     * <p>
+     * Each operation succeeds or fails on its own: the response holds one result per operation, in the same order,
+     * with the status the equivalent single-note request would have returned.
+     *
+     * @param operations the operations to execute.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the result of each operation in body,
+     * or with status {@code 400 (Bad Request)} if there are more operations than allowed.
+     */
+    @PostMapping("/_bulk")
+    public ResponseEntity<List<NoteBulkResultDTO>> bulkNotes(@NotNull @RequestBody List<NoteBulkOperationDTO> operations) {
+        LOG.debug("REST request to execute {} bulk operations on Notes", operations.size());
+        if (operations.size() > noteBulkService.getMaxOperations()) {
+            throw new BadRequestAlertException("Too many operations in bulk request", ENTITY_NAME, "bulktoolarge");
+        }
+        return ResponseEntity.ok().body(noteBulkService.execute(operations));
+    }
+
+    /**
+     * {@code POST  /notes/_retag} : add tags to, and remove tags from, every note matching a filter on its tags.
+     * <p>
+     * The filter is the one of {@code GET /notes?tags=}, and is required so that no request retags every note by mistake.
+     * The notes are changed by set-based statements without being loaded, so any number of notes can be retagged at once.
+     *
+     * @param retag the filter, and the names of the tags to add and to remove.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of notes changed in body,
+     * or with status {@code 400 (Bad Request)} if the filter is missing or invalid, if there is no tag to add or remove,
+     * if a tag is both added and removed, or if a tag to add or remove does not exist.
+     */
+    @PostMapping("/_retag")
+    public ResponseEntity<NoteRetagResultDTO> retagNotes(@NotNull @RequestBody NoteRetagDTO retag) {
+        LOG.debug("REST request to retag Notes : {}", retag);
+        if (retag.getTags() == null || retag.getTags().isBlank()) {
+            throw new BadRequestAlertException("A retag needs a filter on tags", ENTITY_NAME, "retagfilterempty");
+        }
+        if (retag.getAdd().isEmpty() && retag.getRemove().isEmpty()) {
+            throw new BadRequestAlertException("A retag needs tags to add or remove", ENTITY_NAME, "retagempty");
+        }
+        if (retag.getAdd().stream().anyMatch(retag.getRemove()::contains)) {
+            throw new BadRequestAlertException("A tag cannot be both added and removed", ENTITY_NAME, "retagconflict");
+        }
+        TagFilter filter = TagFilterUtil.parse(
+            retag.getTags(),
+            retag.getMatch() == null ? TagFilterUtil.DEFAULT_MATCH : retag.getMatch(),
+            ENTITY_NAME
+        );
+        try {
+            return ResponseEntity.ok(noteRetagService.retag(filter, retag.getAdd(), retag.getRemove()));
+        } catch (UnknownTagException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "tagnotfound");
+        }
+    }
+
     /**
      * {@code GET  /notes/:id} : get the "id" note.
      *
      * @param id the id of the noteDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the noteDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the note held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the noteDTO,
+     * or with status {@code 304 (Not Modified)} if the note held by the client is current, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<NoteDTO> getNote(@PathVariable("id") Long id) {
+    public ResponseEntity<NoteDTO> getNote(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         LOG.debug("REST request to get Note : {}", id);
+        noteAutosaveService.flush(id);
+        if (ifNoneMatch != null) {
+            Optional<String> currentTag = noteService.findVersion(id).map(EntityTagUtil::versionTag);
+            if (currentTag.isPresent() && EntityTagUtil.matches(ifNoneMatch, currentTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag.get()).build();
+            }
+        }
         Optional<NoteDTO> noteDTO = noteService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(noteDTO);
+        return noteDTO
+            .map(note -> ResponseEntity.ok().eTag(EntityTagUtil.versionTag(note.getVersion())).body(note))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code GET  /notes/:id/_similar} : get the notes whose content is nearly the same as the content of the "id" note,
+     * such as its edited copies.
+     * <p>
+     * The notes are found from fingerprints of their contents, ignoring case, punctuation and whitespace, and their
+     * similarity is estimated: thresholds below about 0.5 may miss some similar notes.
+     *
+     * @param id the id of the note.
+     * @param threshold the minimum similarity of the notes, between 0 and 1.
+     * @param limit the maximum number of notes to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the similar notes in body, the most similar first,
+     * or with status {@code 400 (Bad Request)} if the threshold is not between 0 and 1, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/_similar")
+    public ResponseEntity<List<NoteSearchHitDTO>> getSimilarNotes(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "threshold", required = false) Double threshold,
+        @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        LOG.debug("REST request to get the Notes similar to Note : {}", id);
+        if (threshold != null && !(threshold > 0 && threshold <= 1)) {
+            throw new BadRequestAlertException("The threshold must be between 0 and 1", ENTITY_NAME, "thresholdinvalid");
+        }
+        return ResponseEntity.ok(
+            noteSimilarityService.findSimilar(id, threshold, limit).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+        );
+    }
+
+    /**
+     * {@code GET  /notes/:id/_related} : get the notes about the same things as the "id" note, the closest first.
+     * <p>
+     * Unlike similar notes, related notes need not share any passage with the note, only rare terms.
+     *
+     * @param id the id of the note.
+     * @param limit the maximum number of notes to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the related notes in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/_related")
+    public ResponseEntity<List<NoteSearchHitDTO>> getRelatedNotes(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        LOG.debug("REST request to get the Notes related to Note : {}", id);
+        return ResponseEntity.ok(
+            noteVectorService.findRelated(id, limit).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+        );
+    }
+
+    /**
+     * {@code GET  /notes/:id/rendered} : get the content of the "id" note rendered from Markdown to HTML.
+     * <p>
+     * The HTML is sanitized: raw HTML in the content is escaped, and only links and images to safe URLs are kept.
+     *
+     * @param id the id of the note to render.
+     * @param ifNoneMatch the entity tag of the render held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the HTML,
+     * or with status {@code 304 (Not Modified)} if the render held by the client is current, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/{id}/rendered", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getRenderedNote(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        LOG.debug("REST request to get rendered Note : {}", id);
+        noteAutosaveService.flush(id);
+        if (ifNoneMatch != null) {
+            Optional<String> currentTag = noteService.findVersion(id).map(NoteResource::renderedTag);
+            if (currentTag.isPresent() && EntityTagUtil.matches(ifNoneMatch, currentTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag.get()).build();
+            }
+        }
+        return noteRenderService
+            .render(id)
+            .map(rendered ->
+                ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                    .eTag(renderedTag(rendered.version()))
+                    .body(rendered.html())
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -180,9 +843,45 @@ public class NoteResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNote(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Note : {}", id);
+        noteAutosaveService.discard(id);
         noteService.delete(id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * Reject the update if the note has changed since the version in {@code If-Match}, and otherwise make the update
+     * apply to that version so that a concurrent change is still detected when the update is written.
+     */
+    private void checkIfMatch(Long id, String ifMatch, NoteDTO noteDTO) {
+        if (ifMatch != null) {
+            noteDTO.setVersion(matchedVersion(id, ifMatch));
+        }
+    }
+
+    /**
+     * @return the current version of the note, if the {@code If-Match} header holds its tag, {@code null} without the header.
+     */
+    private Long matchedVersion(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        Long currentVersion = noteService.findVersion(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (!EntityTagUtil.matchesStrongly(ifMatch, EntityTagUtil.versionTag(currentVersion))) {
+            throw new PreconditionFailedAlertException("The note has been modified", ENTITY_NAME, "versionmismatch");
+        }
+        return currentVersion;
+    }
+
+    /**
+     * The tag of a render also changes with the renderer, so that clients do not keep renders of an older one.
+     */
+    private static String renderedTag(long version) {
+        return "\"" + version + "-" + MarkdownRenderer.VERSION + "\"";
+    }
+
+    private static String pageTag(Page<NoteDTO> page) {
+        return EntityTagUtil.pageTag(page, note -> note.getId() + ":" + note.getVersion());
+    }
 }
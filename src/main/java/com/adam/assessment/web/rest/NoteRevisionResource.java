@@ -0,0 +1,84 @@
+package com.adam.assessment.web.rest;
+
+import com.adam.assessment.service.NoteRevisionService;
+import com.adam.assessment.service.dto.NoteRevisionDTO;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for reading the {@link com.adam.assessment.domain.NoteRevision}s of notes.
+ * <p>
+ * Revisions are recorded whenever the title or content of a note changes, and deleted with the note.
+ */
+@RestController
+@RequestMapping("/api/notes/{noteId}/revisions")
+public class NoteRevisionResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteRevisionResource.class);
+
+    private final NoteRevisionService noteRevisionService;
+
+    public NoteRevisionResource(NoteRevisionService noteRevisionService) {
+        this.noteRevisionService = noteRevisionService;
+    }
+
+    /**
+     * {@code GET  /notes/:noteId/revisions} : get the revisions of a note, the latest first, without their content.
+     *
+     * @param noteId the id of the note.
+     * @param pageable the pagination information, whose sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the revisions in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<NoteRevisionDTO>> getNoteRevisions(
+        @PathVariable("noteId") Long noteId,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of the Revisions of Note : {}", noteId);
+        Page<NoteRevisionDTO> page = noteRevisionService
+            .findAllByNote(noteId, pageable)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /notes/:noteId/revisions/_at} : get the revision of a note that was the latest at some time, with its content.
+     *
+     * @param noteId the id of the note.
+     * @param time the time, in the ISO format.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the revision,
+     * or with status {@code 404 (Not Found)} if the note had no revision at that time.
+     */
+    @GetMapping("/_at")
+    public ResponseEntity<NoteRevisionDTO> getNoteRevisionAt(@PathVariable("noteId") Long noteId, @RequestParam("time") Instant time) {
+        LOG.debug("REST request to get the Revision of Note : {} at {}", noteId, time);
+        return ResponseEntity.ok(noteRevisionService.findAt(noteId, time).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * {@code GET  /notes/:noteId/revisions/:revision} : get one revision of a note, with its content.
+     *
+     * @param noteId the id of the note.
+     * @param revision the number of the revision.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the revision, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{revision}")
+    public ResponseEntity<NoteRevisionDTO> getNoteRevision(@PathVariable("noteId") Long noteId, @PathVariable("revision") int revision) {
+        LOG.debug("REST request to get Revision {} of Note : {}", revision, noteId);
+        return ResponseEntity.ok(
+            noteRevisionService.findOne(noteId, revision).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+        );
+    }
+}
@@ -1,24 +1,38 @@
 package com.adam.assessment.web.rest;
 
 import com.adam.assessment.repository.TagRepository;
+import com.adam.assessment.service.NoteRetagService;
+import com.adam.assessment.service.NoteService;
 import com.adam.assessment.service.TagService;
+import com.adam.assessment.service.TagSuggestService;
+import com.adam.assessment.service.dto.NoteSummaryDTO;
 import com.adam.assessment.service.dto.TagDTO;
+import com.adam.assessment.service.dto.TagFacetDTO;
 import com.adam.assessment.web.rest.errors.BadRequestAlertException;
+import com.adam.assessment.web.util.EntityTagUtil;
+import com.adam.assessment.web.util.KeysetPaginationUtil;
+import com.adam.assessment.web.util.TagFilterUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,15 +49,34 @@ public class TagResource {
 
     private static final String ENTITY_NAME = "tag";
 
+    private static final Map<String, Class<?>> KEYSET_PROPERTIES = Map.of("id", Long.class, "name", String.class);
+
+    private static final Map<String, Class<?>> NOTE_KEYSET_PROPERTIES = Map.of("id", Long.class, "title", String.class);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final TagService tagService;
 
+    private final TagSuggestService tagSuggestService;
+
+    private final NoteService noteService;
+
+    private final NoteRetagService noteRetagService;
+
     private final TagRepository tagRepository;
 
-    public TagResource(TagService tagService, TagRepository tagRepository) {
+    public TagResource(
+        TagService tagService,
+        TagSuggestService tagSuggestService,
+        NoteService noteService,
+        NoteRetagService noteRetagService,
+        TagRepository tagRepository
+    ) {
         this.tagService = tagService;
+        this.tagSuggestService = tagSuggestService;
+        this.noteService = noteService;
+        this.noteRetagService = noteRetagService;
         this.tagRepository = tagRepository;
     }
 
@@ -135,29 +168,216 @@ public class TagResource {
 
     /**
      * {@code GET  /tags} : get all the tags.
+     * <p>
+     * When the {@code after} parameter is present (empty for the first page) the tags are paginated by keyset
+     * instead of by offset: the response carries a {@code Link} header with {@code rel="next"} whose URL holds the
+     * cursor of the following page, and no total count. Only {@code id} and {@code name} can be sorted on in that mode.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tags in body.
+     * @param after the cursor returned with the previous page, to paginate by keyset.
+     * @param ifNoneMatch the entity tag of the page held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tags in body,
+     * or with status {@code 304 (Not Modified)} if the page held by the client is current.
      */
     @GetMapping("")
-    public ResponseEntity<List<TagDTO>> getAllTags(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<TagDTO>> getAllTags(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String after,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (after != null) {
+            LOG.debug("REST request to get a window of Tags after {}", after);
+            Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_PROPERTIES, ENTITY_NAME);
+            KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, sort, KEYSET_PROPERTIES, ENTITY_NAME);
+            Window<TagDTO> window = tagService.findAll(position, sort, pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+            return ResponseEntity.ok().headers(headers).body(window.getContent());
+        }
         LOG.debug("REST request to get a page of Tags");
+        if (ifNoneMatch != null) {
+            String currentTag = pageTag(tagService.findAllVersions(pageable));
+            if (EntityTagUtil.matches(ifNoneMatch, currentTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag).build();
+            }
+        }
         Page<TagDTO> page = tagService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(pageTag(page));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /tags/_facets} : get the number of notes carrying each tag, most used tags first.
+     * <p>
+     * The counted notes can be restricted to those matching a full-text query and a filter on tags, as for
+     * {@code GET /notes/_search} and {@code GET /notes?tags=}.
+     *
+     * @param query the full-text query the counted notes must match, if any.
+     * @param tags the names of the tags the counted notes must carry, prefixed with {@code -} for those they must not, if any.
+     * @param match {@code all} or {@code any}, whether the counted notes must carry all the tags or any of them.
+     * @param limit the maximum number of tags to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tags with their number of notes in body,
+     * or with status {@code 400 (Bad Request)} if the tag filter is invalid.
+     */
+    @GetMapping("/_facets")
+    public ResponseEntity<List<TagFacetDTO>> getTagFacets(
+        @RequestParam(name = "q", required = false) String query,
+        @RequestParam(name = TagFilterUtil.TAGS_PARAMETER, required = false) String tags,
+        @RequestParam(name = TagFilterUtil.MATCH_PARAMETER, required = false, defaultValue = TagFilterUtil.DEFAULT_MATCH) String match,
+        @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        LOG.debug("REST request to get the Tag facets of the Notes matching {} and tagged with {} of {}", query, match, tags);
+        return ResponseEntity.ok(tagService.findFacets(query, tags == null ? null : TagFilterUtil.parse(tags, match, ENTITY_NAME), limit));
+    }
+
+    /**
+     * {@code GET  /tags/_suggest} : suggest the most used tags whose name, or one of its words, starts with a prefix.
+     * <p>
+     * Suggestions are served from memory, and their number of notes may lag behind by a few minutes.
+     *
+     * @param prefix the prefix of the tag names, matched ignoring case.
+     * @param limit the maximum number of tags to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggested tags with their number of notes in body.
+     */
+    @GetMapping("/_suggest")
+    public ResponseEntity<List<TagFacetDTO>> suggestTags(
+        @RequestParam(name = "prefix", required = false, defaultValue = "") String prefix,
+        @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        LOG.debug("REST request to suggest Tags starting with : {}", prefix);
+        return ResponseEntity.ok(tagSuggestService.suggest(prefix, limit));
+    }
+
     /**
      * {@code GET  /tags/:id} : get the "id" tag.
      *
      * @param id the id of the tagDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the tagDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the tag held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the tagDTO,
+     * or with status {@code 304 (Not Modified)} if the tag held by the client is current, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TagDTO> getTag(@PathVariable("id") Long id) {
+    public ResponseEntity<TagDTO> getTag(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         LOG.debug("REST request to get Tag : {}", id);
+        if (ifNoneMatch != null) {
+            Optional<String> currentTag = tagService.findVersion(id).map(EntityTagUtil::versionTag);
+            if (currentTag.isPresent() && EntityTagUtil.matches(ifNoneMatch, currentTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag.get()).build();
+            }
+        }
         Optional<TagDTO> tagDTO = tagService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(tagDTO);
+        return tagDTO
+            .map(tag -> ResponseEntity.ok().eTag(EntityTagUtil.versionTag(tag.getVersion())).body(tag))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code GET  /tags/:id/notes} : get the summaries of the notes carrying the "id" tag.
+     * <p>
+     * Pagination by offset and by keyset work as for {@code GET /notes?view=summary}.
+     *
+     * @param id the id of the tag.
+     * @param pageable the pagination information.
+     * @param after the cursor returned with the previous page, to paginate by keyset.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of note summaries in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/notes")
+    public ResponseEntity<List<NoteSummaryDTO>> getTagNotes(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String after
+    ) {
+        if (!tagRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders headers;
+        List<NoteSummaryDTO> summaries;
+        if (after != null) {
+            LOG.debug("REST request to get a window of Note summaries of Tag : {} after {}", id, after);
+            Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), NOTE_KEYSET_PROPERTIES, ENTITY_NAME);
+            KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, sort, NOTE_KEYSET_PROPERTIES, ENTITY_NAME);
+            Window<NoteSummaryDTO> window = noteService.findAllSummariesByTag(id, position, sort, pageable.getPageSize());
+            headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+            summaries = window.getContent();
+        } else {
+            LOG.debug("REST request to get a page of Note summaries of Tag : {}", id);
+            Page<NoteSummaryDTO> page = noteService.findAllSummariesByTag(id, pageable);
+            headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            summaries = page.getContent();
+        }
+        return ResponseEntity.ok().headers(headers).body(summaries);
+    }
+
+    /**
+     * {@code PUT  /tags/:id/notes/:noteId} : tag the "noteId" note with the "id" tag.
+     * <p>
+     * Only the note is updated, so tagging a note costs the same whatever the number of notes of the tag.
+     *
+     * @param id the id of the tag.
+     * @param noteId the id of the note.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}
+     * if the tag or the note does not exist.
+     */
+    @PutMapping("/{id}/notes/{noteId}")
+    public ResponseEntity<Void> addTagNote(@PathVariable("id") Long id, @PathVariable("noteId") Long noteId) {
+        LOG.debug("REST request to tag Note : {} with Tag : {}", noteId, id);
+        if (!tagRepository.existsById(id) || !noteService.addTag(noteId, id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code DELETE  /tags/:id/notes/:noteId} : untag the "noteId" note from the "id" tag.
+     *
+     * @param id the id of the tag.
+     * @param noteId the id of the note.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}
+     * if the note does not exist.
+     */
+    @DeleteMapping("/{id}/notes/{noteId}")
+    public ResponseEntity<Void> removeTagNote(@PathVariable("id") Long id, @PathVariable("noteId") Long noteId) {
+        LOG.debug("REST request to untag Note : {} from Tag : {}", noteId, id);
+        if (!noteService.removeTag(noteId, id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code POST  /tags/:id/_merge-into/:targetId} : merge the "id" tag into the "targetId" tag.
+     * <p>
+     * The notes carrying the merged tag carry the target tag instead, and the merged tag is deleted. The notes are
+     * retagged by set-based statements without being loaded, whatever their number.
+     *
+     * @param id the id of the tag to merge.
+     * @param targetId the id of the tag to merge it into.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the target tagDTO,
+     * or with status {@code 400 (Bad Request)} if both tags are the same, or with status {@code 404 (Not Found)} if a tag does not exist.
+     */
+    @PostMapping("/{id}/_merge-into/{targetId}")
+    public ResponseEntity<TagDTO> mergeTag(@PathVariable("id") Long id, @PathVariable("targetId") Long targetId) {
+        LOG.debug("REST request to merge Tag : {} into Tag : {}", id, targetId);
+        if (Objects.equals(id, targetId)) {
+            throw new BadRequestAlertException("A tag cannot be merged into itself", ENTITY_NAME, "mergeinvalid");
+        }
+        if (!tagRepository.existsById(id) || !tagRepository.existsById(targetId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        int notes = noteRetagService.merge(id, targetId);
+        LOG.debug("Merged Tag : {} of {} Notes into Tag : {}", id, notes, targetId);
+        return tagService
+            .findOne(targetId)
+            .map(tag ->
+                ResponseEntity.ok()
+                    .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
+                    .body(tag)
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -174,4 +394,8 @@ public class TagResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static String pageTag(Page<TagDTO> page) {
+        return EntityTagUtil.pageTag(page, tag -> tag.getId() + ":" + tag.getVersion());
+    }
 }
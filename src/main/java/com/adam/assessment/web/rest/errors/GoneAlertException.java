@@ -0,0 +1,25 @@
+package com.adam.assessment.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class GoneAlertException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public GoneAlertException(String defaultMessage, String entityName, String errorKey) {
+        super(
+            HttpStatus.GONE,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.GONE.value())
+                .withType(ErrorConstants.DEFAULT_TYPE)
+                .withTitle(defaultMessage)
+                .withProperty("message", "error." + errorKey)
+                .withProperty("params", entityName)
+                .build(),
+            null
+        );
+    }
+}
@@ -0,0 +1,85 @@
+package com.adam.assessment.web.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ETag;
+
+/**
+ * Utility class for entity tags derived from optimistic locking versions.
+ * <p>
+ * The tags are strong: they change whenever the version of the entity changes, so a client holding the
+ * current tag of an entity or a page can be answered {@code 304 (Not Modified)} without reading the entities.
+ */
+public final class EntityTagUtil {
+
+    private static final int DIGEST_BYTES = 12;
+
+    private EntityTagUtil() {}
+
+    /**
+     * @param version the version of an entity.
+     * @return the entity tag of the entity.
+     */
+    public static String versionTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param page a page of entities.
+     * @param itemTag the function giving a tag unique to the id and version of each entity.
+     * @param <T> the type of the entities.
+     * @return the entity tag of the page, which also changes with the total number of entities.
+     */
+    public static <T> String pageTag(Page<T> page, Function<T, String> itemTag) {
+        StringBuilder items = new StringBuilder()
+            .append(page.getNumber())
+            .append('/')
+            .append(page.getSize())
+            .append('/')
+            .append(page.getTotalElements());
+        for (T item : page) {
+            items.append(',').append(itemTag.apply(item));
+        }
+        return "\"" + digest(items) + "\"";
+    }
+
+    /**
+     * Check a {@code If-None-Match} header, with the weak comparison it requires.
+     *
+     * @param ifNoneMatch the value of the header.
+     * @param tag the current entity tag.
+     * @return whether the client already holds the current representation.
+     */
+    public static boolean matches(String ifNoneMatch, String tag) {
+        return matches(ifNoneMatch, tag, false);
+    }
+
+    /**
+     * Check a {@code If-Match} header, with the strong comparison it requires.
+     *
+     * @param ifMatch the value of the header.
+     * @param tag the current entity tag.
+     * @return whether the client holds the current representation.
+     */
+    public static boolean matchesStrongly(String ifMatch, String tag) {
+        return matches(ifMatch, tag, true);
+    }
+
+    private static boolean matches(String header, String tag, boolean strong) {
+        ETag current = ETag.create(tag);
+        return ETag.parse(header).stream().anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, strong));
+    }
+
+    private static String digest(CharSequence value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, DIGEST_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
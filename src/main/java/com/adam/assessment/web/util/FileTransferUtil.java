@@ -0,0 +1,56 @@
+package com.adam.assessment.web.util;
+
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Utility class writing a range of a file to a response.
+ * <p>
+ * When the range runs to the end of the file and the output stream of the response is Undertow's own, not wrapped by a
+ * filter, the file is handed to the connection, which sends it with {@code sendfile} where the platform supports it.
+ * Otherwise, for a bounded range or a wrapped response, the range is copied through a heap buffer into the output stream
+ * of the response by {@link FileChannel#transferTo}.
+ */
+public final class FileTransferUtil {
+
+    private FileTransferUtil() {}
+
+    /**
+     * Write a range of a file to a response, whose headers must all be set.
+     *
+     * @param file the file.
+     * @param position the position of the first byte of the range.
+     * @param count the number of bytes of the range.
+     * @param response the response.
+     * @throws IOException if the range could not be written.
+     */
+    public static void transfer(FileChannel file, long position, long count, HttpServletResponse response) throws IOException {
+        // commits the headers, including the ones wrappers of the response only write on commit
+        response.flushBuffer();
+        if (count == 0) {
+            return;
+        }
+        ServletOutputStream stream = response.getOutputStream();
+        // Undertow's stream sends the file up to its end, and only when no wrapper of the response has to see the bytes
+        if (stream instanceof ServletOutputStreamImpl undertowOut && position + count == file.size()) {
+            file.position(position);
+            undertowOut.transferFrom(file);
+            return;
+        }
+        WritableByteChannel out = Channels.newChannel(stream);
+        long end = position + count;
+        while (position < end) {
+            long transferred = file.transferTo(position, end - position, out);
+            if (transferred <= 0) {
+                throw new EOFException("File truncated at " + position + " bytes");
+            }
+            position += transferred;
+        }
+    }
+}
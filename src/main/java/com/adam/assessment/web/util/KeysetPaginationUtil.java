@@ -0,0 +1,130 @@
+package com.adam.assessment.web.util;
+
+import com.adam.assessment.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (cursor) pagination.
+ * <p>
+ * The cursor handed to clients is an opaque, URL-safe token encoding the sort keys and the id of the
+ * last element of a page. The next page is then read with a seek predicate on those keys instead of an
+ * offset, so it costs the same however deep the client scrolls, and no total count is computed.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAMETER = "after";
+
+    private static final String ID_PROPERTY = "id";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {};
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Validate the requested sort and make it total by appending the id as the final key.
+     *
+     * @param sort the requested sort.
+     * @param properties the properties that can be used as keys, with their types.
+     * @param entityName the name of the paginated entity, used in error messages.
+     * @return the sort to scroll with.
+     */
+    public static Sort keysetSort(Sort sort, Map<String, Class<?>> properties, String entityName) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction direction = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            if (!properties.containsKey(order.getProperty())) {
+                throw new BadRequestAlertException(
+                    "Cursor pagination cannot sort on " + order.getProperty(),
+                    entityName,
+                    "cursorsortinvalid"
+                );
+            }
+            orders.add(order);
+            direction = order.getDirection();
+            if (ID_PROPERTY.equals(order.getProperty())) {
+                return Sort.by(orders);
+            }
+        }
+        orders.add(new Sort.Order(direction, ID_PROPERTY));
+        return Sort.by(orders);
+    }
+
+    /**
+     * Decode a cursor into the position to scroll from.
+     *
+     * @param cursor the cursor sent by the client, an empty cursor denotes the first page.
+     * @param sort the sort returned by {@link #keysetSort}.
+     * @param properties the properties that can be used as keys, with their types.
+     * @param entityName the name of the paginated entity, used in error messages.
+     * @return the keyset position.
+     */
+    public static KeysetScrollPosition decodeCursor(String cursor, Sort sort, Map<String, Class<?>> properties, String entityName) {
+        if (cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            Map<String, Object> encodedKeys = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Sort.Order order : sort) {
+                Object value = encodedKeys.get(order.getProperty());
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing key " + order.getProperty());
+                }
+                keys.put(order.getProperty(), MAPPER.convertValue(value, properties.get(order.getProperty())));
+            }
+            if (keys.size() != encodedKeys.size()) {
+                throw new IllegalArgumentException("Unexpected keys " + encodedKeys.keySet());
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Encode a keyset position into a cursor.
+     *
+     * @param position the position after the last element of a page.
+     * @return the cursor.
+     */
+    public static String encodeCursor(ScrollPosition position) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(((KeysetScrollPosition) position).getKeys()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Generate the {@code Link} header pointing to the next window, if there is one.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param window the current window.
+     * @param <T> the type of the elements.
+     * @return the http headers.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Window<T> window) {
+        HttpHeaders headers = new HttpHeaders();
+        if (window.hasNext() && !window.isEmpty()) {
+            String next = uriBuilder.replaceQueryParam(CURSOR_PARAMETER, encodeCursor(window.positionAt(window.size() - 1))).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
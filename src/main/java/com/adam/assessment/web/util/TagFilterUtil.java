@@ -0,0 +1,35 @@
+package com.adam.assessment.web.util;
+
+import com.adam.assessment.service.search.TagFilter;
+import com.adam.assessment.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Utility class for the {@code tags} and {@code match} request parameters filtering notes on their tags.
+ */
+public final class TagFilterUtil {
+
+    public static final String TAGS_PARAMETER = "tags";
+
+    public static final String MATCH_PARAMETER = "match";
+
+    public static final String DEFAULT_MATCH = "all";
+
+    private TagFilterUtil() {}
+
+    /**
+     * Parse the tag filter of a request.
+     *
+     * @param tags the comma-separated names of the tags, prefixed with {@code -} for the excluded ones.
+     * @param match {@code all} or {@code any}, whether the notes must carry all the included tags or any of them.
+     * @param entityName the name of the filtered entity, used in error messages.
+     * @return the filter.
+     */
+    public static TagFilter parse(String tags, String match, String entityName) {
+        boolean matchAll = switch (match) {
+            case "all" -> true;
+            case "any" -> false;
+            default -> throw new BadRequestAlertException("Invalid tag match, expected all or any", entityName, "tagmatchinvalid");
+        };
+        return TagFilter.parse(tags, matchAll);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Web layer utilities.
+ */
+package com.adam.assessment.web.util;
@@ -0,0 +1,39 @@
+package com.adam.assessment.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+
+class NoteContentCodecTest {
+
+    private static final String CONTENT = "Meeting notes — décisions 🚀\n".repeat(200);
+
+    @Test
+    void deflatedContentIsInflatedBack() {
+        for (int level = Deflater.BEST_SPEED; level <= Deflater.BEST_COMPRESSION; level++) {
+            byte[] deflated = NoteContentCodec.deflate(CONTENT, level);
+            assertThat(deflated.length).isLessThan(CONTENT.length());
+            assertThat(NoteContentCodec.inflate(deflated)).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void inflateStopsAtMaxLength() {
+        byte[] deflated = NoteContentCodec.deflate(CONTENT, Deflater.BEST_SPEED);
+        assertThat(NoteContentCodec.inflate(deflated, 20)).isEqualTo(CONTENT.substring(0, 20));
+        assertThat(NoteContentCodec.inflate(deflated, CONTENT.length() * 2)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void emptyContentIsInflatedBack() {
+        assertThat(NoteContentCodec.inflate(NoteContentCodec.deflate("", Deflater.BEST_SPEED))).isEmpty();
+    }
+
+    @Test
+    void decodePrefersDeflatedContent() {
+        assertThat(NoteContentCodec.decode("plain", null)).isEqualTo("plain");
+        assertThat(NoteContentCodec.decode(null, NoteContentCodec.deflate("deflated", Deflater.BEST_SPEED))).isEqualTo("deflated");
+        assertThat(NoteContentCodec.decode(null, null)).isNull();
+    }
+}
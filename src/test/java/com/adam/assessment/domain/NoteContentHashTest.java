@@ -0,0 +1,28 @@
+package com.adam.assessment.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class NoteContentHashTest {
+
+    @Test
+    void shouldHashWithMurmur3() {
+        assertThat(NoteContentHash.of("The quick brown fox jumps over the lazy dog")).isEqualTo("e34bbc7bbc071b6c7a433ca9c49a9347");
+        assertThat(NoteContentHash.of("é".repeat(17))).hasSize(32).isNotEqualTo(NoteContentHash.of("é".repeat(16)));
+    }
+
+    @Test
+    void shouldNotHashEmptyContents() {
+        assertThat(NoteContentHash.of(null)).isNull();
+        assertThat(NoteContentHash.of("")).isNull();
+    }
+
+    @Test
+    void shouldKeepHashOfContent() {
+        Note note = new Note().content("same");
+        assertThat(note.getContentHash()).isEqualTo(NoteContentHash.of("same"));
+        note.setContent(null);
+        assertThat(note.getContentHash()).isNull();
+    }
+}
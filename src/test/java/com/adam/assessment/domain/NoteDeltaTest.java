@@ -0,0 +1,69 @@
+package com.adam.assessment.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class NoteDeltaTest {
+
+    private static final String CONTENT = "Meeting notes — décisions 🚀 ".repeat(10) + "\n" + randomText(new Random(42), 20_000);
+
+    @Test
+    void smallEditsTakeAFewBytes() {
+        String edited = CONTENT.substring(0, 5000) + "inserted words" + CONTENT.substring(5000, 12_000) + CONTENT.substring(12_100);
+
+        byte[] delta = diffAndApply(CONTENT, edited);
+
+        assertThat(delta.length).isLessThan(40);
+        assertThat(diffAndApply(CONTENT, CONTENT)).hasSizeLessThan(8);
+        assertThat(diffAndApply(CONTENT, CONTENT + " appended")).hasSizeLessThan(20);
+    }
+
+    @Test
+    void movedPassagesAreCopied() {
+        String moved = CONTENT.substring(10_000) + CONTENT.substring(0, 10_000);
+
+        assertThat(diffAndApply(CONTENT, moved).length).isLessThan(40);
+    }
+
+    @Test
+    void unrelatedContentsAreInserted() {
+        diffAndApply(CONTENT, randomText(new Random(7), 5000));
+        diffAndApply("", CONTENT);
+        diffAndApply(CONTENT, "");
+        diffAndApply("short", "shorter");
+        diffAndApply("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa", "aaaaaaaaaaaaaaaaaaaabaaaaaaaaaaaaaaaaaaaaaaaaa");
+    }
+
+    @Test
+    void corruptDeltasAreRejected() {
+        byte[] base = CONTENT.getBytes(StandardCharsets.UTF_8);
+        byte[] delta = NoteDelta.diff(base, (CONTENT + "!").getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> NoteDelta.apply(base, Arrays.copyOf(delta, delta.length - 1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NoteDelta.apply(Arrays.copyOf(base, 100), delta)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] diffAndApply(String base, String target) {
+        byte[] baseBytes = base.getBytes(StandardCharsets.UTF_8);
+        byte[] delta = NoteDelta.diff(baseBytes, target.getBytes(StandardCharsets.UTF_8));
+        assertThat(new String(NoteDelta.apply(baseBytes, delta), StandardCharsets.UTF_8)).isEqualTo(target);
+        return delta;
+    }
+
+    private static String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            int length = 2 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            text.append(i % 12 == 11 ? '\n' : ' ');
+        }
+        return text.toString();
+    }
+}
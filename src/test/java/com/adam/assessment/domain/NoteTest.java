@@ -42,4 +42,45 @@ class NoteTest {
         note.setTags(new HashSet<>());
         assertThat(note.getTags()).doesNotContain(tagBack);
     }
+
+    @Test
+    void deflateContentTest() {
+        String longContent = "lorem ipsum ".repeat(500);
+        Note note = new Note().content(longContent);
+
+        note.deflateContent(longContent.length() + 1, 1);
+        assertThat(note.getContent()).isEqualTo(longContent);
+
+        note.deflateContent(1024, 1);
+        assertThat(note.getContent()).isEqualTo(longContent);
+
+        note.setContent("short");
+        note.deflateContent(1, 1);
+        assertThat(note.getContent()).isEqualTo("short");
+    }
+
+    @Test
+    void snipContentTest() {
+        String longContent = "lorem ipsum ".repeat(500);
+        Note note = new Note().content(longContent);
+
+        note.snipContent(20);
+        assertThat(note.getContentSnippet()).isEqualTo(longContent.substring(0, 20));
+
+        note.deflateContent(1024, 1);
+        note.snipContent(40);
+        assertThat(note.getContentSnippet()).isEqualTo(longContent.substring(0, 20));
+
+        note.setContent(longContent);
+        note.snipContent(Integer.MAX_VALUE);
+        assertThat(note.getContentSnippet()).hasSize(Note.MAX_SNIPPET_LENGTH);
+
+        note.setContent("short");
+        note.snipContent(20);
+        assertThat(note.getContentSnippet()).isEqualTo("short");
+
+        note.setContent(null);
+        note.snipContent(20);
+        assertThat(note.getContentSnippet()).isNull();
+    }
 }
@@ -57,8 +57,6 @@ public class TagAsserts {
      * @param actual the actual entity
      */
     public static void assertTagUpdatableRelationshipsEquals(Tag expected, Tag actual) {
-        assertThat(actual)
-            .as("Verify Tag relationships")
-            .satisfies(a -> assertThat(a.getNotes()).as("check notes").isEqualTo(expected.getNotes()));
+        // empty method
     }
 }
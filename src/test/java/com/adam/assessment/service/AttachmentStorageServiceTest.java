@@ -0,0 +1,86 @@
+package com.adam.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.repository.AttachmentRepository;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttachmentStorageServiceTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    private Path directory;
+
+    private AttachmentRepository attachmentRepository;
+
+    private AttachmentStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getAttachments().setDirectory(directory.toString());
+        properties.getAttachments().setOrphanRetention(Duration.ofHours(1));
+        attachmentRepository = mock(AttachmentRepository.class);
+        service = new AttachmentStorageService(attachmentRepository, properties);
+    }
+
+    @Test
+    void shouldStoreContentsOnceByDigest() throws Exception {
+        AttachmentStorageService.StoredContent first = service.store(file -> Files.writeString(file, "hello"));
+        AttachmentStorageService.StoredContent second = service.store(file -> Files.writeString(file, "hello"));
+
+        assertThat(first).isEqualTo(new AttachmentStorageService.StoredContent(HELLO_SHA256, 5));
+        assertThat(second).isEqualTo(first);
+        assertThat(storedFiles()).containsExactly(directory.resolve("2c/f2/" + HELLO_SHA256));
+        try (FileChannel channel = service.open(HELLO_SHA256)) {
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            channel.read(buffer, 1);
+            assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8)).isEqualTo("ello");
+        }
+    }
+
+    @Test
+    void shouldDeleteOldUnreferencedContents() throws Exception {
+        AttachmentStorageService.StoredContent referenced = service.store(file -> Files.writeString(file, "hello"));
+        AttachmentStorageService.StoredContent orphan = service.store(file -> Files.writeString(file, "bye"));
+        AttachmentStorageService.StoredContent recent = service.store(file -> Files.writeString(file, "new"));
+        Path temporary = Files.writeString(directory.resolve("tmp/upload-1.tmp"), "partial");
+        FileTime old = FileTime.from(Instant.now().minus(Duration.ofDays(1)));
+        for (String sha256 : List.of(referenced.sha256(), orphan.sha256())) {
+            Files.setLastModifiedTime(path(sha256), old);
+        }
+        Files.setLastModifiedTime(temporary, old);
+        when(attachmentRepository.findReferencedDigests(anyCollection())).thenReturn(List.of(referenced.sha256()));
+
+        assertThat(service.deleteOrphans()).isEqualTo(2);
+        assertThat(storedFiles()).containsExactlyInAnyOrder(path(referenced.sha256()), path(recent.sha256()));
+    }
+
+    private Path path(String sha256) {
+        return directory.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private List<Path> storedFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
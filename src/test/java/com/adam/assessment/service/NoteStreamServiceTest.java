@@ -0,0 +1,142 @@
+package com.adam.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import com.adam.assessment.config.ApplicationProperties;
+import com.adam.assessment.domain.Note;
+import com.adam.assessment.service.dto.NoteStreamEventDTO;
+import com.adam.assessment.service.event.NoteChangedEvent;
+import com.adam.assessment.service.event.NotesRetaggedEvent;
+import com.adam.assessment.service.event.TagChangedEvent;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NoteStreamServiceTest {
+
+    private NoteStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getStream().setBufferSize(4);
+        properties.getStream().setMaxSubscribers(1);
+        properties.getStream().setDispatchThreads(1);
+        service = new NoteStreamService(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldDeliverEventsInOrder() throws Exception {
+        RecordingSink sink = new RecordingSink(3, null);
+        service.subscribe(sink).orElseThrow();
+
+        service.onNoteChanged(NoteChangedEvent.saved(new Note().id(1L).title("a")));
+        service.onTagChanged(TagChangedEvent.deleted(2L));
+        service.onNoteChanged(NoteChangedEvent.deleted(1L));
+
+        assertThat(sink.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.events)
+            .extracting(NoteStreamEventDTO::getKind, NoteStreamEventDTO::getType, NoteStreamEventDTO::getId)
+            .containsExactly(
+                tuple(NoteStreamEventDTO.Kind.NOTE, NoteStreamEventDTO.Type.SAVED, 1L),
+                tuple(NoteStreamEventDTO.Kind.TAG, NoteStreamEventDTO.Type.DELETED, 2L),
+                tuple(NoteStreamEventDTO.Kind.NOTE, NoteStreamEventDTO.Type.DELETED, 1L)
+            );
+    }
+
+    @Test
+    void shouldSignalResyncToSlowConsumers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(3, release);
+        service.subscribe(sink).orElseThrow();
+
+        // the first event blocks the sink, the fifth one following it overflows its buffer of four
+        service.onNoteChanged(NoteChangedEvent.deleted(1L));
+        assertThat(sink.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long id = 2; id <= 7; id++) {
+            service.onNoteChanged(NoteChangedEvent.deleted(id));
+        }
+        release.countDown();
+
+        assertThat(sink.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.events)
+            .extracting(NoteStreamEventDTO::getKind, NoteStreamEventDTO::getId)
+            .containsExactly(
+                tuple(NoteStreamEventDTO.Kind.NOTE, 1L),
+                tuple(NoteStreamEventDTO.Kind.RESYNC, null),
+                tuple(NoteStreamEventDTO.Kind.NOTE, 7L)
+            );
+    }
+
+    @Test
+    void shouldSignalResyncForRetagsLargerThanTheBuffer() throws Exception {
+        RecordingSink sink = new RecordingSink(2, null);
+        NoteStreamService.Subscription subscription = service.subscribe(sink).orElseThrow();
+        service.onNotesRetagged(new NotesRetaggedEvent(List.of(1L, 2L), List.of(10L), List.of()));
+        assertThat(sink.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.events).extracting(NoteStreamEventDTO::getKind, NoteStreamEventDTO::getId).containsExactly(
+            tuple(NoteStreamEventDTO.Kind.NOTE, 1L),
+            tuple(NoteStreamEventDTO.Kind.NOTE, 2L)
+        );
+        subscription.cancel();
+
+        RecordingSink resyncSink = new RecordingSink(1, null);
+        service.subscribe(resyncSink).orElseThrow();
+        service.onNotesRetagged(new NotesRetaggedEvent(List.of(1L, 2L, 3L, 4L, 5L), List.of(10L), List.of()));
+        assertThat(resyncSink.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(resyncSink.events).extracting(NoteStreamEventDTO::getKind).containsExactly(NoteStreamEventDTO.Kind.RESYNC);
+    }
+
+    @Test
+    void shouldRejectSubscriptionsOverTheLimit() {
+        NoteStreamService.Subscription subscription = service.subscribe(new RecordingSink(0, null)).orElseThrow();
+        assertThat(service.subscribe(new RecordingSink(0, null))).isEmpty();
+
+        subscription.cancel();
+        assertThat(service.subscribe(new RecordingSink(0, null))).isPresent();
+    }
+
+    private static final class RecordingSink implements NoteStreamService.Sink {
+
+        private final List<NoteStreamEventDTO> events = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private final CountDownLatch received;
+
+        private final CountDownLatch release;
+
+        private RecordingSink(int expectedEvents, CountDownLatch release) {
+            this.received = new CountDownLatch(expectedEvents);
+            this.release = release;
+        }
+
+        @Override
+        public void send(NoteStreamEventDTO event) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(event);
+            received.countDown();
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,68 @@
+package com.adam.assessment.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class CsvNoteReaderTest {
+
+    @Test
+    void shouldReadTheFakeDataLayout() throws Exception {
+        CsvNoteReader reader = new CsvNoteReader(
+            new StringReader(
+                "id;title;content;created_at;last_modified_at\n" +
+                "1;pfft;some content;2025-05-28T00:07:18;2025-05-28T12:17:27\n" +
+                "\n" +
+                "2;\"quoted; \"\"title\"\"\";\"two\nlines\";;\n"
+            ),
+            1000
+        );
+
+        ImportedNote first = reader.next();
+        assertThat(first.getSource()).isEqualTo("line 2");
+        assertThat(first.getTitle()).isEqualTo("pfft");
+        assertThat(first.getContent()).isEqualTo("some content");
+        assertThat(first.getCreatedAt()).isEqualTo(Instant.parse("2025-05-28T00:07:18Z"));
+        assertThat(first.getLastModifiedAt()).isEqualTo(Instant.parse("2025-05-28T12:17:27Z"));
+
+        ImportedNote second = reader.next();
+        assertThat(second.getSource()).isEqualTo("line 4");
+        assertThat(second.getTitle()).isEqualTo("quoted; \"title\"");
+        assertThat(second.getContent()).isEqualTo("two\nlines");
+        assertThat(second.getCreatedAt()).isNull();
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldReadTagsAndDetectTheDelimiter() throws Exception {
+        CsvNoteReader reader = new CsvNoteReader(new StringReader("Title,Body,Tags\r\nfirst,text,\"java, spring boot\"\r\n"), 1000);
+
+        ImportedNote note = reader.next();
+        assertThat(note.getTitle()).isEqualTo("first");
+        assertThat(note.getContent()).isEqualTo("text");
+        assertThat(note.getTagNames()).containsExactly("java", "spring boot");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldSkipInvalidRecords() throws Exception {
+        CsvNoteReader reader = new CsvNoteReader(
+            new StringReader("title;content;created_at\nlong;" + "x".repeat(100) + ";\nbad date;;yesterday\nlast;;\n"),
+            50
+        );
+
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidNoteException.class).hasMessageContaining("line 2");
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidNoteException.class).hasMessageContaining("line 3");
+        assertThat(reader.next().getTitle()).isEqualTo("last");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldRequireATitleColumn() {
+        assertThatThrownBy(() -> new CsvNoteReader(new StringReader("id;content\n1;text\n"), 1000).next()).isInstanceOf(IOException.class);
+    }
+}
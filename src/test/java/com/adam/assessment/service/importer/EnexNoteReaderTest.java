@@ -0,0 +1,56 @@
+package com.adam.assessment.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class EnexNoteReaderTest {
+
+    private static final String EXPORT =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+        "<!DOCTYPE en-export SYSTEM \"http://xml.evernote.com/pub/evernote-export3.dtd\">\n" +
+        "<en-export export-date=\"20240101T000000Z\" application=\"Evernote\">\n" +
+        "<note><title>Shopping</title>" +
+        "<content><![CDATA[<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+        "<!DOCTYPE en-note SYSTEM \"http://xml.evernote.com/pub/enml2.dtd\">" +
+        "<en-note><div>Buy:</div><ul><li>milk &amp; eggs</li><li>bread</li></ul><div><en-todo checked=\"true\"/>done&nbsp;&#233;</div></en-note>]]></content>" +
+        "<created>20130730T205204Z</created><updated>20130731T080000Z</updated>" +
+        "<tag>home</tag><tag>errands</tag>" +
+        "<note-attributes><author>someone</author></note-attributes>" +
+        "<resource><data encoding=\"base64\">" +
+        "QUJD".repeat(1000) +
+        "</data><mime>image/png</mime></resource>" +
+        "</note>\n" +
+        "<note><title>Second</title><content><![CDATA[<en-note>text</en-note>]]></content><created>yesterday</created></note>\n" +
+        "<note><title>Third</title><content><![CDATA[<en-note>more text</en-note>]]></content></note>\n" +
+        "</en-export>\n";
+
+    @Test
+    void shouldReadNotesAndSkipResources() throws Exception {
+        EnexNoteReader reader = new EnexNoteReader(new ByteArrayInputStream(EXPORT.getBytes(StandardCharsets.UTF_8)), 1000);
+
+        ImportedNote note = reader.next();
+        assertThat(note.getTitle()).isEqualTo("Shopping");
+        assertThat(note.getContent()).isEqualTo("Buy:\n- milk & eggs\n- bread\n[x] done é");
+        assertThat(note.getCreatedAt()).isEqualTo(Instant.parse("2013-07-30T20:52:04Z"));
+        assertThat(note.getLastModifiedAt()).isEqualTo(Instant.parse("2013-07-31T08:00:00Z"));
+        assertThat(note.getTagNames()).containsExactly("home", "errands");
+
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidNoteException.class).hasMessageContaining("note 2");
+        assertThat(reader.next().getTitle()).isEqualTo("Third");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldSkipNotesLongerThanTheLimit() throws Exception {
+        EnexNoteReader reader = new EnexNoteReader(new ByteArrayInputStream(EXPORT.getBytes(StandardCharsets.UTF_8)), 40);
+
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidNoteException.class).hasMessageContaining("longer than");
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidNoteException.class).hasMessageContaining("invalid date");
+        assertThat(reader.next().getContent()).isEqualTo("more text");
+    }
+}
@@ -0,0 +1,75 @@
+package com.adam.assessment.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+
+class MarkdownZipNoteReaderTest {
+
+    @Test
+    void shouldReadTheMarkdownExport() throws Exception {
+        MarkdownZipNoteReader reader = new MarkdownZipNoteReader(
+            zip(
+                "1051-first.md",
+                "---\nid: 1051\ntitle: \"A \\\"quoted\\\" title\"\ncreatedAt: 2025-05-28T01:48:22Z\n" +
+                "tags: [\"java\",\"spring, boot\"]\n---\n\nThe content\n",
+                "images/",
+                "",
+                "images/logo.png",
+                "not a note",
+                "notes/obsidian.md",
+                "---\ndate: 2024-03-01\ntags:\n  - one\n  - 'two'\n---\n# Heading title\n\nbody",
+                "plain.markdown",
+                "just text"
+            ),
+            1000
+        );
+
+        ImportedNote exported = reader.next();
+        assertThat(exported.getSource()).isEqualTo("1051-first.md");
+        assertThat(exported.getTitle()).isEqualTo("A \"quoted\" title");
+        assertThat(exported.getContent()).isEqualTo("The content");
+        assertThat(exported.getCreatedAt()).isEqualTo(Instant.parse("2025-05-28T01:48:22Z"));
+        assertThat(exported.getTagNames()).containsExactly("java", "spring, boot");
+
+        ImportedNote obsidian = reader.next();
+        assertThat(obsidian.getTitle()).isEqualTo("Heading title");
+        assertThat(obsidian.getContent()).isEqualTo("# Heading title\n\nbody");
+        assertThat(obsidian.getCreatedAt()).isEqualTo(Instant.parse("2024-03-01T00:00:00Z"));
+        assertThat(obsidian.getTagNames()).containsExactly("one", "two");
+
+        ImportedNote plain = reader.next();
+        assertThat(plain.getTitle()).isEqualTo("plain");
+        assertThat(plain.getContent()).isEqualTo("just text");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldSkipNotesLongerThanTheLimit() throws Exception {
+        MarkdownZipNoteReader reader = new MarkdownZipNoteReader(zip("long.md", "x".repeat(100), "short.md", "short"), 50);
+
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidNoteException.class).hasMessageContaining("long.md");
+        assertThat(reader.next().getContent()).isEqualTo("short");
+        assertThat(reader.next()).isNull();
+    }
+
+    private static ByteArrayInputStream zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
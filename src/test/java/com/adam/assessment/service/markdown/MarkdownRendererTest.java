@@ -0,0 +1,137 @@
+package com.adam.assessment.service.markdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+
+class MarkdownRendererTest {
+
+    @Test
+    void shouldRenderBlocks() {
+        String markdown = String.join(
+            "\n",
+            "# Title #",
+            "",
+            "Some text",
+            "on two lines  ",
+            "and a break.",
+            "",
+            "Sub title",
+            "---",
+            "",
+            "> quoted",
+            "still quoted",
+            "",
+            "***",
+            "",
+            "```java",
+            "if (a < b) {}",
+            "```",
+            "",
+            "    indented <code>"
+        );
+
+        assertThat(MarkdownRenderer.render(markdown)).isEqualTo(
+            String.join(
+                "\n",
+                "<h1>Title</h1>",
+                "<p>Some text",
+                "on two lines<br />",
+                "and a break.</p>",
+                "<h2>Sub title</h2>",
+                "<blockquote>",
+                "<p>quoted",
+                "still quoted</p>",
+                "</blockquote>",
+                "<hr />",
+                "<pre><code class=\"language-java\">if (a &lt; b) {}",
+                "</code></pre>",
+                "<pre><code>indented &lt;code&gt;",
+                "</code></pre>",
+                ""
+            )
+        );
+    }
+
+    @Test
+    void shouldRenderLists() {
+        assertThat(MarkdownRenderer.render("- one\n- two\n  - nested\n- three")).isEqualTo(
+            "<ul>\n<li>one</li>\n<li>two\n<ul>\n<li>nested</li>\n</ul></li>\n<li>three</li>\n</ul>\n"
+        );
+        assertThat(MarkdownRenderer.render("3. three\n\n4. four")).isEqualTo(
+            "<ol start=\"3\">\n<li>\n<p>three</p>\n</li>\n<li>\n<p>four</p>\n</li>\n</ol>\n"
+        );
+        assertThat(MarkdownRenderer.render("text\n- item")).isEqualTo("<p>text</p>\n<ul>\n<li>item</li>\n</ul>\n");
+    }
+
+    @Test
+    void shouldRenderInlines() {
+        assertThat(MarkdownRenderer.render("*em* **strong** ***both*** ~~del~~ `a < b` snake_case_name")).isEqualTo(
+            "<p><em>em</em> <strong>strong</strong> <strong><em>both</em></strong> <del>del</del> <code>a &lt; b</code> snake_case_name</p>\n"
+        );
+        assertThat(MarkdownRenderer.render("\\*not em\\* &copy; & 2 * 3")).isEqualTo("<p>*not em* &copy; &amp; 2 * 3</p>\n");
+    }
+
+    @Test
+    void shouldRenderLinks() {
+        assertThat(MarkdownRenderer.render("[a *link*](https://example.com/a_(b) \"Title\")")).isEqualTo(
+            "<p><a href=\"https://example.com/a_(b)\" title=\"Title\" rel=\"nofollow noopener noreferrer\">a <em>link</em></a></p>\n"
+        );
+        assertThat(MarkdownRenderer.render("![logo](/img/logo.png)")).isEqualTo("<p><img src=\"/img/logo.png\" alt=\"logo\" /></p>\n");
+        assertThat(MarkdownRenderer.render("<mail@example.com> see www.example.com.")).isEqualTo(
+            "<p><a href=\"mailto:mail@example.com\" rel=\"nofollow noopener noreferrer\">mail@example.com</a> see " +
+            "<a href=\"http://www.example.com\" rel=\"nofollow noopener noreferrer\">www.example.com</a>.</p>\n"
+        );
+    }
+
+    @Test
+    void shouldSanitizeHtmlAndUrls() {
+        assertThat(MarkdownRenderer.render("<script>alert(1)</script>")).isEqualTo("<p>&lt;script&gt;alert(1)&lt;/script&gt;</p>\n");
+        assertThat(MarkdownRenderer.render("[click](javascript:alert(1))")).isEqualTo("<p>click</p>\n");
+        assertThat(MarkdownRenderer.render("[click]( JavaScript:alert(1))")).isEqualTo("<p>click</p>\n");
+        assertThat(MarkdownRenderer.render("![x](data:image/svg+xml,abc)")).isEqualTo("<p>x</p>\n");
+        assertThat(MarkdownRenderer.render("[x](\"onmouseover=\"alert(1))")).isEqualTo(
+            "<p><a href=\"&quot;onmouseover=&quot;alert(1)\" rel=\"nofollow noopener noreferrer\">x</a></p>\n"
+        );
+        assertThat(MarkdownRenderer.render("```\"><script>\n```")).isEqualTo("<pre><code class=\"language-script\"></code></pre>\n");
+    }
+
+    @Test
+    void shouldRenderPathologicalInputsInLinearTime() {
+        assertScalesLinearly(n -> "*a ".repeat(n), 25_000);
+        assertScalesLinearly(n -> "[".repeat(n), 50_000);
+        assertScalesLinearly(n -> "[a](".repeat(n), 12_500);
+        assertScalesLinearly(n -> "`a ``b ".repeat(n), 12_500);
+        assertScalesLinearly(n -> "(http://(".repeat(n), 12_500);
+        assertScalesLinearly(n -> "> ".repeat(n) + "deep", 5_000);
+        assertScalesLinearly(n -> "- ".repeat(n) + "deep", 5_000);
+    }
+
+    /**
+     * Doubling the input of a linear renderer doubles its time, where backtracking at least quadruples it. The times are
+     * compared with each other rather than with a limit, so that a loaded machine slows both alike, and the best of a few
+     * runs is kept to leave out warm-up and pauses.
+     */
+    private static void assertScalesLinearly(IntFunction<String> input, int n) {
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            long single = bestRenderTime(input.apply(n));
+            long doubled = bestRenderTime(input.apply(2 * n));
+            assertThat(doubled)
+                .as("render time of %s repeated %d times against %d times", input.apply(1), 2 * n, n)
+                .isLessThan(3 * single + Duration.ofMillis(50).toNanos());
+        });
+    }
+
+    private static long bestRenderTime(String input) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            assertThat(MarkdownRenderer.render(input)).isNotEmpty();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
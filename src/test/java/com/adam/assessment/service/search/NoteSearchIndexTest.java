@@ -0,0 +1,77 @@
+package com.adam.assessment.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NoteSearchIndexTest {
+
+    private NoteSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteSearchIndex(2);
+    }
+
+    @Test
+    void shouldTokenizeOnNonAlphanumericCharacters() {
+        assertThat(NoteTokenizer.tokenize("Hello, World! foo-bar x 42")).containsExactly("hello", "world", "foo", "bar", "42");
+        assertThat(NoteTokenizer.tokenize("a".repeat(NoteTokenizer.MAX_TOKEN_LENGTH + 1) + " kept")).containsExactly("kept");
+        assertThat(NoteTokenizer.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void shouldRankBestMatchesFirst() {
+        index.index(1L, "Groceries", "milk eggs bread");
+        index.index(2L, "Meeting notes", "discussed the bread budget and the milk budget");
+        index.index(3L, "Budget", "quarterly budget review");
+
+        NoteSearchIndex.Result result = index.search("budget", 0, 10);
+
+        assertThat(result.getTotalHits()).isEqualTo(2);
+        assertThat(result.getHits()).extracting(NoteSearchIndex.Hit::getNoteId).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void shouldPageThroughHits() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(id, "note " + id, "shared");
+        }
+
+        NoteSearchIndex.Result result = index.search("shared", 2, 2);
+
+        assertThat(result.getTotalHits()).isEqualTo(5);
+        assertThat(result.getHits()).hasSize(2);
+        assertThat(index.search("shared", 4, 2).getHits()).hasSize(1);
+        assertThat(index.search("shared", 6, 2).getHits()).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceAndRemoveNotes() {
+        index.index(1L, "title", "old words");
+        index.index(1L, "title", "new words");
+
+        assertThat(index.search("old", 0, 10).getTotalHits()).isZero();
+        assertThat(index.search("new", 0, 10).getHits()).extracting(NoteSearchIndex.Hit::getNoteId).containsExactly(1L);
+
+        index.remove(1L);
+
+        assertThat(index.search("new", 0, 10).getTotalHits()).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void shouldKeepResultsAcrossCompaction() {
+        for (long id = 0; id < 5000; id++) {
+            index.index(id, "title", id % 2 == 0 ? "even" : "odd");
+        }
+        for (long id = 0; id < 5000; id += 2) {
+            index.remove(id);
+        }
+
+        assertThat(index.size()).isEqualTo(2500);
+        assertThat(index.search("even", 0, 10).getTotalHits()).isZero();
+        assertThat(index.search("odd", 0, 10).getTotalHits()).isEqualTo(2500);
+    }
+}
@@ -0,0 +1,78 @@
+package com.adam.assessment.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NoteSimilarityIndexTest {
+
+    private static final String TEXT =
+        "The quarterly review covered the budget of every team, the hiring plan for the next two quarters, " +
+        "the migration of the billing service to the new cluster and the roadmap of the mobile application.";
+
+    private NoteSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteSimilarityIndex(16, 4, 3);
+    }
+
+    @Test
+    void shouldIgnoreCasePunctuationAndWhitespace() {
+        assertThat(index.signature("Hello,   World!\n\nfoo bar")).isEqualTo(index.signature("hello world foo-bar"));
+        assertThat(index.signature("!!!")).isNull();
+    }
+
+    @Test
+    void shouldFindEditedCopies() {
+        index.index(1L, TEXT);
+        index.index(2L, TEXT.toUpperCase().replace(", ", " ,\n"));
+        index.index(3L, TEXT.replace("mobile application", "web application and the mobile application"));
+        index.index(4L, "Groceries: milk, eggs, bread, butter and a bag of coffee beans for the office.");
+
+        assertThat(index.similar(1L, 0.5, 10)).extracting(NoteSimilarityIndex.Match::getNoteId).containsExactly(2L, 3L);
+        assertThat(index.similar(1L, 0.5, 10).get(0).getSimilarity()).isEqualTo(1f);
+        assertThat(index.similar(1L, 0.5, 1)).hasSize(1);
+        assertThat(index.similar(4L, 0.5, 10)).isEmpty();
+        assertThat(index.similar(5L, 0.5, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceAndRemoveNotes() {
+        index.index(1L, TEXT);
+        index.index(2L, TEXT);
+        index.index(2L, "something else entirely, with nothing in common with the first note at all");
+
+        assertThat(index.similar(1L, 0.5, 10)).isEmpty();
+
+        index.index(2L, TEXT);
+        index.remove(1L);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.similar(2L, 0.5, 10)).isEmpty();
+        assertThat(index.similar(1L, 0.5, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldEstimateSimilarity() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            text.append("w").append(random.nextInt(100_000)).append(' ');
+        }
+        String original = text.toString();
+        // replaces one word in twenty, changing about one shingle in seven
+        String[] words = original.split(" ");
+        for (int i = 0; i < words.length; i += 20) {
+            words[i] = "changed" + i;
+        }
+        index.index(1L, original);
+        index.index(2L, String.join(" ", words));
+
+        assertThat(index.similar(1L, 0.5, 10)).singleElement().satisfies(match ->
+            assertThat(match.getSimilarity()).isBetween(0.6f, 0.9f)
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package com.adam.assessment.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NoteTagIndexTest {
+
+    private NoteTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteTagIndex();
+        index.index(1L, List.of(10L, 20L));
+        index.index(2L, List.of(10L));
+        index.index(3L, List.of(20L, 30L));
+        index.index(4L, List.of());
+    }
+
+    @Test
+    void shouldMatchAllOrAnyTags() {
+        assertThat(index.match(List.of(10L, 20L), List.of(), true).toArray(0, 10)).containsExactly(1);
+        assertThat(index.match(List.of(10L, 30L), List.of(), false).toArray(0, 10)).containsExactly(1, 2, 3);
+        assertThat(index.match(List.of(10L, 99L), List.of(), true).isEmpty()).isTrue();
+        assertThat(index.match(List.of(10L, 99L), List.of(), false).toArray(0, 10)).containsExactly(1, 2);
+    }
+
+    @Test
+    void shouldExcludeTags() {
+        assertThat(index.match(List.of(20L), List.of(10L), true).toArray(0, 10)).containsExactly(3);
+        assertThat(index.match(List.of(), List.of(20L), true).toArray(0, 10)).containsExactly(2, 4);
+    }
+
+    @Test
+    void shouldReplaceTagsOnReindex() {
+        index.index(1L, List.of(30L));
+
+        assertThat(index.match(List.of(10L), List.of(), true).toArray(0, 10)).containsExactly(2);
+        assertThat(index.match(List.of(30L), List.of(), true).toArray(0, 10)).containsExactly(1, 3);
+    }
+
+    @Test
+    void shouldRetagNotes() {
+        index.retag(List.of(1L, 2L, 99L), List.of(30L), List.of(10L));
+
+        assertThat(index.match(List.of(10L), List.of(), false).isEmpty()).isTrue();
+        assertThat(index.match(List.of(30L), List.of(), true).toArray(0, 10)).containsExactly(1, 2, 3);
+        assertThat(index.match(List.of(20L, 30L), List.of(), true).toArray(0, 10)).containsExactly(1, 3);
+        // a note missing from the index is not added by a retag
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldCountNotesByTag() {
+        assertThat(index.count(null, 10))
+            .extracting(NoteTagIndex.TagCount::getTagId, NoteTagIndex.TagCount::getCount)
+            .containsExactly(tuple(10L, 2L), tuple(20L, 2L), tuple(30L, 1L));
+        assertThat(index.count(null, 1)).extracting(NoteTagIndex.TagCount::getTagId).containsExactly(10L);
+        assertThat(index.count(RoaringBitmap.of(3, 4), 10))
+            .extracting(NoteTagIndex.TagCount::getTagId, NoteTagIndex.TagCount::getCount)
+            .containsExactly(tuple(20L, 1L), tuple(30L, 1L));
+
+        index.index(2L, List.of(30L));
+        assertThat(index.counts()).containsOnly(entry(10L, 1L), entry(20L, 2L), entry(30L, 2L));
+    }
+
+    @Test
+    void shouldRemoveNotesAndTags() {
+        index.remove(3L);
+        index.removeTag(10L);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.match(List.of(10L), List.of(), false).isEmpty()).isTrue();
+        assertThat(index.match(List.of(20L), List.of(), true).toArray(0, 10)).containsExactly(1);
+
+        // the removed tag is no longer carried, so re-adding it later starts from scratch
+        index.index(2L, List.of(10L));
+        assertThat(index.match(List.of(10L), List.of(), true).toArray(0, 10)).containsExactly(2);
+    }
+}
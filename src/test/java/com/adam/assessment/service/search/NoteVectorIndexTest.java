@@ -0,0 +1,151 @@
+package com.adam.assessment.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NoteVectorIndexTest {
+
+    private static final int DIMENSIONS = 16;
+
+    @TempDir
+    private Path directory;
+
+    private NoteVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteVectorIndex(DIMENSIONS, 8, 64, directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void shouldFindNearestVectors() {
+        Random random = new Random(42);
+        List<float[]> vectors = new ArrayList<>();
+        for (int id = 0; id < 5000; id++) {
+            float[] vector = randomVector(random);
+            vectors.add(vector);
+            index.add(id, vector);
+        }
+
+        int found = 0;
+        for (int query = 0; query < 50; query++) {
+            float[] vector = randomVector(random);
+            List<Long> expected = IntStream.range(0, vectors.size())
+                .boxed()
+                .sorted(Comparator.comparingDouble(id -> -dot(vector, vectors.get(id))))
+                .limit(10)
+                .map(Long::valueOf)
+                .toList();
+            List<NoteSimilarityIndex.Match> matches = index.nearest(vector, 10, 64);
+            assertThat(matches).hasSize(10);
+            assertThat(matches.get(0).getSimilarity()).isGreaterThanOrEqualTo(matches.get(9).getSimilarity());
+            found += (int) matches.stream().filter(match -> expected.contains(match.getNoteId())).count();
+        }
+        // recall of the 10 nearest vectors
+        assertThat(found / 500.0).isGreaterThan(0.9);
+    }
+
+    @Test
+    void shouldReplaceAndRemoveNotes() {
+        index.add(1L, unit(0));
+        index.add(2L, unit(1));
+        index.add(3L, unit(0, 1));
+
+        assertThat(index.related(1L, 10, 10)).extracting(NoteSimilarityIndex.Match::getNoteId).containsExactly(3L, 2L);
+
+        index.add(2L, unit(0));
+        index.remove(3L);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.related(1L, 10, 10)).singleElement().satisfies(match -> {
+            assertThat(match.getNoteId()).isEqualTo(2L);
+            assertThat(match.getSimilarity()).isEqualTo(1f);
+        });
+        assertThat(index.related(3L, 10, 10)).isEmpty();
+
+        index.add(1L, null);
+        assertThat(index.nearest(unit(0), 10, 10)).extracting(NoteSimilarityIndex.Match::getNoteId).containsExactly(2L);
+    }
+
+    @Test
+    void shouldDeleteTheFileOfTheVectors() throws Exception {
+        for (int id = 0; id < 100; id++) {
+            index.add(id, unit(id % DIMENSIONS));
+        }
+        List<Long> copied = new ArrayList<>();
+        index.forEach((noteId, vector) -> copied.add(noteId));
+        assertThat(copied).hasSize(100);
+
+        index.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldEmbedRareTermsCloser() {
+        NoteSearchIndex searchIndex = new NoteSearchIndex(2);
+        searchIndex.index(1L, "", "the kubernetes cluster of the team");
+        searchIndex.index(2L, "", "the helm chart of the kubernetes cluster");
+        searchIndex.index(3L, "", "the lunch of the team");
+        HashingNoteEmbedder embedder = new HashingNoteEmbedder(256, 2, () -> searchIndex);
+
+        float[] cluster = embedder.embed("Cluster", "the kubernetes cluster of the team");
+        float[] helm = embedder.embed(null, "the helm chart of the kubernetes cluster");
+        float[] lunch = embedder.embed(null, "the lunch of the team");
+
+        assertThat(dot(cluster, cluster)).isCloseTo(1f, org.assertj.core.data.Offset.offset(1e-5f));
+        assertThat(dot(cluster, helm)).isGreaterThan(dot(cluster, lunch));
+        assertThat(embedder.embed(null, "!")).isNull();
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return normalize(vector);
+    }
+
+    private static float[] unit(int... dimensions) {
+        float[] vector = new float[DIMENSIONS];
+        for (int dimension : dimensions) {
+            vector[dimension] = 1;
+        }
+        return normalize(vector);
+    }
+
+    private static float[] normalize(float[] vector) {
+        float norm = (float) Math.sqrt(dot(vector, vector));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] /= norm;
+        }
+        return vector;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,95 @@
+package com.adam.assessment.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class RoaringBitmapTest {
+
+    @Test
+    void shouldAddAndRemoveAcrossContainers() {
+        RoaringBitmap bitmap = RoaringBitmap.of(3, 1, 70_000, 1L << 40);
+
+        assertThat(bitmap.cardinality()).isEqualTo(4);
+        assertThat(bitmap.contains(70_000)).isTrue();
+        assertThat(bitmap.contains(2)).isFalse();
+        assertThat(bitmap.toArray(0, 10)).containsExactly(1, 3, 70_000, 1L << 40);
+
+        bitmap.remove(70_000);
+        bitmap.remove(5);
+        assertThat(bitmap.toArray(0, 10)).containsExactly(1, 3, 1L << 40);
+    }
+
+    @Test
+    void shouldSwitchBetweenArrayAndBitmapContainers() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long value = 0; value < 2 * RoaringBitmap.ARRAY_MAX_SIZE; value += 2) {
+            bitmap.add(value);
+        }
+        bitmap.add(1);
+        assertThat(bitmap.cardinality()).isEqualTo(RoaringBitmap.ARRAY_MAX_SIZE + 1);
+        assertThat(bitmap.toArray(0, 3)).containsExactly(0, 1, 2);
+
+        bitmap.remove(1);
+        bitmap.remove(0);
+        assertThat(bitmap.cardinality()).isEqualTo(RoaringBitmap.ARRAY_MAX_SIZE - 1);
+        assertThat(bitmap.contains(2)).isTrue();
+        assertThat(bitmap.toArray(0, 2)).containsExactly(2, 4);
+    }
+
+    @Test
+    void shouldPageAscendingAndDescending() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long value = 1; value <= 100_000; value++) {
+            bitmap.add(value);
+        }
+
+        assertThat(bitmap.toArray(70_000, 3)).containsExactly(70_001, 70_002, 70_003);
+        assertThat(bitmap.toArrayDescending(0, 2)).containsExactly(100_000, 99_999);
+        assertThat(bitmap.toArrayDescending(99_999, 5)).containsExactly(1);
+        assertThat(bitmap.toArray(100_000, 5)).isEmpty();
+    }
+
+    @Test
+    void shouldMatchSetOperations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Long> left = new TreeSet<>();
+            TreeSet<Long> right = new TreeSet<>();
+            // dense and sparse chunks alike
+            int bound = round % 2 == 0 ? 200_000 : 20_000_000;
+            for (int i = 0; i < 20_000; i++) {
+                left.add((long) random.nextInt(bound));
+                right.add((long) random.nextInt(bound));
+            }
+            RoaringBitmap leftBitmap = toBitmap(left);
+            RoaringBitmap rightBitmap = toBitmap(right);
+
+            TreeSet<Long> and = new TreeSet<>(left);
+            and.retainAll(right);
+            TreeSet<Long> or = new TreeSet<>(left);
+            or.addAll(right);
+            TreeSet<Long> andNot = new TreeSet<>(left);
+            andNot.removeAll(right);
+
+            assertThat(leftBitmap.and(rightBitmap).toArray(0, Integer.MAX_VALUE)).containsExactly(toArray(and));
+            assertThat(leftBitmap.or(rightBitmap).toArray(0, Integer.MAX_VALUE)).containsExactly(toArray(or));
+            assertThat(leftBitmap.andNot(rightBitmap).toArray(0, Integer.MAX_VALUE)).containsExactly(toArray(andNot));
+            assertThat(leftBitmap.cardinality()).isEqualTo(left.size());
+            assertThat(leftBitmap.andCardinality(rightBitmap)).isEqualTo(and.size());
+            assertThat(leftBitmap.or(rightBitmap).cardinality()).isEqualTo(or.size());
+        }
+    }
+
+    private static RoaringBitmap toBitmap(TreeSet<Long> values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        values.descendingSet().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static long[] toArray(TreeSet<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+}
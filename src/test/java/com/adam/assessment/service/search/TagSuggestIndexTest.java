@@ -0,0 +1,74 @@
+package com.adam.assessment.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TagSuggestIndexTest {
+
+    private static final List<TagSuggestIndex.Suggestion> TAGS = List.of(
+        new TagSuggestIndex.Suggestion(1L, "java", 5),
+        new TagSuggestIndex.Suggestion(2L, "JavaScript", 9),
+        new TagSuggestIndex.Suggestion(3L, "spring boot", 3),
+        new TagSuggestIndex.Suggestion(4L, "boot-camp", 7),
+        new TagSuggestIndex.Suggestion(5L, "kotlin", 0)
+    );
+
+    @Test
+    void shouldSuggestMostUsedTagsByPrefix() {
+        TagSuggestIndex index = TagSuggestIndex.build(TAGS, 10);
+
+        assertThat(index.suggest("jav", 10)).extracting(TagSuggestIndex.Suggestion::getName).containsExactly("JavaScript", "java");
+        assertThat(index.suggest("JAVA", 1)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(2L);
+        assertThat(index.suggest("x", 10)).isEmpty();
+        assertThat(index.suggest("", 2)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void shouldMatchWordStarts() {
+        TagSuggestIndex index = TagSuggestIndex.build(TAGS, 10);
+
+        assertThat(index.suggest("boot", 10)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(4L, 3L);
+        assertThat(index.suggest("camp", 10)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(4L);
+        assertThat(index.suggest("oot", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldPrecomputeTopsOfLargeRanges() {
+        List<TagSuggestIndex.Suggestion> tags = new ArrayList<>();
+        for (long id = 1; id <= 3 * TagSuggestIndex.SCAN_THRESHOLD; id++) {
+            tags.add(new TagSuggestIndex.Suggestion(id, "tag-" + id, id % 100));
+        }
+        TagSuggestIndex index = TagSuggestIndex.build(tags, 5);
+
+        // tags are ranked by usage, then by name
+        assertThat(index.suggest("tag", 3)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(199L, 299L, 399L);
+        assertThat(index.suggest("1", 2)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(199L, 198L);
+
+        // deleting more tags than were precomputed falls back to scanning the range
+        TagSuggestIndex patched = index;
+        for (long id : new long[] { 99, 199, 299, 399, 499, 599, 699 }) {
+            patched = patched.withDeleted(id);
+        }
+        assertThat(patched.suggest("tag", 3)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(198L, 298L, 398L);
+        assertThat(index.suggest("tag", 1)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(199L);
+    }
+
+    @Test
+    void shouldPatchSavedAndDeletedTags() {
+        TagSuggestIndex index = TagSuggestIndex.build(TAGS, 10).withSaved(5L, "java-kotlin").withSaved(6L, "jakarta").withDeleted(2L);
+
+        assertThat(index.suggest("ja", 10))
+            .extracting(TagSuggestIndex.Suggestion::getName)
+            .containsExactly("java", "jakarta", "java-kotlin");
+        assertThat(index.suggest("kotlin", 10)).extracting(TagSuggestIndex.Suggestion::getTagId).containsExactly(5L);
+
+        // a renamed tag keeps its usage
+        assertThat(index.withSaved(4L, "bootstrap").suggest("boots", 10))
+            .extracting(TagSuggestIndex.Suggestion::getUsage)
+            .containsExactly(7L);
+        assertThat(index.withSaved(2L, "JavaScript").suggest("javas", 10)).extracting(TagSuggestIndex.Suggestion::getUsage).containsExactly(9L);
+    }
+}
@@ -0,0 +1,155 @@
+package com.adam.assessment.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.adam.assessment.IntegrationTest;
+import com.adam.assessment.domain.Note;
+import com.adam.assessment.repository.AttachmentRepository;
+import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.service.dto.AttachmentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link AttachmentResource} REST controller.
+ * <p>
+ * Attachments are saved in their own transaction once their content is stored, so the tests are not transactional.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class AttachmentResourceIT {
+
+    private static final byte[] CONTENT = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    // SHA-256 of CONTENT
+    private static final String CONTENT_SHA256 = "9f9f5111f7b27a781f1f1ddde5ebc2dd2b796bfc7365c9c28b548e564176929f";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private MockMvc restAttachmentMockMvc;
+
+    private Note note;
+
+    @BeforeEach
+    void initTest() {
+        note = noteRepository.saveAndFlush(NoteResourceIT.createEntity());
+    }
+
+    @AfterEach
+    void cleanup() {
+        attachmentRepository.deleteAll(attachmentRepository.findAllByNoteIdOrderById(note.getId()));
+        noteRepository.deleteById(note.getId());
+    }
+
+    @Test
+    void uploadAndDownloadAttachment() throws Exception {
+        AttachmentDTO attachment = upload("notes.txt");
+        assertThat(attachment.getNoteId()).isEqualTo(note.getId());
+        assertThat(attachment.getSize()).isEqualTo(CONTENT.length);
+        assertThat(attachment.getSha256()).isEqualTo(CONTENT_SHA256);
+        String contentUrl = "/api/attachments/" + attachment.getId() + "/content";
+
+        restAttachmentMockMvc
+            .perform(get("/api/notes/{noteId}/attachments", note.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].fileName").value("notes.txt"));
+
+        restAttachmentMockMvc
+            .perform(get(contentUrl))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + CONTENT_SHA256 + "\""))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment")))
+            .andExpect(content().bytes(CONTENT));
+
+        restAttachmentMockMvc
+            .perform(get(contentUrl).header(HttpHeaders.IF_NONE_MATCH, "\"" + CONTENT_SHA256 + "\""))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void downloadAttachmentRanges() throws Exception {
+        String contentUrl = "/api/attachments/" + upload("notes.txt").getId() + "/content";
+
+        restAttachmentMockMvc
+            .perform(get(contentUrl).header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/16"))
+            .andExpect(content().string("2345"));
+
+        restAttachmentMockMvc
+            .perform(get(contentUrl).header(HttpHeaders.RANGE, "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 13-15/16"))
+            .andExpect(content().string("def"));
+
+        restAttachmentMockMvc
+            .perform(get(contentUrl).header(HttpHeaders.RANGE, "bytes=16-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */16"));
+
+        // a range of a content that has changed since is answered with the whole content
+        restAttachmentMockMvc
+            .perform(get(contentUrl).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"other\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void deleteAttachment() throws Exception {
+        AttachmentDTO attachment = upload("notes.txt");
+
+        restAttachmentMockMvc.perform(delete("/api/attachments/{id}", attachment.getId())).andExpect(status().isNoContent());
+
+        restAttachmentMockMvc.perform(get("/api/attachments/{id}", attachment.getId())).andExpect(status().isNotFound());
+        restAttachmentMockMvc.perform(delete("/api/attachments/{id}", attachment.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void uploadAttachmentToMissingNote() throws Exception {
+        restAttachmentMockMvc
+            .perform(multipart("/api/notes/{noteId}/attachments", Long.MAX_VALUE).file(new MockMultipartFile("file", "a.txt", "text/plain", CONTENT)))
+            .andExpect(status().isNotFound());
+
+        restAttachmentMockMvc
+            .perform(multipart("/api/notes/{noteId}/attachments", note.getId()).file(new MockMultipartFile("file", "a.txt", "text/plain", new byte[0])))
+            .andExpect(status().isBadRequest());
+    }
+
+    private AttachmentDTO upload(String fileName) throws Exception {
+        return om.readValue(
+            restAttachmentMockMvc
+                .perform(
+                    multipart("/api/notes/{noteId}/attachments", note.getId()).file(new MockMultipartFile("file", fileName, "text/plain", CONTENT))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            AttachmentDTO.class
+        );
+    }
+}
@@ -3,23 +3,39 @@ package com.adam.assessment.web.rest;
 import static com.adam.assessment.domain.NoteAsserts.*;
 import static com.adam.assessment.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.adam.assessment.IntegrationTest;
 import com.adam.assessment.domain.Note;
+import com.adam.assessment.domain.Tag;
 import com.adam.assessment.repository.NoteRepository;
+import com.adam.assessment.repository.NoteTombstoneRepository;
+import com.adam.assessment.service.NoteSearchService;
 import com.adam.assessment.service.NoteService;
+import com.adam.assessment.service.NoteSimilarityService;
+import com.adam.assessment.service.NoteTagIndexService;
+import com.adam.assessment.service.NoteVectorService;
+import com.adam.assessment.service.dto.NoteBulkOperationDTO;
 import com.adam.assessment.service.dto.NoteDTO;
+import com.adam.assessment.service.dto.NoteRetagDTO;
+import com.adam.assessment.service.dto.TagDTO;
 import com.adam.assessment.service.mapper.NoteMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,9 +47,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -69,6 +87,9 @@ class NoteResourceIT {
     @Autowired
     private NoteRepository noteRepository;
 
+    @Autowired
+    private NoteTombstoneRepository noteTombstoneRepository;
+
     @Mock
     private NoteRepository noteRepositoryMock;
 
@@ -78,6 +99,18 @@ class NoteResourceIT {
     @Mock
     private NoteService noteServiceMock;
 
+    @Autowired
+    private NoteSearchService noteSearchService;
+
+    @Autowired
+    private NoteTagIndexService noteTagIndexService;
+
+    @Autowired
+    private NoteSimilarityService noteSimilarityService;
+
+    @Autowired
+    private NoteVectorService noteVectorService;
+
     @Autowired
     private EntityManager em;
 
@@ -124,7 +157,7 @@ class NoteResourceIT {
     @AfterEach
     void cleanup() {
         if (insertedNote != null) {
-            noteRepository.delete(insertedNote);
+            noteRepository.deleteById(insertedNote.getId());
             insertedNote = null;
         }
     }
@@ -153,6 +186,107 @@ class NoteResourceIT {
         insertedNote = returnedNote;
     }
 
+    @Test
+    @Transactional
+    void createNoteOnDuplicate() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note.content("duplicated " + UUID.randomUUID()));
+        NoteDTO noteDTO = noteMapper.toDto(note);
+        noteDTO.setId(null);
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        restNoteMockMvc
+            .perform(
+                post(ENTITY_API_URL + "?onDuplicate=reject").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(noteDTO))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.duplicatecontent"));
+
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL + "?onDuplicate=link").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(noteDTO)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_LOCATION, "/api/notes/" + note.getId()))
+            .andExpect(jsonPath("$.id").value(note.getId().intValue()))
+            .andExpect(jsonPath("$.contentHash").value(note.getContentHash()));
+
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL + "?onDuplicate=merge").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(noteDTO)))
+            .andExpect(status().isBadRequest());
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+
+        noteDTO.setContent(noteDTO.getContent() + " changed");
+        restNoteMockMvc
+            .perform(
+                post(ENTITY_API_URL + "?onDuplicate=reject").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(noteDTO))
+            )
+            .andExpect(status().isCreated());
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void getDuplicateNotes() throws Exception {
+        // Initialize the database
+        String content = "duplicated " + UUID.randomUUID();
+        Note first = noteRepository.saveAndFlush(createEntity().content(content));
+        Note second = noteRepository.saveAndFlush(createEntity().content(content));
+        insertedNote = noteRepository.saveAndFlush(note.content(content + " not"));
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL + "/_duplicates?size=1000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.contentHash == '" + first.getContentHash() + "')].count").value(hasItem(2)))
+            .andExpect(
+                jsonPath("$.[?(@.contentHash == '" + first.getContentHash() + "')].noteIds[*]").value(
+                    contains(first.getId().intValue(), second.getId().intValue())
+                )
+            )
+            .andExpect(jsonPath("$.[*].contentHash").value(not(hasItem(note.getContentHash()))));
+    }
+
+    @Test
+    @Transactional
+    void createNoteWithTagNames() throws Exception {
+        Tag existingTag = TagResourceIT.createEntity();
+        em.persist(existingTag);
+        em.flush();
+
+        // the names are only read from requests, so they are added to the serialized note
+        ObjectNode noteJson = om.valueToTree(noteMapper.toDto(note));
+        noteJson.putArray("tagNames").add(existingTag.getName()).add("created tag");
+        var returnedNoteDTO = om.readValue(
+            restNoteMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(noteJson)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tagNames").doesNotExist())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            NoteDTO.class
+        );
+        insertedNote = noteMapper.toEntity(returnedNoteDTO);
+
+        Tag createdTag = em
+            .createQuery("select tag from Tag tag where tag.name = :name", Tag.class)
+            .setParameter("name", "created tag")
+            .getSingleResult();
+        assertThat(returnedNoteDTO.getTags()).extracting(TagDTO::getId).containsExactlyInAnyOrder(existingTag.getId(), createdTag.getId());
+
+        // a name too short for a tag is rejected
+        noteJson.putArray("tagNames").add("x");
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(noteJson)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importNotesWithAnUnsupportedFormat() throws Exception {
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL + "/_import?format=docx").contentType(MediaType.APPLICATION_OCTET_STREAM).content(new byte[] { 1 }))
+            .andExpect(status().isBadRequest());
+        restNoteMockMvc.perform(get(ENTITY_API_URL + "/_import/{id}", "unknown")).andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void createNoteWithExistingId() throws Exception {
@@ -241,6 +375,331 @@ class NoteResourceIT {
             .andExpect(jsonPath("$.lastModifiedAt").value(DEFAULT_LAST_MODIFIED_AT.toString()));
     }
 
+    @Test
+    @Transactional
+    void getNoteNotModified() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note);
+
+        String eTag = restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID, note.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID, note.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    @Transactional
+    void getRenderedNote() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note.content("# Heading\n\nSome *text* <b>raw</b>"));
+
+        String eTag = restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/rendered", note.getId()).accept(MediaType.TEXT_HTML))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+            .andExpect(content().string("<h1>Heading</h1>\n<p>Some <em>text</em> &lt;b&gt;raw&lt;/b&gt;</p>\n"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/rendered", note.getId()).accept(MediaType.TEXT_HTML).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/rendered", Long.MAX_VALUE).accept(MediaType.TEXT_HTML))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void putNoteWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note);
+
+        long version = note.getVersion();
+        NoteDTO noteDTO = noteMapper.toDto(note);
+        noteDTO.setTitle(UPDATED_TITLE);
+
+        restNoteMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, noteDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (version + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(noteDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        restNoteMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, noteDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(noteDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+    }
+
+    @Test
+    @Transactional
+    void searchNotes() throws Exception {
+        // Initialize the database and the search index
+        insertedNote = noteRepository.saveAndFlush(note);
+        noteSearchService.rebuild();
+
+        // Search the notes
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q=" + DEFAULT_TITLE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(note.getId().intValue())))
+            .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE)))
+            .andExpect(jsonPath("$.[*].content").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getSimilarNotes() throws Exception {
+        // Initialize the database and the similarity index
+        String content = "Plan of the " + UUID.randomUUID() + " release: freeze the branch on monday, run the migration, then deploy";
+        insertedNote = noteRepository.saveAndFlush(note.content(content));
+        Note copy = noteRepository.saveAndFlush(createEntity().content(content.toUpperCase().replace(",", " ,")));
+        noteSimilarityService.rebuild();
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/_similar?threshold=0.9", note.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(copy.getId().intValue())))
+            .andExpect(jsonPath("$.[0].score").value(1.0));
+
+        restNoteMockMvc.perform(get(ENTITY_API_URL_ID + "/_similar?threshold=2", note.getId())).andExpect(status().isBadRequest());
+        restNoteMockMvc.perform(get(ENTITY_API_URL_ID + "/_similar", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getRelatedNotes() throws Exception {
+        // Initialize the database and the indexes
+        String topic = "topic" + UUID.randomUUID().toString().replace("-", "");
+        insertedNote = noteRepository.saveAndFlush(note.content("The " + topic + " of the kubernetes cluster"));
+        Note related = noteRepository.saveAndFlush(createEntity().content("Upgrading the " + topic + " of the cluster"));
+        noteRepository.saveAndFlush(createEntity().content("The lunch of the team"));
+        noteSearchService.rebuild();
+        noteVectorService.rebuild();
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/_related?limit=1", note.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(related.getId().intValue())));
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?semantic=true&size=2&q=" + topic + " kubernetes"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(note.getId().intValue(), related.getId().intValue())));
+
+        restNoteMockMvc.perform(get(ENTITY_API_URL_ID + "/_related", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getAllNotesByTags() throws Exception {
+        // Initialize the database and the tag index
+        Tag tag = TagResourceIT.createEntity();
+        em.persist(tag);
+        note.addTag(tag);
+        insertedNote = noteRepository.saveAndFlush(note);
+        noteTagIndexService.rebuild();
+
+        // Get the notes carrying the tag, then those not carrying it
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL + "?tags={tags}&match=any&sort=id,desc", tag.getName()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(note.getId().intValue())))
+            .andExpect(jsonPath("$.[0].tags[0].id").value(tag.getId().intValue()));
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL + "?tags={tags}", "-" + tag.getName()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(note.getId().intValue()))));
+
+        restNoteMockMvc.perform(get(ENTITY_API_URL + "?tags={tags}&match=none", tag.getName())).andExpect(status().isBadRequest());
+        restNoteMockMvc.perform(get(ENTITY_API_URL + "?tags={tags}&sort=title", tag.getName())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void retagNotes() throws Exception {
+        // Initialize the database
+        Tag tag = TagResourceIT.createEntity();
+        Tag addedTag = TagResourceIT.createUpdatedEntity();
+        em.persist(tag);
+        em.persist(addedTag);
+        note.addTag(tag);
+        insertedNote = noteRepository.saveAndFlush(note);
+        long version = note.getVersion();
+
+        // Move the notes carrying the tag to the other tag
+        NoteRetagDTO retag = new NoteRetagDTO();
+        retag.setTags(tag.getName());
+        retag.getAdd().add(addedTag.getName());
+        retag.getRemove().add(tag.getName());
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL + "/_retag").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(retag)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.notes").value(1))
+            .andExpect(jsonPath("$.added").value(1))
+            .andExpect(jsonPath("$.removed").value(1));
+
+        em.clear();
+        Note retagged = noteRepository.findOneWithEagerRelationships(note.getId()).orElseThrow();
+        assertThat(retagged.getTags()).extracting(Tag::getId).containsExactly(addedTag.getId());
+        assertThat(retagged.getVersion()).isEqualTo(version + 1);
+
+        // Nothing is left to change
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL + "/_retag").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(retag)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.notes").value(0));
+
+        retag.getAdd().add("unknown tag");
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL + "/_retag").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(retag)))
+            .andExpect(status().isBadRequest());
+        retag.setTags(null);
+        restNoteMockMvc
+            .perform(post(ENTITY_API_URL + "/_retag").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(retag)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllNoteSummaries() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note);
+
+        // Get all the note summaries
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL + "?view=summary&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(note.getId().intValue())))
+            .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE)))
+            .andExpect(jsonPath("$.[*].snippet").value(hasItem(DEFAULT_CONTENT)))
+            .andExpect(jsonPath("$.[*].content").doesNotExist());
+    }
+
+    @Test
+    void getNoteChanges() throws Exception {
+        // not transactional, as the feed only returns committed changes
+        NoteDTO noteDTO = om.readValue(
+            restNoteMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(noteMapper.toDto(note))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            NoteDTO.class
+        );
+
+        String next = om
+            .readTree(
+                restNoteMockMvc
+                    .perform(get(ENTITY_API_URL + "/_changes?limit=1000"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.notes.[*].id").value(hasItem(noteDTO.getId().intValue())))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString()
+            )
+            .get("next")
+            .asText();
+
+        restNoteMockMvc.perform(delete(ENTITY_API_URL_ID, noteDTO.getId())).andExpect(status().isNoContent());
+
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL + "/_changes?since={since}", next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.notes").isEmpty())
+            .andExpect(jsonPath("$.deletedIds").value(hasItem(noteDTO.getId().intValue())))
+            .andExpect(jsonPath("$.hasMore").value(false));
+
+        restNoteMockMvc.perform(get(ENTITY_API_URL + "/_changes?since=invalid")).andExpect(status().isBadRequest());
+
+        noteTombstoneRepository.deleteById(noteDTO.getId());
+    }
+
+    @Test
+    void exportNotes() throws Exception {
+        // Initialize the database, outside of a transaction as the export is streamed from another thread
+        insertedNote = noteRepository.saveAndFlush(note);
+
+        // Export the notes
+        MvcResult result = restNoteMockMvc.perform(get(ENTITY_API_URL + "/_export")).andExpect(request().asyncStarted()).andReturn();
+        restNoteMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("{\"id\":" + note.getId() + ",\"title\":\"" + DEFAULT_TITLE + "\"")));
+    }
+
+    @Test
+    void exportNotesWithUnsupportedFormat() throws Exception {
+        restNoteMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void bulkNotes() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note);
+
+        long databaseSizeBeforeBulk = getRepositoryCount();
+
+        NoteBulkOperationDTO create = new NoteBulkOperationDTO();
+        create.setAction(NoteBulkOperationDTO.Action.CREATE);
+        create.setNote(noteMapper.toDto(createEntity()));
+
+        NoteDTO updatedNoteDTO = noteMapper.toDto(createUpdatedEntity());
+        NoteBulkOperationDTO update = new NoteBulkOperationDTO();
+        update.setAction(NoteBulkOperationDTO.Action.UPDATE);
+        update.setId(note.getId());
+        update.setNote(updatedNoteDTO);
+
+        NoteBulkOperationDTO deleteMissing = new NoteBulkOperationDTO();
+        deleteMissing.setAction(NoteBulkOperationDTO.Action.DELETE);
+        deleteMissing.setId(longCount.incrementAndGet());
+
+        NoteBulkOperationDTO invalid = new NoteBulkOperationDTO();
+        invalid.setAction(NoteBulkOperationDTO.Action.CREATE);
+        invalid.setNote(new NoteDTO());
+
+        restNoteMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(create, update, deleteMissing, invalid)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(201))
+            .andExpect(jsonPath("$.[1].status").value(200))
+            .andExpect(jsonPath("$.[1].id").value(note.getId().intValue()))
+            .andExpect(jsonPath("$.[2].status").value(404))
+            .andExpect(jsonPath("$.[3].status").value(400))
+            .andExpect(jsonPath("$.[3].error").isNotEmpty());
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeBulk);
+        assertThat(getPersistedNote(note).getTitle()).isEqualTo(UPDATED_TITLE);
+    }
+
     @Test
     @Transactional
     void getNonExistingNote() throws Exception {
@@ -448,6 +907,125 @@ class NoteResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void editNoteContentWithTextPatch() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note);
+        long version = note.getVersion();
+
+        restNoteMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, note.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(NoteResource.TEXT_PATCH_JSON_VALUE)
+                    .content(
+                        "[{\"offset\":0,\"length\":2,\"replacement\":\"xy\"},{\"offset\":10,\"length\":0,\"replacement\":\" \uD83D\uDE80\"}]"
+                    )
+            )
+            .andExpect(status().isNoContent())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+        assertThat(getPersistedNote(note).getContent()).isEqualTo("xyAAAAAAAA \uD83D\uDE80");
+
+        // the edits are rejected as a whole
+        restNoteMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, note.getId())
+                    .contentType(NoteResource.TEXT_PATCH_JSON_VALUE)
+                    .content("[{\"offset\":0,\"length\":1},{\"offset\":12,\"length\":1}]")
+            )
+            .andExpect(status().isBadRequest());
+        restNoteMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, note.getId())
+                    .contentType(NoteResource.TEXT_PATCH_JSON_VALUE)
+                    .content("[{\"offset\":12,\"length\":0,\"replacement\":\"x\"}]")
+            )
+            .andExpect(status().isBadRequest());
+        restNoteMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, note.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(NoteResource.TEXT_PATCH_JSON_VALUE)
+                    .content("[{\"offset\":0,\"length\":1}]")
+            )
+            .andExpect(status().isPreconditionFailed());
+        restNoteMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, longCount.incrementAndGet())
+                    .contentType(NoteResource.TEXT_PATCH_JSON_VALUE)
+                    .content("[{\"offset\":0,\"length\":1}]")
+            )
+            .andExpect(status().isNotFound());
+        assertThat(getPersistedNote(note).getContent()).isEqualTo("xyAAAAAAAA \uD83D\uDE80");
+    }
+
+    @Test
+    @Transactional
+    void appendNoteContent() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note);
+        long version = note.getVersion();
+
+        restNoteMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/_append", note.getId())
+                    .contentType("text/plain;charset=UTF-8")
+                    .content("\n- décision".getBytes(StandardCharsets.UTF_8))
+            )
+            .andExpect(status().isNoContent())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+
+        assertThat(getPersistedNote(note).getContent()).isEqualTo(DEFAULT_CONTENT + "\n- décision");
+
+        restNoteMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/_append", note.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .content("stale")
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @Transactional
+    void autosaveNote() throws Exception {
+        // Initialize the database
+        insertedNote = noteRepository.saveAndFlush(note);
+        long version = note.getVersion();
+
+        NoteDTO titleAutosave = new NoteDTO();
+        titleAutosave.setTitle(UPDATED_TITLE);
+        NoteDTO contentAutosave = new NoteDTO();
+        contentAutosave.setContent(UPDATED_CONTENT);
+        for (NoteDTO autosave : List.of(titleAutosave, contentAutosave, contentAutosave)) {
+            restNoteMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID + "/_autosave", note.getId())
+                        .contentType("application/merge-patch+json")
+                        .content(om.writeValueAsBytes(autosave))
+                )
+                .andExpect(status().isAccepted());
+        }
+
+        // reading the note back writes the coalesced autosaves at once
+        restNoteMockMvc
+            .perform(get(ENTITY_API_URL_ID, note.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""))
+            .andExpect(jsonPath("$.title").value(UPDATED_TITLE))
+            .andExpect(jsonPath("$.content").value(UPDATED_CONTENT));
+
+        restNoteMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID + "/_autosave", Long.MAX_VALUE)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(contentAutosave))
+            )
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void deleteNote() throws Exception {
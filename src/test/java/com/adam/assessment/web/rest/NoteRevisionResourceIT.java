@@ -0,0 +1,108 @@
+package com.adam.assessment.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.adam.assessment.IntegrationTest;
+import com.adam.assessment.domain.NoteRevision;
+import com.adam.assessment.repository.NoteRevisionRepository;
+import com.adam.assessment.service.dto.NoteDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link NoteRevisionResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class NoteRevisionResourceIT {
+
+    private static final String CONTENT = "A journal line that keeps getting longer.\n".repeat(50);
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private NoteRevisionRepository noteRevisionRepository;
+
+    @Autowired
+    private MockMvc restNoteRevisionMockMvc;
+
+    @Test
+    @Transactional
+    void getNoteRevisions() throws Exception {
+        NoteDTO note = new NoteDTO();
+        note.setTitle("Journal");
+        note.setContent(CONTENT);
+        note = om.readValue(
+            restNoteRevisionMockMvc
+                .perform(post("/api/notes").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(note)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            NoteDTO.class
+        );
+        String content = CONTENT;
+        for (int i = 1; i <= 24; i++) {
+            content = content + "Entry " + i + "\n";
+            patchContent(note.getId(), content);
+        }
+        // saving the same content again records no revision
+        patchContent(note.getId(), content);
+
+        restNoteRevisionMockMvc
+            .perform(get("/api/notes/{noteId}/revisions?size=5", note.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "25"))
+            .andExpect(jsonPath("$", hasSize(5)))
+            .andExpect(jsonPath("$[0].revision").value(25))
+            .andExpect(jsonPath("$[0].contentLength").value(content.length()))
+            .andExpect(jsonPath("$[0].content").doesNotExist());
+
+        restNoteRevisionMockMvc
+            .perform(get("/api/notes/{noteId}/revisions/{revision}", note.getId(), 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Journal"))
+            .andExpect(jsonPath("$.content").value(CONTENT));
+        restNoteRevisionMockMvc
+            .perform(get("/api/notes/{noteId}/revisions/{revision}", note.getId(), 25))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content").value(content));
+        restNoteRevisionMockMvc
+            .perform(get("/api/notes/{noteId}/revisions/_at?time={time}", note.getId(), "2000-01-01T00:00:00Z"))
+            .andExpect(status().isNotFound());
+        restNoteRevisionMockMvc
+            .perform(get("/api/notes/{noteId}/revisions/_at?time={time}", note.getId(), "2100-01-01T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.revision").value(25))
+            .andExpect(jsonPath("$.content").value(content));
+
+        // the appended entries are stored as deltas, between snapshots taken every 20 revisions
+        List<NoteRevision> revisions = noteRevisionRepository.findAllByNoteIdAndRevisionBetweenOrderByRevision(note.getId(), 1, 25);
+        assertThat(revisions).filteredOn(NoteRevision::isSnapshot).extracting(NoteRevision::getRevision).containsExactly(1, 21);
+        assertThat(revisions.get(24).getData().length).isLessThan(32);
+
+        restNoteRevisionMockMvc.perform(get("/api/notes/{noteId}/revisions", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        restNoteRevisionMockMvc.perform(get("/api/notes/{noteId}/revisions/{revision}", note.getId(), 26)).andExpect(status().isNotFound());
+    }
+
+    private void patchContent(Long id, String content) throws Exception {
+        NoteDTO patch = new NoteDTO();
+        patch.setId(id);
+        patch.setContent(content);
+        restNoteRevisionMockMvc
+            .perform(patch("/api/notes/{id}", id).contentType("application/merge-patch+json").content(om.writeValueAsBytes(patch)))
+            .andExpect(status().isOk());
+    }
+}
@@ -3,13 +3,18 @@ package com.adam.assessment.web.rest;
 import static com.adam.assessment.domain.TagAsserts.*;
 import static com.adam.assessment.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.adam.assessment.IntegrationTest;
+import com.adam.assessment.domain.Note;
 import com.adam.assessment.domain.Tag;
 import com.adam.assessment.repository.TagRepository;
+import com.adam.assessment.service.NoteTagIndexService;
+import com.adam.assessment.service.TagSuggestService;
 import com.adam.assessment.service.dto.TagDTO;
 import com.adam.assessment.service.mapper.TagMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -52,6 +57,12 @@ class TagResourceIT {
     @Autowired
     private TagMapper tagMapper;
 
+    @Autowired
+    private NoteTagIndexService noteTagIndexService;
+
+    @Autowired
+    private TagSuggestService tagSuggestService;
+
     @Autowired
     private EntityManager em;
 
@@ -90,7 +101,7 @@ class TagResourceIT {
     @AfterEach
     void cleanup() {
         if (insertedTag != null) {
-            tagRepository.delete(insertedTag);
+            tagRepository.deleteById(insertedTag.getId());
             insertedTag = null;
         }
     }
@@ -154,6 +165,127 @@ class TagResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeTest);
     }
 
+    @Test
+    @Transactional
+    void getTagFacets() throws Exception {
+        // Initialize the database and the tag index
+        insertedTag = tagRepository.saveAndFlush(tag);
+        Note note = NoteResourceIT.createEntity().addTag(tag);
+        em.persist(note);
+        em.flush();
+        noteTagIndexService.rebuild();
+
+        // Count the notes of each tag, then of the notes not carrying the tag
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL + "/_facets?limit=1000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.id == " + tag.getId() + ")].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$[?(@.id == " + tag.getId() + ")].count").value(1));
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL + "/_facets?tags={tags}", "-" + DEFAULT_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.id == " + tag.getId() + ")]").isEmpty());
+        restTagMockMvc.perform(get(ENTITY_API_URL + "/_facets?tags=a&match=none")).andExpect(status().isBadRequest());
+
+        em.remove(note);
+    }
+
+    @Test
+    @Transactional
+    void suggestTags() throws Exception {
+        // Initialize the database and the suggest index
+        insertedTag = tagRepository.saveAndFlush(tag);
+        Note note = NoteResourceIT.createEntity().addTag(tag);
+        em.persist(note);
+        em.flush();
+        noteTagIndexService.rebuild();
+        tagSuggestService.rebuild();
+
+        // Suggest the tag by a prefix of its name, ignoring case
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest?prefix={prefix}&limit=50", DEFAULT_NAME.substring(0, 3).toUpperCase()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.id == " + tag.getId() + ")].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$[?(@.id == " + tag.getId() + ")].count").value(1));
+
+        em.remove(note);
+    }
+
+    @Test
+    @Transactional
+    void tagAndUntagNotes() throws Exception {
+        // Initialize the database
+        insertedTag = tagRepository.saveAndFlush(tag);
+        Note note = NoteResourceIT.createEntity();
+        em.persist(note);
+        em.flush();
+
+        // Tag the note, then list the notes of the tag
+        restTagMockMvc.perform(put(ENTITY_API_URL_ID + "/notes/{noteId}", tag.getId(), note.getId())).andExpect(status().isNoContent());
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/notes?sort=id,desc", tag.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(note.getId().intValue())))
+            .andExpect(jsonPath("$.[0].tagIds").value(hasItem(tag.getId().intValue())));
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/notes?after=&sort=title,asc", tag.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(note.getId().intValue())));
+
+        // Untag the note
+        restTagMockMvc.perform(delete(ENTITY_API_URL_ID + "/notes/{noteId}", tag.getId(), note.getId())).andExpect(status().isNoContent());
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/notes", tag.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+
+        restTagMockMvc.perform(put(ENTITY_API_URL_ID + "/notes/{noteId}", Long.MAX_VALUE, note.getId())).andExpect(status().isNotFound());
+        restTagMockMvc.perform(put(ENTITY_API_URL_ID + "/notes/{noteId}", tag.getId(), Long.MAX_VALUE)).andExpect(status().isNotFound());
+        restTagMockMvc.perform(get(ENTITY_API_URL_ID + "/notes", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        em.remove(note);
+    }
+
+    @Test
+    @Transactional
+    void mergeTag() throws Exception {
+        // Initialize the database
+        insertedTag = tagRepository.saveAndFlush(tag);
+        Tag target = tagRepository.saveAndFlush(createUpdatedEntity());
+        Note note = NoteResourceIT.createEntity().addTag(tag);
+        Note noteWithBoth = NoteResourceIT.createEntity().addTag(tag).addTag(target);
+        em.persist(note);
+        em.persist(noteWithBoth);
+        em.flush();
+        // the notes are merged by statements, as they would be in a request that did not load them
+        em.clear();
+
+        // Merge the tag into the target
+        restTagMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/_merge-into/{targetId}", tag.getId(), target.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(target.getId().intValue()))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+
+        em.flush();
+        em.clear();
+        assertThat(tagRepository.existsById(tag.getId())).isFalse();
+        insertedTag = null;
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/notes", target.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].tagIds[*]").value(everyItem(is(target.getId().intValue()))));
+
+        restTagMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/_merge-into/{targetId}", target.getId(), target.getId()))
+            .andExpect(status().isBadRequest());
+        restTagMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/_merge-into/{targetId}", tag.getId(), target.getId()))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void getAllTags() throws Exception {
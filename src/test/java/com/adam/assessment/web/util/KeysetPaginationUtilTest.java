@@ -0,0 +1,77 @@
+package com.adam.assessment.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.adam.assessment.web.rest.errors.BadRequestAlertException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class KeysetPaginationUtilTest {
+
+    private static final Map<String, Class<?>> PROPERTIES = Map.of("id", Long.class, "title", String.class);
+
+    @Test
+    void shouldAppendIdToSort() {
+        Sort sort = KeysetPaginationUtil.keysetSort(Sort.by(Sort.Direction.DESC, "title"), PROPERTIES, "note");
+
+        assertThat(sort).containsExactly(Sort.Order.desc("title"), Sort.Order.desc("id"));
+        assertThat(KeysetPaginationUtil.keysetSort(Sort.unsorted(), PROPERTIES, "note")).containsExactly(Sort.Order.asc("id"));
+    }
+
+    @Test
+    void shouldRejectUnsupportedSort() {
+        assertThatThrownBy(() -> KeysetPaginationUtil.keysetSort(Sort.by("content"), PROPERTIES, "note")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+
+    @Test
+    void shouldRoundTripCursor() {
+        Sort sort = KeysetPaginationUtil.keysetSort(Sort.by("title"), PROPERTIES, "note");
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("title", "Some title");
+        keys.put("id", 42L);
+
+        String cursor = KeysetPaginationUtil.encodeCursor(ScrollPosition.forward(keys));
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(cursor, sort, PROPERTIES, "note");
+
+        assertThat(position.getKeys()).isEqualTo(keys);
+        assertThat(KeysetPaginationUtil.decodeCursor("", sort, PROPERTIES, "note").isInitial()).isTrue();
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        Sort sort = KeysetPaginationUtil.keysetSort(Sort.by("title"), PROPERTIES, "note");
+        String idOnly = KeysetPaginationUtil.encodeCursor(ScrollPosition.forward(Map.of("id", 1L)));
+
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("not a cursor", sort, PROPERTIES, "note")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor(idOnly, sort, PROPERTIES, "note")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+
+    @Test
+    void shouldGenerateNextLinkOnlyWhenThereIsANextWindow() {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString("http://localhost/api/notes?after=&size=2");
+        Window<String> window = Window.from(List.of("a", "b"), index -> ScrollPosition.forward(Map.of("id", (long) index)), true);
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(uri, window);
+
+        String expectedCursor = KeysetPaginationUtil.encodeCursor(ScrollPosition.forward(Map.of("id", 1L)));
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo(
+            "<http://localhost/api/notes?size=2&after=" + expectedCursor + ">; rel=\"next\""
+        );
+        assertThat(KeysetPaginationUtil.generateKeysetHttpHeaders(uri, Window.from(List.of("a"), index -> null, false))).isEmpty();
+    }
+}